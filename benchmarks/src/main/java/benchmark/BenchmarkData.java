@@ -0,0 +1,96 @@
+package benchmark;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import model.entity.Price;
+import model.entity.Request;
+import model.entity.Route;
+import model.entity.Station;
+import model.entity.Train;
+import model.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a reproducible railway of the requested size into an empty in-memory DB.
+ * Routes connect random pairs of stations, trains run on random routes,
+ * requests are booked by random users on random trains.
+ */
+public class BenchmarkData {
+    private static final long SEED = 42;
+    private static final int USERS = 100;
+    private static final long SEATS = 1_000_000_000L;
+
+    private final DAOFactory factory = new MemoryFactory(new MemoryDataBase());
+    private final List<Station> stations = new ArrayList<>();
+    private final List<Route> routes = new ArrayList<>();
+    private final List<Train> trains = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+
+    public BenchmarkData(int stationCount, int routeCount, int trainCount, int requestCount) {
+        Random random = new Random(SEED);
+
+        Price price = new Price(1.5, 2.5, 1.0);
+        price.setId("price-0");
+        factory.createPriceDAO().create(price);
+
+        for (int i = 0; i < stationCount; i++) {
+            stations.add(factory.createStationDAO().create(new Station("station-" + i, "Station " + i)));
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            users.add(factory.createUserDAO().create(new User("user-" + i, "Name" + i, "Surname" + i,
+                    "+380000000" + i, "user" + i + "@railway.ua", "password", false)));
+        }
+
+        for (int i = 0; i < routeCount; i++) {
+            Station from = stations.get(random.nextInt(stationCount));
+            Station to = stations.get(random.nextInt(stationCount));
+            int day = 1 + random.nextInt(28);
+            int hour = random.nextInt(24);
+            routes.add(factory.createRouteDAO().create(new Route("route-" + i, price.getId(),
+                    from.getId(), to.getId(),
+                    LocalDateTime.of(2018, 6, day, hour, random.nextInt(60)),
+                    LocalDateTime.of(2018, 6, day + 1, hour, random.nextInt(60)),
+                    100.0 + random.nextInt(1000))));
+        }
+
+        for (int i = 0; i < trainCount; i++) {
+            Route route = routes.get(random.nextInt(routeCount));
+            trains.add(factory.createTrainDAO().create(new Train("train-" + i, route.getId(), SEATS, SEATS, SEATS)));
+        }
+
+        TypePlace[] types = TypePlace.values();
+        for (int i = 0; i < requestCount; i++) {
+            Train train = trains.get(random.nextInt(trainCount));
+            User user = users.get(random.nextInt(USERS));
+            factory.createRequestDAO().create(new Request("request-" + i, user.getId(), train.getId(),
+                    types[random.nextInt(types.length)], 100.0, null, null, null, null, null, null));
+        }
+    }
+
+    public DAOFactory getFactory() {
+        return factory;
+    }
+
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public List<Train> getTrains() {
+        return trains;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+}
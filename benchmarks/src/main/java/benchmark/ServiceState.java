@@ -0,0 +1,51 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.AggregateService;
+import service.FareService;
+import service.InventoryService;
+import service.RequestService;
+import service.RouteService;
+import service.SearchService;
+import service.SeatService;
+import service.StationService;
+import service.TrainService;
+
+/**
+ * Data set shared by service benchmarks, sizes are changed from the command line:
+ * java -jar benchmarks.jar -p stations=500 -p routes=10000
+ */
+@State(Scope.Benchmark)
+public class ServiceState {
+    @Param({"50"})
+    public int stations;
+
+    @Param({"500"})
+    public int routes;
+
+    @Param({"1000"})
+    public int trains;
+
+    @Param({"2000"})
+    public int requests;
+
+    public BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new BenchmarkData(stations, routes, trains, requests);
+        TrainService.getInstance().setFactory(data.getFactory());
+        RouteService.getInstance().setFactory(data.getFactory());
+        FareService.getInstance().setFactory(data.getFactory());
+        RequestService.getInstance().setFactory(data.getFactory());
+        StationService.getInstance().setFactory(data.getFactory());
+        SeatService.getInstance().setFactory(data.getFactory());
+        InventoryService.getInstance().setFactory(data.getFactory());
+        AggregateService.getInstance().setFactory(data.getFactory());
+        SearchService.getInstance().setFactory(data.getFactory());
+    }
+}
@@ -0,0 +1,42 @@
+package dao.mysql.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryDAOUtilBenchmark {
+    private static final String TABLE_NAME = "route";
+
+    @Benchmark
+    public String createFindAllQuery() {
+        return QueryDAOUtil.createFindAllQuery(TABLE_NAME);
+    }
+
+    @Benchmark
+    public String createFindByParameterQuery() {
+        return QueryDAOUtil.createFindByParameterQuery(TABLE_NAME, "from_id", "to_id");
+    }
+
+    @Benchmark
+    public String createInsertQuery() {
+        return QueryDAOUtil.createInsertQuery(TABLE_NAME,
+                "id", "price_id", "from_id", "to_id", "from_time", "to_time", "distance");
+    }
+
+    @Benchmark
+    public String createUpdateQuery() {
+        return QueryDAOUtil.createUpdateQuery(TABLE_NAME, "id",
+                "price_id", "from_id", "to_id", "from_time", "to_time", "distance");
+    }
+}
@@ -0,0 +1,75 @@
+package service;
+
+import benchmark.ServiceState;
+import dto.Ticket;
+import exception.InvalidDataBaseOperation;
+import model.entity.Train;
+import model.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestServiceBenchmark {
+    private static final String[] TYPES = {"B", "C", "L"};
+
+    /**
+     * Tickets booked by one reserveTickets() call
+     */
+    @Param({"4"})
+    public int tickets;
+
+    private int next;
+
+    @Benchmark
+    public List<Ticket> findAllTickets(ServiceState state) {
+        return RequestService.getInstance().findAllTickets();
+    }
+
+    @Benchmark
+    public List<Ticket> reserveTickets(ServiceState state) throws InvalidDataBaseOperation {
+        List<Train> trains = state.data.getTrains();
+        List<User> users = state.data.getUsers();
+
+        List<Ticket> result = new ArrayList<>(tickets);
+        for (int i = 0; i < tickets; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTrainId(trains.get(next % trains.size()).getId());
+            ticket.setUserId(users.get(next % users.size()).getId());
+            ticket.setTypePlace(TYPES[next % TYPES.length]);
+            ticket.setPrice(100.0);
+            result.add(ticket);
+            next++;
+        }
+
+        RequestService.getInstance().reserveTickets(result);
+        return result;
+    }
+
+    /**
+     * reserveTickets() adds REQUESTS, restore the configured amount for the next iteration
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown(ServiceState state) {
+        state.setUp();
+    }
+}
@@ -0,0 +1,34 @@
+package service;
+
+import benchmark.ServiceState;
+import model.entity.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteServiceBenchmark {
+    /**
+     * Middle of the generated schedule, about half of the routes pass the filter
+     */
+    private static final Date FROM_DATE = new GregorianCalendar(2018, Calendar.JUNE, 15).getTime();
+
+    @Benchmark
+    public List<Route> findRoutesFromTime(ServiceState state) {
+        return RouteService.getInstance().findRoutesFromTime(state.data.getRoutes(), FROM_DATE);
+    }
+}
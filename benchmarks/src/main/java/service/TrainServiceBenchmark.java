@@ -0,0 +1,43 @@
+package service;
+
+import benchmark.ServiceState;
+import dto.TrainRoute;
+import model.entity.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrainServiceBenchmark {
+    private static final Date FROM_DATE = new Date(0);
+
+    private int next;
+
+    @Benchmark
+    public List<TrainRoute> findTrainsAndRoutes(ServiceState state) {
+        List<Route> routes = state.data.getRoutes();
+        Route route = routes.get(next++ % routes.size());
+        return TrainService.getInstance().findTrainsAndRoutes(route.getFromId(), route.getToId(), FROM_DATE);
+    }
+
+    @Benchmark
+    public String formatDate(ServiceState state) {
+        List<Route> routes = state.data.getRoutes();
+        return TrainService.getInstance().formatDate(routes.get(next++ % routes.size()).getFromTime());
+    }
+}
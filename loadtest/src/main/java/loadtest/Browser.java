@@ -0,0 +1,139 @@
+package loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal HTTP client of one virtual user, keeps the JSESSIONID cookie between requests
+ */
+class Browser {
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    private final String baseUrl;
+    private final int timeoutMillis;
+    private String sessionId;
+
+    Browser(String baseUrl, int timeoutMillis) {
+        this.baseUrl = baseUrl;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Drop the session, the next request starts a new one like a fresh browser
+     */
+    void reset() {
+        sessionId = null;
+    }
+
+    Page get(String command) throws IOException {
+        HttpURLConnection connection = open(baseUrl + "?command=" + encode(command));
+        return read(connection);
+    }
+
+    /**
+     * @param parameters name, value, name, value ...
+     */
+    Page post(String command, String... parameters) throws IOException {
+        StringBuilder form = new StringBuilder("command=").append(encode(command));
+        for (int i = 0; i + 1 < parameters.length; i += 2) {
+            form.append('&').append(encode(parameters[i])).append('=').append(encode(parameters[i + 1]));
+        }
+        byte[] body = form.toString().getBytes(StandardCharsets.UTF_8);
+
+        HttpURLConnection connection = open(baseUrl);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", FORM_CONTENT_TYPE);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        return read(connection);
+    }
+
+    private HttpURLConnection open(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setInstanceFollowRedirects(false);
+        connection.setUseCaches(false);
+        if (sessionId != null) {
+            connection.setRequestProperty("Cookie", SESSION_COOKIE + "=" + sessionId);
+        }
+        return connection;
+    }
+
+    private Page read(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        rememberSession(connection.getHeaderFields());
+
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in == null) {
+            return new Page(status, "");
+        }
+
+        // read to the end so the keep-alive connection goes back to the pool
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new Page(status, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void rememberSession(Map<String, List<String>> headers) {
+        List<String> cookies = headers.get("Set-Cookie");
+        if (cookies == null)
+            return;
+
+        for (String cookie : cookies) {
+            if (cookie.startsWith(SESSION_COOKIE + "=")) {
+                int end = cookie.indexOf(';');
+                sessionId = cookie.substring(SESSION_COOKIE.length() + 1, end < 0 ? cookie.length() : end);
+            }
+        }
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Page {
+        private final int status;
+        private final String body;
+
+        Page(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getBody() {
+            return body;
+        }
+
+        boolean contains(String marker) {
+            return body.contains(marker);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package loadtest;
+
+import metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client side view of one command: latency as seen over HTTP, requests and failed requests
+ */
+class CommandStats {
+    private final String command;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    CommandStats(String command) {
+        this.command = command;
+    }
+
+    void record(long nanos, boolean failed) {
+        latency.recordNanos(nanos);
+        requests.increment();
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    String getCommand() {
+        return command;
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    LatencyHistogram.Snapshot getLatency() {
+        return latency.snapshot();
+    }
+}
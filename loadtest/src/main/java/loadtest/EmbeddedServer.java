@@ -0,0 +1,60 @@
+package loadtest;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Tomcat started in this JVM with the application war deployed at /RailwaySystem
+ */
+public class EmbeddedServer {
+    static final String CONTEXT_PATH = "/RailwaySystem";
+
+    private static final String PROFILE_PROPERTY = "config.profile.database";
+
+    private final Tomcat tomcat = new Tomcat();
+
+    public EmbeddedServer(LoadOptions options) throws IOException {
+        File war = new File(options.getWar());
+        if (!war.isFile()) {
+            throw new IllegalStateException("War not found: " + war.getAbsolutePath()
+                    + ", run mvn install -DskipTests first or pass -Dloadtest.war");
+        }
+
+        // read by util.Configuration of the webapp, a value given on the command line wins
+        if (System.getProperty(PROFILE_PROPERTY) == null) {
+            System.setProperty(PROFILE_PROPERTY, options.getProfile());
+        }
+
+        File baseDir = Files.createTempDirectory("loadtest-tomcat").toFile();
+        baseDir.deleteOnExit();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+        tomcat.setPort(options.getPort());
+        tomcat.getHost().setAppBase(baseDir.getAbsolutePath());
+        tomcat.getConnector().setAttribute("maxThreads", Math.max(200, options.getUsers()));
+        Context context = tomcat.addWebapp(CONTEXT_PATH, war.getAbsolutePath());
+
+        // sessions of virtual users are not worth saving on shutdown (and hold non serializable tickets)
+        StandardManager manager = new StandardManager();
+        manager.setPathname(null);
+        context.setManager(manager);
+    }
+
+    public void start() throws LifecycleException {
+        tomcat.start();
+    }
+
+    public void stop() {
+        try {
+            tomcat.stop();
+            tomcat.destroy();
+        } catch (LifecycleException e) {
+            System.err.println("Tomcat did not stop cleanly: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of one load test run, every value is read from a system property (-Dloadtest.users=50 ...)
+ */
+public class LoadOptions {
+    private static final String PREFIX = "loadtest.";
+
+    /**
+     * Kyiv - Kharkiv and back, Kyiv - Lviv from the JSON seed of the memory profile
+     */
+    private static final String DEFAULT_ROUTES = "5bfaa4a9d52d4832fb9b234e:5bfaa4a9d52d4832fb9b2350,"
+            + "5bfaa4a9d52d4832fb9b2350:5bfaa4a9d52d4832fb9b234e,"
+            + "5bfaa4a9d52d4832fb9b234e:5bfaa4a9d52d4832fb9b234f";
+
+    private final int users = intOption("users", 20);
+    private final int durationSeconds = intOption("duration", 30);
+    private final int rampSeconds = intOption("ramp", 10);
+    private final int thinkTimeMillis = intOption("thinkTime", 500);
+    private final int timeoutMillis = intOption("timeout", 10000);
+
+    private final String baseUrl = option("baseUrl", "");
+    private final int port = intOption("port", 8080);
+    private final String war = option("war", "target/RailwaySystem-1.0-SNAPSHOT.war");
+    private final String profile = option("profile", "memory");
+
+    private final String email = option("email", "andy97@ukr.net");
+    private final String password = option("password", "root");
+    private final String date = option("date", "2017-07-01");
+    private final int time = intOption("time", 0);
+    private final int tickets = intOption("tickets", 1);
+    private final List<String[]> routes = parseRoutes(option("routes", DEFAULT_ROUTES));
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getRampSeconds() {
+        return rampSeconds;
+    }
+
+    public int getThinkTimeMillis() {
+        return thinkTimeMillis;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @return true if the war has to be started here, false if {baseUrl} points to a running server
+     */
+    public boolean isEmbedded() {
+        return baseUrl.isEmpty();
+    }
+
+    public String getBaseUrl() {
+        // the trailing slash saves a redirect from the context root on every request
+        return isEmbedded() ? "http://localhost:" + port + EmbeddedServer.CONTEXT_PATH + "/" : baseUrl;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getWar() {
+        return war;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public int getTime() {
+        return time;
+    }
+
+    public int getTickets() {
+        return tickets;
+    }
+
+    /**
+     * @return pairs of station IDs [from, to] the virtual users search trains between
+     */
+    public List<String[]> getRoutes() {
+        return routes;
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users + " duration=" + durationSeconds + "s ramp=" + rampSeconds
+                + "s thinkTime=" + thinkTimeMillis + "ms url=" + getBaseUrl()
+                + (isEmbedded() ? " profile=" + profile : "");
+    }
+
+    private static List<String[]> parseRoutes(String value) {
+        List<String[]> result = new ArrayList<>();
+        for (String pair : value.split(",")) {
+            String[] stations = pair.trim().split(":");
+            if (stations.length != 2) {
+                throw new IllegalArgumentException("Route must look like fromId:toId, got " + pair);
+            }
+            result.add(stations);
+        }
+        return result;
+    }
+
+    private static String option(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    private static int intOption(String name, int defaultValue) {
+        return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,102 @@
+package loadtest;
+
+import metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Everything measured during a run, shared by all virtual users
+ */
+class LoadResult {
+    private static final String[] JOURNEY = {VirtualUser.LOGIN, VirtualUser.MAIN, VirtualUser.SELECT,
+            VirtualUser.MAKE, VirtualUser.BOOK};
+
+    private final ConcurrentMap<String, CommandStats> commands = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder nothingToBook = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+    private volatile String lastTransportError;
+
+    CommandStats forCommand(String command) {
+        return commands.computeIfAbsent(command, CommandStats::new);
+    }
+
+    void journeyCompleted() {
+        completed.increment();
+    }
+
+    void journeyAbandoned() {
+        abandoned.increment();
+    }
+
+    /**
+     * Search found no train with free places, the journey ends without an error
+     */
+    void nothingToBook() {
+        nothingToBook.increment();
+    }
+
+    void transportError(Exception e) {
+        transportErrors.increment();
+        lastTransportError = e.toString();
+    }
+
+    /**
+     * @param seconds measured wall time, throughput is requests per second of it
+     */
+    void print(PrintStream out, double seconds) {
+        Map<String, CommandStats> ordered = new LinkedHashMap<>();
+        for (String command : JOURNEY) {
+            ordered.put(command, forCommand(command));
+        }
+        ordered.putAll(commands);
+
+        out.println();
+        out.printf("%-16s %9s %9s %9s %7s %9s %9s %9s %9s%n",
+                "command", "requests", "req/s", "errors", "err%", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long requests = 0;
+        long errors = 0;
+        for (CommandStats stats : ordered.values()) {
+            LatencyHistogram.Snapshot latency = stats.getLatency();
+            out.printf("%-16s %9d %9.1f %9d %6.2f%% %9.1f %9.1f %9.1f %9.1f%n",
+                    stats.getCommand(), stats.getRequests(), stats.getRequests() / seconds, stats.getErrors(),
+                    percent(stats.getErrors(), stats.getRequests()),
+                    millis(latency.getP50()), millis(latency.getP95()), millis(latency.getP99()),
+                    millis(latency.getMax()));
+            requests += stats.getRequests();
+            errors += stats.getErrors();
+        }
+        out.printf("%-16s %9d %9.1f %9d %6.2f%%%n",
+                "total", requests, requests / seconds, errors, percent(errors, requests));
+
+        out.println();
+        out.printf("journeys: %d booked (%.1f/s), %d failed, %d without free places%n",
+                completed.sum(), completed.sum() / seconds, abandoned.sum() - nothingToBook.sum(),
+                nothingToBook.sum());
+        if (transportErrors.sum() > 0) {
+            out.printf("transport errors: %d, last: %s%n", transportErrors.sum(), lastTransportError);
+        }
+    }
+
+    long getErrors() {
+        long errors = 0;
+        for (CommandStats stats : commands.values()) {
+            errors += stats.getErrors();
+        }
+        return errors;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
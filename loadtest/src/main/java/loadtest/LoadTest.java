@@ -0,0 +1,72 @@
+package loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entry point: starts the war (unless -Dloadtest.baseUrl is given), runs the virtual users
+ * and prints throughput, latency percentiles and error rate per command.
+ * Exits with status 1 if any request failed, so it can gate a build.
+ */
+public class LoadTest {
+    /**
+     * Per request DAO and service logs would measure the console, not the application
+     */
+    private static final Logger[] QUIET = {Logger.getLogger("dao"), Logger.getLogger("service"),
+            Logger.getLogger("command"), Logger.getLogger("org.apache")};
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = new LoadOptions();
+        if (!Boolean.getBoolean("loadtest.verbose")) {
+            for (Logger logger : QUIET) {
+                logger.setLevel(Level.WARNING);
+            }
+        }
+        // keep a pooled keep-alive connection per user instead of the default five
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(5, options.getUsers())));
+
+        EmbeddedServer server = null;
+        if (options.isEmbedded()) {
+            server = new EmbeddedServer(options);
+            server.start();
+        }
+
+        LoadResult result;
+        try {
+            System.out.println("load test: " + options);
+            result = run(options);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+        System.exit(result.getErrors() == 0 ? 0 : 1);
+    }
+
+    static LoadResult run(LoadOptions options) throws InterruptedException {
+        LoadResult result = new LoadResult();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+        long rampNanos = TimeUnit.SECONDS.toNanos(options.getRampSeconds());
+
+        List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < options.getUsers(); i++) {
+            long startAt = start + rampNanos * i / options.getUsers();
+            Thread user = new Thread(new VirtualUser(options, result, startAt, deadline), "virtual-user-" + i);
+            user.setDaemon(true);
+            users.add(user);
+            user.start();
+        }
+
+        for (Thread user : users) {
+            user.join();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        result.print(System.out, seconds);
+        return result;
+    }
+}
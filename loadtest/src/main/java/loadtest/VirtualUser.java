@@ -0,0 +1,193 @@
+package loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One simulated customer repeating the booking journey
+ * login -> main -> selectDateTime -> make -> book until the end of the test.
+ * A step fails on an I/O error, a status other than 200, the error page or a page without the expected form.
+ */
+class VirtualUser implements Runnable {
+    static final String LOGIN = "login";
+    static final String MAIN = "main";
+    static final String SELECT = "selectDateTime";
+    static final String MAKE = "make";
+    static final String BOOK = "book";
+
+    private static final String SEARCH_FORM = "value=\"selectDateTime\"";
+    private static final String MAKE_FORM = "value=\"make\"";
+    private static final String BOOK_FORM = "value=\"book\"";
+    private static final String BOOKED_TICKET = "<td>#";
+    private static final String ERROR_PAGE = "<h1>Ooops</h1>";
+
+    private static final String NONE = "none";
+    private static final Pattern TRAIN_SELECT =
+            Pattern.compile("<select name=\"train(\\w+)\"[^>]*>(.*?)</select>", Pattern.DOTALL);
+    private static final Pattern PLACE_OPTION = Pattern.compile("<option value=\"([CLB])\"");
+    private static final Pattern TICKET_INPUT = Pattern.compile("type=\"number\" name=\"(\\w+)\"");
+
+    private final LoadOptions options;
+    private final LoadResult result;
+    private final long startAt;
+    private final long deadline;
+    private final Browser browser;
+
+    /**
+     * @param startAt  System.nanoTime() to start the first journey at (ramp-up)
+     * @param deadline System.nanoTime() after which no new step is sent
+     */
+    VirtualUser(LoadOptions options, LoadResult result, long startAt, long deadline) {
+        this.options = options;
+        this.result = result;
+        this.startAt = startAt;
+        this.deadline = deadline;
+        this.browser = new Browser(options.getBaseUrl(), options.getTimeoutMillis());
+    }
+
+    @Override
+    public void run() {
+        try {
+            sleepNanos(startAt - System.nanoTime());
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                if (journey()) {
+                    result.journeyCompleted();
+                } else if (System.nanoTime() < deadline) {
+                    result.journeyAbandoned();
+                    // a failing server must not turn the user into a busy loop
+                    think();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true if tickets were booked
+     */
+    private boolean journey() throws InterruptedException {
+        browser.reset();
+        if (step(LOGIN, SEARCH_FORM, "email", options.getEmail(), "password", options.getPassword()) == null)
+            return false;
+
+        think();
+        if (step(MAIN, SEARCH_FORM) == null)
+            return false;
+
+        think();
+        String[] route = options.getRoutes().get(ThreadLocalRandom.current().nextInt(options.getRoutes().size()));
+        String[] search = {"from", route[0], "to", route[1],
+                "date", options.getDate(), "time", String.valueOf(options.getTime())};
+        Browser.Page trains = step(SELECT, SEARCH_FORM, search);
+        if (trains == null)
+            return false;
+
+        List<String> order = chooseTrain(trains.getBody());
+        if (order.isEmpty()) {
+            result.nothingToBook();
+            return false;
+        }
+
+        think();
+        order.addAll(0, Arrays.asList(search));
+        Browser.Page tickets = step(MAKE, BOOK_FORM, order.toArray(new String[0]));
+        if (tickets == null)
+            return false;
+
+        think();
+        List<String> counts = new ArrayList<>();
+        Matcher ticket = TICKET_INPUT.matcher(tickets.getBody());
+        while (ticket.find()) {
+            counts.add(ticket.group(1));
+            counts.add(String.valueOf(options.getTickets()));
+        }
+        return step(BOOK, BOOKED_TICKET, counts.toArray(new String[0])) != null;
+    }
+
+    /**
+     * Pick a random train with free places and a random free place type of it, the rest get "none"
+     *
+     * @return make parameters, empty if every train is sold out or nothing was found
+     */
+    private static List<String> chooseTrain(String page) {
+        List<String> trainIds = new ArrayList<>();
+        List<List<String>> freeTypes = new ArrayList<>();
+        Matcher select = TRAIN_SELECT.matcher(page);
+        while (select.find()) {
+            List<String> types = new ArrayList<>();
+            Matcher option = PLACE_OPTION.matcher(select.group(2));
+            while (option.find()) {
+                types.add(option.group(1));
+            }
+            trainIds.add(select.group(1));
+            freeTypes.add(types);
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < trainIds.size(); i++) {
+            if (!freeTypes.get(i).isEmpty()) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty())
+            return new ArrayList<>();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int chosen = candidates.get(random.nextInt(candidates.size()));
+        List<String> types = freeTypes.get(chosen);
+        Collections.shuffle(types, random);
+
+        List<String> parameters = new ArrayList<>();
+        for (int i = 0; i < trainIds.size(); i++) {
+            parameters.add("train" + trainIds.get(i));
+            parameters.add(i == chosen ? types.get(0) : NONE);
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the page, NULL if the step failed or the test is over
+     */
+    private Browser.Page step(String command, String expected, String... parameters) {
+        if (System.nanoTime() >= deadline)
+            return null;
+
+        long start = System.nanoTime();
+        Browser.Page page = null;
+        try {
+            page = MAIN.equals(command) ? browser.get(command) : browser.post(command, parameters);
+        } catch (IOException e) {
+            result.transportError(e);
+        }
+        long nanos = System.nanoTime() - start;
+
+        boolean failed = page == null || page.getStatus() != 200
+                || page.contains(ERROR_PAGE) || !page.contains(expected);
+        result.forCommand(command).record(nanos, failed);
+        return failed ? null : page;
+    }
+
+    private void think() throws InterruptedException {
+        int mean = options.getThinkTimeMillis();
+        if (mean <= 0)
+            return;
+
+        // uniform in [0.5, 1.5) of the mean so users do not march in lock step
+        long millis = mean / 2 + ThreadLocalRandom.current().nextInt(mean);
+        sleepNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+}
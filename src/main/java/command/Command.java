@@ -6,6 +6,9 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 public interface Command {
+    /**
+     * @return page to forward to; ignored if the command has written and committed the response itself
+     */
     String execute(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException;
 }
@@ -5,9 +5,6 @@ public class CommandUtil {
     static final String USERS_ATTRIBUTE = "users";
     static final String USERNAME_ATTRIBUTE = "username";
 
-    static final String CITIES_FROM_ATTRIBUTE = "cityFrom";
-    static final String CITIES_TO_ATTRIBUTE = "cityTo";
-
     static final String TRAINS_ATTRIBUTE = "trains";
 
     static final String DATE_NOW_ATTRIBUTE = "dateNow";
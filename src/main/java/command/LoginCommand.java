@@ -3,7 +3,6 @@ package command;
 import model.entity.User;
 import service.AdminService;
 import service.LoginService;
-import service.RouteService;
 import util.Configuration;
 
 import javax.servlet.ServletException;
@@ -14,8 +13,6 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
-import static command.CommandUtil.CITIES_FROM_ATTRIBUTE;
-import static command.CommandUtil.CITIES_TO_ATTRIBUTE;
 import static command.CommandUtil.DATE_FORMAT;
 import static command.CommandUtil.DATE_NOW_ATTRIBUTE;
 import static command.CommandUtil.ERROR_MESSAGE;
@@ -78,8 +75,6 @@ public class LoginCommand implements Command {
         HttpSession session = request.getSession(false);
         session.setAttribute(USER_ATTRIBUTE, user);
 
-        request.setAttribute(CITIES_FROM_ATTRIBUTE, RouteService.getInstance().findAvailableFromStations());
-        request.setAttribute(CITIES_TO_ATTRIBUTE, RouteService.getInstance().findAvailableToStations());
         request.setAttribute(TRAINS_ATTRIBUTE, null);
 
         SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT);
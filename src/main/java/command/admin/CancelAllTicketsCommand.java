@@ -1,7 +1,6 @@
 package command.admin;
 
 import command.Command;
-import dto.Ticket;
 import model.entity.User;
 import service.RequestService;
 import util.Configuration;
@@ -10,7 +9,6 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
 
 import static command.admin.CommandAdminUtil.TICKETS_ATTRIBUTE;
 import static command.admin.CommandAdminUtil.USERNAME_ATTRIBUTE;
@@ -24,10 +22,7 @@ public class CancelAllTicketsCommand implements Command {
         if (userNow == null || !userNow.isAdmin())
             return Configuration.getInstance().getConfig(Configuration.LOGIN);
 
-        List<Ticket> tickets = RequestService.getInstance().findAllTickets();
-        for (Ticket ticket : tickets) {
-            RequestService.getInstance().cancelRequest(ticket);
-        }
+        RequestService.getInstance().cancelAllRequests();
 
         request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
         request.setAttribute(TICKETS_ATTRIBUTE, RequestService.getInstance().findAllTickets());
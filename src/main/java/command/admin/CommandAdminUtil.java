@@ -6,6 +6,23 @@ class CommandAdminUtil {
     static final String USER_ATTRIBUTE = "user";
     static final String USERNAME_ATTRIBUTE = "username";
 
+    static final String COMMANDS_ATTRIBUTE = "commands";
+    static final String THROUGHPUT_ATTRIBUTE = "throughput";
+    static final String UPTIME_ATTRIBUTE = "uptime";
+    static final String USER_CACHE_ATTRIBUTE = "userCache";
+
+    static final String ROUTES_ATTRIBUTE = "routes";
+    static final String DAY_ATTRIBUTE = "day";
+    static final String DAY_PARAMETER = "day";
+    static final String IMPORT_ATTRIBUTE = "imported";
+    static final String IMPORT_ERROR_ATTRIBUTE = "importError";
+
+    static final String FROM_PARAMETER = "from";
+    static final String TO_PARAMETER = "to";
+    static final String TRAIN_PARAMETER = "train";
+    static final String TYPE_PARAMETER = "type";
+    static final String FORMAT_PARAMETER = "format";
+
     static final String DELETE = "delete";
     static final String ADMIN = "admin";
     static final String USER = "user";
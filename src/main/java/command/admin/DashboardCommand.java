@@ -0,0 +1,47 @@
+package command.admin;
+
+import command.Command;
+import model.entity.User;
+import service.AggregateService;
+import util.Configuration;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static command.admin.CommandAdminUtil.DAY_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.DAY_PARAMETER;
+import static command.admin.CommandAdminUtil.ROUTES_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.USERNAME_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.USER_ATTRIBUTE;
+
+/**
+ * Occupancy and revenue of the ROUTES departing on a day (yyyy-MM-dd, today if missing or malformed),
+ * read from the aggregates, the REQUESTS are not read
+ */
+public class DashboardCommand implements Command {
+    @Override
+    public String execute(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        User userNow = (User) request.getSession(false).getAttribute(USER_ATTRIBUTE);
+        if (userNow == null || !userNow.isAdmin())
+            return Configuration.getInstance().getConfig(Configuration.LOGIN);
+
+        LocalDate day = LocalDate.now();
+        String value = request.getParameter(DAY_PARAMETER);
+        if (value != null && !value.trim().isEmpty()) {
+            try {
+                day = LocalDate.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                // today
+            }
+        }
+
+        request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
+        request.setAttribute(DAY_ATTRIBUTE, day.toString());
+        request.setAttribute(ROUTES_ATTRIBUTE, AggregateService.getInstance().findDashboard(day));
+        return Configuration.getInstance().getConfig(Configuration.DASHBOARD_ADMIN);
+    }
+}
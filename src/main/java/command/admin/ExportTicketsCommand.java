@@ -0,0 +1,103 @@
+package command.admin;
+
+import command.Command;
+import dao.mysql.TypePlace;
+import dto.BookingFilter;
+import model.entity.User;
+import service.RequestService;
+import service.export.ExportFormat;
+import util.Configuration;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static command.admin.CommandAdminUtil.FORMAT_PARAMETER;
+import static command.admin.CommandAdminUtil.FROM_PARAMETER;
+import static command.admin.CommandAdminUtil.TO_PARAMETER;
+import static command.admin.CommandAdminUtil.TRAIN_PARAMETER;
+import static command.admin.CommandAdminUtil.TYPE_PARAMETER;
+import static command.admin.CommandAdminUtil.USER_ATTRIBUTE;
+
+/**
+ * Bookings as a CSV or NDJSON download, written while they are read from the DB.
+ * No length is known up front, so the container sends the body chunked as its buffer fills.
+ * Filters: from / to departure day (yyyy-MM-dd, both inclusive), train ID, type of place; a malformed one
+ * is a bad request
+ */
+public class ExportTicketsCommand implements Command {
+    private static final String FILE_NAME = "bookings.";
+
+    /**
+     * The response writer swallows write errors, asking for them flushes it, so it is done once per so many rows
+     */
+    private static final int CHECK_ROWS = 1000;
+
+    @Override
+    public String execute(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        User userNow = (User) request.getSession(false).getAttribute(USER_ATTRIBUTE);
+        if (userNow == null || !userNow.isAdmin())
+            return Configuration.getInstance().getConfig(Configuration.LOGIN);
+
+        BookingFilter filter = new BookingFilter();
+        ExportFormat format;
+        try {
+            String from = parameter(request, FROM_PARAMETER);
+            if (from != null)
+                filter.setFrom(LocalDate.parse(from).atStartOfDay());
+            String to = parameter(request, TO_PARAMETER);
+            if (to != null)
+                filter.setTo(LocalDate.parse(to).plusDays(1).atStartOfDay());
+            String type = parameter(request, TYPE_PARAMETER);
+            if (type != null)
+                filter.setType(TypePlace.valueOf(type));
+            filter.setTrainId(parameter(request, TRAIN_PARAMETER));
+
+            String name = parameter(request, FORMAT_PARAMETER);
+            format = name == null ? ExportFormat.CSV : ExportFormat.fromValue(name);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            format = null;
+        }
+        if (format == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+
+        response.setContentType(format.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + FILE_NAME + format.getExtension() + "\"");
+        response.setHeader("Cache-Control", "no-store");
+
+        PrintWriter writer = response.getWriter();
+        format.writeHeader(writer);
+        ExportFormat rowFormat = format;
+        long[] rows = new long[1];
+        try {
+            RequestService.getInstance().exportBookings(filter, row -> {
+                try {
+                    rowFormat.write(writer, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (++rows[0] % CHECK_ROWS == 0 && writer.checkError())
+                    throw new UncheckedIOException(new IOException("export aborted by the client"));
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        response.flushBuffer();
+        return null;
+    }
+
+    /**
+     * @return NULL for a missing or blank parameter
+     */
+    private static String parameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,44 @@
+package command.admin;
+
+import command.Command;
+import model.entity.User;
+import service.ImportService;
+import service.importer.ImportResult;
+import util.Configuration;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import static command.admin.CommandAdminUtil.IMPORT_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.IMPORT_ERROR_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.USER_ATTRIBUTE;
+
+/**
+ * Imports the timetable files of the import directory (config.import.dir) on POST and shows the dashboard
+ * with the counts of every file. The files are copied there beforehand, a national timetable is no form upload
+ */
+public class ImportCommand implements Command {
+    @Override
+    public String execute(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        User userNow = (User) request.getSession(false).getAttribute(USER_ATTRIBUTE);
+        if (userNow == null || !userNow.isAdmin())
+            return Configuration.getInstance().getConfig(Configuration.LOGIN);
+
+        if ("POST".equals(request.getMethod())) {
+            try {
+                ImportResult result = ImportService.getInstance().importFrom(
+                        Paths.get(Configuration.getInstance().getConfig(Configuration.IMPORT_DIR)));
+                if (result.getImported() > 0)
+                    ImportService.getInstance().refresh();
+                request.setAttribute(IMPORT_ATTRIBUTE, result);
+            } catch (IOException e) {
+                request.setAttribute(IMPORT_ERROR_ATTRIBUTE, e.getMessage());
+            }
+        }
+
+        return new DashboardCommand().execute(request, response);
+    }
+}
@@ -0,0 +1,36 @@
+package command.admin;
+
+import command.Command;
+import metrics.MetricsRegistry;
+import model.entity.User;
+import service.cache.UserCache;
+import util.Configuration;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static command.admin.CommandAdminUtil.COMMANDS_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.THROUGHPUT_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.UPTIME_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.USERNAME_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.USER_ATTRIBUTE;
+import static command.admin.CommandAdminUtil.USER_CACHE_ATTRIBUTE;
+
+public class MetricsCommand implements Command {
+    @Override
+    public String execute(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        User userNow = (User) request.getSession(false).getAttribute(USER_ATTRIBUTE);
+        if (userNow == null || !userNow.isAdmin())
+            return Configuration.getInstance().getConfig(Configuration.LOGIN);
+
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
+        request.setAttribute(COMMANDS_ATTRIBUTE, registry.getCommands());
+        request.setAttribute(THROUGHPUT_ATTRIBUTE, String.format("%.2f", registry.getThroughput()));
+        request.setAttribute(UPTIME_ATTRIBUTE, registry.getUptimeSeconds());
+        request.setAttribute(USER_CACHE_ATTRIBUTE, UserCache.getInstance());
+        return Configuration.getInstance().getConfig(Configuration.METRICS_ADMIN);
+    }
+}
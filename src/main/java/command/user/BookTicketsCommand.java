@@ -5,8 +5,10 @@ import dto.Ticket;
 import exception.InvalidDataBaseOperation;
 import model.entity.User;
 import service.RequestService;
-import service.RouteService;
+import service.WaitlistService;
+import service.cache.IdempotencyCache;
 import util.Configuration;
+import util.Message;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -17,8 +19,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import static command.user.CommandUserUtil.CITIES_FROM_ATTRIBUTE;
-import static command.user.CommandUserUtil.CITIES_TO_ATTRIBUTE;
+import static command.user.CommandUserUtil.BOOKING_KEY_PARAMETER;
 import static command.user.CommandUserUtil.DATE_FORMAT;
 import static command.user.CommandUserUtil.DATE_NOW_ATTRIBUTE;
 import static command.user.CommandUserUtil.MESSAGE_ERROR_ATTRIBUTE;
@@ -39,8 +40,6 @@ public class BookTicketsCommand implements Command {
 
         List<Ticket> tickets = (List<Ticket>) request.getSession(false).getAttribute(TICKETS_ATTRIBUTE);
         if (tickets == null) {
-            request.setAttribute(CITIES_FROM_ATTRIBUTE, RouteService.getInstance().findAvailableFromStations());
-            request.setAttribute(CITIES_TO_ATTRIBUTE, RouteService.getInstance().findAvailableToStations());
             request.setAttribute(TRAINS_ATTRIBUTE, null);
 
             SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT);
@@ -54,9 +53,10 @@ public class BookTicketsCommand implements Command {
                 resultTickets.addAll(RequestService.getInstance().addTickets(ticket, count));
             }
 
+            String bookingKey = RequestService.bookingKey(userNow.getId(), request.getParameter(BOOKING_KEY_PARAMETER));
             try {
-                RequestService.getInstance().reserveTickets(resultTickets);
-                request.setAttribute(TICKETS_ATTRIBUTE, resultTickets);
+                request.setAttribute(TICKETS_ATTRIBUTE, IdempotencyCache.getInstance()
+                        .book(bookingKey, () -> book(bookingKey, resultTickets)));
             } catch (InvalidDataBaseOperation e) {
                 request.setAttribute(MESSAGE_ERROR_ATTRIBUTE, e.getMessage());
                 page = Configuration.getInstance().getConfig(Configuration.ERROR);
@@ -66,4 +66,31 @@ public class BookTicketsCommand implements Command {
         request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
         return page;
     }
+
+    /**
+     * Runs once per booking key, a resubmitted form neither books nor joins the waitlist again
+     *
+     * @throws InvalidDataBaseOperation with the message to show, the unbooked tickets are waiting then
+     */
+    private static List<Ticket> book(String bookingKey, List<Ticket> tickets) throws InvalidDataBaseOperation {
+        try {
+            return RequestService.getInstance().reserveTickets(bookingKey, tickets);
+        } catch (InvalidDataBaseOperation e) {
+            if (WaitlistService.getInstance().join(unbooked(tickets)).isEmpty())
+                throw e;
+            throw new InvalidDataBaseOperation(Message.getInstance().getMessage(Message.WAITLIST));
+        }
+    }
+
+    /**
+     * @return tickets the failed reservation did not book, they go to the waitlist
+     */
+    private static List<Ticket> unbooked(List<Ticket> tickets) {
+        List<Ticket> result = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            if (ticket.getRequestId() == null)
+                result.add(ticket);
+        }
+        return result;
+    }
 }
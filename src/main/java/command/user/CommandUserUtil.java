@@ -6,9 +6,11 @@ class CommandUserUtil {
 
     static final String TICKETS_ATTRIBUTE = "tickets";
     static final String NO_TICKETS_ATTRIBUTE = "noTickets";
+    static final String WAITING_ATTRIBUTE = "waiting";
+    static final String ALLOCATED_ATTRIBUTE = "allocated";
 
-    static final String CITIES_FROM_ATTRIBUTE = "cityFrom";
-    static final String CITIES_TO_ATTRIBUTE = "cityTo";
+    static final String FROM_NAME_ATTRIBUTE = "fromName";
+    static final String TO_NAME_ATTRIBUTE = "toName";
 
     static final String TRAINS_ATTRIBUTE = "trains";
     static final String NO_TRAINS_ATTRIBUTE = "noTrains";
@@ -16,6 +18,7 @@ class CommandUserUtil {
     static final String DATE_NOW_ATTRIBUTE = "dateNow";
     static final String DATE_ATTRIBUTE = "date";
     static final String MESSAGE_ERROR_ATTRIBUTE = "messageError";
+    static final String BOOKING_KEY_ATTRIBUTE = "bookingKey";
     static final String DATE_FORMAT = "yyyy-MM-dd";
 
 
@@ -24,4 +27,6 @@ class CommandUserUtil {
     static final String FROM_PARAMETER = "from";
     static final String TO_PARAMETER = "to";
     static final String TIME_PARAMETER = "time";
+    static final String BOOKING_KEY_PARAMETER = "bookingKey";
+    static final String WAITLIST_PARAMETER = "waitlistId";
 }
@@ -2,7 +2,7 @@ package command.user;
 
 import command.Command;
 import model.entity.User;
-import service.RouteService;
+import service.WaitlistService;
 import util.Configuration;
 
 import javax.servlet.ServletException;
@@ -12,8 +12,7 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
-import static command.user.CommandUserUtil.CITIES_FROM_ATTRIBUTE;
-import static command.user.CommandUserUtil.CITIES_TO_ATTRIBUTE;
+import static command.user.CommandUserUtil.ALLOCATED_ATTRIBUTE;
 import static command.user.CommandUserUtil.DATE_FORMAT;
 import static command.user.CommandUserUtil.DATE_NOW_ATTRIBUTE;
 import static command.user.CommandUserUtil.TRAINS_ATTRIBUTE;
@@ -29,9 +28,8 @@ public class MainPageCommand implements Command {
 
         SimpleDateFormat format = new SimpleDateFormat(DATE_FORMAT);
 
-        request.setAttribute(CITIES_FROM_ATTRIBUTE, RouteService.getInstance().findAvailableFromStations());
-        request.setAttribute(CITIES_TO_ATTRIBUTE, RouteService.getInstance().findAvailableToStations());
         request.setAttribute(TRAINS_ATTRIBUTE, null);
+        request.setAttribute(ALLOCATED_ATTRIBUTE, WaitlistService.getInstance().takeAllocated(userNow.getId()));
         request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
         request.setAttribute(DATE_NOW_ATTRIBUTE, format.format(new Date()));
         return Configuration.getInstance().getConfig(Configuration.DATE);
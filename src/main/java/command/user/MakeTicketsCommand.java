@@ -4,9 +4,11 @@ import command.Command;
 import dto.Ticket;
 import dto.TrainRoute;
 import model.entity.User;
+import service.HoldService;
 import service.RequestService;
 import service.TrainService;
 import util.Configuration;
+import util.Identifiers;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -18,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import static command.user.CommandUserUtil.BOOKING_KEY_ATTRIBUTE;
 import static command.user.CommandUserUtil.DATE_ATTRIBUTE;
 import static command.user.CommandUserUtil.DATE_FORMAT;
 import static command.user.CommandUserUtil.FROM_PARAMETER;
@@ -52,6 +55,13 @@ public class MakeTicketsCommand implements Command {
         }
 
         User user = (User) request.getSession().getAttribute(USER_ATTRIBUTE);
+        List<Ticket> previous = (List<Ticket>) request.getSession(false).getAttribute(TICKETS_ATTRIBUTE);
+        if (previous != null) {
+            for (Ticket ticket : previous) {
+                HoldService.getInstance().release(ticket);
+            }
+        }
+
         List<TrainRoute> trains = TrainService.getInstance().findTrainsAndRoutes(from_id, to_id, date);
         List<Ticket> tickets = new ArrayList<>();
         for (TrainRoute trainRoute : trains) {
@@ -59,6 +69,7 @@ public class MakeTicketsCommand implements Command {
 
             Ticket ticket = RequestService.getInstance().makeTicket(parameter, user, trainRoute);
             if (ticket != null) {
+                HoldService.getInstance().hold(ticket);
                 tickets.add(ticket);
             }
         }
@@ -67,6 +78,7 @@ public class MakeTicketsCommand implements Command {
             request.setAttribute(NO_TICKETS_ATTRIBUTE, true);
         } else {
             request.setAttribute(TICKETS_ATTRIBUTE, tickets);
+            request.setAttribute(BOOKING_KEY_ATTRIBUTE, Identifiers.next());
             request.getSession(false).setAttribute(TICKETS_ATTRIBUTE, tickets);
         }
         request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
@@ -2,8 +2,9 @@ package command.user;
 
 import command.Command;
 import dto.TrainRoute;
+import model.entity.Station;
 import model.entity.User;
-import service.RouteService;
+import service.StationService;
 import service.TrainService;
 import util.Configuration;
 
@@ -16,14 +17,14 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 
-import static command.user.CommandUserUtil.CITIES_FROM_ATTRIBUTE;
-import static command.user.CommandUserUtil.CITIES_TO_ATTRIBUTE;
 import static command.user.CommandUserUtil.DATE_FORMAT;
 import static command.user.CommandUserUtil.DATE_NOW_ATTRIBUTE;
 import static command.user.CommandUserUtil.DATE_PARAMETER;
+import static command.user.CommandUserUtil.FROM_NAME_ATTRIBUTE;
 import static command.user.CommandUserUtil.FROM_PARAMETER;
 import static command.user.CommandUserUtil.NO_TRAINS_ATTRIBUTE;
 import static command.user.CommandUserUtil.TIME_PARAMETER;
+import static command.user.CommandUserUtil.TO_NAME_ATTRIBUTE;
 import static command.user.CommandUserUtil.TO_PARAMETER;
 import static command.user.CommandUserUtil.TRAINS_ATTRIBUTE;
 import static command.user.CommandUserUtil.USERNAME_ATTRIBUTE;
@@ -53,11 +54,10 @@ public class SelectCityDateTimeCommand implements Command {
 
         List<TrainRoute> trains = TrainService.getInstance().findTrainsAndRoutes(from_id, to_id, date);
 
-        request.setAttribute(CITIES_FROM_ATTRIBUTE, RouteService.getInstance().findAvailableFromStations());
-        request.setAttribute(CITIES_TO_ATTRIBUTE, RouteService.getInstance().findAvailableToStations());
-
         request.setAttribute(FROM_PARAMETER, from_id);
         request.setAttribute(TO_PARAMETER, to_id);
+        request.setAttribute(FROM_NAME_ATTRIBUTE, nameOf(from_id));
+        request.setAttribute(TO_NAME_ATTRIBUTE, nameOf(to_id));
         request.setAttribute(TRAINS_ATTRIBUTE, trains);
         if (trains.isEmpty()) {
             request.setAttribute(NO_TRAINS_ATTRIBUTE, true);
@@ -68,4 +68,9 @@ public class SelectCityDateTimeCommand implements Command {
         request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
         return page;
     }
+
+    private static String nameOf(String stationId) {
+        Station station = StationService.getInstance().findStationById(stationId);
+        return station == null ? null : station.getName();
+    }
 }
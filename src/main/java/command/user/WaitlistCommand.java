@@ -0,0 +1,33 @@
+package command.user;
+
+import command.Command;
+import model.entity.User;
+import service.WaitlistService;
+import util.Configuration;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static command.user.CommandUserUtil.ALLOCATED_ATTRIBUTE;
+import static command.user.CommandUserUtil.USERNAME_ATTRIBUTE;
+import static command.user.CommandUserUtil.USER_ATTRIBUTE;
+import static command.user.CommandUserUtil.WAITING_ATTRIBUTE;
+
+/**
+ * Tickets of the USER still waiting and the ones the waitlist booked since the last visit
+ */
+public class WaitlistCommand implements Command {
+    @Override
+    public String execute(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        User userNow = (User) request.getSession(false).getAttribute(USER_ATTRIBUTE);
+        if (userNow == null)
+            return Configuration.getInstance().getConfig(Configuration.LOGIN);
+
+        request.setAttribute(ALLOCATED_ATTRIBUTE, WaitlistService.getInstance().takeAllocated(userNow.getId()));
+        request.setAttribute(WAITING_ATTRIBUTE, WaitlistService.getInstance().findWaiting(userNow.getId()));
+        request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
+        return Configuration.getInstance().getConfig(Configuration.WAITLIST);
+    }
+}
@@ -0,0 +1,38 @@
+package command.user;
+
+import command.Command;
+import model.entity.User;
+import service.WaitlistService;
+import util.Configuration;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static command.user.CommandUserUtil.ALLOCATED_ATTRIBUTE;
+import static command.user.CommandUserUtil.USERNAME_ATTRIBUTE;
+import static command.user.CommandUserUtil.USER_ATTRIBUTE;
+import static command.user.CommandUserUtil.WAITING_ATTRIBUTE;
+import static command.user.CommandUserUtil.WAITLIST_PARAMETER;
+
+/**
+ * Takes a ticket of the USER off its waitlist, a ticket booked meanwhile shows among the allocated ones
+ */
+public class WithdrawWaitlistCommand implements Command {
+    @Override
+    public String execute(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        User userNow = (User) request.getSession(false).getAttribute(USER_ATTRIBUTE);
+        if (userNow == null)
+            return Configuration.getInstance().getConfig(Configuration.LOGIN);
+
+        String waitlistId = request.getParameter(WAITLIST_PARAMETER);
+        if (waitlistId != null)
+            WaitlistService.getInstance().withdraw(userNow.getId(), waitlistId);
+
+        request.setAttribute(ALLOCATED_ATTRIBUTE, WaitlistService.getInstance().takeAllocated(userNow.getId()));
+        request.setAttribute(WAITING_ATTRIBUTE, WaitlistService.getInstance().findWaiting(userNow.getId()));
+        request.setAttribute(USERNAME_ATTRIBUTE, userNow.getName());
+        return Configuration.getInstance().getConfig(Configuration.WAITLIST);
+    }
+}
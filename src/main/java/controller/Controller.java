@@ -1,6 +1,10 @@
 package controller;
 
 import command.Command;
+import dao.monitoring.QueryContext;
+import dao.monitoring.QueryMonitor;
+import metrics.CommandMetrics;
+import metrics.MetricsRegistry;
 import util.Configuration;
 import util.Message;
 
@@ -54,6 +58,11 @@ public class Controller extends HttpServlet {
     protected void processRequest(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         String page;
+        String commandName = controllerHelper.getCommandName(request);
+        CommandMetrics metrics = MetricsRegistry.getInstance().forCommand(commandName);
+        metrics.started();
+        QueryContext.begin(commandName);
+        long start = System.nanoTime();
         try {
             HttpSession session = request.getSession(false);
             if (session == null) {
@@ -63,34 +72,55 @@ public class Controller extends HttpServlet {
             Command command = controllerHelper.getCommand(request);
             page = command.execute(request, response);
         } catch (ServletException e) {
+            metrics.failed();
             //LOG.severe(e.getMessage());
             LOG.log(Level.SEVERE, e.getMessage(), e);
             request.setAttribute(MESSAGE_ERROR_ATTRIBUTE, Message.getInstance().getMessage(Message.SERVLET_EXCEPTION));
             page = Configuration.getInstance().getConfig(Configuration.ERROR);
 
         } catch (IOException e) {
+            metrics.failed();
             //LOG.severe(e.getMessage());
             LOG.log(Level.SEVERE, e.getMessage(), e);
             request.setAttribute(MESSAGE_ERROR_ATTRIBUTE, Message.getInstance().getMessage(Message.IO_EXCEPTION));
             page = Configuration.getInstance().getConfig(Configuration.ERROR);
 
         } catch (Exception e) {
+            metrics.failed();
             //LOG.severe(e.getMessage());
             LOG.log(Level.SEVERE, e.getMessage(), e);
             request.setAttribute(MESSAGE_ERROR_ATTRIBUTE, Message.getInstance().getMessage(Message.EXCEPTION));
             page = Configuration.getInstance().getConfig(Configuration.ERROR);
 
+        } finally {
+            metrics.executed(System.nanoTime() - start);
         }
 
-        if (page == null) {
-            LOG.severe(PAGE_IS_NULL);
-            request.setAttribute(MESSAGE_ERROR_ATTRIBUTE, Message.getInstance().getMessage(Message.PAGE_IS_NULL));
-            page = Configuration.getInstance().getConfig(Configuration.ERROR);
-        }
+        try {
+            if (response.isCommitted())
+                return;
 
-        response.setCharacterEncoding(CHARACTER_ENCODING);
-        response.setContentType(CONTENT_TYPE);
-        RequestDispatcher dispatcher = getServletContext().getRequestDispatcher(page);
-        dispatcher.forward(request, response);
+            if (page == null) {
+                LOG.severe(PAGE_IS_NULL);
+                request.setAttribute(MESSAGE_ERROR_ATTRIBUTE, Message.getInstance().getMessage(Message.PAGE_IS_NULL));
+                page = Configuration.getInstance().getConfig(Configuration.ERROR);
+            }
+
+            response.setCharacterEncoding(CHARACTER_ENCODING);
+            response.setContentType(CONTENT_TYPE);
+            RequestDispatcher dispatcher = getServletContext().getRequestDispatcher(page);
+            long forwardStart = System.nanoTime();
+            try {
+                dispatcher.forward(request, response);
+            } finally {
+                metrics.forwarded(System.nanoTime() - forwardStart);
+            }
+        } catch (ServletException | IOException | RuntimeException e) {
+            metrics.failed();
+            throw e;
+        } finally {
+            metrics.queried(QueryMonitor.getInstance().check(QueryContext.end()));
+            metrics.finished();
+        }
     }
 }
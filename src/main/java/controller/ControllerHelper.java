@@ -8,6 +8,10 @@ import command.RegisterCommand;
 import command.admin.CancelAllTicketsCommand;
 import command.admin.CancelTicketsCommand;
 import command.admin.ChangeUsersCommand;
+import command.admin.DashboardCommand;
+import command.admin.ExportTicketsCommand;
+import command.admin.ImportCommand;
+import command.admin.MetricsCommand;
 import command.admin.TicketCommand;
 import command.admin.UsersCommand;
 import command.localization.SetENCommand;
@@ -16,6 +20,8 @@ import command.user.BookTicketsCommand;
 import command.user.MainPageCommand;
 import command.user.MakeTicketsCommand;
 import command.user.SelectCityDateTimeCommand;
+import command.user.WaitlistCommand;
+import command.user.WithdrawWaitlistCommand;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.HashMap;
@@ -26,6 +32,7 @@ public class ControllerHelper {
     private Map<String, Command> commands = new HashMap<>();
     private static final String BUNDLE_NAME = "command";
     private static final String PARAMETER = "command";
+    private static final String MISSING = "missing";
     private static ControllerHelper INSTANCE;
 
     private ResourceBundle bundle;
@@ -40,12 +47,18 @@ public class ControllerHelper {
         commands.put(bundle.getString("command.user.selectDateTime"), new SelectCityDateTimeCommand());
         commands.put(bundle.getString("command.user.make"), new MakeTicketsCommand());
         commands.put(bundle.getString("command.user.book"), new BookTicketsCommand());
+        commands.put(bundle.getString("command.user.waitlist"), new WaitlistCommand());
+        commands.put(bundle.getString("command.user.withdraw"), new WithdrawWaitlistCommand());
 
         commands.put(bundle.getString("command.admin.adminUser"), new ChangeUsersCommand());
         commands.put(bundle.getString("command.admin.tickets"), new TicketCommand());
         commands.put(bundle.getString("command.admin.users"), new UsersCommand());
         commands.put(bundle.getString("command.admin.cancel"), new CancelTicketsCommand());
         commands.put(bundle.getString("command.admin.cancelAll"), new CancelAllTicketsCommand());
+        commands.put(bundle.getString("command.admin.metrics"), new MetricsCommand());
+        commands.put(bundle.getString("command.admin.export"), new ExportTicketsCommand());
+        commands.put(bundle.getString("command.admin.dashboard"), new DashboardCommand());
+        commands.put(bundle.getString("command.admin.import"), new ImportCommand());
 
         commands.put(bundle.getString("command.en"), new SetENCommand());
         commands.put(bundle.getString("command.ukr"), new SetUKRCommand());
@@ -71,4 +84,16 @@ public class ControllerHelper {
         return command;
     }
 
+    /**
+     * @return name of the requested command or "missing" for unknown ones,
+     * so the set of names stays bounded (used as a metrics label)
+     */
+    public String getCommandName(HttpServletRequest request) {
+        String commandString = request.getParameter(PARAMETER);
+        if (commandString == null || !commands.containsKey(commandString)) {
+            return MISSING;
+        }
+        return commandString;
+    }
+
 }
@@ -0,0 +1,56 @@
+package controller;
+
+import metrics.PrometheusWriter;
+import model.entity.User;
+import util.Configuration;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static util.Configuration.METRICS_SCRAPE_ADDRESSES;
+
+/**
+ * Prometheus scrape endpoint.
+ * Open for an ADMIN in session and for the scraper addresses of config.monitoring.scrape.addresses, none by default.
+ * Loopback is not trusted as such: behind a reverse proxy on the same host every client comes from 127.0.0.1
+ */
+public class MetricsServlet extends HttpServlet {
+    private static final String USER_ATTRIBUTE = "user";
+
+    private Set<String> scrapeAddresses = new HashSet<>();
+
+    @Override
+    public void init() {
+        scrapeAddresses = Arrays.stream(Configuration.getInstance().getConfig(METRICS_SCRAPE_ADDRESSES).split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!isAdmin(request) && !scrapeAddresses.contains(request.getRemoteAddr())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        response.setContentType(PrometheusWriter.CONTENT_TYPE);
+        new PrometheusWriter(response.getWriter()).writeAll();
+    }
+
+    private boolean isAdmin(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null)
+            return false;
+
+        User user = (User) session.getAttribute(USER_ATTRIBUTE);
+        return user != null && user.isAdmin();
+    }
+}
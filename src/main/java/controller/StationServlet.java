@@ -0,0 +1,75 @@
+package controller;
+
+import model.entity.Station;
+import service.StationService;
+import util.Json;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Station autocomplete: GET /stations?q=prefix&limit=10 answers [{"id":"...","name":"..."}, ...].
+ * The query string is decoded as UTF-8 here, the connector may be set up with another URI encoding.
+ * A malformed escape or limit is a bad request
+ */
+public class StationServlet extends HttpServlet {
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final String PREFIX_PARAMETER = "q";
+    private static final String LIMIT_PARAMETER = "limit";
+    private static final int DEFAULT_LIMIT = 10;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String prefix;
+        int limit = DEFAULT_LIMIT;
+        try {
+            prefix = parameter(request, PREFIX_PARAMETER);
+            String value = parameter(request, LIMIT_PARAMETER);
+            if (value != null)
+                limit = Integer.parseInt(value);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        List<Station> stations = prefix == null ? Collections.emptyList()
+                : StationService.getInstance().findStationsByPrefix(prefix, limit);
+
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", "max-age=60");
+        PrintWriter writer = response.getWriter();
+        writer.write('[');
+        for (int i = 0; i < stations.size(); i++) {
+            if (i > 0)
+                writer.write(',');
+            writer.write("{\"id\":");
+            Json.writeString(writer, stations.get(i).getId());
+            writer.write(",\"name\":");
+            Json.writeString(writer, stations.get(i).getName());
+            writer.write('}');
+        }
+        writer.write(']');
+    }
+
+    private static String parameter(HttpServletRequest request, String name) throws UnsupportedEncodingException {
+        String query = request.getQueryString();
+        if (query == null)
+            return null;
+
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            if (key.equals(name))
+                return equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8.name());
+        }
+        return null;
+    }
+}
@@ -1,7 +1,12 @@
 package dao;
 
+import dao.memory.MemoryFactory;
 import dao.mongodb.MongoDbFactory;
 import dao.mysql.MySQLFactory;
+import dao.writebehind.WriteBehindFactory;
+import util.Configuration;
+
+import static util.Configuration.WRITE_BEHIND_ENABLED;
 
 public class AbstractDAOFactory {
     public static DAOFactory createDAOFactory(DataBase dataBase) {
@@ -13,8 +18,13 @@ public class AbstractDAOFactory {
             case MONGODB:
                 factory = new MongoDbFactory();
                 break;
+            case MEMORY:
+                factory = new MemoryFactory();
+                break;
         }
 
+        if (factory != null && Boolean.parseBoolean(Configuration.getInstance().getConfig(WRITE_BEHIND_ENABLED)))
+            factory = new WriteBehindFactory(factory);
         return factory;
     }
 }
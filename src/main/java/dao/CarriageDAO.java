@@ -0,0 +1,28 @@
+package dao;
+
+import model.entity.Carriage;
+
+import java.util.List;
+
+
+public interface CarriageDAO {
+    /**
+     * Find CARRIAGES of given TRAIN
+     */
+    List<Carriage> findByTrain(String trainId);
+
+    /**
+     * Insert new CARRIAGE
+     */
+    Carriage create(Carriage carriage);
+
+    /**
+     * Store the seat map of CARRIAGE, found by its TRAIN and number
+     */
+    Carriage updateSeatMap(Carriage carriage);
+
+    /**
+     * Delete CARRIAGE
+     */
+    void delete(Carriage carriage);
+}
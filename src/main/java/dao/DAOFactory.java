@@ -13,4 +13,8 @@ public interface DAOFactory {
     UserDAO createUserDAO();
 
     StationDAO createStationDAO();
+
+    CarriageDAO createCarriageDAO();
+
+    RouteStopDAO createRouteStopDAO();
 }
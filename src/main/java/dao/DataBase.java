@@ -3,7 +3,8 @@ package dao;
 public enum DataBase {
 
     MYSQL,
-    MONGODB;
+    MONGODB,
+    MEMORY;
 
     public static DataBase fromValue(String value) {
         DataBase dataBase = null;
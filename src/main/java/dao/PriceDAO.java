@@ -21,6 +21,13 @@ public interface PriceDAO {
      */
     Price create(Price price);
 
+    /**
+     * Insert PRICES in one statement
+     *
+     * @return FALSE if the PRICES were not stored
+     */
+    boolean createAll(List<Price> prices);
+
     /**
      * Update PRICE
      */
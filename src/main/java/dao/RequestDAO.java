@@ -1,8 +1,13 @@
 package dao;
 
+import dao.mysql.TypePlace;
+import dto.BookingFilter;
+import exception.ConstraintViolation;
+import dto.BookingRow;
 import model.entity.Request;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 
 public interface RequestDAO {
@@ -16,11 +21,44 @@ public interface RequestDAO {
      */
     Request findById(String id);
 
+    /**
+     * Find REQUESTS for given TRAIN
+     */
+    List<Request> findByTrain(String trainId);
+
+    /**
+     * Find REQUESTS of given type for given TRAIN
+     */
+    List<Request> findByTrain(String trainId, TypePlace type);
+
+    /**
+     * Find REQUESTS created by the booking with given idempotency key
+     */
+    List<Request> findByBookingKey(String bookingKey);
+
+    /**
+     * Hands REQUESTS matching the filter, joined with their USER and ROUTE, to the consumer one by one
+     * as they are read; nothing is collected, so the memory used does not grow with the number of REQUESTS.
+     * An exception of the consumer stops the read and is rethrown
+     */
+    void forEachBooking(BookingFilter filter, Consumer<BookingRow> consumer);
+
     /**
      * Insert new REQUEST
+     *
+     * @return NULL if the REQUEST was not stored, it may be stored on retry
+     * @throws ConstraintViolation if the DB rejects the REQUEST for good
      */
     Request create(Request request);
 
+    /**
+     * Insert REQUESTS in one statement
+     *
+     * @return FALSE if the REQUESTS were not stored
+     * @throws ConstraintViolation if the DB rejects some REQUEST for good, none is stored then
+     */
+    boolean createAll(List<Request> requests);
+
     /**
      * Update REQUEST
      */
@@ -28,6 +66,8 @@ public interface RequestDAO {
 
     /**
      * Delete REQUEST
+     *
+     * @return FALSE if the DB failed, the REQUEST may still be stored
      */
-    void delete(Request request);
+    boolean delete(Request request);
 }
@@ -2,6 +2,7 @@ package dao;
 
 import model.entity.Route;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RouteDAO {
@@ -21,11 +22,23 @@ public interface RouteDAO {
      */
     List<Route> findByFromId(String id);
 
+    /**
+     * Find ROUTES between given STATIONS that depart after given time
+     */
+    List<Route> findByStations(String fromId, String toId, LocalDateTime after);
+
     /**
      * Insert new ROUTE
      */
     Route create(Route route);
 
+    /**
+     * Insert ROUTES in one statement
+     *
+     * @return FALSE if the ROUTES were not stored
+     */
+    boolean createAll(List<Route> routes);
+
     /**
      * Update ROUTE
      */
@@ -0,0 +1,40 @@
+package dao;
+
+import model.entity.RouteStop;
+
+import java.util.List;
+
+
+public interface RouteStopDAO {
+    /**
+     * Find all ROUTE_STOPS in DB
+     */
+    List<RouteStop> findAll();
+
+    /**
+     * Find ROUTE_STOPS of given ROUTE ordered by number, empty for a ROUTE without intermediate stops
+     */
+    List<RouteStop> findByRoute(String routeId);
+
+    /**
+     * Find ROUTE_STOPS at given STATION
+     */
+    List<RouteStop> findByStation(String stationId);
+
+    /**
+     * Insert new ROUTE_STOP
+     */
+    RouteStop create(RouteStop stop);
+
+    /**
+     * Insert ROUTE_STOPS in one statement
+     *
+     * @return FALSE if the ROUTE_STOPS were not stored
+     */
+    boolean createAll(List<RouteStop> stops);
+
+    /**
+     * Delete ROUTE_STOP
+     */
+    void delete(RouteStop stop);
+}
@@ -21,6 +21,13 @@ public interface StationDAO {
      */
     Station create(Station station);
 
+    /**
+     * Insert STATIONS in one statement
+     *
+     * @return FALSE if the STATIONS were not stored
+     */
+    boolean createAll(List<Station> stations);
+
     /**
      * Update STATION
      */
@@ -1,5 +1,6 @@
 package dao;
 
+import dao.mysql.TypePlace;
 import model.entity.Train;
 
 import java.util.List;
@@ -26,14 +27,38 @@ public interface TrainDAO {
      */
     Train create(Train train);
 
+    /**
+     * Insert TRAINS in one statement
+     *
+     * @return FALSE if the TRAINS were not stored
+     */
+    boolean createAll(List<Train> trains);
+
     /**
      * Update TRAIN
      */
     Train update(Train train);
 
+    /**
+     * Set the free places of the TRAIN, the other columns are left as they are
+     */
+    void updateFree(String trainId, long compartmentFree, long deluxeFree, long berthFree);
+
     /**
      * Delete TRAIN
      */
     void delete(Train train);
 
+    /**
+     * Take {count} free places of given type in one atomic step
+     *
+     * @return FALSE if the TRAIN has less than {count} free places, nothing is taken then
+     */
+    boolean reservePlace(String trainId, TypePlace type, long count);
+
+    /**
+     * Give back {count} places of given type in one atomic step
+     */
+    void cancelPlace(String trainId, TypePlace type, long count);
+
 }
@@ -20,6 +20,11 @@ public interface UserDAO {
      */
     User findByEmail(String login);
 
+    /**
+     * Find USERS with or without admin rights
+     */
+    List<User> findByAdmin(boolean admin);
+
     /**
      * Insert new USER
      */
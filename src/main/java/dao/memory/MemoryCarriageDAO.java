@@ -0,0 +1,55 @@
+package dao.memory;
+
+import dao.CarriageDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
+import model.entity.Carriage;
+
+import java.util.Comparator;
+import java.util.List;
+
+class MemoryCarriageDAO implements CarriageDAO {
+    private static final Log LOG = Log.getLog(MemoryCarriageDAO.class);
+
+    private static final String TABLE_NAME = "carriage";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryCarriageDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<Carriage> findByTrain(String trainId) {
+        List<Carriage> result = dataBase.carriages.findBy(MemoryDataBase.TRAIN_ID, trainId);
+        result.sort(Comparator.comparing(Carriage::getNumber));
+        return result;
+    }
+
+    @Override
+    public Carriage create(Carriage carriage) {
+        dataBase.carriages.insert(carriage);
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, carriage.getId()));
+        return carriage;
+    }
+
+    @Override
+    public Carriage updateSeatMap(Carriage carriage) {
+        for (Carriage stored : dataBase.carriages.findBy(MemoryDataBase.TRAIN_ID, carriage.getTrainId())) {
+            if (stored.getNumber().equals(carriage.getNumber())) {
+                dataBase.carriages.update(new Carriage(stored.getId(), stored.getTrainId(), stored.getNumber(),
+                        stored.getType(), stored.getSeats(), carriage.getSeatMap()));
+                return carriage;
+            }
+        }
+
+        LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, carriage.getId()));
+        return carriage;
+    }
+
+    @Override
+    public void delete(Carriage carriage) {
+        dataBase.carriages.delete(carriage.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, carriage.getId()));
+    }
+}
@@ -0,0 +1,179 @@
+package dao.memory;
+
+import dao.mysql.TypePlace;
+import model.entity.Carriage;
+import model.entity.Price;
+import model.entity.Request;
+import model.entity.Route;
+import model.entity.RouteStop;
+import model.entity.Station;
+import model.entity.Train;
+import model.entity.User;
+import util.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static util.Configuration.MEMORY_SEED;
+
+/**
+ * All tables of the in-memory backend.
+ * The shared instance is seeded once from the JSON files named by config.memory.seed,
+ * separate instances (tests, benchmarks) start empty.
+ */
+public class MemoryDataBase {
+    private static MemoryDataBase INSTANCE;
+
+    static final String FROM_ID = "from_id";
+    static final String ROUTE_ID = "route_id";
+    static final String EMAIL = "email";
+    static final String TRAIN_ID = "train_id";
+    static final String USER_ID = "user_id";
+    static final String STATION_ID = "station_id";
+    static final String BOOKING_KEY = "booking_key";
+
+    final MemoryTable<Price> prices = new MemoryTable<>(Price::getId, Price::setId, MemoryDataBase::copy);
+    final MemoryTable<Station> stations = new MemoryTable<>(Station::getId, Station::setId, MemoryDataBase::copy);
+    final MemoryTable<Route> routes = new MemoryTable<Route>(Route::getId, Route::setId, MemoryDataBase::copy)
+            .index(FROM_ID, Route::getFromId);
+    final MemoryTable<Train> trains = new MemoryTable<Train>(Train::getId, Train::setId, MemoryDataBase::copy)
+            .index(ROUTE_ID, Train::getRouteId);
+    final MemoryTable<User> users = new MemoryTable<User>(User::getId, User::setId, MemoryDataBase::copy)
+            .index(EMAIL, User::getEmail);
+    final MemoryTable<Request> requests = new MemoryTable<Request>(Request::getId, Request::setId, MemoryDataBase::copy)
+            .index(TRAIN_ID, Request::getTrainId)
+            .index(USER_ID, Request::getUserId)
+            .index(BOOKING_KEY, Request::getBookingKey);
+    final MemoryTable<Carriage> carriages = new MemoryTable<Carriage>(Carriage::getId, Carriage::setId, MemoryDataBase::copy)
+            .index(TRAIN_ID, Carriage::getTrainId);
+    final MemoryTable<RouteStop> routeStops = new MemoryTable<RouteStop>(RouteStop::getId, RouteStop::setId, MemoryDataBase::copy)
+            .index(ROUTE_ID, RouteStop::getRouteId)
+            .index(STATION_ID, RouteStop::getStationId);
+
+    /**
+     * Free places of every TRAIN, the numbers stored in the TRAIN rows are ignored
+     */
+    final Map<String, Seats> seats = new ConcurrentHashMap<>();
+
+    public MemoryDataBase() {
+    }
+
+    public static MemoryDataBase getInstance() {
+        if (INSTANCE == null) {
+            synchronized (MemoryDataBase.class) {
+                if (INSTANCE == null) {
+                    MemoryDataBase dataBase = new MemoryDataBase();
+                    String seed = Configuration.getInstance().getConfig(MEMORY_SEED);
+                    if (!seed.trim().isEmpty()) {
+                        MemorySeeder.seed(dataBase, seed.trim());
+                    }
+                    INSTANCE = dataBase;
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    public void clear() {
+        prices.clear();
+        stations.clear();
+        routes.clear();
+        trains.clear();
+        users.clear();
+        requests.clear();
+        carriages.clear();
+        routeStops.clear();
+        seats.clear();
+    }
+
+    static final class Seats {
+        final AtomicLong berth;
+        final AtomicLong compartment;
+        final AtomicLong deluxe;
+
+        Seats(Train train) {
+            berth = new AtomicLong(valueOf(train.getBerthFree()));
+            compartment = new AtomicLong(valueOf(train.getCompartmentFree()));
+            deluxe = new AtomicLong(valueOf(train.getDeluxeFree()));
+        }
+
+        void set(Train train) {
+            set(valueOf(train.getCompartmentFree()), valueOf(train.getDeluxeFree()), valueOf(train.getBerthFree()));
+        }
+
+        void set(long compartmentFree, long deluxeFree, long berthFree) {
+            berth.set(berthFree);
+            compartment.set(compartmentFree);
+            deluxe.set(deluxeFree);
+        }
+
+        /**
+         * @return FALSE if the counter would go below zero, it is left unchanged then
+         */
+        boolean add(TypePlace type, long delta) {
+            AtomicLong counter = type == TypePlace.C ? compartment : type == TypePlace.L ? deluxe : berth;
+            while (true) {
+                long current = counter.get();
+                long next = current + delta;
+                if (next < 0)
+                    return false;
+                if (counter.compareAndSet(current, next))
+                    return true;
+            }
+        }
+
+        Train fill(Train train) {
+            train.setBerthFree(berth.get());
+            train.setCompartmentFree(compartment.get());
+            train.setDeluxeFree(deluxe.get());
+            return train;
+        }
+
+        private static long valueOf(Long value) {
+            return value == null ? 0 : value;
+        }
+    }
+
+    private static Price copy(Price price) {
+        Price result = new Price(price.getCompartmentFactor(), price.getDeluxeFactor(), price.getBerthFactor());
+        result.setId(price.getId());
+        return result;
+    }
+
+    private static Station copy(Station station) {
+        return new Station(station.getId(), station.getName());
+    }
+
+    private static Route copy(Route route) {
+        return new Route(route.getId(), route.getPriceId(), route.getFromId(), route.getToId(),
+                route.getFromTime(), route.getToTime(), route.getDistance());
+    }
+
+    private static RouteStop copy(RouteStop stop) {
+        return new RouteStop(stop.getId(), stop.getRouteId(), stop.getNumber(), stop.getStationId(),
+                stop.getArrival(), stop.getDeparture(), stop.getDistance());
+    }
+
+    private static Train copy(Train train) {
+        return new Train(train.getId(), train.getRouteId(),
+                train.getCompartmentFree(), train.getDeluxeFree(), train.getBerthFree());
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getSurname(), user.getPhone(),
+                user.getEmail(), user.getPassword(), user.getAdmin());
+    }
+
+    private static Request copy(Request request) {
+        return new Request(request.getId(), request.getUserId(), request.getTrainId(),
+                request.getType(), request.getPrice(), request.getCarriage(), request.getSeat(),
+                request.getFromStop(), request.getToStop(), request.getBookingKey(), request.getBookingSeq());
+    }
+
+    private static Carriage copy(Carriage carriage) {
+        return new Carriage(carriage.getId(), carriage.getTrainId(), carriage.getNumber(), carriage.getType(),
+                carriage.getSeats(), carriage.getSeatMap() == null ? null : carriage.getSeatMap().clone());
+    }
+}
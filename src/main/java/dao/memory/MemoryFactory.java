@@ -0,0 +1,80 @@
+package dao.memory;
+
+import dao.CarriageDAO;
+import dao.DAOFactory;
+import dao.PriceDAO;
+import dao.RequestDAO;
+import dao.RouteDAO;
+import dao.RouteStopDAO;
+import dao.StationDAO;
+import dao.TrainDAO;
+import dao.UserDAO;
+
+public class MemoryFactory implements DAOFactory {
+    private final MemoryPriceDAO priceDAO;
+    private final MemoryRequestDAO requestDAO;
+    private final MemoryRouteDAO routeDAO;
+    private final MemoryTrainDAO trainDAO;
+    private final MemoryUserDAO userDAO;
+    private final MemoryStationDAO stationDAO;
+    private final MemoryCarriageDAO carriageDAO;
+    private final MemoryRouteStopDAO routeStopDAO;
+
+    /**
+     * Factory over the shared, seeded MemoryDataBase
+     */
+    public MemoryFactory() {
+        this(MemoryDataBase.getInstance());
+    }
+
+    public MemoryFactory(MemoryDataBase dataBase) {
+        priceDAO = new MemoryPriceDAO(dataBase);
+        requestDAO = new MemoryRequestDAO(dataBase);
+        routeDAO = new MemoryRouteDAO(dataBase);
+        trainDAO = new MemoryTrainDAO(dataBase);
+        userDAO = new MemoryUserDAO(dataBase);
+        stationDAO = new MemoryStationDAO(dataBase);
+        carriageDAO = new MemoryCarriageDAO(dataBase);
+        routeStopDAO = new MemoryRouteStopDAO(dataBase);
+    }
+
+    @Override
+    public PriceDAO createPriceDAO() {
+        return priceDAO;
+    }
+
+    @Override
+    public RequestDAO createRequestDAO() {
+        return requestDAO;
+    }
+
+    @Override
+    public RouteDAO createRouteDAO() {
+        return routeDAO;
+    }
+
+    @Override
+    public TrainDAO createTrainDAO() {
+        return trainDAO;
+    }
+
+    @Override
+    public UserDAO createUserDAO() {
+        return userDAO;
+    }
+
+    @Override
+    public StationDAO createStationDAO() {
+        return stationDAO;
+    }
+
+    @Override
+    public CarriageDAO createCarriageDAO() {
+        return carriageDAO;
+    }
+
+    @Override
+    public RouteStopDAO createRouteStopDAO() {
+        return routeStopDAO;
+    }
+}
@@ -0,0 +1,59 @@
+package dao.memory;
+
+import dao.PriceDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
+import model.entity.Price;
+
+import java.util.List;
+
+class MemoryPriceDAO implements PriceDAO {
+    private static final Log LOG = Log.getLog(MemoryPriceDAO.class);
+
+    private static final String TABLE_NAME = "price";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryPriceDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<Price> findAll() {
+        return dataBase.prices.findAll();
+    }
+
+    @Override
+    public Price findById(String id) {
+        return dataBase.prices.findById(id);
+    }
+
+    @Override
+    public Price create(Price price) {
+        dataBase.prices.insert(price);
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, price.getId()));
+        return price;
+    }
+
+    @Override
+    public boolean createAll(List<Price> prices) {
+        for (Price price : prices) {
+            create(price);
+        }
+        return true;
+    }
+
+    @Override
+    public Price update(Price price) {
+        if (dataBase.prices.update(price) == null) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, price.getId()));
+        }
+        return price;
+    }
+
+    @Override
+    public void delete(Price price) {
+        dataBase.prices.delete(price.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, price.getId()));
+    }
+}
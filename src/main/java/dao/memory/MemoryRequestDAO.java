@@ -0,0 +1,106 @@
+package dao.memory;
+
+import dao.RequestDAO;
+import dao.mysql.TypePlace;
+import dao.mysql.util.LogMessageDAOUtil;
+import dto.BookingFilter;
+import dto.BookingRow;
+import log.Log;
+import model.entity.Request;
+import model.entity.Route;
+import model.entity.Train;
+import model.entity.User;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+class MemoryRequestDAO implements RequestDAO {
+    private static final Log LOG = Log.getLog(MemoryRequestDAO.class);
+
+    private static final String TABLE_NAME = "request";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryRequestDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<Request> findAll() {
+        return dataBase.requests.findAll();
+    }
+
+    @Override
+    public Request findById(String id) {
+        return dataBase.requests.findById(id);
+    }
+
+    @Override
+    public List<Request> findByTrain(String trainId) {
+        return dataBase.requests.findBy(MemoryDataBase.TRAIN_ID, trainId);
+    }
+
+    @Override
+    public List<Request> findByTrain(String trainId, TypePlace type) {
+        List<Request> result = findByTrain(trainId);
+        result.removeIf(request -> request.getType() != type);
+        return result;
+    }
+
+    @Override
+    public List<Request> findByBookingKey(String bookingKey) {
+        return dataBase.requests.findBy(MemoryDataBase.BOOKING_KEY, bookingKey);
+    }
+
+    /**
+     * A REQUEST whose USER, TRAIN or ROUTE is gone is skipped, like the inner join of the DB does
+     */
+    @Override
+    public void forEachBooking(BookingFilter filter, Consumer<BookingRow> consumer) {
+        dataBase.requests.forEach(request -> {
+            Train train = dataBase.trains.findById(request.getTrainId());
+            Route route = train == null ? null : dataBase.routes.findById(train.getRouteId());
+            User user = dataBase.users.findById(request.getUserId());
+            if (route == null || user == null || !filter.matches(request, route))
+                return;
+
+            BookingRow row = new BookingRow();
+            row.setRequest(request);
+            row.setEmail(user.getEmail());
+            row.setName(user.getName());
+            row.setSurname(user.getSurname());
+            row.setRouteId(route.getId());
+            consumer.accept(row);
+        });
+    }
+
+    @Override
+    public Request create(Request request) {
+        dataBase.requests.insert(request);
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, request.getId()));
+        return request;
+    }
+
+    @Override
+    public boolean createAll(List<Request> requests) {
+        for (Request request : requests) {
+            create(request);
+        }
+        return true;
+    }
+
+    @Override
+    public Request update(Request request) {
+        if (dataBase.requests.update(request) == null) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, request.getId()));
+        }
+        return request;
+    }
+
+    @Override
+    public boolean delete(Request request) {
+        dataBase.requests.delete(request.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, request.getId()));
+        return true;
+    }
+}
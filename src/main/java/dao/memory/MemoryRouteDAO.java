@@ -0,0 +1,77 @@
+package dao.memory;
+
+import dao.RouteDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
+import model.entity.Route;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class MemoryRouteDAO implements RouteDAO {
+    private static final Log LOG = Log.getLog(MemoryRouteDAO.class);
+
+    private static final String TABLE_NAME = "route";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryRouteDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<Route> findAll() {
+        return dataBase.routes.findAll();
+    }
+
+    @Override
+    public Route findById(String id) {
+        return dataBase.routes.findById(id);
+    }
+
+    @Override
+    public List<Route> findByFromId(String id) {
+        return dataBase.routes.findBy(MemoryDataBase.FROM_ID, id);
+    }
+
+    @Override
+    public List<Route> findByStations(String fromId, String toId, LocalDateTime after) {
+        List<Route> result = new ArrayList<>();
+        for (Route route : dataBase.routes.findBy(MemoryDataBase.FROM_ID, fromId)) {
+            if (route.getToId().equals(toId) && route.getFromTime().isAfter(after)) {
+                result.add(route);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Route create(Route route) {
+        dataBase.routes.insert(route);
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, route.getId()));
+        return route;
+    }
+
+    @Override
+    public boolean createAll(List<Route> routes) {
+        for (Route route : routes) {
+            create(route);
+        }
+        return true;
+    }
+
+    @Override
+    public Route update(Route route) {
+        if (dataBase.routes.update(route) == null) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, route.getId()));
+        }
+        return route;
+    }
+
+    @Override
+    public void delete(Route route) {
+        dataBase.routes.delete(route.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, route.getId()));
+    }
+}
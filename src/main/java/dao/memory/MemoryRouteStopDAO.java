@@ -0,0 +1,59 @@
+package dao.memory;
+
+import dao.RouteStopDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
+import model.entity.RouteStop;
+
+import java.util.Comparator;
+import java.util.List;
+
+class MemoryRouteStopDAO implements RouteStopDAO {
+    private static final Log LOG = Log.getLog(MemoryRouteStopDAO.class);
+
+    private static final String TABLE_NAME = "route_stop";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryRouteStopDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<RouteStop> findAll() {
+        return dataBase.routeStops.findAll();
+    }
+
+    @Override
+    public List<RouteStop> findByRoute(String routeId) {
+        List<RouteStop> result = dataBase.routeStops.findBy(MemoryDataBase.ROUTE_ID, routeId);
+        result.sort(Comparator.comparing(RouteStop::getNumber));
+        return result;
+    }
+
+    @Override
+    public List<RouteStop> findByStation(String stationId) {
+        return dataBase.routeStops.findBy(MemoryDataBase.STATION_ID, stationId);
+    }
+
+    @Override
+    public RouteStop create(RouteStop stop) {
+        dataBase.routeStops.insert(stop);
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, stop.getId()));
+        return stop;
+    }
+
+    @Override
+    public boolean createAll(List<RouteStop> stops) {
+        for (RouteStop stop : stops) {
+            create(stop);
+        }
+        return true;
+    }
+
+    @Override
+    public void delete(RouteStop stop) {
+        dataBase.routeStops.delete(stop.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, stop.getId()));
+    }
+}
@@ -0,0 +1,141 @@
+package dao.memory;
+
+import dao.mysql.TypePlace;
+import log.Log;
+import model.entity.Price;
+import model.entity.Request;
+import model.entity.Route;
+import model.entity.RouteStop;
+import model.entity.Station;
+import model.entity.Train;
+import model.entity.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import util.DateTimes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Loads the mongoimport JSON files (resources/json) into a MemoryDataBase.
+ * The files use the shell syntax ObjectId("..."), so they are parsed with the BSON JSON reader.
+ */
+public class MemorySeeder {
+    private static final Log LOG = Log.getLog(MemorySeeder.class);
+
+    private static final String DATA = "data";
+    private static final String EXTENSION = ".json";
+
+    private static final String PRICES = "prices";
+    private static final String STATIONS = "stations";
+    private static final String ROUTES = "routes";
+    private static final String ROUTE_STOPS = "route_stops";
+    private static final String TRAINS = "trains";
+    private static final String USERS = "users";
+    private static final String REQUESTS = "requests";
+
+    private static final String LABEL_ID = "_id";
+
+    private MemorySeeder() {
+    }
+
+    /**
+     * @param directory classpath directory with prices.json, stations.json, ..., missing files are skipped
+     */
+    public static void seed(MemoryDataBase dataBase, String directory) {
+        for (Document document : read(directory, PRICES)) {
+            Price price = new Price(number(document, "compartment_factor"), number(document, "deluxe_factor"),
+                    number(document, "berth_factor"));
+            price.setId(id(document, LABEL_ID));
+            dataBase.prices.insert(price);
+        }
+
+        for (Document document : read(directory, STATIONS)) {
+            dataBase.stations.insert(new Station(id(document, LABEL_ID), document.getString("name")));
+        }
+
+        for (Document document : read(directory, ROUTES)) {
+            dataBase.routes.insert(new Route(id(document, LABEL_ID), id(document, "price_id"),
+                    id(document, "from_id"), id(document, "to_id"),
+                    DateTimes.parse(document.getString("from_time")), DateTimes.parse(document.getString("to_time")),
+                    number(document, "distance")));
+        }
+
+        for (Document document : read(directory, ROUTE_STOPS)) {
+            dataBase.routeStops.insert(new RouteStop(id(document, LABEL_ID), id(document, "route_id"),
+                    document.getInteger("number"), id(document, "station_id"),
+                    DateTimes.parse(document.getString("arrival")), DateTimes.parse(document.getString("departure")),
+                    number(document, "distance")));
+        }
+
+        for (Document document : read(directory, TRAINS)) {
+            Train train = new Train(id(document, LABEL_ID), id(document, "route_id"),
+                    count(document, "compartment_free"), count(document, "deluxe_free"),
+                    count(document, "berth_free"));
+            dataBase.trains.insert(train);
+            dataBase.seats.put(train.getId(), new MemoryDataBase.Seats(train));
+        }
+
+        for (Document document : read(directory, USERS)) {
+            dataBase.users.insert(new User(id(document, LABEL_ID), document.getString("name"),
+                    document.getString("surname"), document.getString("phone"), document.getString("email"),
+                    document.getString("password"), document.getBoolean("admin", false)));
+        }
+
+        for (Document document : read(directory, REQUESTS)) {
+            dataBase.requests.insert(new Request(id(document, LABEL_ID), id(document, "user_id"),
+                    id(document, "train_id"), TypePlace.valueOf(document.getString("type")),
+                    number(document, "price"), null, null, null, null, null, null));
+        }
+
+        LOG.info("memory db seeded", "directory", directory, "stations", dataBase.stations.size(),
+                "routes", dataBase.routes.size(), "stops", dataBase.routeStops.size(),
+                "trains", dataBase.trains.size(),
+                "users", dataBase.users.size(), "requests", dataBase.requests.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> read(String directory, String collection) {
+        String resource = directory + "/" + collection + EXTENSION;
+        try (InputStream in = MemorySeeder.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                LOG.warning("seed file not found", "resource", resource);
+                return Collections.emptyList();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+
+            return (List<Document>) Document.parse("{\"" + DATA + "\": " + new String(out.toByteArray(), UTF_8) + "}")
+                    .get(DATA);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read seed file " + resource, e);
+        }
+    }
+
+    private static String id(Document document, String label) {
+        Object value = document.get(label);
+        if (value instanceof ObjectId)
+            return ((ObjectId) value).toHexString();
+        return value == null ? null : value.toString();
+    }
+
+    private static Double number(Document document, String label) {
+        Object value = document.get(label);
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+
+    private static Long count(Document document, String label) {
+        Object value = document.get(label);
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
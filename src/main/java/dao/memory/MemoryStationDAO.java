@@ -0,0 +1,59 @@
+package dao.memory;
+
+import dao.StationDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
+import model.entity.Station;
+
+import java.util.List;
+
+class MemoryStationDAO implements StationDAO {
+    private static final Log LOG = Log.getLog(MemoryStationDAO.class);
+
+    private static final String TABLE_NAME = "station";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryStationDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<Station> findAll() {
+        return dataBase.stations.findAll();
+    }
+
+    @Override
+    public Station findById(String id) {
+        return dataBase.stations.findById(id);
+    }
+
+    @Override
+    public Station create(Station station) {
+        dataBase.stations.insert(station);
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, station.getId()));
+        return station;
+    }
+
+    @Override
+    public boolean createAll(List<Station> stations) {
+        for (Station station : stations) {
+            create(station);
+        }
+        return true;
+    }
+
+    @Override
+    public Station update(Station station) {
+        if (dataBase.stations.update(station) == null) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, station.getId()));
+        }
+        return station;
+    }
+
+    @Override
+    public void delete(Station station) {
+        dataBase.stations.delete(station.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, station.getId()));
+    }
+}
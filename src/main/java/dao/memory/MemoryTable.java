@@ -0,0 +1,156 @@
+package dao.memory;
+
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rows of one entity by ID plus secondary indexes by any String column.
+ * Reads are lock-free, writes are serialized per table so indexes always match the rows.
+ * Rows are copied on the way in and out, like a real DB does.
+ */
+class MemoryTable<T> {
+    private final Map<String, T> rows = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<String>>> indexes = new ConcurrentHashMap<>();
+    private final Map<String, Function<T, String>> columns = new ConcurrentHashMap<>();
+
+    private final Function<T, String> getId;
+    private final BiConsumer<T, String> setId;
+    private final UnaryOperator<T> copy;
+
+    MemoryTable(Function<T, String> getId, BiConsumer<T, String> setId, UnaryOperator<T> copy) {
+        this.getId = getId;
+        this.setId = setId;
+        this.copy = copy;
+    }
+
+    /**
+     * Adds a secondary index, must be called before the first insert
+     */
+    MemoryTable<T> index(String name, Function<T, String> column) {
+        columns.put(name, column);
+        indexes.put(name, new ConcurrentHashMap<>());
+        return this;
+    }
+
+    List<T> findAll() {
+        List<T> result = new ArrayList<>(rows.size());
+        for (T row : rows.values()) {
+            result.add(copy.apply(row));
+        }
+        return result;
+    }
+
+    /**
+     * Copies the rows one at a time, unlike {@link #findAll()}
+     */
+    void forEach(Consumer<T> consumer) {
+        for (T row : rows.values()) {
+            consumer.accept(copy.apply(row));
+        }
+    }
+
+    T findById(String id) {
+        if (id == null)
+            return null;
+
+        T row = rows.get(id);
+        return row == null ? null : copy.apply(row);
+    }
+
+    List<T> findBy(String index, String value) {
+        if (value == null)
+            return new ArrayList<>();
+
+        Set<String> ids = indexes.get(index).getOrDefault(value, Collections.emptySet());
+        List<T> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            T row = rows.get(id);
+            if (row != null)
+                result.add(copy.apply(row));
+        }
+        return result;
+    }
+
+    T findFirstBy(String index, String value) {
+        List<T> result = findBy(index, value);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Inserts a row, an ID is generated when the row has none
+     */
+    synchronized T insert(T row) {
+        if (getId.apply(row) == null)
+            setId.accept(row, new ObjectId().toHexString());
+
+        save(row);
+        return row;
+    }
+
+    /**
+     * @return the row, or NULL if there is no row with its ID
+     */
+    synchronized T update(T row) {
+        if (!rows.containsKey(getId.apply(row)))
+            return null;
+
+        save(row);
+        return row;
+    }
+
+    synchronized void delete(String id) {
+        T old = rows.remove(id);
+        if (old != null)
+            unindex(id, old);
+    }
+
+    synchronized void clear() {
+        rows.clear();
+        for (Map<String, Set<String>> index : indexes.values()) {
+            index.clear();
+        }
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    private void save(T row) {
+        String id = getId.apply(row);
+        T old = rows.put(id, copy.apply(row));
+        if (old != null)
+            unindex(id, old);
+
+        for (Map.Entry<String, Function<T, String>> column : columns.entrySet()) {
+            String value = column.getValue().apply(row);
+            if (value != null)
+                indexes.get(column.getKey()).computeIfAbsent(value, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void unindex(String id, T old) {
+        for (Map.Entry<String, Function<T, String>> column : columns.entrySet()) {
+            String value = column.getValue().apply(old);
+            if (value == null)
+                continue;
+
+            Map<String, Set<String>> index = indexes.get(column.getKey());
+            Set<String> ids = index.get(value);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty())
+                    index.remove(value);
+            }
+        }
+    }
+}
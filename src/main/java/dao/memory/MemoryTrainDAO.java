@@ -0,0 +1,113 @@
+package dao.memory;
+
+import dao.TrainDAO;
+import dao.mysql.TypePlace;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
+import model.entity.Train;
+
+import java.util.List;
+
+/**
+ * Free places live in atomic counters next to the TRAIN rows,
+ * so concurrent bookings never lose an update of each other.
+ */
+class MemoryTrainDAO implements TrainDAO {
+    private static final Log LOG = Log.getLog(MemoryTrainDAO.class);
+
+    private static final String TABLE_NAME = "train";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryTrainDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<Train> findAll() {
+        return fill(dataBase.trains.findAll());
+    }
+
+    @Override
+    public List<Train> findByRoute(String route_id) {
+        return fill(dataBase.trains.findBy(MemoryDataBase.ROUTE_ID, route_id));
+    }
+
+    @Override
+    public Train findById(String id) {
+        return fill(dataBase.trains.findById(id));
+    }
+
+    @Override
+    public Train create(Train train) {
+        dataBase.trains.insert(train);
+        dataBase.seats.put(train.getId(), new MemoryDataBase.Seats(train));
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, train.getId()));
+        return train;
+    }
+
+    @Override
+    public boolean createAll(List<Train> trains) {
+        for (Train train : trains) {
+            create(train);
+        }
+        return true;
+    }
+
+    @Override
+    public Train update(Train train) {
+        if (dataBase.trains.update(train) == null) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, train.getId()));
+            return train;
+        }
+
+        dataBase.seats.computeIfAbsent(train.getId(), id -> new MemoryDataBase.Seats(train)).set(train);
+        return train;
+    }
+
+    @Override
+    public void updateFree(String trainId, long compartmentFree, long deluxeFree, long berthFree) {
+        MemoryDataBase.Seats seats = dataBase.seats.get(trainId);
+        if (seats == null) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, trainId));
+            return;
+        }
+
+        seats.set(compartmentFree, deluxeFree, berthFree);
+    }
+
+    @Override
+    public void delete(Train train) {
+        dataBase.trains.delete(train.getId());
+        dataBase.seats.remove(train.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, train.getId()));
+    }
+
+    @Override
+    public boolean reservePlace(String trainId, TypePlace type, long count) {
+        MemoryDataBase.Seats seats = dataBase.seats.get(trainId);
+        return seats != null && seats.add(type, -count);
+    }
+
+    @Override
+    public void cancelPlace(String trainId, TypePlace type, long count) {
+        MemoryDataBase.Seats seats = dataBase.seats.get(trainId);
+        if (seats != null)
+            seats.add(type, count);
+    }
+
+    private List<Train> fill(List<Train> trains) {
+        for (Train train : trains) {
+            fill(train);
+        }
+        return trains;
+    }
+
+    private Train fill(Train train) {
+        if (train == null)
+            return null;
+
+        MemoryDataBase.Seats seats = dataBase.seats.get(train.getId());
+        return seats == null ? train : seats.fill(train);
+    }
+}
@@ -0,0 +1,68 @@
+package dao.memory;
+
+import dao.UserDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
+import model.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class MemoryUserDAO implements UserDAO {
+    private static final Log LOG = Log.getLog(MemoryUserDAO.class);
+
+    private static final String TABLE_NAME = "user";
+
+    private final MemoryDataBase dataBase;
+
+    MemoryUserDAO(MemoryDataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return dataBase.users.findAll();
+    }
+
+    @Override
+    public User findById(String id) {
+        return dataBase.users.findById(id);
+    }
+
+    @Override
+    public User findByEmail(String login) {
+        return dataBase.users.findFirstBy(MemoryDataBase.EMAIL, login);
+    }
+
+    @Override
+    public List<User> findByAdmin(boolean admin) {
+        List<User> result = new ArrayList<>();
+        for (User user : dataBase.users.findAll()) {
+            if (user.isAdmin() == admin) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public User create(User user) {
+        dataBase.users.insert(user);
+        LOG.fine(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, user.getId()));
+        return user;
+    }
+
+    @Override
+    public User update(User user) {
+        if (dataBase.users.update(user) == null) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, user.getId()));
+        }
+        return user;
+    }
+
+    @Override
+    public void delete(User user) {
+        dataBase.users.delete(user.getId());
+        LOG.fine(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, user.getId()));
+    }
+}
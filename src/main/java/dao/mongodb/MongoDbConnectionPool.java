@@ -5,6 +5,7 @@ import com.mongodb.MongoClientOptions;
 import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
 import com.mongodb.client.MongoDatabase;
+import dao.monitoring.MongoQueryListener;
 import util.MongoDbConfiguration;
 
 import static java.util.Collections.singletonList;
@@ -34,6 +35,7 @@ public class MongoDbConnectionPool {
 
         MongoClientOptions options = MongoClientOptions.builder()
                 .sslEnabled(false)
+                .addCommandListener(new MongoQueryListener())
                 .build();
 
         client = new MongoClient(address, singletonList(credential), options);
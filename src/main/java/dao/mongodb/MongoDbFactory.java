@@ -1,9 +1,11 @@
 package dao.mongodb;
 
+import dao.CarriageDAO;
 import dao.DAOFactory;
 import dao.PriceDAO;
 import dao.RequestDAO;
 import dao.RouteDAO;
+import dao.RouteStopDAO;
 import dao.StationDAO;
 import dao.TrainDAO;
 import dao.UserDAO;
@@ -39,4 +41,14 @@ public class MongoDbFactory implements DAOFactory {
     public StationDAO createStationDAO() {
         return MongoDbStationDAO.getInstance();
     }
+
+    @Override
+    public CarriageDAO createCarriageDAO() {
+        return null;
+    }
+
+    @Override
+    public RouteStopDAO createRouteStopDAO() {
+        return null;
+    }
 }
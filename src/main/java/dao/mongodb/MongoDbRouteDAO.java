@@ -1,17 +1,28 @@
 package dao.mongodb;
 
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
 import dao.RouteDAO;
 import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
 import model.entity.Route;
 import org.bson.Document;
+import org.bson.types.ObjectId;
+import util.DateTimes;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
 
 public class MongoDbRouteDAO implements RouteDAO {
-    private static final Logger LOG = Logger.getLogger(MongoDbUserDAO.class.getName());
+    private static final Log LOG = Log.getLog(MongoDbRouteDAO.class);
     private static final MongoDbRouteDAO INSTANCE = new MongoDbRouteDAO();
 
     private static final String COLLECTION_NAME = "routes";
@@ -44,7 +55,7 @@ public class MongoDbRouteDAO implements RouteDAO {
             routes.add(getRoute(document));
         }
 
-        LOG.info(LogMessageDAOUtil.createInfoFindAll(COLLECTION_NAME));
+        LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(COLLECTION_NAME));
         return routes;
     }
 
@@ -58,11 +69,54 @@ public class MongoDbRouteDAO implements RouteDAO {
         return null;
     }
 
+    /**
+     * Times are stored as "yyyy-MM-dd HH:mm:ss" strings, which compare in time order
+     */
+    @Override
+    public List<Route> findByStations(String fromId, String toId, LocalDateTime after) {
+        MongoCollection<Document> collection = MongoDbConnectionPool.getInstance().getConnection()
+                .getCollection(COLLECTION_NAME);
+        List<Route> routes = new ArrayList<>();
+
+        for (Document document : collection.find(and(eq(LABEL_FROM_ID, new ObjectId(fromId)),
+                eq(LABEL_TO_ID, new ObjectId(toId)), gt(LABEL_FROM_TIME, DateTimes.format(after))))) {
+            routes.add(getRoute(document));
+        }
+
+        LOG.fine("find routes by stations", "fromId", fromId, "toId", toId, "after", after);
+        return routes;
+    }
+
     @Override
     public Route create(Route route) {
         return null;
     }
 
+    /**
+     * One unordered bulk write, a ROUTE that fails does not stop the others
+     */
+    @Override
+    public boolean createAll(List<Route> routes) {
+        if (routes.isEmpty())
+            return true;
+
+        MongoCollection<Document> collection = MongoDbConnectionPool.getInstance().getConnection()
+                .getCollection(COLLECTION_NAME);
+        List<InsertOneModel<Document>> inserts = new ArrayList<>(routes.size());
+        for (Route route : routes) {
+            inserts.add(new InsertOneModel<>(getDocument(route)));
+        }
+
+        try {
+            BulkWriteResult result = collection.bulkWrite(inserts, new BulkWriteOptions().ordered(false));
+            LOG.info("create routes", "collection", COLLECTION_NAME, "rows", result.getInsertedCount());
+            return result.getInsertedCount() == routes.size();
+        } catch (MongoBulkWriteException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(COLLECTION_NAME), e);
+            return false;
+        }
+    }
+
     @Override
     public Route update(Route route) {
         return null;
@@ -82,11 +136,24 @@ public class MongoDbRouteDAO implements RouteDAO {
         result.setFromId(document.getObjectId(LABEL_FROM_ID).toHexString());
         result.setToId(document.getObjectId(LABEL_TO_ID).toHexString());
 
-        result.setFromTime(document.getString(LABEL_FROM_TIME));
-        result.setToTime(document.getString(LABEL_TO_TIME));
+        result.setFromTime(DateTimes.parse(document.getString(LABEL_FROM_TIME)));
+        result.setToTime(DateTimes.parse(document.getString(LABEL_TO_TIME)));
 
         result.setDistance(document.getDouble(LABEL_DISTANCE));
 
         return result;
     }
+
+    /**
+     * The same layout as routes.json: ObjectId keys, times as "yyyy-MM-dd HH:mm:ss" strings
+     */
+    private Document getDocument(Route route) {
+        return new Document(LABEL_ID, new ObjectId(route.getId()))
+                .append(LABEL_FROM_TIME, DateTimes.format(route.getFromTime()))
+                .append(LABEL_TO_TIME, DateTimes.format(route.getToTime()))
+                .append(LABEL_PRICE_ID, new ObjectId(route.getPriceId()))
+                .append(LABEL_FROM_ID, new ObjectId(route.getFromId()))
+                .append(LABEL_TO_ID, new ObjectId(route.getToId()))
+                .append(LABEL_DISTANCE, route.getDistance());
+    }
 }
@@ -1,18 +1,24 @@
 package dao.mongodb;
 
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
 import dao.StationDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
 import model.entity.Station;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 import static com.mongodb.client.model.Filters.eq;
 
 public class MongoDbStationDAO implements StationDAO {
-    private static final Logger LOG = Logger.getLogger(MongoDbUserDAO.class.getName());
+    private static final Log LOG = Log.getLog(MongoDbStationDAO.class);
     private static final MongoDbStationDAO INSTANCE = new MongoDbStationDAO();
 
     private static final String COLLECTION_NAME = "stations";
@@ -46,6 +52,31 @@ public class MongoDbStationDAO implements StationDAO {
         return null;
     }
 
+    /**
+     * One unordered bulk write, a STATION that fails does not stop the others
+     */
+    @Override
+    public boolean createAll(List<Station> stations) {
+        if (stations.isEmpty())
+            return true;
+
+        MongoCollection<Document> collection = MongoDbConnectionPool.getInstance().getConnection()
+                .getCollection(COLLECTION_NAME);
+        List<InsertOneModel<Document>> inserts = new ArrayList<>(stations.size());
+        for (Station station : stations) {
+            inserts.add(new InsertOneModel<>(getDocument(station)));
+        }
+
+        try {
+            BulkWriteResult result = collection.bulkWrite(inserts, new BulkWriteOptions().ordered(false));
+            LOG.info("create stations", "collection", COLLECTION_NAME, "rows", result.getInsertedCount());
+            return result.getInsertedCount() == stations.size();
+        } catch (MongoBulkWriteException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(COLLECTION_NAME), e);
+            return false;
+        }
+    }
+
     @Override
     public Station update(Station station) {
         return null;
@@ -64,4 +95,9 @@ public class MongoDbStationDAO implements StationDAO {
 
         return result;
     }
+
+    private Document getDocument(Station station) {
+        return new Document(LABEL_ID, new ObjectId(station.getId()))
+                .append(LABEL_NAME, station.getName());
+    }
 }
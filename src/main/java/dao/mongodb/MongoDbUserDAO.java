@@ -3,18 +3,18 @@ package dao.mongodb;
 import com.mongodb.client.MongoCollection;
 import dao.UserDAO;
 import dao.mysql.util.LogMessageDAOUtil;
+import log.Log;
 import model.entity.User;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 import static com.mongodb.client.model.Filters.eq;
 
 public class MongoDbUserDAO implements UserDAO {
-    private static final Logger LOG = Logger.getLogger(MongoDbUserDAO.class.getName());
+    private static final Log LOG = Log.getLog(MongoDbUserDAO.class);
     private static final MongoDbUserDAO INSTANCE = new MongoDbUserDAO();
 
     private static final String COLLECTION_NAME = "users";
@@ -44,7 +44,7 @@ public class MongoDbUserDAO implements UserDAO {
             users.add(getUser(document));
         }
 
-        LOG.info(LogMessageDAOUtil.createInfoFindAll(COLLECTION_NAME));
+        LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(COLLECTION_NAME));
         return users;
     }
 
@@ -66,6 +66,20 @@ public class MongoDbUserDAO implements UserDAO {
         return getUser(document);
     }
 
+    @Override
+    public List<User> findByAdmin(boolean admin) {
+        MongoCollection<Document> collection = MongoDbConnectionPool.getInstance().getConnection()
+                .getCollection(COLLECTION_NAME);
+        List<User> users = new ArrayList<>();
+
+        for (Document document : collection.find(eq(LABEL_ADMIN, admin))) {
+            users.add(getUser(document));
+        }
+
+        LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(COLLECTION_NAME, LABEL_ADMIN, admin));
+        return users;
+    }
+
     @Override
     public User create(User user) {
         MongoCollection<Document> collection = MongoDbConnectionPool.getInstance().getConnection()
@@ -81,7 +95,7 @@ public class MongoDbUserDAO implements UserDAO {
         collection.insertOne(document);
 
         user.setId(document.getObjectId(LABEL_ID).toHexString());
-        LOG.info(LogMessageDAOUtil.createInfoCreate(COLLECTION_NAME, user.getId()));
+        LOG.info(() -> LogMessageDAOUtil.createInfoCreate(COLLECTION_NAME, user.getId()));
         return user;
     }
 
@@ -92,7 +106,7 @@ public class MongoDbUserDAO implements UserDAO {
 
         collection.findOneAndUpdate(eq(LABEL_ID, new ObjectId(user.getId())), new Document("$set", user));
 
-        LOG.info(LogMessageDAOUtil.createInfoUpdate(COLLECTION_NAME, user.getId()));
+        LOG.info(() -> LogMessageDAOUtil.createInfoUpdate(COLLECTION_NAME, user.getId()));
         return user;
     }
 
@@ -103,7 +117,7 @@ public class MongoDbUserDAO implements UserDAO {
 
         collection.deleteOne(eq(LABEL_ID, new ObjectId(user.getId())));
 
-        LOG.info(LogMessageDAOUtil.createInfoDelete(COLLECTION_NAME, user.getId()));
+        LOG.info(() -> LogMessageDAOUtil.createInfoDelete(COLLECTION_NAME, user.getId()));
     }
 
     private User getUser(Document document) {
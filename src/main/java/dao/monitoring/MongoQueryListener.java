@@ -0,0 +1,74 @@
+package dao.monitoring;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records MongoDB commands in the QueryStats of the current request.
+ * The synchronous driver reports events on the calling thread, so the thread-bound context is reachable.
+ * The shape of a command is its name and collection, e.g. "find route".
+ */
+public class MongoQueryListener implements CommandListener {
+    private static final String CURSOR = "cursor";
+    private static final String FIRST_BATCH = "firstBatch";
+    private static final String NEXT_BATCH = "nextBatch";
+    private static final String COUNT = "n";
+
+    private final ThreadLocal<String> shape = new ThreadLocal<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (QueryContext.current() == null)
+            return;
+
+        BsonValue collection = event.getCommand().get(event.getCommandName());
+        shape.set(collection != null && collection.isString()
+                ? event.getCommandName() + " " + collection.asString().getValue()
+                : event.getCommandName());
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        QueryStats stats = QueryContext.current();
+        String command = shape.get();
+        shape.remove();
+        if (stats == null || command == null)
+            return;
+
+        long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        stats.queried(command, nanos);
+        stats.fetched(countRows(event.getResponse()), 0);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        QueryStats stats = QueryContext.current();
+        String command = shape.get();
+        shape.remove();
+        if (stats != null && command != null)
+            stats.queried(command, event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private static long countRows(BsonDocument response) {
+        if (response == null)
+            return 0;
+
+        BsonValue cursor = response.get(CURSOR);
+        if (cursor != null && cursor.isDocument()) {
+            BsonArray batch = cursor.asDocument().getArray(FIRST_BATCH, null);
+            if (batch == null)
+                batch = cursor.asDocument().getArray(NEXT_BATCH, null);
+            return batch == null ? 0 : batch.size();
+        }
+
+        BsonValue count = response.get(COUNT);
+        return count != null && count.isNumber() ? count.asNumber().longValue() : 0;
+    }
+}
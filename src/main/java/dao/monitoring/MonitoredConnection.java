@@ -0,0 +1,114 @@
+package dao.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Wraps a JDBC connection so every statement executed through it and every row read back
+ * is recorded in the QueryStats of the current request.
+ */
+public final class MonitoredConnection {
+    private static final String EXECUTE = "execute";
+    private static final String NEXT = "next";
+    private static final String PREPARE_STATEMENT = "prepareStatement";
+    private static final String PREPARE_CALL = "prepareCall";
+    private static final String CREATE_STATEMENT = "createStatement";
+    private static final String GET_RESULT_SET = "getResultSet";
+    private static final String GET_GENERATED_KEYS = "getGeneratedKeys";
+
+    private MonitoredConnection() {
+    }
+
+    public static Connection wrap(Connection connection) {
+        if (connection == null)
+            return connection;
+
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result == null)
+                return null;
+
+            switch (method.getName()) {
+                case CREATE_STATEMENT:
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null));
+                case PREPARE_STATEMENT:
+                    return proxy(PreparedStatement.class,
+                            new StatementHandler((Statement) result, (String) args[0]));
+                case PREPARE_CALL:
+                    return proxy(CallableStatement.class,
+                            new StatementHandler((Statement) result, (String) args[0]));
+                default:
+                    return result;
+            }
+        });
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            QueryStats stats = QueryContext.current();
+            if (stats == null || !name.startsWith(EXECUTE)) {
+                Object result = MonitoredConnection.invoke(target, method, args);
+                if (stats != null && (GET_RESULT_SET.equals(name) || GET_GENERATED_KEYS.equals(name)))
+                    return wrapResultSet(result);
+                return result;
+            }
+
+            String statement = args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0] : sql;
+            long start = System.nanoTime();
+            try {
+                return wrapResultSet(MonitoredConnection.invoke(target, method, args));
+            } finally {
+                stats.queried(QueryShape.of(statement), System.nanoTime() - start);
+            }
+        }
+
+        private static Object wrapResultSet(Object result) {
+            if (!(result instanceof ResultSet))
+                return result;
+
+            ResultSet set = (ResultSet) result;
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                if (!NEXT.equals(method.getName()))
+                    return MonitoredConnection.invoke(set, method, args);
+
+                long start = System.nanoTime();
+                boolean next = set.next();
+                QueryStats stats = QueryContext.current();
+                if (next && stats != null)
+                    stats.fetched(System.nanoTime() - start);
+                return next;
+            });
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MonitoredConnection.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+}
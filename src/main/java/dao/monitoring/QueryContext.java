@@ -0,0 +1,31 @@
+package dao.monitoring;
+
+/**
+ * Binds QueryStats to the thread serving the current request.
+ * Queries issued outside of a request (listeners, background jobs) are not counted.
+ */
+public final class QueryContext {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryContext() {
+    }
+
+    public static QueryStats begin(String command) {
+        QueryStats stats = new QueryStats(command);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static QueryStats end() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * @return stats of the current request, NULL if there is none
+     */
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+}
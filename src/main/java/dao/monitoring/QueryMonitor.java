@@ -0,0 +1,72 @@
+package dao.monitoring;
+
+import log.Log;
+import util.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static util.Configuration.QUERY_BUDGET;
+import static util.Configuration.QUERY_REPEAT_LIMIT;
+
+/**
+ * Looks at the queries of a finished request and warns about
+ * too many queries (budget) and the same statement shape repeated in a loop (N+1).
+ */
+public class QueryMonitor {
+    private static final Log LOG = Log.getLog(QueryMonitor.class);
+    private static QueryMonitor INSTANCE;
+
+    private final int budget;
+    private final int repeatLimit;
+
+    private QueryMonitor() {
+        this(Integer.parseInt(Configuration.getInstance().getConfig(QUERY_BUDGET)),
+                Integer.parseInt(Configuration.getInstance().getConfig(QUERY_REPEAT_LIMIT)));
+    }
+
+    QueryMonitor(int budget, int repeatLimit) {
+        this.budget = budget;
+        this.repeatLimit = repeatLimit;
+    }
+
+    public static QueryMonitor getInstance() {
+        if (INSTANCE == null) {
+            synchronized (QueryMonitor.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new QueryMonitor();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Marks and logs budget and repeat violations, 0 or negative limits switch a check off
+     *
+     * @return the same stats
+     */
+    public QueryStats check(QueryStats stats) {
+        if (stats == null)
+            return null;
+
+        if (budget > 0 && stats.getQueries() > budget) {
+            stats.setOverBudget(true);
+            LOG.warning("query budget exceeded", "command", stats.getCommand(), "queries", stats.getQueries(),
+                    "budget", budget, "rows", stats.getRows(), "dbMillis", TimeUnit.NANOSECONDS.toMillis(stats.getNanos()));
+        }
+
+        if (repeatLimit > 0) {
+            for (Map.Entry<String, Integer> shape : stats.getShapes().entrySet()) {
+                if (shape.getValue() > repeatLimit) {
+                    stats.setRepeated(true);
+                    LOG.warning("statement repeated", "command", stats.getCommand(), "times", shape.getValue(),
+                            "limit", repeatLimit, "statement", shape.getKey());
+                }
+            }
+        }
+
+        return stats;
+    }
+}
@@ -0,0 +1,30 @@
+package dao.monitoring;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a statement to its shape: literals are replaced by '?' and whitespace is collapsed,
+ * so "WHERE id=1" and "WHERE id=2" are counted as the same statement.
+ */
+final class QueryShape {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int MAX_LENGTH = 200;
+
+    private QueryShape() {
+    }
+
+    static String of(String sql) {
+        if (sql == null)
+            return "";
+
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > MAX_LENGTH ? shape.substring(0, MAX_LENGTH) : shape;
+    }
+}
@@ -0,0 +1,86 @@
+package dao.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Queries issued while serving one HTTP request.
+ * Owned by a single thread, so nothing here is synchronized.
+ */
+public class QueryStats {
+    private final String command;
+
+    private long queries;
+    private long rows;
+    private long nanos;
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private boolean overBudget;
+    private boolean repeated;
+
+    QueryStats(String command) {
+        this.command = command;
+    }
+
+    void queried(String shape, long nanos) {
+        queries++;
+        this.nanos += nanos;
+        shapes.merge(shape, 1, Integer::sum);
+    }
+
+    void fetched(long nanos) {
+        rows++;
+        this.nanos += nanos;
+    }
+
+    void fetched(long rows, long nanos) {
+        this.rows += rows;
+        this.nanos += nanos;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return how many times each statement shape was executed
+     */
+    public Map<String, Integer> getShapes() {
+        return shapes;
+    }
+
+    /**
+     * @return TRUE if the request issued more queries than the configured budget
+     */
+    public boolean isOverBudget() {
+        return overBudget;
+    }
+
+    void setOverBudget(boolean overBudget) {
+        this.overBudget = overBudget;
+    }
+
+    /**
+     * @return TRUE if some statement shape was executed more times than the configured limit
+     */
+    public boolean isRepeated() {
+        return repeated;
+    }
+
+    void setRepeated(boolean repeated) {
+        this.repeated = repeated;
+    }
+}
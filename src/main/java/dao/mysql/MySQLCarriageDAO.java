@@ -0,0 +1,181 @@
+package dao.mysql;
+
+import dao.CarriageDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import dao.mysql.util.QueryDAOUtil;
+import log.Log;
+import model.entity.Carriage;
+import util.Identifiers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+class MySQLCarriageDAO implements CarriageDAO {
+    private static final Log LOG = Log.getLog(MySQLCarriageDAO.class);
+    private static final MySQLCarriageDAO INSTANCE = new MySQLCarriageDAO();
+
+    private static final String TABLE_NAME = "carriage";
+
+    private static final String LABEL_ID = "id";
+    private static final String LABEL_TRAIN_ID = "train_id";
+    private static final String LABEL_NUMBER = "number";
+    private static final String LABEL_TYPE = "type";
+    private static final String LABEL_SEATS = "seats";
+    private static final String LABEL_SEAT_MAP = "seat_map";
+
+    private MySQLCarriageDAO() {
+    }
+
+    static MySQLCarriageDAO getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Served by carriage_train_number_idx (train_id, number)
+     */
+    @Override
+    public List<Carriage> findByTrain(String trainId) {
+        List<Carriage> result = new ArrayList<>();
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String findByTrainQuery = QueryDAOUtil.createFindByParameterQuery(TABLE_NAME, LABEL_TRAIN_ID);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(findByTrainQuery);
+            statement.setBytes(1, Identifiers.toBytes(trainId));
+            ResultSet set = statement.executeQuery();
+
+            while (set.next()) {
+                result.add(getCarriage(set));
+            }
+            result.sort(Comparator.comparing(Carriage::getNumber));
+
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, LABEL_TRAIN_ID, trainId));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, LABEL_TRAIN_ID, trainId));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Carriage create(Carriage carriage) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(
+                    TABLE_NAME,
+                    LABEL_ID,
+                    LABEL_TRAIN_ID,
+                    LABEL_NUMBER,
+                    LABEL_TYPE,
+                    LABEL_SEATS,
+                    LABEL_SEAT_MAP);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            statement.setBytes(1, Identifiers.toBytes(carriage.getId()));
+            statement.setBytes(2, Identifiers.toBytes(carriage.getTrainId()));
+            statement.setInt(3, carriage.getNumber());
+            statement.setString(4, carriage.getType().toString());
+            statement.setInt(5, carriage.getSeats());
+            statement.setBytes(6, carriage.getSeatMap());
+
+            statement.executeUpdate();
+
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, carriage.getId()));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return carriage;
+    }
+
+    /**
+     * Served by carriage_train_number_idx (train_id, number): a CARRIAGE laid out by a concurrent load
+     * under another ID still gets the map
+     */
+    @Override
+    public Carriage updateSeatMap(Carriage carriage) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String updateQuery = QueryDAOUtil.createUpdateQuery(TABLE_NAME,
+                    new String[]{LABEL_TRAIN_ID, LABEL_NUMBER}, LABEL_SEAT_MAP);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(updateQuery);
+
+            statement.setBytes(1, carriage.getSeatMap());
+            statement.setBytes(2, Identifiers.toBytes(carriage.getTrainId()));
+            statement.setInt(3, carriage.getNumber());
+
+            statement.executeUpdate();
+
+            LOG.fine(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, carriage.getId()));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, carriage.getId()));
+        } finally {
+            close(connection, statement);
+        }
+
+        return carriage;
+    }
+
+    @Override
+    public void delete(Carriage carriage) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String deleteQuery = QueryDAOUtil.createDeleteQuery(TABLE_NAME, LABEL_ID);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(deleteQuery);
+
+            statement.setBytes(1, Identifiers.toBytes(carriage.getId()));
+            statement.executeUpdate();
+
+            LOG.info(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, carriage.getId()));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorDelete(TABLE_NAME, carriage.getId()));
+        } finally {
+            close(connection, statement);
+        }
+    }
+
+    private Carriage getCarriage(ResultSet set) throws SQLException {
+        Carriage carriage = new Carriage();
+        carriage.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
+        carriage.setTrainId(Identifiers.fromBytes(set.getBytes(LABEL_TRAIN_ID)));
+        carriage.setNumber(set.getInt(LABEL_NUMBER));
+        carriage.setType(TypePlace.valueOf(set.getString(LABEL_TYPE)));
+        carriage.setSeats(set.getInt(LABEL_SEATS));
+        carriage.setSeatMap(set.getBytes(LABEL_SEAT_MAP));
+        return carriage;
+    }
+
+    private void close(Connection connection, Statement statement) {
+        try {
+            if (connection != null) connection.close();
+            if (statement != null) statement.close();
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorClose());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dao.mysql;
 
+import dao.monitoring.MonitoredConnection;
 import org.apache.tomcat.jdbc.pool.DataSource;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
 import util.MySQLConfiguration;
@@ -43,6 +44,6 @@ public class MySQLConnectionPool {
     }
 
     public Connection getConnection() throws SQLException {
-        return source.getConnection();
+        return MonitoredConnection.wrap(source.getConnection());
     }
 }
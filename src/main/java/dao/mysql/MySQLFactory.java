@@ -1,9 +1,11 @@
 package dao.mysql;
 
+import dao.CarriageDAO;
 import dao.DAOFactory;
 import dao.PriceDAO;
 import dao.RequestDAO;
 import dao.RouteDAO;
+import dao.RouteStopDAO;
 import dao.StationDAO;
 import dao.TrainDAO;
 import dao.UserDAO;
@@ -38,4 +40,14 @@ public class MySQLFactory implements DAOFactory {
     public StationDAO createStationDAO() {
         return MySQLStationDAO.getInstance();
     }
+
+    @Override
+    public CarriageDAO createCarriageDAO() {
+        return MySQLCarriageDAO.getInstance();
+    }
+
+    @Override
+    public RouteStopDAO createRouteStopDAO() {
+        return MySQLRouteStopDAO.getInstance();
+    }
 }
@@ -3,7 +3,9 @@ package dao.mysql;
 import dao.PriceDAO;
 import dao.mysql.util.LogMessageDAOUtil;
 import dao.mysql.util.QueryDAOUtil;
+import log.Log;
 import model.entity.Price;
+import util.Identifiers;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,10 +14,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 class MySQLPriceDAO implements PriceDAO {
-    private static final Logger LOG = Logger.getLogger(MySQLPriceDAO.class.getName());
+    private static final Log LOG = Log.getLog(MySQLPriceDAO.class);
     private static final MySQLPriceDAO INSTANCE = new MySQLPriceDAO();
     private static final String TABLE_NAME = "price";
 
@@ -24,6 +25,9 @@ class MySQLPriceDAO implements PriceDAO {
     private static final String LABEL_COMPARTMENT_FACTOR = "compartment_factor";
     private static final String LABEL_DELUXE_FACTOR = "deluxe_factor";
 
+    private static final String[] CREATE_LABELS = {LABEL_ID, LABEL_BERTH_FACTOR, LABEL_COMPARTMENT_FACTOR,
+            LABEL_DELUXE_FACTOR};
+
     private MySQLPriceDAO() {
     }
 
@@ -46,7 +50,7 @@ class MySQLPriceDAO implements PriceDAO {
             while (set.next()) {
                 result.add(getPrice(set));
             }
-            LOG.info(LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME));
         } finally {
@@ -67,12 +71,12 @@ class MySQLPriceDAO implements PriceDAO {
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(findByIdQuery);
-            statement.setString(1, id);
+            statement.setBytes(1, Identifiers.toBytes(id));
             ResultSet set = statement.executeQuery();
             if (set.next()) {
                 result = getPrice(set);
             }
-            LOG.info(LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, LABEL_ID, id));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, LABEL_ID, id));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, LABEL_ID, id));
         } finally {
@@ -89,24 +93,16 @@ class MySQLPriceDAO implements PriceDAO {
         PreparedStatement statement = null;
 
         try {
-            String createQuery = QueryDAOUtil.createInsertQuery(
-                    TABLE_NAME,
-                    LABEL_ID,
-                    LABEL_BERTH_FACTOR,
-                    LABEL_COMPARTMENT_FACTOR,
-                    LABEL_DELUXE_FACTOR);
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, CREATE_LABELS);
 
             connection = MySQLConnectionPool.getInstance().getConnection();
 
             statement = connection.prepareStatement(createQuery);
-            statement.setString(1, price.getId());
-            statement.setDouble(2, price.getBerthFactor());
-            statement.setDouble(3, price.getCompartmentFactor());
-            statement.setDouble(4, price.getDeluxeFactor());
+            setCreateParameters(statement, 1, price);
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoCreate(TABLE_NAME, price.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, price.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
         } finally {
@@ -116,6 +112,53 @@ class MySQLPriceDAO implements PriceDAO {
         return price;
     }
 
+    /**
+     * One multi-row INSERT, the PRICES are stored all or none
+     */
+    @Override
+    public boolean createAll(List<Price> prices) {
+        if (prices.isEmpty())
+            return true;
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        boolean result = false;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, prices.size(), CREATE_LABELS);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            int index = 1;
+            for (Price price : prices) {
+                index = setCreateParameters(statement, index, price);
+            }
+
+            result = statement.executeUpdate() == prices.size();
+
+            LOG.info("create prices", "table", TABLE_NAME, "rows", prices.size());
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return index of the first parameter of the next row
+     */
+    private static int setCreateParameters(PreparedStatement statement, int index, Price price)
+            throws SQLException {
+        statement.setBytes(index, Identifiers.toBytes(price.getId()));
+        statement.setDouble(index + 1, price.getBerthFactor());
+        statement.setDouble(index + 2, price.getCompartmentFactor());
+        statement.setDouble(index + 3, price.getDeluxeFactor());
+        return index + CREATE_LABELS.length;
+    }
+
     @Override
     public Price update(Price price) {
         Connection connection = null;
@@ -133,11 +176,11 @@ class MySQLPriceDAO implements PriceDAO {
             statement.setDouble(1, price.getBerthFactor());
             statement.setDouble(2, price.getCompartmentFactor());
             statement.setDouble(3, price.getDeluxeFactor());
-            statement.setString(4, price.getId());
+            statement.setBytes(4, Identifiers.toBytes(price.getId()));
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, price.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, price.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, price.getId()));
         } finally {
@@ -157,10 +200,10 @@ class MySQLPriceDAO implements PriceDAO {
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(deleteQuery);
-            statement.setString(1, price.getId());
+            statement.setBytes(1, Identifiers.toBytes(price.getId()));
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoDelete(TABLE_NAME, price.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, price.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorDelete(TABLE_NAME, price.getId()));
         } finally {
@@ -180,7 +223,7 @@ class MySQLPriceDAO implements PriceDAO {
 
     private Price getPrice(ResultSet set) throws SQLException {
         Price result = new Price();
-        result.setId(set.getString(LABEL_ID));
+        result.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
         result.setBerthFactor(set.getDouble(LABEL_BERTH_FACTOR));
         result.setCompartmentFactor(set.getDouble(LABEL_BERTH_FACTOR));
         result.setDeluxeFactor(set.getDouble(LABEL_DELUXE_FACTOR));
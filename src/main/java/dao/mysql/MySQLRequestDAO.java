@@ -3,19 +3,27 @@ package dao.mysql;
 import dao.RequestDAO;
 import dao.mysql.util.LogMessageDAOUtil;
 import dao.mysql.util.QueryDAOUtil;
+import dto.BookingFilter;
+import dto.BookingRow;
+import exception.ConstraintViolation;
+import log.Log;
 import model.entity.Request;
+import util.DateTimes;
+import util.Identifiers;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.function.Consumer;
 
 class MySQLRequestDAO implements RequestDAO {
-    private static final Logger LOG = Logger.getLogger(MySQLRequestDAO.class.getName());
+    private static final Log LOG = Log.getLog(MySQLRequestDAO.class);
     private static final MySQLRequestDAO INSTANCE = new MySQLRequestDAO();
 
     private static final String TABLE_NAME = "request";
@@ -25,6 +33,27 @@ class MySQLRequestDAO implements RequestDAO {
     private static final String LABEL_TRAIN_ID = "train_id";
     private static final String LABEL_TYPE = "type";
     private static final String LABEL_PRICE = "price";
+    private static final String LABEL_CARRIAGE = "carriage";
+    private static final String LABEL_SEAT = "seat";
+    private static final String LABEL_FROM_STOP = "from_stop";
+    private static final String LABEL_TO_STOP = "to_stop";
+    private static final String LABEL_BOOKING_KEY = "booking_key";
+    private static final String LABEL_BOOKING_SEQ = "booking_seq";
+
+    private static final String LABEL_USER_EMAIL = "user_email";
+    private static final String LABEL_USER_NAME = "user_name";
+    private static final String LABEL_USER_SURNAME = "user_surname";
+    private static final String LABEL_ROUTE_ID = "route_id";
+
+    private static final String FIND_BOOKINGS_QUERY = "SELECT request.*, user.email AS " + LABEL_USER_EMAIL
+            + ", user.name AS " + LABEL_USER_NAME + ", user.surname AS " + LABEL_USER_SURNAME
+            + ", train.route_id AS " + LABEL_ROUTE_ID + " FROM request"
+            + " JOIN user ON user.id = request.user_id"
+            + " JOIN train ON train.id = request.train_id"
+            + " JOIN route ON route.id = train.route_id WHERE TRUE";
+
+    private static final String[] CREATE_LABELS = {LABEL_ID, LABEL_USER_ID, LABEL_TRAIN_ID, LABEL_PRICE, LABEL_TYPE,
+            LABEL_CARRIAGE, LABEL_SEAT, LABEL_FROM_STOP, LABEL_TO_STOP, LABEL_BOOKING_KEY, LABEL_BOOKING_SEQ};
 
     private MySQLRequestDAO() {
     }
@@ -49,7 +78,7 @@ class MySQLRequestDAO implements RequestDAO {
             while (set.next()) {
                 result.add(getRequest(set));
             }
-            LOG.info(LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME));
         } finally {
@@ -68,34 +97,140 @@ class MySQLRequestDAO implements RequestDAO {
         return result.get(0);
     }
 
+    /**
+     * Served by request_train_type_idx (train_id, type)
+     */
+    @Override
+    public List<Request> findByTrain(String trainId) {
+        return findByParameter(trainId, LABEL_TRAIN_ID);
+    }
+
+    /**
+     * Served by request_train_type_idx (train_id, type)
+     */
+    @Override
+    public List<Request> findByTrain(String trainId, TypePlace type) {
+        List<Request> result = new ArrayList<>();
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String findQuery = QueryDAOUtil.createFindByParameterQuery(TABLE_NAME, LABEL_TRAIN_ID, LABEL_TYPE);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(findQuery);
+            statement.setBytes(1, Identifiers.toBytes(trainId));
+            statement.setString(2, type.toString());
+            ResultSet set = statement.executeQuery();
+
+            while (set.next()) {
+                result.add(getRequest(set));
+            }
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, LABEL_TRAIN_ID, trainId));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, LABEL_TRAIN_ID, trainId));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * Served by request_booking_key_idx (booking_key, booking_seq)
+     */
+    @Override
+    public List<Request> findByBookingKey(String bookingKey) {
+        if (bookingKey == null)
+            return new ArrayList<>();
+
+        return findByParameter(bookingKey, LABEL_BOOKING_KEY);
+    }
+
+    /**
+     * One joined query read as a stream: Connector/J sends rows as they are read instead of buffering
+     * the whole result, so the connection is held until the last row is handed over.
+     * A TRAIN filter is served by request_train_type_idx, a date range by the ROUTES first
+     */
+    @Override
+    public void forEachBooking(BookingFilter filter, Consumer<BookingRow> consumer) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            StringBuilder query = new StringBuilder(FIND_BOOKINGS_QUERY);
+            if (filter.getFrom() != null)
+                query.append(" AND route.from_time >= ?");
+            if (filter.getTo() != null)
+                query.append(" AND route.from_time < ?");
+            if (filter.getTrainId() != null)
+                query.append(" AND request.train_id = ?");
+            if (filter.getType() != null)
+                query.append(" AND request.type = ?");
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(query.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+
+            int index = 1;
+            if (filter.getFrom() != null)
+                statement.setTimestamp(index++, DateTimes.toTimestamp(filter.getFrom()));
+            if (filter.getTo() != null)
+                statement.setTimestamp(index++, DateTimes.toTimestamp(filter.getTo()));
+            if (filter.getTrainId() != null)
+                statement.setBytes(index++, Identifiers.toBytes(filter.getTrainId()));
+            if (filter.getType() != null)
+                statement.setString(index, filter.getType().toString());
+
+            ResultSet set = statement.executeQuery();
+            long rows = 0;
+            while (set.next()) {
+                BookingRow row = new BookingRow();
+                row.setRequest(getRequest(set));
+                row.setEmail(set.getString(LABEL_USER_EMAIL));
+                row.setName(set.getString(LABEL_USER_NAME));
+                row.setSurname(set.getString(LABEL_USER_SURNAME));
+                row.setRouteId(Identifiers.fromBytes(set.getBytes(LABEL_ROUTE_ID)));
+                consumer.accept(row);
+                rows++;
+            }
+            LOG.fine("find bookings", "table", TABLE_NAME, "rows", rows);
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME), e);
+        } catch (RuntimeException e) {
+            cancel(statement);
+            throw e;
+        } finally {
+            close(connection, statement);
+        }
+    }
+
+    /**
+     * @return NULL if the REQUEST was not stored, a booking key already used by another REQUEST of the same
+     * place in the booking rejects it too (request_booking_key_idx)
+     */
     @Override
     public Request create(Request request) {
         Connection connection = null;
         PreparedStatement statement = null;
 
         try {
-            String createQuery = QueryDAOUtil.createInsertQuery(
-                    TABLE_NAME,
-                    LABEL_ID,
-                    LABEL_USER_ID,
-                    LABEL_TRAIN_ID,
-                    LABEL_PRICE,
-                    LABEL_TYPE);
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, CREATE_LABELS);
 
             connection = MySQLConnectionPool.getInstance().getConnection();
 
             statement = connection.prepareStatement(createQuery);
-            statement.setString(1, request.getId());
-            statement.setString(2, request.getUserId());
-            statement.setString(3, request.getTrainId());
-            statement.setDouble(4, request.getPrice());
-            statement.setString(5, request.getType().toString());
+            setCreateParameters(statement, 1, request);
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoCreate(TABLE_NAME, request.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, request.getId()));
         } catch (SQLException e) {
-            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME), e);
+            if (violatesConstraint(e))
+                throw new ConstraintViolation(e);
+            return null;
         } finally {
             close(connection, statement);
         }
@@ -103,6 +238,70 @@ class MySQLRequestDAO implements RequestDAO {
         return request;
     }
 
+    /**
+     * One multi-row INSERT, the REQUESTS are stored all or none
+     */
+    @Override
+    public boolean createAll(List<Request> requests) {
+        if (requests.isEmpty())
+            return true;
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        boolean result = false;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, requests.size(), CREATE_LABELS);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            int index = 1;
+            for (Request request : requests) {
+                index = setCreateParameters(statement, index, request);
+            }
+
+            result = statement.executeUpdate() == requests.size();
+
+            LOG.info("create requests", "table", TABLE_NAME, "rows", requests.size());
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+            if (violatesConstraint(e))
+                throw new ConstraintViolation(e);
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * SQLSTATE class 23 is an integrity constraint violation: a duplicate key or a missing foreign row
+     */
+    private static boolean violatesConstraint(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException
+                || e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+
+    /**
+     * @return index of the first parameter of the next row
+     */
+    private static int setCreateParameters(PreparedStatement statement, int index, Request request)
+            throws SQLException {
+        statement.setBytes(index, Identifiers.toBytes(request.getId()));
+        statement.setBytes(index + 1, Identifiers.toBytes(request.getUserId()));
+        statement.setBytes(index + 2, Identifiers.toBytes(request.getTrainId()));
+        statement.setDouble(index + 3, request.getPrice());
+        statement.setString(index + 4, request.getType().toString());
+        statement.setObject(index + 5, request.getCarriage(), Types.INTEGER);
+        statement.setObject(index + 6, request.getSeat(), Types.INTEGER);
+        statement.setObject(index + 7, request.getFromStop(), Types.INTEGER);
+        statement.setObject(index + 8, request.getToStop(), Types.INTEGER);
+        statement.setBytes(index + 9, Identifiers.toBytes(request.getBookingKey()));
+        statement.setObject(index + 10, request.getBookingSeq(), Types.INTEGER);
+        return index + CREATE_LABELS.length;
+    }
+
     @Override
     public Request update(Request request) {
         Connection connection = null;
@@ -113,21 +312,29 @@ class MySQLRequestDAO implements RequestDAO {
                     LABEL_USER_ID,
                     LABEL_TRAIN_ID,
                     LABEL_PRICE,
-                    LABEL_TYPE);
+                    LABEL_TYPE,
+                    LABEL_CARRIAGE,
+                    LABEL_SEAT,
+                    LABEL_FROM_STOP,
+                    LABEL_TO_STOP);
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(createQuery);
 
-            statement.setString(1, request.getUserId());
-            statement.setString(2, request.getTrainId());
+            statement.setBytes(1, Identifiers.toBytes(request.getUserId()));
+            statement.setBytes(2, Identifiers.toBytes(request.getTrainId()));
             statement.setDouble(3, request.getPrice());
             statement.setString(4, request.getType().toString());
+            statement.setObject(5, request.getCarriage(), Types.INTEGER);
+            statement.setObject(6, request.getSeat(), Types.INTEGER);
+            statement.setObject(7, request.getFromStop(), Types.INTEGER);
+            statement.setObject(8, request.getToStop(), Types.INTEGER);
 
-            statement.setString(5, request.getId());
+            statement.setBytes(9, Identifiers.toBytes(request.getId()));
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, request.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, request.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, request.getId()));
         } finally {
@@ -138,7 +345,7 @@ class MySQLRequestDAO implements RequestDAO {
     }
 
     @Override
-    public void delete(Request request) {
+    public boolean delete(Request request) {
         Connection connection = null;
         PreparedStatement statement = null;
 
@@ -148,16 +355,18 @@ class MySQLRequestDAO implements RequestDAO {
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(createQuery);
 
-            statement.setString(1, request.getId());
+            statement.setBytes(1, Identifiers.toBytes(request.getId()));
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoDelete(TABLE_NAME, request.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, request.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorDelete(TABLE_NAME, request.getId()));
+            return false;
         } finally {
             close(connection, statement);
         }
 
+        return true;
     }
 
     private List<Request> findByParameter(String id, String parameterLabel) {
@@ -170,13 +379,13 @@ class MySQLRequestDAO implements RequestDAO {
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(findByIdQuery);
-            statement.setString(1, id);
+            statement.setBytes(1, Identifiers.toBytes(id));
             ResultSet set = statement.executeQuery();
 
             while (set.next()) {
                 result.add(getRequest(set));
             }
-            LOG.info(LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, parameterLabel, id));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, parameterLabel, id));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, parameterLabel, id));
         } finally {
@@ -188,14 +397,36 @@ class MySQLRequestDAO implements RequestDAO {
 
     private Request getRequest(ResultSet set) throws SQLException {
         Request request = new Request();
-        request.setId(set.getString(LABEL_ID));
-        request.setTrainId(set.getString(LABEL_TRAIN_ID));
-        request.setUserId(set.getString(LABEL_USER_ID));
+        request.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
+        request.setTrainId(Identifiers.fromBytes(set.getBytes(LABEL_TRAIN_ID)));
+        request.setUserId(Identifiers.fromBytes(set.getBytes(LABEL_USER_ID)));
         request.setPrice(set.getDouble(LABEL_PRICE));
         request.setType(TypePlace.valueOf(set.getString(LABEL_TYPE)));
+        request.setCarriage(getInteger(set, LABEL_CARRIAGE));
+        request.setSeat(getInteger(set, LABEL_SEAT));
+        request.setFromStop(getInteger(set, LABEL_FROM_STOP));
+        request.setToStop(getInteger(set, LABEL_TO_STOP));
+        request.setBookingKey(Identifiers.fromBytes(set.getBytes(LABEL_BOOKING_KEY)));
+        request.setBookingSeq(getInteger(set, LABEL_BOOKING_SEQ));
         return request;
     }
 
+    private static Integer getInteger(ResultSet set, String label) throws SQLException {
+        int value = set.getInt(label);
+        return set.wasNull() ? null : value;
+    }
+
+    /**
+     * Closing a streamed result reads the rest of it, a cancelled query has no rest to read
+     */
+    private void cancel(Statement statement) {
+        try {
+            if (statement != null) statement.cancel();
+        } catch (SQLException e) {
+            LOG.warning("cancel failed", "table", TABLE_NAME, "error", e.getMessage());
+        }
+    }
+
     private void close(Connection connection, Statement statement) {
         try {
             if (connection != null) connection.close();
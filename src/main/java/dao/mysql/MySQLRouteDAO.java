@@ -3,19 +3,22 @@ package dao.mysql;
 import dao.RouteDAO;
 import dao.mysql.util.LogMessageDAOUtil;
 import dao.mysql.util.QueryDAOUtil;
+import log.Log;
 import model.entity.Route;
+import util.DateTimes;
+import util.Identifiers;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 class MySQLRouteDAO implements RouteDAO {
-    private static final Logger LOG = Logger.getLogger(MySQLRouteDAO.class.getName());
+    private static final Log LOG = Log.getLog(MySQLRouteDAO.class);
     private static final MySQLRouteDAO INSTANCE = new MySQLRouteDAO();
 
     private static final String TABLE_NAME = "route";
@@ -31,6 +34,9 @@ class MySQLRouteDAO implements RouteDAO {
 
     private static final String LABEL_DISTANCE = "distance";
 
+    private static final String[] CREATE_LABELS = {LABEL_ID, LABEL_PRICE_ID, LABEL_FROM_ID, LABEL_TO_ID,
+            LABEL_FROM_TIME, LABEL_TO_TIME, LABEL_DISTANCE};
+
     private MySQLRouteDAO() {
     }
 
@@ -56,7 +62,7 @@ class MySQLRouteDAO implements RouteDAO {
                 result.add(getRoute(set));
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME));
         } finally {
@@ -80,38 +86,55 @@ class MySQLRouteDAO implements RouteDAO {
         return findByParameter(LABEL_FROM_ID, id);
     }
 
+    /**
+     * Served by route_search_idx (from_id, to_id, from_time)
+     */
+    @Override
+    public List<Route> findByStations(String fromId, String toId, LocalDateTime after) {
+        List<Route> result = new ArrayList<>();
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String findQuery = QueryDAOUtil.createFindAfterQuery(TABLE_NAME, LABEL_FROM_TIME, LABEL_FROM_ID, LABEL_TO_ID);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(findQuery);
+            statement.setBytes(1, Identifiers.toBytes(fromId));
+            statement.setBytes(2, Identifiers.toBytes(toId));
+            statement.setTimestamp(3, DateTimes.toTimestamp(after));
+            ResultSet set = statement.executeQuery();
+            while (set.next()) {
+                result.add(getRoute(set));
+            }
+
+            LOG.fine("find routes by stations", "fromId", fromId, "toId", toId, "after", after);
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, LABEL_FROM_ID, fromId));
+            result = null;
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
     @Override
     public Route create(Route route) {
         Connection connection = null;
         PreparedStatement statement = null;
 
         try {
-            String createQuery = QueryDAOUtil.createInsertQuery(
-                    TABLE_NAME,
-                    LABEL_ID,
-                    LABEL_PRICE_ID,
-                    LABEL_FROM_ID,
-                    LABEL_TO_ID,
-                    LABEL_FROM_TIME,
-                    LABEL_TO_TIME,
-                    LABEL_DISTANCE
-            );
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, CREATE_LABELS);
 
             connection = MySQLConnectionPool.getInstance().getConnection();
 
             statement = connection.prepareStatement(createQuery);
-
-            statement.setString(1, route.getId());
-            statement.setString(2, route.getPriceId());
-            statement.setString(3, route.getFromId());
-            statement.setString(4, route.getToId());
-            statement.setString(5, route.getFromTime());
-            statement.setString(6, route.getToTime());
-            statement.setDouble(7, route.getDistance());
+            setCreateParameters(statement, 1, route);
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoCreate(TABLE_NAME, route.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, route.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
         } finally {
@@ -121,6 +144,56 @@ class MySQLRouteDAO implements RouteDAO {
         return route;
     }
 
+    /**
+     * One multi-row INSERT, the ROUTES are stored all or none
+     */
+    @Override
+    public boolean createAll(List<Route> routes) {
+        if (routes.isEmpty())
+            return true;
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        boolean result = false;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, routes.size(), CREATE_LABELS);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            int index = 1;
+            for (Route route : routes) {
+                index = setCreateParameters(statement, index, route);
+            }
+
+            result = statement.executeUpdate() == routes.size();
+
+            LOG.info("create routes", "table", TABLE_NAME, "rows", routes.size());
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return index of the first parameter of the next row
+     */
+    private static int setCreateParameters(PreparedStatement statement, int index, Route route)
+            throws SQLException {
+        statement.setBytes(index, Identifiers.toBytes(route.getId()));
+        statement.setBytes(index + 1, Identifiers.toBytes(route.getPriceId()));
+        statement.setBytes(index + 2, Identifiers.toBytes(route.getFromId()));
+        statement.setBytes(index + 3, Identifiers.toBytes(route.getToId()));
+        statement.setTimestamp(index + 4, DateTimes.toTimestamp(route.getFromTime()));
+        statement.setTimestamp(index + 5, DateTimes.toTimestamp(route.getToTime()));
+        statement.setDouble(index + 6, route.getDistance());
+        return index + CREATE_LABELS.length;
+    }
+
     @Override
     public Route update(Route route) {
         Connection connection = null;
@@ -140,18 +213,18 @@ class MySQLRouteDAO implements RouteDAO {
 
             statement = connection.prepareStatement(createQuery);
 
-            statement.setString(1, route.getPriceId());
-            statement.setString(2, route.getFromId());
-            statement.setString(3, route.getToId());
-            statement.setString(4, route.getFromTime());
-            statement.setString(5, route.getToTime());
+            statement.setBytes(1, Identifiers.toBytes(route.getPriceId()));
+            statement.setBytes(2, Identifiers.toBytes(route.getFromId()));
+            statement.setBytes(3, Identifiers.toBytes(route.getToId()));
+            statement.setTimestamp(4, DateTimes.toTimestamp(route.getFromTime()));
+            statement.setTimestamp(5, DateTimes.toTimestamp(route.getToTime()));
             statement.setDouble(6, route.getDistance());
 
-            statement.setString(7, route.getId());
+            statement.setBytes(7, Identifiers.toBytes(route.getId()));
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, route.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, route.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, route.getId()));
         } finally {
@@ -172,10 +245,10 @@ class MySQLRouteDAO implements RouteDAO {
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(createQuery);
 
-            statement.setString(1, route.getId());
+            statement.setBytes(1, Identifiers.toBytes(route.getId()));
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoDelete(TABLE_NAME, route.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, route.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
         } finally {
@@ -186,15 +259,15 @@ class MySQLRouteDAO implements RouteDAO {
 
     private Route getRoute(ResultSet set) throws SQLException {
         Route result = new Route();
-        result.setId(set.getString(LABEL_ID));
+        result.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
 
-        result.setPriceId(set.getString(LABEL_PRICE_ID));
+        result.setPriceId(Identifiers.fromBytes(set.getBytes(LABEL_PRICE_ID)));
 
-        result.setFromId(set.getString(LABEL_FROM_ID));
-        result.setToId(set.getString(LABEL_TO_ID));
+        result.setFromId(Identifiers.fromBytes(set.getBytes(LABEL_FROM_ID)));
+        result.setToId(Identifiers.fromBytes(set.getBytes(LABEL_TO_ID)));
 
-        result.setFromTime(set.getString(LABEL_FROM_TIME));
-        result.setToTime(set.getString(LABEL_TO_TIME));
+        result.setFromTime(DateTimes.of(set.getTimestamp(LABEL_FROM_TIME)));
+        result.setToTime(DateTimes.of(set.getTimestamp(LABEL_TO_TIME)));
 
         result.setDistance(set.getDouble(LABEL_DISTANCE));
 
@@ -211,13 +284,13 @@ class MySQLRouteDAO implements RouteDAO {
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(findByIdQuery);
-            statement.setString(1, parameter);
+            statement.setBytes(1, Identifiers.toBytes(parameter));
             ResultSet set = statement.executeQuery();
             while (set.next()) {
                 result.add(getRoute(set));
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, label, parameter));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, label, parameter));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, label, parameter));
             result = null;
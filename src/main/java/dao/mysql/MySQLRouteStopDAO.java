@@ -0,0 +1,231 @@
+package dao.mysql;
+
+import dao.RouteStopDAO;
+import dao.mysql.util.LogMessageDAOUtil;
+import dao.mysql.util.QueryDAOUtil;
+import log.Log;
+import model.entity.RouteStop;
+import util.DateTimes;
+import util.Identifiers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+class MySQLRouteStopDAO implements RouteStopDAO {
+    private static final Log LOG = Log.getLog(MySQLRouteStopDAO.class);
+    private static final MySQLRouteStopDAO INSTANCE = new MySQLRouteStopDAO();
+
+    private static final String TABLE_NAME = "route_stop";
+
+    private static final String LABEL_ID = "id";
+    private static final String LABEL_ROUTE_ID = "route_id";
+    private static final String LABEL_NUMBER = "number";
+    private static final String LABEL_STATION_ID = "station_id";
+    private static final String LABEL_ARRIVAL = "arrival";
+    private static final String LABEL_DEPARTURE = "departure";
+    private static final String LABEL_DISTANCE = "distance";
+
+    private static final String[] CREATE_LABELS = {LABEL_ID, LABEL_ROUTE_ID, LABEL_NUMBER, LABEL_STATION_ID,
+            LABEL_ARRIVAL, LABEL_DEPARTURE, LABEL_DISTANCE};
+
+    private MySQLRouteStopDAO() {
+    }
+
+    static MySQLRouteStopDAO getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public List<RouteStop> findAll() {
+        List<RouteStop> result = new ArrayList<>();
+        Connection connection = null;
+        Statement statement = null;
+
+        try {
+            String findAllQuery = QueryDAOUtil.createFindAllQuery(TABLE_NAME);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.createStatement();
+            ResultSet set = statement.executeQuery(findAllQuery);
+
+            while (set.next()) {
+                result.add(getRouteStop(set));
+            }
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * Served by route_stop_route_number_idx (route_id, number)
+     */
+    @Override
+    public List<RouteStop> findByRoute(String routeId) {
+        List<RouteStop> result = findByParameter(LABEL_ROUTE_ID, routeId);
+        result.sort(Comparator.comparing(RouteStop::getNumber));
+        return result;
+    }
+
+    /**
+     * Served by route_stop_station_idx (station_id)
+     */
+    @Override
+    public List<RouteStop> findByStation(String stationId) {
+        return findByParameter(LABEL_STATION_ID, stationId);
+    }
+
+    @Override
+    public RouteStop create(RouteStop stop) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, CREATE_LABELS);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            setCreateParameters(statement, 1, stop);
+
+            statement.executeUpdate();
+
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, stop.getId()));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return stop;
+    }
+
+    /**
+     * One multi-row INSERT, the ROUTE_STOPS are stored all or none
+     */
+    @Override
+    public boolean createAll(List<RouteStop> stops) {
+        if (stops.isEmpty())
+            return true;
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        boolean result = false;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, stops.size(), CREATE_LABELS);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            int index = 1;
+            for (RouteStop stop : stops) {
+                index = setCreateParameters(statement, index, stop);
+            }
+
+            result = statement.executeUpdate() == stops.size();
+
+            LOG.info("create stops", "table", TABLE_NAME, "rows", stops.size());
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return index of the first parameter of the next row
+     */
+    private static int setCreateParameters(PreparedStatement statement, int index, RouteStop stop)
+            throws SQLException {
+        statement.setBytes(index, Identifiers.toBytes(stop.getId()));
+        statement.setBytes(index + 1, Identifiers.toBytes(stop.getRouteId()));
+        statement.setInt(index + 2, stop.getNumber());
+        statement.setBytes(index + 3, Identifiers.toBytes(stop.getStationId()));
+        statement.setTimestamp(index + 4, DateTimes.toTimestamp(stop.getArrival()));
+        statement.setTimestamp(index + 5, DateTimes.toTimestamp(stop.getDeparture()));
+        statement.setDouble(index + 6, stop.getDistance());
+        return index + CREATE_LABELS.length;
+    }
+
+    @Override
+    public void delete(RouteStop stop) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String deleteQuery = QueryDAOUtil.createDeleteQuery(TABLE_NAME, LABEL_ID);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(deleteQuery);
+
+            statement.setBytes(1, Identifiers.toBytes(stop.getId()));
+            statement.executeUpdate();
+
+            LOG.info(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, stop.getId()));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorDelete(TABLE_NAME, stop.getId()));
+        } finally {
+            close(connection, statement);
+        }
+    }
+
+    private List<RouteStop> findByParameter(String label, String id) {
+        List<RouteStop> result = new ArrayList<>();
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String findQuery = QueryDAOUtil.createFindByParameterQuery(TABLE_NAME, label);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(findQuery);
+            statement.setBytes(1, Identifiers.toBytes(id));
+            ResultSet set = statement.executeQuery();
+
+            while (set.next()) {
+                result.add(getRouteStop(set));
+            }
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, label, id));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, label, id));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    private RouteStop getRouteStop(ResultSet set) throws SQLException {
+        RouteStop stop = new RouteStop();
+        stop.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
+        stop.setRouteId(Identifiers.fromBytes(set.getBytes(LABEL_ROUTE_ID)));
+        stop.setNumber(set.getInt(LABEL_NUMBER));
+        stop.setStationId(Identifiers.fromBytes(set.getBytes(LABEL_STATION_ID)));
+        stop.setArrival(DateTimes.of(set.getTimestamp(LABEL_ARRIVAL)));
+        stop.setDeparture(DateTimes.of(set.getTimestamp(LABEL_DEPARTURE)));
+        stop.setDistance(set.getDouble(LABEL_DISTANCE));
+        return stop;
+    }
+
+    private void close(Connection connection, Statement statement) {
+        try {
+            if (connection != null) connection.close();
+            if (statement != null) statement.close();
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorClose());
+        }
+    }
+}
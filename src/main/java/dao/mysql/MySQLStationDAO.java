@@ -3,7 +3,9 @@ package dao.mysql;
 import dao.StationDAO;
 import dao.mysql.util.LogMessageDAOUtil;
 import dao.mysql.util.QueryDAOUtil;
+import log.Log;
 import model.entity.Station;
+import util.Identifiers;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,10 +14,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 class MySQLStationDAO implements StationDAO {
-    private static final Logger LOG = Logger.getLogger(MySQLStationDAO.class.getName());
+    private static final Log LOG = Log.getLog(MySQLStationDAO.class);
     private static final MySQLStationDAO INSTANCE = new MySQLStationDAO();
 
     private static final String TABLE_NAME = "station";
@@ -23,6 +24,8 @@ class MySQLStationDAO implements StationDAO {
     private static final String LABEL_ID = "id";
     private static final String LABEL_NAME = "name";
 
+    private static final String[] CREATE_LABELS = {LABEL_ID, LABEL_NAME};
+
     private MySQLStationDAO() {
     }
 
@@ -48,7 +51,7 @@ class MySQLStationDAO implements StationDAO {
                 result.add(getStation(set));
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME));
         } finally {
@@ -69,13 +72,13 @@ class MySQLStationDAO implements StationDAO {
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(findByIdQuery);
-            statement.setString(1, id);
+            statement.setBytes(1, Identifiers.toBytes(id));
             ResultSet set = statement.executeQuery();
             if (set.next()) {
                 result = getStation(set);
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, LABEL_ID, id));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, LABEL_ID, id));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, LABEL_ID, id));
         } finally {
@@ -91,21 +94,16 @@ class MySQLStationDAO implements StationDAO {
         PreparedStatement statement = null;
 
         try {
-            String createQuery = QueryDAOUtil.createInsertQuery(
-                    TABLE_NAME,
-                    LABEL_ID,
-                    LABEL_NAME
-            );
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, CREATE_LABELS);
 
             connection = MySQLConnectionPool.getInstance().getConnection();
 
             statement = connection.prepareStatement(createQuery);
-            statement.setString(1, station.getId());
-            statement.setString(2, station.getName());
+            setCreateParameters(statement, 1, station);
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoCreate(TABLE_NAME, station.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, station.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
         } finally {
@@ -115,6 +113,51 @@ class MySQLStationDAO implements StationDAO {
         return station;
     }
 
+    /**
+     * One multi-row INSERT, the STATIONS are stored all or none
+     */
+    @Override
+    public boolean createAll(List<Station> stations) {
+        if (stations.isEmpty())
+            return true;
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        boolean result = false;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, stations.size(), CREATE_LABELS);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            int index = 1;
+            for (Station station : stations) {
+                index = setCreateParameters(statement, index, station);
+            }
+
+            result = statement.executeUpdate() == stations.size();
+
+            LOG.info("create stations", "table", TABLE_NAME, "rows", stations.size());
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return index of the first parameter of the next row
+     */
+    private static int setCreateParameters(PreparedStatement statement, int index, Station station)
+            throws SQLException {
+        statement.setBytes(index, Identifiers.toBytes(station.getId()));
+        statement.setString(index + 1, station.getName());
+        return index + CREATE_LABELS.length;
+    }
+
     @Override
     public Station update(Station station) {
         Connection connection = null;
@@ -132,11 +175,11 @@ class MySQLStationDAO implements StationDAO {
 
             statement = connection.prepareStatement(createQuery);
             statement.setString(1, station.getName());
-            statement.setString(2, station.getId());
+            statement.setBytes(2, Identifiers.toBytes(station.getId()));
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, station.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, station.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, station.getId()));
         } finally {
@@ -157,10 +200,10 @@ class MySQLStationDAO implements StationDAO {
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(createQuery);
 
-            statement.setString(1, station.getId());
+            statement.setBytes(1, Identifiers.toBytes(station.getId()));
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoDelete(TABLE_NAME, station.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, station.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorDelete(TABLE_NAME, station.getId()));
         } finally {
@@ -171,7 +214,7 @@ class MySQLStationDAO implements StationDAO {
     private Station getStation(ResultSet set) throws SQLException {
         Station result = new Station();
 
-        result.setId(set.getString(LABEL_ID));
+        result.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
         result.setName(set.getString(LABEL_NAME));
 
         return result;
@@ -3,7 +3,9 @@ package dao.mysql;
 import dao.TrainDAO;
 import dao.mysql.util.LogMessageDAOUtil;
 import dao.mysql.util.QueryDAOUtil;
+import log.Log;
 import model.entity.Train;
+import util.Identifiers;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,10 +14,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 class MySQLTrainDAO implements TrainDAO {
-    private static final Logger LOG = Logger.getLogger(MySQLTrainDAO.class.getName());
+    private static final Log LOG = Log.getLog(MySQLTrainDAO.class);
     private static final MySQLTrainDAO INSTANCE = new MySQLTrainDAO();
 
     private static final String TABLE_NAME = "train";
@@ -26,6 +27,9 @@ class MySQLTrainDAO implements TrainDAO {
     private static final String LABEL_BERTH_FREE = "berth_free";
     private static final String LABEL_DELUXE_FREE = "deluxe_free";
 
+    private static final String[] CREATE_LABELS = {LABEL_ID, LABEL_ROUTE_ID, LABEL_BERTH_FREE, LABEL_COMPARTMENT_FREE,
+            LABEL_DELUXE_FREE};
+
     private MySQLTrainDAO() {
     }
 
@@ -51,7 +55,7 @@ class MySQLTrainDAO implements TrainDAO {
                 result.add(getTrain(set));
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME));
         } finally {
@@ -81,27 +85,16 @@ class MySQLTrainDAO implements TrainDAO {
         PreparedStatement statement = null;
 
         try {
-            String createQuery = QueryDAOUtil.createInsertQuery(
-                    TABLE_NAME,
-                    LABEL_ID,
-                    LABEL_ROUTE_ID,
-                    LABEL_BERTH_FREE,
-                    LABEL_COMPARTMENT_FREE,
-                    LABEL_DELUXE_FREE
-            );
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, CREATE_LABELS);
 
             connection = MySQLConnectionPool.getInstance().getConnection();
 
             statement = connection.prepareStatement(createQuery);
-            statement.setString(1, train.getId());
-            statement.setString(2, train.getRouteId());
-            statement.setLong(3, train.getBerthFree());
-            statement.setLong(4, train.getCompartmentFree());
-            statement.setLong(5, train.getDeluxeFree());
+            setCreateParameters(statement, 1, train);
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoCreate(TABLE_NAME, train.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, train.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
         } finally {
@@ -111,6 +104,54 @@ class MySQLTrainDAO implements TrainDAO {
         return train;
     }
 
+    /**
+     * One multi-row INSERT, the TRAINS are stored all or none
+     */
+    @Override
+    public boolean createAll(List<Train> trains) {
+        if (trains.isEmpty())
+            return true;
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        boolean result = false;
+
+        try {
+            String createQuery = QueryDAOUtil.createInsertQuery(TABLE_NAME, trains.size(), CREATE_LABELS);
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(createQuery);
+            int index = 1;
+            for (Train train : trains) {
+                index = setCreateParameters(statement, index, train);
+            }
+
+            result = statement.executeUpdate() == trains.size();
+
+            LOG.info("create trains", "table", TABLE_NAME, "rows", trains.size());
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return index of the first parameter of the next row
+     */
+    private static int setCreateParameters(PreparedStatement statement, int index, Train train)
+            throws SQLException {
+        statement.setBytes(index, Identifiers.toBytes(train.getId()));
+        statement.setBytes(index + 1, Identifiers.toBytes(train.getRouteId()));
+        statement.setLong(index + 2, train.getBerthFree());
+        statement.setLong(index + 3, train.getCompartmentFree());
+        statement.setLong(index + 4, train.getDeluxeFree());
+        return index + CREATE_LABELS.length;
+    }
+
     @Override
     public Train update(Train train) {
         Connection connection = null;
@@ -130,16 +171,16 @@ class MySQLTrainDAO implements TrainDAO {
             connection = MySQLConnectionPool.getInstance().getConnection();
 
             statement = connection.prepareStatement(createQuery);
-            statement.setString(1, train.getRouteId());
+            statement.setBytes(1, Identifiers.toBytes(train.getRouteId()));
             statement.setLong(2, train.getBerthFree());
             statement.setLong(3, train.getCompartmentFree());
             statement.setLong(4, train.getDeluxeFree());
 
-            statement.setString(5, train.getId());
+            statement.setBytes(5, Identifiers.toBytes(train.getId()));
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, train.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, train.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, train.getId()));
         } finally {
@@ -149,12 +190,94 @@ class MySQLTrainDAO implements TrainDAO {
         return train;
     }
 
+    @Override
+    public void updateFree(String trainId, long compartmentFree, long deluxeFree, long berthFree) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            String updateQuery = QueryDAOUtil.createUpdateQuery(
+                    TABLE_NAME,
+                    LABEL_ID,
+                    LABEL_COMPARTMENT_FREE,
+                    LABEL_DELUXE_FREE,
+                    LABEL_BERTH_FREE
+            );
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+
+            statement = connection.prepareStatement(updateQuery);
+            statement.setLong(1, compartmentFree);
+            statement.setLong(2, deluxeFree);
+            statement.setLong(3, berthFree);
+            statement.setBytes(4, Identifiers.toBytes(trainId));
+
+            statement.executeUpdate();
+
+            LOG.fine(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, trainId));
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, trainId));
+        } finally {
+            close(connection, statement);
+        }
+    }
+
     @Override
     public void delete(Train train) {
 
     }
 
-    private List<Train> findByParameter(String label, Object parameter) {
+    @Override
+    public boolean reservePlace(String trainId, TypePlace type, long count) {
+        return addPlaces(trainId, type, -count);
+    }
+
+    @Override
+    public void cancelPlace(String trainId, TypePlace type, long count) {
+        addPlaces(trainId, type, count);
+    }
+
+    /**
+     * One conditional UPDATE, so concurrent bookings can neither lose an update nor go below zero
+     */
+    private boolean addPlaces(String trainId, TypePlace type, long delta) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        boolean result = false;
+
+        try {
+            String addQuery = QueryDAOUtil.createAddQuery(TABLE_NAME, LABEL_ID, getFreeLabel(type));
+
+            connection = MySQLConnectionPool.getInstance().getConnection();
+            statement = connection.prepareStatement(addQuery);
+            statement.setLong(1, delta);
+            statement.setBytes(2, Identifiers.toBytes(trainId));
+            statement.setLong(3, delta);
+
+            result = statement.executeUpdate() == 1;
+
+            LOG.fine("add places", "trainId", trainId, "type", type, "delta", delta, "done", result);
+        } catch (SQLException e) {
+            LOG.severe(LogMessageDAOUtil.createErrorUpdate(TABLE_NAME, trainId));
+        } finally {
+            close(connection, statement);
+        }
+
+        return result;
+    }
+
+    private static String getFreeLabel(TypePlace type) {
+        switch (type) {
+            case C:
+                return LABEL_COMPARTMENT_FREE;
+            case L:
+                return LABEL_DELUXE_FREE;
+            default:
+                return LABEL_BERTH_FREE;
+        }
+    }
+
+    private List<Train> findByParameter(String label, String parameter) {
         List<Train> result = new ArrayList<>();
         Connection connection = null;
         PreparedStatement statement = null;
@@ -164,13 +287,13 @@ class MySQLTrainDAO implements TrainDAO {
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(findByIdQuery);
-            statement.setObject(1, parameter);
+            statement.setBytes(1, Identifiers.toBytes(parameter));
             ResultSet set = statement.executeQuery();
             while (set.next()) {
                 result.add(getTrain(set));
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, label, parameter));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, label, parameter));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, label, parameter));
         } finally {
@@ -183,8 +306,8 @@ class MySQLTrainDAO implements TrainDAO {
     private Train getTrain(ResultSet set) throws SQLException {
         Train result = new Train();
 
-        result.setId(set.getString(LABEL_ID));
-        result.setRouteId(set.getString(LABEL_ROUTE_ID));
+        result.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
+        result.setRouteId(Identifiers.fromBytes(set.getBytes(LABEL_ROUTE_ID)));
         result.setBerthFree(set.getLong(LABEL_BERTH_FREE));
         result.setCompartmentFree(set.getLong(LABEL_COMPARTMENT_FREE));
         result.setDeluxeFree(set.getLong(LABEL_DELUXE_FREE));
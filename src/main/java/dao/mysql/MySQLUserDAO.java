@@ -3,7 +3,9 @@ package dao.mysql;
 import dao.UserDAO;
 import dao.mysql.util.LogMessageDAOUtil;
 import dao.mysql.util.QueryDAOUtil;
+import log.Log;
 import model.entity.User;
+import util.Identifiers;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,11 +14,10 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 
 class MySQLUserDAO implements UserDAO {
-    private static final Logger LOG = Logger.getLogger(MySQLUserDAO.class.getName());
+    private static final Log LOG = Log.getLog(MySQLUserDAO.class);
     private static final MySQLUserDAO INSTANCE = new MySQLUserDAO();
 
     private static final String TABLE_NAME = "user";
@@ -54,7 +55,7 @@ class MySQLUserDAO implements UserDAO {
                 result.add(getUser(set));
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindAll(TABLE_NAME));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindAll(TABLE_NAME));
         } finally {
@@ -82,6 +83,14 @@ class MySQLUserDAO implements UserDAO {
         return result.get(0);
     }
 
+    /**
+     * Served by user_admin_idx (admin)
+     */
+    @Override
+    public List<User> findByAdmin(boolean admin) {
+        return findByParameter(LABEL_ADMIN, admin);
+    }
+
     @Override
     public User create(User user) {
         Connection connection = null;
@@ -102,7 +111,7 @@ class MySQLUserDAO implements UserDAO {
             connection = MySQLConnectionPool.getInstance().getConnection();
 
             statement = connection.prepareStatement(createQuery);
-            statement.setString(1, user.getId());
+            statement.setBytes(1, Identifiers.toBytes(user.getId()));
             statement.setString(2, user.getEmail());
             statement.setString(3, user.getPassword());
             statement.setString(4, user.getName());
@@ -112,7 +121,7 @@ class MySQLUserDAO implements UserDAO {
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoCreate(TABLE_NAME, user.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoCreate(TABLE_NAME, user.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
         } finally {
@@ -150,11 +159,11 @@ class MySQLUserDAO implements UserDAO {
             statement.setString(5, user.getPhone());
             statement.setBoolean(6, user.getAdmin());
 
-            statement.setString(7, user.getId());
+            statement.setBytes(7, Identifiers.toBytes(user.getId()));
 
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, user.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, user.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createInfoUpdate(TABLE_NAME, user.getId()));
         } finally {
@@ -175,10 +184,10 @@ class MySQLUserDAO implements UserDAO {
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(createQuery);
 
-            statement.setString(1, user.getId());
+            statement.setBytes(1, Identifiers.toBytes(user.getId()));
             statement.executeUpdate();
 
-            LOG.info(LogMessageDAOUtil.createInfoDelete(TABLE_NAME, user.getId()));
+            LOG.info(() -> LogMessageDAOUtil.createInfoDelete(TABLE_NAME, user.getId()));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorCreate(TABLE_NAME));
         } finally {
@@ -196,13 +205,13 @@ class MySQLUserDAO implements UserDAO {
 
             connection = MySQLConnectionPool.getInstance().getConnection();
             statement = connection.prepareStatement(findByIdQuery);
-            statement.setObject(1, parameter);
+            statement.setObject(1, LABEL_ID.equals(label) ? Identifiers.toBytes((String) parameter) : parameter);
             ResultSet set = statement.executeQuery();
             while (set.next()) {
                 result.add(getUser(set));
             }
 
-            LOG.info(LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, label, parameter));
+            LOG.fine(() -> LogMessageDAOUtil.createInfoFindByParameter(TABLE_NAME, label, parameter));
         } catch (SQLException e) {
             LOG.severe(LogMessageDAOUtil.createErrorFindByParameter(TABLE_NAME, label, parameter));
         } finally {
@@ -223,7 +232,7 @@ class MySQLUserDAO implements UserDAO {
 
     private User getUser(ResultSet set) throws SQLException {
         User result = new User();
-        result.setId(set.getString(LABEL_ID));
+        result.setId(Identifiers.fromBytes(set.getBytes(LABEL_ID)));
         result.setEmail(set.getString(LABEL_EMAIL));
         result.setPassword(set.getString(LABEL_PASSWORD));
 
@@ -0,0 +1,40 @@
+package dao.mysql.migration;
+
+import dao.DataBase;
+import dao.mysql.MySQLConnectionPool;
+import util.Configuration;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static dao.DataBase.MYSQL;
+import static util.Configuration.MIGRATION_ENABLED;
+import static util.Configuration.PROFILE_DATABASE;
+
+/**
+ * Brings the MySQL schema up to date before the first request, a failed migration stops the deployment
+ */
+@WebListener
+public class MigrationContextListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent servletContextEvent) {
+        if (MYSQL != DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE)))
+            return;
+        if (!Boolean.parseBoolean(Configuration.getInstance().getConfig(MIGRATION_ENABLED)))
+            return;
+
+        try (Connection connection = MySQLConnectionPool.getInstance().getConnection()) {
+            new SchemaMigrator().migrate(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent servletContextEvent) {
+    }
+}
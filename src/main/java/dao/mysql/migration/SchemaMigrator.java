@@ -0,0 +1,177 @@
+package dao.mysql.migration;
+
+import log.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Applies the numbered scripts of sql/migration (V{version}__{description}.sql) in order.
+ * Applied versions are recorded in schema_version together with a checksum of the script,
+ * an applied script that was edited afterwards stops the migration.
+ */
+public class SchemaMigrator {
+    private static final Log LOG = Log.getLog(SchemaMigrator.class);
+
+    private static final String LOCATION = "sql/migration/";
+
+    /**
+     * Every script, in the order of versions. A new migration is a new file plus a new line here.
+     */
+    static final String[] MIGRATIONS = {
+            "V1__baseline.sql",
+            "V2__search_indexes.sql",
+            "V3__seat_maps.sql",
+            "V4__route_stops.sql",
+            "V5__booking_key.sql"
+    };
+
+    private static final Pattern NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT NOT NULL PRIMARY KEY, "
+            + "script VARCHAR(255) NOT NULL, "
+            + "checksum BIGINT NOT NULL, "
+            + "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+    private static final String SELECT_VERSIONS = "SELECT version, checksum FROM schema_version";
+    private static final String INSERT_VERSION = "INSERT INTO schema_version (version, script, checksum) VALUES (?,?,?)";
+
+    private final String[] migrations;
+
+    public SchemaMigrator() {
+        this(MIGRATIONS);
+    }
+
+    SchemaMigrator(String... migrations) {
+        this.migrations = migrations;
+    }
+
+    /**
+     * @return number of scripts applied now, 0 if the schema was up to date
+     * @throws SQLException          if a script fails, the versions before it stay recorded
+     * @throws IllegalStateException if an applied script has changed
+     */
+    public int migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_VERSION_TABLE);
+        }
+        Map<Integer, Long> applied = findApplied(connection);
+
+        int count = 0;
+        for (String migration : migrations) {
+            int version = versionOf(migration);
+            String script = read(migration);
+            long checksum = checksum(script);
+
+            Long appliedChecksum = applied.get(version);
+            if (appliedChecksum != null) {
+                if (appliedChecksum != checksum) {
+                    throw new IllegalStateException("Migration " + migration + " was changed after it was applied");
+                }
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : split(script)) {
+                    statement.execute(sql);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_VERSION)) {
+                statement.setInt(1, version);
+                statement.setString(2, migration);
+                statement.setLong(3, checksum);
+                statement.executeUpdate();
+            }
+            count++;
+            LOG.info("schema migrated", "version", version, "script", migration,
+                    "millis", (System.nanoTime() - start) / 1_000_000);
+        }
+
+        return count;
+    }
+
+    /**
+     * Splits a script into statements at semicolons ending a line, "--" comment lines are dropped
+     */
+    static List<String> split(String script) {
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--"))
+                continue;
+
+            if (trimmed.endsWith(";")) {
+                current.append(trimmed, 0, trimmed.length() - 1);
+                result.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(trimmed).append(' ');
+            }
+        }
+
+        if (current.toString().trim().length() > 0) {
+            result.add(current.toString().trim());
+        }
+        return result;
+    }
+
+    static int versionOf(String migration) {
+        Matcher matcher = NAME.matcher(migration);
+        if (!matcher.matches())
+            throw new IllegalArgumentException("Migration name must look like V1__description.sql: " + migration);
+
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static Map<Integer, Long> findApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> result = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet set = statement.executeQuery(SELECT_VERSIONS)) {
+            while (set.next()) {
+                result.put(set.getInt(1), set.getLong(2));
+            }
+        }
+        return result;
+    }
+
+    private static String read(String migration) {
+        String resource = LOCATION + migration;
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null)
+                throw new IllegalStateException("Migration not found: " + resource);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read migration " + resource, e);
+        }
+    }
+
+    private static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.replace("\r\n", "\n").getBytes(UTF_8));
+        return crc.getValue();
+    }
+}
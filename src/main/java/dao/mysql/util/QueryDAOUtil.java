@@ -18,6 +18,10 @@ public class QueryDAOUtil {
     private static final Character QUESTION = '?';
     private static final Character COMMA = ',';
     private static final Character STAR = '*';
+    private static final Character PLUS = '+';
+    private static final String GREATER_OR_EQUALLY = ">=";
+    private static final Character GREATER = '>';
+    private static final Character ZERO = '0';
 
     private static final Character LEFT_BRACKET = '(';
     private static final Character RIGHT_BRACKET = ')';
@@ -57,6 +61,22 @@ public class QueryDAOUtil {
         return builder.toString();
     }
 
+    /**
+     * Equality on a prefix of a composite index plus a range on its next column
+     *
+     * @param tableName
+     * @param rangeLabel
+     * @param labelParameters
+     * @return SELECT * FROM {tableName} WHERE {labelParameters}=? AND ... AND {rangeLabel}>?
+     */
+    public static String createFindAfterQuery(String tableName, String rangeLabel, String... labelParameters) {
+        StringBuilder builder = new StringBuilder(createFindByParameterQuery(tableName, labelParameters));
+        builder.append(AND).append(SPACE);
+        builder.append(rangeLabel).append(GREATER).append(QUESTION);
+
+        return builder.toString();
+    }
+
     /**
      * @param tableName
      * @param parameters
@@ -87,6 +107,23 @@ public class QueryDAOUtil {
         return builder.toString();
     }
 
+    /**
+     * @param tableName
+     * @param rows
+     * @param parameters
+     * @return INSERT INTO {tableName(parameters with comma)} VALUES (?,?, ...),(?,?, ...) ... one group per row
+     */
+    public static String createInsertQuery(String tableName, int rows, String... parameters) {
+        StringBuilder builder = new StringBuilder(createInsertQuery(tableName, parameters).trim());
+        String values = builder.substring(builder.lastIndexOf(String.valueOf(LEFT_BRACKET)));
+
+        for (int i = 1; i < rows; i++) {
+            builder.append(COMMA).append(values);
+        }
+
+        return builder.toString();
+    }
+
     /**
      * @param tableName
      * @param parameterToSearch
@@ -94,6 +131,17 @@ public class QueryDAOUtil {
      * @return UPDATE {tableName} SET {parametersToUpdate with commas} WHERE {parameterToSearch}=?
      */
     public static String createUpdateQuery(String tableName, String parameterToSearch, String... parametersToUpdate) {
+        return createUpdateQuery(tableName, new String[]{parameterToSearch}, parametersToUpdate);
+    }
+
+    /**
+     * @param tableName
+     * @param parametersToSearch
+     * @param parametersToUpdate
+     * @return UPDATE {tableName} SET {parametersToUpdate with commas} WHERE {parametersToSearch}=? AND ...
+     */
+    public static String createUpdateQuery(String tableName, String[] parametersToSearch,
+                                           String... parametersToUpdate) {
         StringBuilder builder = new StringBuilder();
         builder.append(UPDATE).append(SPACE);
         builder.append(tableName.toUpperCase()).append(SPACE);
@@ -110,7 +158,11 @@ public class QueryDAOUtil {
                 .append(QUESTION)
                 .append(SPACE);
         builder.append(WHERE).append(SPACE);
-        builder.append(parameterToSearch).append(EQUALLY).append(QUESTION);
+        builder.append(parametersToSearch[0]).append(EQUALLY).append(QUESTION);
+        for (int i = 1; i < parametersToSearch.length; i++) {
+            builder.append(SPACE).append(AND).append(SPACE);
+            builder.append(parametersToSearch[i]).append(EQUALLY).append(QUESTION);
+        }
 
         return builder.toString();
 
@@ -132,4 +184,25 @@ public class QueryDAOUtil {
         return builder.toString();
     }
 
+    /**
+     * Atomic change of a counter that never goes below zero, parameters are (delta, id, delta)
+     *
+     * @param tableName
+     * @param parameterToSearch
+     * @param column
+     * @return UPDATE {tableName} SET {column}={column}+? WHERE {parameterToSearch}=? AND {column}+?>=0
+     */
+    public static String createAddQuery(String tableName, String parameterToSearch, String column) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(UPDATE).append(SPACE);
+        builder.append(tableName.toUpperCase()).append(SPACE);
+        builder.append(SET).append(SPACE);
+        builder.append(column).append(EQUALLY).append(column).append(PLUS).append(QUESTION).append(SPACE);
+        builder.append(WHERE).append(SPACE);
+        builder.append(parameterToSearch).append(EQUALLY).append(QUESTION).append(SPACE);
+        builder.append(AND).append(SPACE);
+        builder.append(column).append(PLUS).append(QUESTION).append(GREATER_OR_EQUALLY).append(ZERO);
+
+        return builder.toString();
+    }
 }
@@ -0,0 +1,346 @@
+package dao.writebehind;
+
+import dao.mysql.TypePlace;
+import model.entity.Request;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Durable local journal of REQUEST changes not yet in the DB. Segment files are named after the sequence number
+ * of their first record, a record is length, payload and CRC32 of the payload. A written record is on disk once
+ * {@link #sync(long)} returns; writers that arrive while the disk is syncing share the next sync (group commit).
+ * Segments are deleted once the DB has every record in them, recovery stops at the first torn record.
+ * Records the DB rejects for good are moved to the dead letter segment, which is never checkpointed or replayed.
+ */
+public class RequestJournal {
+    public enum Operation {
+        CREATE, DELETE
+    }
+
+    private static final String SUFFIX = ".journal";
+    private static final String DEAD_LETTERS = "dead-letters";
+    private static final int HEADER = Integer.BYTES;
+    private static final int TRAILER = Integer.BYTES;
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final Map<Long, FileChannel> channels = new HashMap<>();
+    private final Object syncLock = new Object();
+
+    private FileChannel deadLetters;
+    private FileChannel current;
+    private long currentSize;
+    private long lastSeq;
+    private volatile long syncedSeq;
+
+    public RequestJournal(Path dir, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    // not a segment
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every record left in the journal, the next write starts a new segment
+     */
+    public synchronized List<Entry> recover() throws IOException {
+        List<Entry> result = new ArrayList<>();
+        for (Path file : segments.values()) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            Entry entry;
+            while ((entry = read(buffer)) != null) {
+                if (!result.isEmpty() && entry.seq != lastSeq + 1)
+                    break;
+                result.add(entry);
+                lastSeq = entry.seq;
+            }
+        }
+        syncedSeq = lastSeq;
+        current = null;
+        return result;
+    }
+
+    /**
+     * @return sequence number of the record, {@link #sync(long)} it before relying on it
+     */
+    public synchronized long write(Operation operation, Request request) throws IOException {
+        long seq = lastSeq + 1;
+        ByteBuffer record = record(encode(seq, operation, request));
+        if (current == null || currentSize + record.remaining() > segmentBytes)
+            roll(seq);
+
+        currentSize += record.remaining();
+        while (record.hasRemaining()) {
+            current.write(record);
+        }
+        lastSeq = seq;
+        return seq;
+    }
+
+    /**
+     * Appends the record to the dead letter segment, it is on disk once the call returns
+     */
+    public synchronized void deadLetter(long seq, Operation operation, Request request) throws IOException {
+        if (deadLetters == null)
+            deadLetters = FileChannel.open(dir.resolve(DEAD_LETTERS), CREATE, WRITE, APPEND);
+
+        ByteBuffer record = record(encode(seq, operation, request));
+        while (record.hasRemaining()) {
+            deadLetters.write(record);
+        }
+        deadLetters.force(false);
+    }
+
+    /**
+     * @return records moved to the dead letter segment, oldest first
+     */
+    public synchronized List<Entry> readDeadLetters() throws IOException {
+        List<Entry> result = new ArrayList<>();
+        Path file = dir.resolve(DEAD_LETTERS);
+        if (!Files.exists(file))
+            return result;
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        Entry entry;
+        while ((entry = read(buffer)) != null) {
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Returns once the record with given sequence number is on disk,
+     * one force covers every record written before it, so concurrent writers share it
+     */
+    public void sync(long seq) throws IOException {
+        synchronized (syncLock) {
+            if (syncedSeq >= seq)
+                return;
+
+            long upTo;
+            FileChannel channel;
+            synchronized (this) {
+                upTo = lastSeq;
+                channel = current;
+            }
+            try {
+                if (channel != null)
+                    channel.force(false);
+            } catch (ClosedChannelException e) {
+                // checkpointed meanwhile, the records are in the DB
+            }
+            syncedSeq = Math.max(syncedSeq, upTo);
+        }
+    }
+
+    /**
+     * Deletes the records up to given sequence number (included), they are in the DB
+     */
+    public synchronized void checkpoint(long seq) throws IOException {
+        Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Path> segment = iterator.next();
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null && seq < lastSeq || next != null && next > seq + 1)
+                return;
+
+            FileChannel channel = channels.remove(segment.getKey());
+            if (channel != null)
+                channel.close();
+            if (channel == current)
+                current = null;
+            Files.deleteIfExists(segment.getValue());
+            iterator.remove();
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        for (FileChannel channel : channels.values()) {
+            channel.close();
+        }
+        channels.clear();
+        current = null;
+        if (deadLetters != null) {
+            deadLetters.close();
+            deadLetters = null;
+        }
+    }
+
+    public synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * The old segment is forced before the new one takes records, so a sync only needs the current one
+     */
+    private void roll(long seq) throws IOException {
+        if (current != null) {
+            current.force(false);
+            syncedSeq = lastSeq;
+        }
+
+        Path file = dir.resolve(String.format("%020d%s", seq, SUFFIX));
+        current = FileChannel.open(file, CREATE, WRITE, APPEND);
+        currentSize = current.size();
+        channels.put(seq, current);
+        segments.put(seq, file);
+    }
+
+    private static ByteBuffer record(byte[] payload) {
+        ByteBuffer result = ByteBuffer.allocate(HEADER + payload.length + TRAILER)
+                .putInt(payload.length).put(payload).putInt(crc(payload));
+        result.flip();
+        return result;
+    }
+
+    private static Entry read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER + TRAILER)
+            return null;
+
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining() - TRAILER)
+            return null;
+
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        if (buffer.getInt() != crc(payload))
+            return null;
+
+        return decode(payload);
+    }
+
+    private static byte[] encode(long seq, Operation operation, Request request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(seq);
+            out.writeByte(operation.ordinal());
+            writeString(out, request.getId());
+            writeString(out, request.getUserId());
+            writeString(out, request.getTrainId());
+            writeString(out, request.getType() == null ? null : request.getType().name());
+            out.writeBoolean(request.getPrice() != null);
+            out.writeDouble(request.getPrice() == null ? 0 : request.getPrice());
+            writeInteger(out, request.getCarriage());
+            writeInteger(out, request.getSeat());
+            writeInteger(out, request.getFromStop());
+            writeInteger(out, request.getToStop());
+            writeString(out, request.getBookingKey());
+            writeInteger(out, request.getBookingSeq());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long seq = in.readLong();
+            int operation = in.readByte();
+            if (operation < 0 || operation >= OPERATIONS.length)
+                return null;
+
+            Request request = new Request();
+            request.setId(readString(in));
+            request.setUserId(readString(in));
+            request.setTrainId(readString(in));
+            String type = readString(in);
+            request.setType(type == null ? null : TypePlace.valueOf(type));
+            boolean price = in.readBoolean();
+            double value = in.readDouble();
+            request.setPrice(price ? value : null);
+            request.setCarriage(readInteger(in));
+            request.setSeat(readInteger(in));
+            request.setFromStop(readInteger(in));
+            request.setToStop(readInteger(in));
+            request.setBookingKey(readString(in));
+            request.setBookingSeq(readInteger(in));
+            return new Entry(seq, OPERATIONS[operation], request);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null)
+            out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeInt(value == null ? 0 : value);
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        boolean present = in.readBoolean();
+        int value = in.readInt();
+        return present ? value : null;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    public static final class Entry {
+        private final long seq;
+        private final Operation operation;
+        private final Request request;
+
+        private Entry(long seq, Operation operation, Request request) {
+            this.seq = seq;
+            this.operation = operation;
+            this.request = request;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Request getRequest() {
+            return request;
+        }
+    }
+}
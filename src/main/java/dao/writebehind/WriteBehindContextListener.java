@@ -0,0 +1,23 @@
+package dao.writebehind;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Flushes the queued REQUESTS on shutdown, so the journal is empty on the next start
+ */
+@WebListener
+public class WriteBehindContextListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent servletContextEvent) {
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent servletContextEvent) {
+        WriteBehindRequestDAO requestDAO = WriteBehindFactory.getRequestDAO();
+        if (requestDAO != null)
+            requestDAO.stop();
+    }
+}
@@ -0,0 +1,129 @@
+package dao.writebehind;
+
+import dao.CarriageDAO;
+import dao.DAOFactory;
+import dao.PriceDAO;
+import dao.RequestDAO;
+import dao.RouteDAO;
+import dao.RouteStopDAO;
+import dao.StationDAO;
+import dao.TrainDAO;
+import dao.UserDAO;
+import model.entity.Request;
+import util.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+
+import static util.Configuration.WRITE_BEHIND_BATCH_SIZE;
+import static util.Configuration.WRITE_BEHIND_DIR;
+import static util.Configuration.WRITE_BEHIND_FLUSH_MILLIS;
+import static util.Configuration.WRITE_BEHIND_QUEUE_SIZE;
+import static util.Configuration.WRITE_BEHIND_SEGMENT_BYTES;
+
+/**
+ * Decorates a factory so every service shares one {@link WriteBehindRequestDAO} over its REQUEST DAO,
+ * other DAOs are the delegate's
+ */
+public class WriteBehindFactory implements DAOFactory {
+    private static volatile WriteBehindRequestDAO requestDAO;
+    private static volatile Consumer<Request> rejectedListener;
+
+    private final DAOFactory delegate;
+
+    public WriteBehindFactory(DAOFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the shared DAO, NULL if write-behind has not been used yet
+     */
+    public static WriteBehindRequestDAO getRequestDAO() {
+        return requestDAO;
+    }
+
+    /**
+     * LISTENER gives back the place of a REQUEST moved to the dead letters,
+     * see {@link WriteBehindRequestDAO#setRejectedListener(Consumer)}
+     */
+    public static void setRejectedListener(Consumer<Request> listener) {
+        rejectedListener = listener;
+        WriteBehindRequestDAO current = requestDAO;
+        if (current != null)
+            current.setRejectedListener(listener);
+    }
+
+    /**
+     * The rejected listener is set outside the lock, it may be handed REQUESTS rejected on recovery
+     */
+    @Override
+    public RequestDAO createRequestDAO() {
+        WriteBehindRequestDAO created = null;
+        if (requestDAO == null) {
+            synchronized (WriteBehindFactory.class) {
+                if (requestDAO == null) {
+                    RequestDAO stored = delegate.createRequestDAO();
+                    if (stored == null)
+                        return null;
+                    requestDAO = created = create(stored);
+                }
+            }
+        }
+
+        Consumer<Request> listener = rejectedListener;
+        if (created != null && listener != null)
+            created.setRejectedListener(listener);
+        return requestDAO;
+    }
+
+    @Override
+    public PriceDAO createPriceDAO() {
+        return delegate.createPriceDAO();
+    }
+
+    @Override
+    public RouteDAO createRouteDAO() {
+        return delegate.createRouteDAO();
+    }
+
+    @Override
+    public TrainDAO createTrainDAO() {
+        return delegate.createTrainDAO();
+    }
+
+    @Override
+    public UserDAO createUserDAO() {
+        return delegate.createUserDAO();
+    }
+
+    @Override
+    public StationDAO createStationDAO() {
+        return delegate.createStationDAO();
+    }
+
+    @Override
+    public CarriageDAO createCarriageDAO() {
+        return delegate.createCarriageDAO();
+    }
+
+    @Override
+    public RouteStopDAO createRouteStopDAO() {
+        return delegate.createRouteStopDAO();
+    }
+
+    private static WriteBehindRequestDAO create(RequestDAO stored) {
+        Configuration configuration = Configuration.getInstance();
+        try {
+            RequestJournal journal = new RequestJournal(Paths.get(configuration.getConfig(WRITE_BEHIND_DIR)),
+                    Long.parseLong(configuration.getConfig(WRITE_BEHIND_SEGMENT_BYTES)));
+            return new WriteBehindRequestDAO(stored, journal,
+                    Integer.parseInt(configuration.getConfig(WRITE_BEHIND_QUEUE_SIZE)),
+                    Integer.parseInt(configuration.getConfig(WRITE_BEHIND_BATCH_SIZE)),
+                    Long.parseLong(configuration.getConfig(WRITE_BEHIND_FLUSH_MILLIS)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
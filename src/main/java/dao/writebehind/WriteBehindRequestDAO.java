@@ -0,0 +1,527 @@
+package dao.writebehind;
+
+import dao.RequestDAO;
+import dao.mysql.TypePlace;
+import dao.writebehind.RequestJournal.Operation;
+import dto.BookingFilter;
+import dto.BookingRow;
+import exception.ConstraintViolation;
+import log.Log;
+import model.entity.Request;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * REQUESTS written behind: a booked REQUEST is appended to the local journal and queued, the request thread
+ * does not wait for the DB. One flusher thread takes what is queued, waits at most {flushMillis} for more,
+ * and stores up to {batchSize} REQUESTS with one multi-row INSERT; deletes are applied in order between
+ * the inserts. Queued REQUESTS are read from memory, so reads see them before the DB does.
+ * A full queue blocks the booking until the flusher makes room, so the DB lags by at most {queueSize} changes.
+ * On start the journal is replayed into the DB, a failed flush is retried and never drops the journal:
+ * while the DB fails the flusher backs off and the full queue holds new bookings back.
+ * A multi-row INSERT the DB rejects is retried row by row; only a REQUEST that breaks a constraint of the DB
+ * (a place of a booking stored already, a deleted TRAIN) is moved to the dead letters, so the flusher moves on,
+ * and handed to the rejected listener that gives back what it holds.
+ */
+public class WriteBehindRequestDAO implements RequestDAO {
+    private static final Log LOG = Log.getLog(WriteBehindRequestDAO.class);
+
+    private static final String THREAD_NAME = "request-write-behind";
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+    private static final long STOP_MILLIS = 30_000;
+
+    private final RequestDAO delegate;
+    private final RequestJournal journal;
+    private final BlockingQueue<Change> queue;
+    private final int batchSize;
+    private final long flushNanos;
+
+    private final Map<String, Request> created = new ConcurrentHashMap<>();
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+
+    private final Object flushed = new Object();
+    private long flushedSeq;
+
+    /**
+     * REQUESTS moved to the dead letters before a rejected listener was set
+     */
+    private final List<Request> rejected = new ArrayList<>();
+    private Consumer<Request> rejectedListener;
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public WriteBehindRequestDAO(RequestDAO delegate, RequestJournal journal, int queueSize, int batchSize,
+                                 long flushMillis) throws IOException {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+
+        recover();
+        flusher = new Thread(this::run, THREAD_NAME);
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public List<Request> findAll() {
+        return merge(delegate.findAll(), request -> true);
+    }
+
+    @Override
+    public Request findById(String id) {
+        if (deleted.contains(id))
+            return null;
+
+        Request request = created.get(id);
+        return request != null ? request : delegate.findById(id);
+    }
+
+    @Override
+    public List<Request> findByTrain(String trainId) {
+        return merge(delegate.findByTrain(trainId), request -> Objects.equals(trainId, request.getTrainId()));
+    }
+
+    @Override
+    public List<Request> findByTrain(String trainId, TypePlace type) {
+        return merge(delegate.findByTrain(trainId, type),
+                request -> Objects.equals(trainId, request.getTrainId()) && request.getType() == type);
+    }
+
+    @Override
+    public List<Request> findByBookingKey(String bookingKey) {
+        return merge(delegate.findByBookingKey(bookingKey),
+                request -> bookingKey != null && bookingKey.equals(request.getBookingKey()));
+    }
+
+    /**
+     * Queued changes reach the DB first, the joined rows are read from the DB only
+     */
+    @Override
+    public void forEachBooking(BookingFilter filter, Consumer<BookingRow> consumer) {
+        flush();
+        delegate.forEachBooking(filter, consumer);
+    }
+
+    /**
+     * A REQUEST the journal could not take is stored synchronously, unless it was queued before the journal
+     * failed and the flusher has stored it meanwhile
+     */
+    @Override
+    public Request create(Request request) {
+        if (!enqueue(Operation.CREATE, request)) {
+            LOG.severe("request journal write failed, request " + request.getId() + " stored synchronously");
+            flush();
+            return delegate.findById(request.getId()) != null ? request : delegate.create(request);
+        }
+        return request;
+    }
+
+    @Override
+    public boolean createAll(List<Request> requests) {
+        boolean result = true;
+        for (Request request : requests) {
+            result &= create(request) != null;
+        }
+        return result;
+    }
+
+    /**
+     * Queued changes reach the DB first, so the update is not overwritten by an older insert
+     */
+    @Override
+    public Request update(Request request) {
+        flush();
+        return delegate.update(request);
+    }
+
+    @Override
+    public boolean delete(Request request) {
+        if (!enqueue(Operation.DELETE, request)) {
+            LOG.severe("request journal write failed, request " + request.getId() + " deleted synchronously");
+            flush();
+            return delegate.delete(request);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until every change queued before the call is in the DB
+     */
+    public void flush() {
+        flush(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return FALSE if the changes were not in the DB within {timeoutMillis}
+     */
+    private boolean flush(long timeoutMillis) {
+        long seq = journal.getLastSeq();
+        long deadline = System.currentTimeMillis() + Math.min(timeoutMillis, Long.MAX_VALUE / 2);
+        synchronized (flushed) {
+            while (flushedSeq < seq && running) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0)
+                    return false;
+                try {
+                    flushed.wait(Math.min(left, TimeUnit.NANOSECONDS.toMillis(flushNanos) + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return flushedSeq >= seq;
+        }
+    }
+
+    /**
+     * LISTENER gets every REQUEST moved to the dead letters, so it can give back what the booking holds;
+     * REQUESTS moved there before (on recovery) are handed to it now. It runs on the flusher thread
+     * and must not wait for a flush
+     */
+    public void setRejectedListener(Consumer<Request> listener) {
+        List<Request> pending;
+        synchronized (rejected) {
+            rejectedListener = listener;
+            pending = new ArrayList<>(rejected);
+            rejected.clear();
+        }
+        pending.forEach(request -> giveBack(listener, request));
+    }
+
+    /**
+     * @return changes waiting for the flusher
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Flushes what is queued, stops the flusher and closes the journal. A DB failing for longer than
+     * {STOP_MILLIS} leaves the changes in the journal for the next start
+     */
+    public void stop() {
+        if (!flush(STOP_MILLIS))
+            LOG.severe("write-behind stopped before the DB took every change, the journal keeps them");
+        running = false;
+        flusher.interrupt();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOG.warning("request journal not closed", "error", e);
+        }
+    }
+
+    /**
+     * Changes are queued in the order of the journal, so a checkpoint never passes a change still queued.
+     * A full queue blocks the caller until the flusher makes room
+     *
+     * @return FALSE if the journal could not take the change or get it on disk, it may be queued then
+     */
+    private boolean enqueue(Operation operation, Request request) {
+        long seq;
+        synchronized (queue) {
+            try {
+                seq = journal.write(operation, request);
+            } catch (IOException e) {
+                return false;
+            }
+
+            if (operation == Operation.CREATE) {
+                created.put(request.getId(), request);
+            } else {
+                deleted.add(request.getId());
+                created.remove(request.getId());
+            }
+
+            Change change = new Change(seq, operation, request);
+            if (!queue.offer(change)) {
+                LOG.warning("write-behind queue full, waiting for the flusher", "queued", queue.size());
+                putUninterruptibly(change);
+            }
+        }
+
+        try {
+            journal.sync(seq);
+        } catch (IOException e) {
+            LOG.severe("request journal sync failed", e);
+            return false;
+        }
+        return true;
+    }
+
+    private void putUninterruptibly(Change change) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(change);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private List<Request> merge(List<Request> stored, Predicate<Request> filter) {
+        if (created.isEmpty() && deleted.isEmpty())
+            return stored;
+
+        Map<String, Request> result = new LinkedHashMap<>();
+        for (Request request : stored) {
+            if (!deleted.contains(request.getId()))
+                result.put(request.getId(), request);
+        }
+        for (Request request : created.values()) {
+            if (filter.test(request))
+                result.putIfAbsent(request.getId(), request);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * Stores what the journal holds before anything new is queued, REQUESTS already in the DB are skipped
+     */
+    private void recover() throws IOException {
+        List<Change> changes = new ArrayList<>();
+        for (RequestJournal.Entry entry : journal.recover()) {
+            changes.add(new Change(entry.getSeq(), entry.getOperation(), entry.getRequest()));
+        }
+        if (changes.isEmpty())
+            return;
+
+        apply(changes, true);
+        LOG.info("request journal recovered", "changes", changes.size());
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Change first = queue.take();
+                List<Change> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || left <= 0)
+                        break;
+
+                    Change next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                apply(batch, false);
+            } catch (InterruptedException e) {
+                if (!running)
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Retries until the DB takes the batch or rejects its REQUESTS for good, the journal keeps the changes
+     * meanwhile. A flusher stopped while retrying leaves the batch in the journal
+     */
+    private void apply(List<Change> batch, boolean recovering) {
+        List<Change> inserts = new ArrayList<>();
+        for (Change change : batch) {
+            if (change.operation == Operation.CREATE) {
+                inserts.add(change);
+                continue;
+            }
+
+            if (!insert(inserts, recovering) || !remove(change))
+                return;
+            inserts.clear();
+        }
+        if (!insert(inserts, recovering))
+            return;
+
+        long seq = batch.get(batch.size() - 1).seq;
+        try {
+            journal.checkpoint(seq);
+        } catch (IOException e) {
+            LOG.warning("request journal not checkpointed", "seq", seq, "error", e);
+        }
+
+        for (Change change : batch) {
+            if (change.operation == Operation.CREATE)
+                created.remove(change.request.getId(), change.request);
+            else
+                deleted.remove(change.request.getId());
+        }
+        synchronized (flushed) {
+            flushedSeq = Math.max(flushedSeq, seq);
+            flushed.notifyAll();
+        }
+        LOG.fine("requests flushed", "changes", batch.size(), "seq", seq);
+    }
+
+    /**
+     * A REQUEST found in the DB on retry was stored by an earlier try (or before a crash).
+     * After a failed multi-row INSERT the REQUESTS are inserted one by one: a REQUEST that breaks a constraint
+     * goes to the dead letters, the others are retried with backoff for as long as the DB fails
+     *
+     * @return FALSE if the flusher was stopped before the REQUESTS were stored or moved to the dead letters
+     */
+    private boolean insert(List<Change> inserts, boolean recovering) {
+        List<Change> left = new ArrayList<>(inserts);
+        boolean retry = recovering;
+        for (int tries = 0; !left.isEmpty(); tries++) {
+            if (retry)
+                left.removeIf(change -> delegate.findById(change.request.getId()) != null);
+            if (left.isEmpty() || storeAll(left))
+                break;
+
+            left = insertEach(left);
+            if (left.isEmpty())
+                break;
+
+            LOG.severe("write-behind flush failed, retrying " + left.size() + " requests");
+            retry = true;
+            if (!pause(tries))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Retries with backoff for as long as the DB fails, the change is not checkpointed before
+     *
+     * @return FALSE if the flusher was stopped before the REQUEST was deleted
+     */
+    private boolean remove(Change change) {
+        for (int tries = 0; ; tries++) {
+            try {
+                if (delegate.delete(change.request))
+                    return true;
+            } catch (RuntimeException e) {
+                LOG.severe("write-behind delete of request " + change.request.getId() + " failed", e);
+            }
+
+            LOG.severe("write-behind delete failed, retrying request " + change.request.getId());
+            if (!pause(tries))
+                return false;
+        }
+    }
+
+    /**
+     * A REQUEST that breaks a constraint but is found in the DB was stored by an earlier try
+     *
+     * @return changes whose REQUEST the DB neither stored nor rejected for good
+     */
+    private List<Change> insertEach(List<Change> changes) {
+        List<Change> result = new ArrayList<>();
+        for (Change change : changes) {
+            try {
+                if (delegate.create(change.request) == null)
+                    result.add(change);
+            } catch (ConstraintViolation e) {
+                if (delegate.findById(change.request.getId()) == null)
+                    deadLetter(change, e);
+            } catch (RuntimeException e) {
+                LOG.severe("write-behind insert of request " + change.request.getId() + " failed", e);
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * An exception of the DB is a failure too, the flusher thread must not die of it
+     */
+    private boolean storeAll(List<Change> changes) {
+        try {
+            return delegate.createAll(requestsOf(changes));
+        } catch (RuntimeException e) {
+            LOG.severe("write-behind insert of " + changes.size() + " requests failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Waits before the next try, twice as long as before up to {MAX_BACKOFF_MILLIS}
+     *
+     * @return FALSE if the flusher was stopped meanwhile
+     */
+    private boolean pause(int tries) {
+        long first = Math.max(MIN_BACKOFF_MILLIS, TimeUnit.NANOSECONDS.toMillis(flushNanos));
+        long millis = Math.min(MAX_BACKOFF_MILLIS, first << Math.min(tries, 16));
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            if (!running)
+                return false;
+        }
+        return running;
+    }
+
+    /**
+     * The REQUEST is checkpointed with the batch, the dead letters keep it for the operator
+     */
+    private void deadLetter(Change change, ConstraintViolation cause) {
+        LOG.severe("request rejected by the DB, moved to the dead letters: " + change.request.getId()
+                + " (seq " + change.seq + ", train " + change.request.getTrainId() + ", booking key "
+                + change.request.getBookingKey() + ")", cause);
+        try {
+            journal.deadLetter(change.seq, change.operation, change.request);
+        } catch (IOException e) {
+            LOG.severe("request " + change.request.getId() + " not written to the dead letters", e);
+        }
+
+        Consumer<Request> listener;
+        synchronized (rejected) {
+            listener = rejectedListener;
+            if (listener == null)
+                rejected.add(change.request);
+        }
+        if (listener != null)
+            giveBack(listener, change.request);
+    }
+
+    private static void giveBack(Consumer<Request> listener, Request request) {
+        try {
+            listener.accept(request);
+        } catch (RuntimeException e) {
+            LOG.severe("place of rejected request " + request.getId() + " not given back", e);
+        }
+    }
+
+    private static List<Request> requestsOf(List<Change> changes) {
+        List<Request> result = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            result.add(change.request);
+        }
+        return result;
+    }
+
+    private static final class Change {
+        private final long seq;
+        private final Operation operation;
+        private final Request request;
+
+        private Change(long seq, Operation operation, Request request) {
+            this.seq = seq;
+            this.operation = operation;
+            this.request = request;
+        }
+    }
+}
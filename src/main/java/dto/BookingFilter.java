@@ -0,0 +1,34 @@
+package dto;
+
+import dao.mysql.TypePlace;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.entity.Request;
+import model.entity.Route;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which bookings to export, a NULL field matches everything
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingFilter {
+    /**
+     * Departure of the ROUTE of the TRAIN, {from} inclusive and {to} exclusive
+     */
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    private String trainId;
+    private TypePlace type;
+
+    public boolean matches(Request request, Route route) {
+        return (trainId == null || trainId.equals(request.getTrainId()))
+                && (type == null || type == request.getType())
+                && (from == null || !route.getFromTime().isBefore(from))
+                && (to == null || route.getFromTime().isBefore(to));
+    }
+}
@@ -0,0 +1,30 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import model.entity.Request;
+
+import java.time.LocalDateTime;
+
+/**
+ * One exported booking: the REQUEST joined with its USER and the ROUTE of its TRAIN.
+ * The DAO fills the REQUEST, the USER and the ROUTE ID, the service the journey
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingRow {
+    private Request request;
+
+    private String email;
+    private String name;
+    private String surname;
+
+    private String routeId;
+
+    private String fromStation;
+    private String toStation;
+    private LocalDateTime departure;
+    private LocalDateTime arrival;
+}
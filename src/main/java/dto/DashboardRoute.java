@@ -0,0 +1,25 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One ROUTE of the admin dashboard with the occupancy of its TRAINS
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardRoute {
+    private String routeId;
+    private String fromCity;
+    private String toCity;
+    private String departure;
+
+    private Long tickets;
+    private Double revenue;
+
+    private List<DashboardTrain> trains;
+}
@@ -0,0 +1,27 @@
+package dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Booked and free places of one TRAIN by type of place, free ones for the whole ROUTE
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardTrain {
+    private String trainId;
+
+    private Long compartmentBooked;
+    private Long compartmentFree;
+    private Long deluxeBooked;
+    private Long deluxeFree;
+    private Long berthBooked;
+    private Long berthFree;
+
+    /**
+     * Booked places of all types in percent of booked and free ones, 0 for a TRAIN without places
+     */
+    private Long occupancy;
+}
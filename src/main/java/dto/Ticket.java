@@ -20,8 +20,27 @@ public class Ticket {
     private String fromCity;
     private String toCity;
 
+    /**
+     * Numbers of the ROUTE_STOPS of the journey, NULL for the whole ROUTE
+     */
+    private Integer fromStop;
+    private Integer toStop;
+
     private String typePlace;
     private Long max;
 
+    private Integer carriage;
+    private Integer seat;
+
+    /**
+     * Seat held between the make and the book step, NULL if none was free or the hold is used up
+     */
+    private String holdId;
+
+    /**
+     * Place of the ticket on a waitlist, NULL if it does not wait
+     */
+    private String waitlistId;
+
     private Double price;
 }
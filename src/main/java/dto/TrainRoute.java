@@ -15,12 +15,25 @@ public class TrainRoute {
     private Long deluxeFree;
     private Long berthFree;
 
+    /**
+     * Places held by other passengers between the make and the book step, not part of the free ones
+     */
+    private Long compartmentHeld;
+    private Long deluxeHeld;
+    private Long berthHeld;
+
     private String fromDate;
     private String toDate;
 
     private String fromCity;
     private String toCity;
 
+    /**
+     * Numbers of the ROUTE_STOPS of the journey, NULL for the whole ROUTE
+     */
+    private Integer fromStop;
+    private Integer toStop;
+
     private Double compartmentPrice;
     private Double deluxePrice;
     private Double berthPrice;
@@ -0,0 +1,11 @@
+package exception;
+
+/**
+ * The DB rejected a row for good: it breaks a unique or foreign key constraint, storing it again fails again
+ */
+public class ConstraintViolation extends RuntimeException {
+
+    public ConstraintViolation(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,129 @@
+package log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Hands records to a bounded queue and writes them to the delegate handlers on a daemon thread.
+ * When the queue is full the record is dropped and counted instead of blocking the request.
+ */
+public class AsyncRingBufferHandler extends Handler {
+    private static final String THREAD_NAME = "async-log-writer";
+    private static final long POLL_MILLIS = 200;
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+    private static volatile AsyncRingBufferHandler installed;
+
+    private final BlockingQueue<LogRecord> queue;
+    private final List<Handler> delegates;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public AsyncRingBufferHandler(int capacity, List<Handler> delegates) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.delegates = new ArrayList<>(delegates);
+        this.writer = new Thread(this::drain, THREAD_NAME);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @return handler installed on the root logger, NULL if logging is synchronous
+     */
+    public static AsyncRingBufferHandler getInstalled() {
+        return installed;
+    }
+
+    static void setInstalled(AsyncRingBufferHandler handler) {
+        installed = handler;
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (record == null || !isLoggable(record))
+            return;
+
+        // plain j.u.l records find their caller by stack walking, it has to happen on this thread
+        record.getSourceClassName();
+
+        if (!running || !queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void flush() {
+        List<LogRecord> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        write(batch);
+        for (Handler delegate : delegates) {
+            delegate.flush();
+        }
+    }
+
+    /**
+     * Stops the writer and writes what is left in the queue, delegates are not closed
+     */
+    @Override
+    public void close() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    List<Handler> getDelegates() {
+        return delegates;
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>();
+        while (running) {
+            try {
+                LogRecord record = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (record == null)
+                    continue;
+
+                batch.add(record);
+                queue.drainTo(batch);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void write(List<LogRecord> batch) {
+        for (LogRecord record : batch) {
+            for (Handler delegate : delegates) {
+                try {
+                    delegate.publish(record);
+                } catch (RuntimeException e) {
+                    reportError(null, e, ErrorManager.WRITE_FAILURE);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package log;
+
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Thin facade over java.util.logging for hot paths.
+ * Messages are built only when the level is enabled: either from a Supplier
+ * or from an event name with key/value fields, which are rendered later by the handler.
+ * Up to three fields take a fixed-arity overload, which checks the level before any array is made;
+ * a primitive value is still boxed by the caller, so a hot path checks the level itself.
+ * The source class is set explicitly, so records can be written from another thread.
+ */
+public final class Log {
+    private final Logger logger;
+    private final String className;
+
+    private Log(Class<?> type) {
+        this.className = type.getName();
+        this.logger = Logger.getLogger(className);
+    }
+
+    public static Log getLog(Class<?> type) {
+        return new Log(type);
+    }
+
+    public boolean isFineEnabled() {
+        return logger.isLoggable(Level.FINE);
+    }
+
+    public boolean isInfoEnabled() {
+        return logger.isLoggable(Level.INFO);
+    }
+
+    public void fine(Supplier<String> message) {
+        log(Level.FINE, message, null);
+    }
+
+    public void fine(String event) {
+        if (logger.isLoggable(Level.FINE))
+            log(Level.FINE, event, null, null);
+    }
+
+    public void fine(String event, String key, Object value) {
+        if (logger.isLoggable(Level.FINE))
+            log(Level.FINE, event, new Object[]{key, value}, null);
+    }
+
+    public void fine(String event, String key1, Object value1, String key2, Object value2) {
+        if (logger.isLoggable(Level.FINE))
+            log(Level.FINE, event, new Object[]{key1, value1, key2, value2}, null);
+    }
+
+    public void fine(String event, String key1, Object value1, String key2, Object value2, String key3,
+                     Object value3) {
+        if (logger.isLoggable(Level.FINE))
+            log(Level.FINE, event, new Object[]{key1, value1, key2, value2, key3, value3}, null);
+    }
+
+    /**
+     * The array of fields is built by the caller even if the level is off, guard a hot call with more than
+     * three fields with {@link #isFineEnabled()}
+     */
+    public void fine(String event, Object... fields) {
+        log(Level.FINE, event, fields);
+    }
+
+    public void info(Supplier<String> message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void info(String event) {
+        if (logger.isLoggable(Level.INFO))
+            log(Level.INFO, event, null, null);
+    }
+
+    public void info(String event, String key, Object value) {
+        if (logger.isLoggable(Level.INFO))
+            log(Level.INFO, event, new Object[]{key, value}, null);
+    }
+
+    public void info(String event, String key1, Object value1, String key2, Object value2) {
+        if (logger.isLoggable(Level.INFO))
+            log(Level.INFO, event, new Object[]{key1, value1, key2, value2}, null);
+    }
+
+    public void info(String event, String key1, Object value1, String key2, Object value2, String key3,
+                     Object value3) {
+        if (logger.isLoggable(Level.INFO))
+            log(Level.INFO, event, new Object[]{key1, value1, key2, value2, key3, value3}, null);
+    }
+
+    /**
+     * The array of fields is built by the caller even if the level is off, guard a hot call with more than
+     * three fields with {@link #isInfoEnabled()}
+     */
+    public void info(String event, Object... fields) {
+        log(Level.INFO, event, fields);
+    }
+
+    public void warning(Supplier<String> message) {
+        log(Level.WARNING, message, null);
+    }
+
+    public void warning(String event, Object... fields) {
+        log(Level.WARNING, event, fields);
+    }
+
+    public void severe(String message) {
+        log(Level.SEVERE, message, null, null);
+    }
+
+    public void severe(String message, Throwable thrown) {
+        log(Level.SEVERE, message, null, thrown);
+    }
+
+    private void log(Level level, Supplier<String> message, Throwable thrown) {
+        if (logger.isLoggable(level)) {
+            log(level, message.get(), null, thrown);
+        }
+    }
+
+    private void log(Level level, String event, Object[] fields) {
+        if (logger.isLoggable(level)) {
+            log(level, event, fields, null);
+        }
+    }
+
+    private void log(Level level, String message, Object[] fields, Throwable thrown) {
+        LogRecord record = fields == null || fields.length == 0
+                ? new LogRecord(level, message)
+                : new StructuredRecord(level, message, fields);
+        record.setLoggerName(logger.getName());
+        record.setSourceClassName(className);
+        record.setSourceMethodName(null);
+        record.setThrown(thrown);
+        logger.log(record);
+    }
+}
@@ -0,0 +1,51 @@
+package log;
+
+import util.Configuration;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.Arrays;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+
+import static util.Configuration.LOG_ASYNC_CAPACITY;
+
+/**
+ * Moves the handlers of the root logger behind an AsyncRingBufferHandler for the lifetime of the application.
+ * Capacity 0 keeps logging synchronous.
+ */
+@WebListener
+public class LogContextListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent servletContextEvent) {
+        int capacity = Integer.parseInt(Configuration.getInstance().getConfig(LOG_ASYNC_CAPACITY));
+        if (capacity <= 0 || AsyncRingBufferHandler.getInstalled() != null)
+            return;
+
+        Logger root = Logger.getLogger("");
+        Handler[] handlers = root.getHandlers();
+        AsyncRingBufferHandler async = new AsyncRingBufferHandler(capacity, Arrays.asList(handlers));
+        for (Handler handler : handlers) {
+            root.removeHandler(handler);
+        }
+        root.addHandler(async);
+        AsyncRingBufferHandler.setInstalled(async);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent servletContextEvent) {
+        AsyncRingBufferHandler async = AsyncRingBufferHandler.getInstalled();
+        if (async == null)
+            return;
+
+        Logger root = Logger.getLogger("");
+        root.removeHandler(async);
+        async.close();
+        for (Handler handler : async.getDelegates()) {
+            root.addHandler(handler);
+        }
+        AsyncRingBufferHandler.setInstalled(null);
+    }
+}
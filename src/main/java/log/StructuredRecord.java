@@ -0,0 +1,68 @@
+package log;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Log record of an event with key/value fields: "event key=value key=value".
+ * The message is rendered on first getMessage(), usually on the handler thread,
+ * so field values should be immutable (strings, numbers, ids).
+ */
+class StructuredRecord extends LogRecord {
+    private static final char SPACE = ' ';
+    private static final char EQUALLY = '=';
+    private static final char QUOTE = '"';
+
+    private final Object[] fields;
+    private volatile String rendered;
+
+    StructuredRecord(Level level, String event, Object[] fields) {
+        super(level, event);
+        this.fields = fields;
+    }
+
+    Object[] getFields() {
+        return fields;
+    }
+
+    @Override
+    public String getMessage() {
+        String result = rendered;
+        if (result == null) {
+            result = render(super.getMessage(), fields);
+            rendered = result;
+        }
+        return result;
+    }
+
+    static String render(String event, Object[] fields) {
+        StringBuilder builder = new StringBuilder(event);
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            builder.append(SPACE).append(fields[i]).append(EQUALLY);
+            appendValue(builder, String.valueOf(fields[i + 1]));
+        }
+        if (fields.length % 2 != 0) {
+            builder.append(SPACE).append(fields[fields.length - 1]);
+        }
+        return builder.toString();
+    }
+
+    private static void appendValue(StringBuilder builder, String value) {
+        if (value.indexOf(SPACE) < 0 && value.indexOf(QUOTE) < 0 && value.indexOf('\n') < 0 && !value.isEmpty()) {
+            builder.append(value);
+            return;
+        }
+
+        builder.append(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE || c == '\\')
+                builder.append('\\').append(c);
+            else if (c == '\n')
+                builder.append("\\n");
+            else
+                builder.append(c);
+        }
+        builder.append(QUOTE);
+    }
+}
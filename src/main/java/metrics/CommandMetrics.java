@@ -0,0 +1,122 @@
+package metrics;
+
+import dao.monitoring.QueryStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of one COMMAND.
+ * "execute" is the time spent in Command.execute(), "forward" is the JSP rendering.
+ */
+public class CommandMetrics {
+    private final String name;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder dbNanos = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final LongAdder repeated = new LongAdder();
+
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram forward = new LatencyHistogram();
+
+    CommandMetrics(String name) {
+        this.name = name;
+    }
+
+    public void started() {
+        requests.increment();
+        inFlight.increment();
+    }
+
+    public void finished() {
+        inFlight.decrement();
+    }
+
+    public void failed() {
+        errors.increment();
+    }
+
+    public void executed(long nanos) {
+        execute.recordNanos(nanos);
+    }
+
+    public void forwarded(long nanos) {
+        forward.recordNanos(nanos);
+    }
+
+    public void queried(QueryStats stats) {
+        if (stats == null)
+            return;
+
+        queries.add(stats.getQueries());
+        rows.add(stats.getRows());
+        dbNanos.add(stats.getNanos());
+        if (stats.isOverBudget())
+            overBudget.increment();
+        if (stats.isRepeated())
+            repeated.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getDbNanos() {
+        return dbNanos.sum();
+    }
+
+    /**
+     * @return requests that issued more queries than the budget
+     */
+    public long getOverBudget() {
+        return overBudget.sum();
+    }
+
+    /**
+     * @return requests that repeated one statement shape more than the limit
+     */
+    public long getRepeated() {
+        return repeated.sum();
+    }
+
+    /**
+     * @return average number of queries per request, 0 if there were no requests
+     */
+    public double getQueriesPerRequest() {
+        long total = requests.sum();
+        return total == 0 ? 0 : (double) queries.sum() / total;
+    }
+
+    public LatencyHistogram.Snapshot getExecute() {
+        return execute.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot getForward() {
+        return forward.snapshot();
+    }
+}
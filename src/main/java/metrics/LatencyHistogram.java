@@ -0,0 +1,133 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of latencies in microseconds.
+ * Every power of two is split into 8 buckets, so a reported percentile
+ * is at most 12.5% above the real value. Recording is a few atomic adds.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private static final long NANOS_IN_MICRO = 1000L;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param nanos measured duration, negative values are recorded as 0
+     */
+    public void recordNanos(long nanos) {
+        long micros = nanos <= 0 ? 0 : nanos / NANOS_IN_MICRO;
+        buckets.incrementAndGet(indexOf(micros));
+        count.increment();
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.get(i);
+            total += copy[i];
+        }
+
+        return new Snapshot(total, sum.sum(), max.get(),
+                percentile(copy, total, 0.50),
+                percentile(copy, total, 0.95),
+                percentile(copy, total, 0.99));
+    }
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS)
+            return (int) micros;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest value that falls into bucket {index}
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    private static long percentile(long[] buckets, long total, double quantile) {
+        if (total == 0)
+            return 0;
+
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank)
+                return upperBoundOf(i);
+        }
+        return upperBoundOf(buckets.length - 1);
+    }
+
+    /**
+     * Immutable view of the histogram, all values in microseconds
+     */
+    public static class Snapshot {
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+
+        Snapshot(long count, long sum, long max, long p50, long p95, long p99) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.p50 = Math.min(p50, max);
+            this.p95 = Math.min(p95, max);
+            this.p99 = Math.min(p99, max);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP95() {
+            return p95;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+    }
+}
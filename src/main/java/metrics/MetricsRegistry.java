@@ -0,0 +1,68 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application wide holder of COMMAND metrics.
+ * Command names come from ControllerHelper, so the number of entries is bounded
+ * by the number of registered commands.
+ */
+public class MetricsRegistry {
+    private static MetricsRegistry INSTANCE;
+
+    private final ConcurrentMap<String, CommandMetrics> commands = new ConcurrentHashMap<>();
+    private final long startedAt = System.nanoTime();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        if (INSTANCE == null) {
+            synchronized (MetricsRegistry.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MetricsRegistry();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    public CommandMetrics forCommand(String name) {
+        CommandMetrics metrics = commands.get(name);
+        if (metrics == null) {
+            metrics = commands.computeIfAbsent(name, CommandMetrics::new);
+        }
+        return metrics;
+    }
+
+    /**
+     * @return metrics of all commands seen so far, sorted by name
+     */
+    public List<CommandMetrics> getCommands() {
+        List<CommandMetrics> result = new ArrayList<>(commands.values());
+        result.sort(Comparator.comparing(CommandMetrics::getName));
+        return result;
+    }
+
+    public long getUptimeSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt);
+    }
+
+    /**
+     * @return average requests per second of all commands since start
+     */
+    public double getThroughput() {
+        long uptime = Math.max(1, getUptimeSeconds());
+        long total = 0;
+        for (CommandMetrics metrics : commands.values()) {
+            total += metrics.getRequests();
+        }
+        return (double) total / uptime;
+    }
+}
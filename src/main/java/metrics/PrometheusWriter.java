@@ -0,0 +1,180 @@
+package metrics;
+
+import log.AsyncRingBufferHandler;
+import service.cache.FragmentCache;
+import service.cache.UserCache;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes all metrics in the Prometheus text exposition format (version 0.0.4)
+ */
+public class PrometheusWriter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "railway_";
+    private static final double MICROS_IN_SECOND = 1_000_000d;
+    private static final double NANOS_IN_SECOND = 1_000_000_000d;
+
+    private static final String COUNTER = "counter";
+    private static final String GAUGE = "gauge";
+    private static final String SUMMARY = "summary";
+
+    private final Writer out;
+
+    public PrometheusWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeAll() throws IOException {
+        List<CommandMetrics> commands = MetricsRegistry.getInstance().getCommands();
+        writeCommands(commands);
+        writeQueries(commands);
+        writeUserCache(UserCache.getInstance());
+        writeFragmentCache(FragmentCache.getInstance());
+        writeLog(AsyncRingBufferHandler.getInstalled());
+        out.flush();
+    }
+
+    private void writeCommands(List<CommandMetrics> commands) throws IOException {
+        header("command_requests_total", "Requests dispatched to the command", COUNTER);
+        for (CommandMetrics metrics : commands) {
+            sample("command_requests_total", label(metrics), metrics.getRequests());
+        }
+
+        header("command_errors_total", "Requests of the command that ended with an exception", COUNTER);
+        for (CommandMetrics metrics : commands) {
+            sample("command_errors_total", label(metrics), metrics.getErrors());
+        }
+
+        header("command_in_flight", "Requests of the command being processed now", GAUGE);
+        for (CommandMetrics metrics : commands) {
+            sample("command_in_flight", label(metrics), metrics.getInFlight());
+        }
+
+        header("command_duration_seconds", "Time spent in the command (phase=execute) and in the JSP (phase=forward)", SUMMARY);
+        for (CommandMetrics metrics : commands) {
+            summary(label(metrics) + ",phase=\"execute\"", metrics.getExecute());
+            summary(label(metrics) + ",phase=\"forward\"", metrics.getForward());
+        }
+
+        header("command_duration_max_seconds", "Slowest request of the command since start", GAUGE);
+        for (CommandMetrics metrics : commands) {
+            sample("command_duration_max_seconds", label(metrics) + ",phase=\"execute\"",
+                    seconds(metrics.getExecute().getMax()));
+            sample("command_duration_max_seconds", label(metrics) + ",phase=\"forward\"",
+                    seconds(metrics.getForward().getMax()));
+        }
+    }
+
+    private void writeQueries(List<CommandMetrics> commands) throws IOException {
+        header("command_db_queries_total", "Statements sent to the DB while serving the command", COUNTER);
+        for (CommandMetrics metrics : commands) {
+            sample("command_db_queries_total", label(metrics), metrics.getQueries());
+        }
+
+        header("command_db_rows_total", "Rows read from the DB while serving the command", COUNTER);
+        for (CommandMetrics metrics : commands) {
+            sample("command_db_rows_total", label(metrics), metrics.getRows());
+        }
+
+        header("command_db_seconds_total", "Time spent in the DB while serving the command", COUNTER);
+        for (CommandMetrics metrics : commands) {
+            sample("command_db_seconds_total", label(metrics), metrics.getDbNanos() / NANOS_IN_SECOND);
+        }
+
+        header("command_db_warnings_total", "Requests over the query budget (reason=budget) "
+                + "or repeating one statement (reason=repeat)", COUNTER);
+        for (CommandMetrics metrics : commands) {
+            sample("command_db_warnings_total", label(metrics) + ",reason=\"budget\"", metrics.getOverBudget());
+            sample("command_db_warnings_total", label(metrics) + ",reason=\"repeat\"", metrics.getRepeated());
+        }
+    }
+
+    private void writeUserCache(UserCache cache) throws IOException {
+        header("user_cache_hits_total", "User lookups answered from cache", COUNTER);
+        sample("user_cache_hits_total", "result=\"positive\"", cache.getHitCount());
+        sample("user_cache_hits_total", "result=\"negative\"", cache.getNegativeHitCount());
+
+        header("user_cache_misses_total", "User lookups that went to the DB", COUNTER);
+        sample("user_cache_misses_total", null, cache.getMissCount());
+
+        header("user_cache_evictions_total", "User cache entries evicted by size", COUNTER);
+        sample("user_cache_evictions_total", null, cache.getEvictionCount());
+
+        header("user_cache_hit_ratio", "Share of user lookups answered from cache", GAUGE);
+        sample("user_cache_hit_ratio", null, cache.getHitRatio());
+
+        header("user_cache_size", "User cache entries", GAUGE);
+        sample("user_cache_size", null, cache.size());
+    }
+
+    private void writeFragmentCache(FragmentCache cache) throws IOException {
+        header("fragment_cache_hits_total", "Page fragments replayed from cache", COUNTER);
+        sample("fragment_cache_hits_total", null, cache.getHitCount());
+
+        header("fragment_cache_misses_total", "Page fragments rendered", COUNTER);
+        sample("fragment_cache_misses_total", null, cache.getMissCount());
+
+        header("fragment_cache_evictions_total", "Fragment cache entries evicted by size", COUNTER);
+        sample("fragment_cache_evictions_total", null, cache.getEvictionCount());
+
+        header("fragment_cache_hit_ratio", "Share of page fragments replayed from cache", GAUGE);
+        sample("fragment_cache_hit_ratio", null, cache.getHitRatio());
+
+        header("fragment_cache_size", "Fragment cache entries", GAUGE);
+        sample("fragment_cache_size", null, cache.size());
+    }
+
+    private void writeLog(AsyncRingBufferHandler handler) throws IOException {
+        if (handler == null)
+            return;
+
+        header("log_dropped_total", "Log records dropped because the async log queue was full", COUNTER);
+        sample("log_dropped_total", null, handler.getDroppedCount());
+
+        header("log_queued", "Log records waiting to be written", GAUGE);
+        sample("log_queued", null, handler.getQueuedCount());
+    }
+
+    private void summary(String labels, LatencyHistogram.Snapshot snapshot) throws IOException {
+        String name = "command_duration_seconds";
+        sample(name, labels + ",quantile=\"0.5\"", seconds(snapshot.getP50()));
+        sample(name, labels + ",quantile=\"0.95\"", seconds(snapshot.getP95()));
+        sample(name, labels + ",quantile=\"0.99\"", seconds(snapshot.getP99()));
+        sample(name + "_sum", labels, seconds(snapshot.getSum()));
+        sample(name + "_count", labels, snapshot.getCount());
+    }
+
+    private void header(String name, String help, String type) throws IOException {
+        out.write("# HELP " + PREFIX + name + " " + help + "\n");
+        out.write("# TYPE " + PREFIX + name + " " + type + "\n");
+    }
+
+    private void sample(String name, String labels, Number value) throws IOException {
+        out.write(PREFIX);
+        out.write(name);
+        if (labels != null) {
+            out.write('{');
+            out.write(labels);
+            out.write('}');
+        }
+        out.write(' ');
+        out.write(String.valueOf(value));
+        out.write('\n');
+    }
+
+    private static String label(CommandMetrics metrics) {
+        return "command=\"" + escape(metrics.getName()) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(long micros) {
+        return micros / MICROS_IN_SECOND;
+    }
+}
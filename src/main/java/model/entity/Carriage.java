@@ -0,0 +1,23 @@
+package model.entity;
+
+import dao.mysql.TypePlace;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Carriage {
+    private String id;
+    private String trainId;
+
+    private Integer number;
+    private TypePlace type;
+    private Integer seats;
+
+    /**
+     * Taken seats, one bit per seat as packed by SeatMap
+     */
+    private byte[] seatMap;
+}
@@ -18,6 +18,25 @@ public class Request {
 
     private Double price;
 
+    /**
+     * Assigned seat, NULL for REQUESTS booked before seat maps
+     */
+    private Integer carriage;
+    private Integer seat;
+
+    /**
+     * Numbers of the ROUTE_STOPS the passenger gets on and off, NULL for the whole ROUTE
+     */
+    private Integer fromStop;
+    private Integer toStop;
+
+    /**
+     * Idempotency key of the booking form that created this REQUEST and its place among the booked tickets,
+     * NULL for REQUESTS booked without a key
+     */
+    private String bookingKey;
+    private Integer bookingSeq;
+
 
     public static class RequestBuilder {
         private Request request;
@@ -46,6 +65,18 @@ public class Request {
             return this;
         }
 
+        public RequestBuilder setBooking(String bookingKey, Integer bookingSeq) {
+            request.setBookingKey(bookingKey);
+            request.setBookingSeq(bookingSeq);
+            return this;
+        }
+
+        public RequestBuilder setStops(Integer fromStop, Integer toStop) {
+            request.setFromStop(fromStop);
+            request.setToStop(toStop);
+            return this;
+        }
+
         public Request build() {
             return request;
         }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 
 @Data
 @AllArgsConstructor
@@ -15,8 +17,8 @@ public class Route {
     private String fromId;
     private String toId;
 
-    private String fromTime;
-    private String toTime;
+    private LocalDateTime fromTime;
+    private LocalDateTime toTime;
 
     private Double distance;
 
@@ -0,0 +1,36 @@
+package model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stop of a ROUTE. Stops are numbered from 0 (the departure STATION of the ROUTE) to the last one
+ * (its arrival STATION), segment {n} of the ROUTE runs from stop {n} to stop {n + 1}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteStop {
+    private String id;
+    private String routeId;
+
+    private Integer number;
+    private String stationId;
+
+    /**
+     * NULL for the first stop
+     */
+    private LocalDateTime arrival;
+    /**
+     * NULL for the last stop
+     */
+    private LocalDateTime departure;
+
+    /**
+     * Kilometres from the first stop
+     */
+    private Double distance;
+}
@@ -3,18 +3,18 @@ package service;
 import dao.AbstractDAOFactory;
 import dao.DAOFactory;
 import dao.DataBase;
+import log.Log;
 import model.entity.User;
+import service.cache.UserCache;
 import service.util.LogMessageServiceUtil;
 import util.Configuration;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
 
 import static util.Configuration.PROFILE_DATABASE;
 
 public class AdminService {
-    private static final Logger LOG = Logger.getLogger(AdminService.class.getName());
+    private static final Log LOG = Log.getLog(AdminService.class);
     private static AdminService INSTANCE;
 
     private static final String USER_DAO = "UserDAO";
@@ -49,39 +49,35 @@ public class AdminService {
             LOG.severe(LogMessageServiceUtil.createMethodError(USER_DAO, GET_ALL_USERS));
         }
 
-        LOG.info(LogMessageServiceUtil.createMethodInfo(USER_DAO, GET_ALL_USERS));
+        LOG.fine(() -> LogMessageServiceUtil.createMethodInfo(USER_DAO, GET_ALL_USERS));
         return result;
     }
 
     public List<User> getUsers() {
-        List<User> result = factory.createUserDAO().findAll();
+        List<User> result = factory.createUserDAO().findByAdmin(false);
         if (result == null) {
             LOG.severe(LogMessageServiceUtil.createMethodError(USER_DAO, GET_USERS));
         }
 
-        List<User> users = new ArrayList<>();
-        for (User user : result) {
-            if (!user.getAdmin())
-                users.add(user);
-        }
-
-        LOG.info(LogMessageServiceUtil.createMethodInfo(USER_DAO, GET_USERS));
-        return users;
+        LOG.fine(() -> LogMessageServiceUtil.createMethodInfo(USER_DAO, GET_USERS));
+        return result;
     }
 
     public User updateUser(User user) {
         User updatedUser = factory.createUserDAO().update(user);
+        UserCache.getInstance().invalidate(user);
         if (updatedUser == null) {
             LOG.severe(LogMessageServiceUtil.createMethodError(USER_DAO, UPDATE_USER));
         }
 
-        LOG.fine(LogMessageServiceUtil.createMethodInfo(USER_DAO, UPDATE_USER));
+        LOG.fine(() -> LogMessageServiceUtil.createMethodInfo(USER_DAO, UPDATE_USER));
         return updatedUser;
     }
 
     public void deleteUser(User user) {
         factory.createUserDAO().delete(user);
-        LOG.fine(LogMessageServiceUtil.createMethodInfo(USER_DAO, DELETE_USER));
+        UserCache.getInstance().invalidate(user);
+        LOG.fine(() -> LogMessageServiceUtil.createMethodInfo(USER_DAO, DELETE_USER));
     }
 
 }
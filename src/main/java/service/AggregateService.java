@@ -0,0 +1,319 @@
+package service;
+
+import dao.AbstractDAOFactory;
+import dao.DAOFactory;
+import dao.DataBase;
+import dao.RequestDAO;
+import dao.mysql.TypePlace;
+import dto.BookingFilter;
+import dto.DashboardRoute;
+import dto.DashboardTrain;
+import log.Log;
+import model.entity.Request;
+import model.entity.Route;
+import model.entity.Station;
+import model.entity.Train;
+import service.aggregate.AggregateSnapshot;
+import service.aggregate.Aggregates;
+import service.aggregate.RouteDay;
+import service.aggregate.TrainCounters;
+import service.seat.Journey;
+import util.Configuration;
+import util.DateTimes;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static util.Configuration.AGGREGATES_DIR;
+import static util.Configuration.AGGREGATES_SNAPSHOT_SECONDS;
+import static util.Configuration.PROFILE_DATABASE;
+
+/**
+ * Occupancy of the TRAINS and revenue of the ROUTES per departure day, kept up to date by every booking
+ * and cancellation instead of being counted from the REQUESTS on every read.
+ * The counters are written to a file every config.aggregates.snapshot.seconds if they changed and on shutdown,
+ * startup reads the file written on shutdown; after a crash, or without a file, they are counted from the DB
+ * in one streamed pass. Deleting the file counts everything again
+ */
+public class AggregateService {
+    private static final Log LOG = Log.getLog(AggregateService.class);
+    private static AggregateService INSTANCE;
+
+    private static final String THREAD_NAME = "aggregate-snapshot";
+
+    private final Path dir;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final Map<String, Train> trains = new ConcurrentHashMap<>();
+
+    private DAOFactory factory;
+    private volatile Aggregates aggregates;
+
+    private AggregateService() {
+        this(Paths.get(Configuration.getInstance().getConfig(AGGREGATES_DIR)),
+                Long.parseLong(Configuration.getInstance().getConfig(AGGREGATES_SNAPSHOT_SECONDS)),
+                AbstractDAOFactory.createDAOFactory(
+                        DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE))));
+    }
+
+    /**
+     * @param snapshotSeconds period of the background writes, none if not positive
+     */
+    AggregateService(Path dir, long snapshotSeconds, DAOFactory factory) {
+        this.dir = dir;
+        this.factory = factory;
+        try {
+            aggregates = AggregateSnapshot.read(dir);
+            if (aggregates == null)
+                LOG.info("aggregates not written on shutdown, counting them", "dir", dir);
+        } catch (IOException e) {
+            LOG.warning("aggregates not read", "dir", dir, "error", e);
+        }
+
+        if (snapshotSeconds > 0) {
+            ScheduledExecutorService snapshots = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshots.scheduleWithFixedDelay(() -> {
+                if (changed.get())
+                    snapshot();
+            }, snapshotSeconds, snapshotSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public static AggregateService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (AggregateService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new AggregateService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * To be called after the REQUEST is stored
+     */
+    public void booked(Request request) {
+        change(request, 1);
+    }
+
+    /**
+     * To be called after the REQUEST is deleted
+     */
+    public void cancelled(Request request) {
+        change(request, -1);
+    }
+
+    /**
+     * @return NULL if the TRAIN was never booked
+     */
+    public TrainCounters findTrain(String trainId) {
+        return current().findTrain(trainId);
+    }
+
+    /**
+     * @return ROUTES departing on the day that were booked at least once, earliest first
+     */
+    public List<RouteDay> findRouteDays(LocalDate day) {
+        return current().findDay(day);
+    }
+
+    /**
+     * ROUTES departing on the day with their tickets, revenue and the occupancy of their TRAINS
+     */
+    public List<DashboardRoute> findDashboard(LocalDate day) {
+        List<DashboardRoute> result = new ArrayList<>();
+        for (RouteDay routeDay : findRouteDays(day)) {
+            List<DashboardTrain> trainRows = new ArrayList<>();
+            for (String trainId : routeDay.getTrainIds()) {
+                TrainCounters train = findTrain(trainId);
+                if (train != null)
+                    trainRows.add(toDashboardTrain(train));
+            }
+            trainRows.sort(Comparator.comparing(DashboardTrain::getTrainId));
+
+            result.add(new DashboardRoute(routeDay.getRouteId(), stationName(routeDay.getFromId()),
+                    stationName(routeDay.getToId()), DateTimes.display(routeDay.getDeparture()),
+                    routeDay.getTickets(), routeDay.getRevenue(), trainRows));
+        }
+        return result;
+    }
+
+    /**
+     * Free places of the whole ROUTE, the same number the search shows without holds:
+     * seat maps for a TRAIN with stops, the inventory counters otherwise
+     *
+     * @return 0 for an unknown TRAIN
+     */
+    public long countFree(String trainId, TypePlace type) {
+        if (SeatService.getInstance().hasStops(trainId))
+            return SeatService.getInstance().countFree(trainId, type, Journey.WHOLE_ROUTE);
+
+        Train train = trains.computeIfAbsent(trainId, id -> factory.createTrainDAO().findById(id));
+        return train == null ? 0 : InventoryService.getInstance().countFree(train, type);
+    }
+
+    /**
+     * Writes the counters to the file
+     */
+    public void snapshot() {
+        write(false);
+    }
+
+    /**
+     * Writes the counters to the file as the last ones, the next startup reads them instead of counting
+     */
+    public void close() {
+        write(true);
+    }
+
+    /**
+     * Counts the REQUESTS unless the file had the counters, to be called before the first booking
+     */
+    public void open() {
+        current();
+    }
+
+    /**
+     * Counts every REQUEST of the DB again
+     */
+    public synchronized Aggregates rebuild() {
+        long start = System.nanoTime();
+        Aggregates result = new Aggregates();
+        RequestDAO requestDAO = factory.createRequestDAO();
+        if (requestDAO == null) {
+            aggregates = result;
+            return result;
+        }
+
+        Map<String, Route> routes = new HashMap<>();
+        for (Route route : factory.createRouteDAO().findAll()) {
+            routes.put(route.getId(), route);
+        }
+
+        long[] count = new long[1];
+        requestDAO.forEachBooking(new BookingFilter(), row -> {
+            Route route = routes.get(row.getRouteId());
+            if (route == null)
+                return;
+
+            Request request = row.getRequest();
+            result.add(result.open(request.getTrainId(), route), request.getType(), 1, kopecksOf(request));
+            count[0]++;
+        });
+
+        aggregates = result;
+        changed.set(true);
+        LOG.info("aggregates counted", "requests", count[0], "trains", result.size(),
+                "millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    /**
+     * Drops the counters, they are counted again from the new factory
+     */
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
+        trains.clear();
+        aggregates = null;
+    }
+
+    private synchronized void write(boolean clean) {
+        Aggregates current = aggregates;
+        if (current == null)
+            return;
+
+        changed.set(false);
+        try {
+            AggregateSnapshot.write(dir, current, clean);
+            LOG.fine("aggregates written", "trains", current.size(), "clean", clean);
+        } catch (IOException e) {
+            changed.set(true);
+            LOG.severe("aggregates snapshot failed: " + e);
+        }
+    }
+
+    private Aggregates current() {
+        Aggregates result = aggregates;
+        return result == null ? rebuild() : result;
+    }
+
+    /**
+     * The ROUTE of a TRAIN is read once, the first time the TRAIN is booked.
+     * Counters counted from the DB after the change already have it
+     */
+    private void change(Request request, int sign) {
+        Aggregates current = aggregates;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+
+        TrainCounters train = current.findTrain(request.getTrainId());
+        if (train == null) {
+            Route route = routeOf(request.getTrainId());
+            if (route == null) {
+                LOG.warning("aggregates without route", "trainId", request.getTrainId());
+                return;
+            }
+            train = current.open(request.getTrainId(), route);
+        }
+
+        current.add(train, request.getType(), sign, sign * kopecksOf(request));
+        changed.set(true);
+    }
+
+    /**
+     * @return NULL if the TRAIN, its ROUTE or the DB is gone, the booking itself is not failed for the counters
+     */
+    private Route routeOf(String trainId) {
+        try {
+            Train row = factory.createTrainDAO().findById(trainId);
+            return row == null ? null : factory.createRouteDAO().findById(row.getRouteId());
+        } catch (RuntimeException e) {
+            LOG.warning("aggregates route not read", "trainId", trainId, "error", e);
+            return null;
+        }
+    }
+
+    private DashboardTrain toDashboardTrain(TrainCounters train) {
+        DashboardTrain result = new DashboardTrain();
+        result.setTrainId(train.getTrainId());
+        result.setCompartmentBooked(train.getBooked(TypePlace.C));
+        result.setCompartmentFree(countFree(train.getTrainId(), TypePlace.C));
+        result.setDeluxeBooked(train.getBooked(TypePlace.L));
+        result.setDeluxeFree(countFree(train.getTrainId(), TypePlace.L));
+        result.setBerthBooked(train.getBooked(TypePlace.B));
+        result.setBerthFree(countFree(train.getTrainId(), TypePlace.B));
+
+        long booked = result.getCompartmentBooked() + result.getDeluxeBooked() + result.getBerthBooked();
+        long places = booked + result.getCompartmentFree() + result.getDeluxeFree() + result.getBerthFree();
+        result.setOccupancy(places == 0 ? 0 : booked * 100 / places);
+        return result;
+    }
+
+    private static String stationName(String id) {
+        Station station = StationService.getInstance().findStationById(id);
+        return station == null ? id : station.getName();
+    }
+
+    private static long kopecksOf(Request request) {
+        return request.getPrice() == null ? 0 : Math.round(request.getPrice() * 100);
+    }
+}
@@ -0,0 +1,142 @@
+package service;
+
+import dao.AbstractDAOFactory;
+import dao.DAOFactory;
+import dao.DataBase;
+import dao.mysql.TypePlace;
+import log.Log;
+import model.entity.Price;
+import model.entity.Route;
+import service.fare.AdvancePurchaseRule;
+import service.fare.FareRule;
+import service.fare.FareTable;
+import service.fare.TimeOfDayRule;
+import util.Configuration;
+import util.DataVersion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static util.Configuration.FARE_ADVANCE_DAYS;
+import static util.Configuration.FARE_ADVANCE_FACTOR;
+import static util.Configuration.FARE_NIGHT_FACTOR;
+import static util.Configuration.FARE_NIGHT_FROM;
+import static util.Configuration.FARE_NIGHT_TO;
+import static util.Configuration.PROFILE_DATABASE;
+
+/**
+ * Fares from a precomputed {@link FareTable}: PRICES and fare rules are read once per build,
+ * search rows and tickets only look the fare up.
+ * The table is built on first use and again after {@link #rebuild()}, a ROUTE it does not know
+ * (created after the build) triggers one rebuild. A ROUTE whose PRICE was missing at the build has no fare
+ * until the next rebuild, so a dangling price_id does not rebuild the table on every lookup
+ */
+public class FareService {
+    private static final Log LOG = Log.getLog(FareService.class);
+    private static FareService INSTANCE;
+
+    private final List<FareRule> rules;
+
+    private DAOFactory factory;
+    private volatile FareTable table;
+
+    private FareService() {
+        DataBase dataBase = DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE));
+        factory = AbstractDAOFactory.createDAOFactory(dataBase);
+        rules = Collections.unmodifiableList(configuredRules());
+    }
+
+    public static FareService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (FareService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new FareService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * @return fare of {distance} kilometres of the ROUTE bought now, NULL if its PRICE is unknown
+     */
+    Double findFare(Route route, TypePlace type, Double distance) {
+        FareTable current = current();
+        int row = current.rowOf(route.getId());
+        if (row < 0 && current.isUnpriced(route.getId()))
+            return null;
+
+        if (row < 0) {
+            current = rebuild();
+            row = current.rowOf(route.getId());
+        }
+
+        if (row < 0) {
+            if (current.isUnpriced(route.getId()))
+                return null;
+
+            LOG.warning("route without fare", "routeId", route.getId(), "priceId", route.getPriceId());
+            Price price = factory.createPriceDAO().findById(route.getPriceId());
+            return price == null ? null : FareTable.build(Collections.singletonList(route),
+                    Collections.singletonMap(price.getId(), price), rules).fare(0, type, distance, LocalDateTime.now());
+        }
+
+        return current.fare(row, type, distance, LocalDateTime.now());
+    }
+
+    /**
+     * Reads all ROUTES and PRICES again, to be called after they change
+     */
+    public synchronized FareTable rebuild() {
+        long start = System.nanoTime();
+        List<Route> routes = factory.createRouteDAO().findAll();
+        Map<String, Price> prices = new HashMap<>();
+        for (Price price : factory.createPriceDAO().findAll()) {
+            prices.put(price.getId(), price);
+        }
+
+        FareTable result = FareTable.build(routes, prices, rules);
+        table = result;
+        DataVersion.bump();
+        LOG.info("fare table built", "routes", result.size(), "rules", rules.size(),
+                "micros", (System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    private FareTable current() {
+        FareTable result = table;
+        return result == null ? rebuild() : result;
+    }
+
+    /**
+     * Rules with factor 1 change nothing and are left out
+     */
+    private static List<FareRule> configuredRules() {
+        Configuration config = Configuration.getInstance();
+        List<FareRule> result = new ArrayList<>();
+
+        double night = Double.parseDouble(config.getConfig(FARE_NIGHT_FACTOR));
+        if (night != 1)
+            result.add(new TimeOfDayRule(Integer.parseInt(config.getConfig(FARE_NIGHT_FROM)),
+                    Integer.parseInt(config.getConfig(FARE_NIGHT_TO)), night));
+
+        double advance = Double.parseDouble(config.getConfig(FARE_ADVANCE_FACTOR));
+        if (advance != 1)
+            result.add(new AdvancePurchaseRule(Integer.parseInt(config.getConfig(FARE_ADVANCE_DAYS)), advance));
+
+        return result;
+    }
+
+    /**
+     * Drops the table, it is built again from the new factory
+     */
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
+        table = null;
+    }
+}
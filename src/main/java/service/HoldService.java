@@ -0,0 +1,160 @@
+package service;
+
+import dao.mysql.TypePlace;
+import dto.Ticket;
+import log.Log;
+import service.hold.HashedTimingWheel;
+import service.seat.Journey;
+import service.seat.Seat;
+import util.Configuration;
+import util.Identifiers;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static util.Configuration.HOLD_TICK_MILLIS;
+import static util.Configuration.HOLD_TTL;
+import static util.Configuration.HOLD_WHEEL_SIZE;
+
+/**
+ * Seats held between the make and the book step. A hold claims a seat for a few minutes without a REQUEST,
+ * so the seat quoted to the passenger is still there at checkout. Holds that are not booked in time
+ * expire on a hashed timing wheel and are released train by train in bulk.
+ * The free places of a TRAIN do not know about holds, the held places are counted by the inventory apart.
+ */
+public class HoldService {
+    private static final Log LOG = Log.getLog(HoldService.class);
+    private static HoldService INSTANCE;
+
+    private static final String THREAD_NAME = "seat-hold-expiry";
+
+    private final long ttlMillis;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> wheel;
+
+    private HoldService() {
+        Configuration config = Configuration.getInstance();
+        ttlMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(config.getConfig(HOLD_TTL)));
+        wheel = new HashedTimingWheel<>(THREAD_NAME, Long.parseLong(config.getConfig(HOLD_TICK_MILLIS)),
+                TimeUnit.MILLISECONDS, Integer.parseInt(config.getConfig(HOLD_WHEEL_SIZE)), this::expire);
+    }
+
+    public static HoldService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (HoldService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new HoldService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Claims a seat for the ticket and remembers the hold in it
+     *
+     * @return FALSE if there is no free seat to hold, the ticket may still be booked later
+     */
+    public boolean hold(Ticket ticket) {
+        TypePlace type = TypePlace.valueOf(ticket.getTypePlace());
+        Seat seat = SeatService.getInstance().assign(ticket.getTrainId(), type,
+                Journey.of(ticket.getFromStop(), ticket.getToStop()));
+        if (seat == null)
+            return false;
+
+        Hold hold = new Hold(Identifiers.next(), ticket.getTrainId(), type, seat);
+        InventoryService.getInstance().hold(hold.trainId, type);
+        holds.put(hold.id, hold);
+        hold.timeout = wheel.schedule(hold.id, ttlMillis, TimeUnit.MILLISECONDS);
+        ticket.setHoldId(hold.id);
+        if (LOG.isFineEnabled())
+            LOG.fine("hold seat", "holdId", hold.id, "trainId", hold.trainId, "seat", seat);
+        return true;
+    }
+
+    /**
+     * Turns the hold into a seat for booking, the hold is gone afterwards
+     *
+     * @return NULL if the hold expired
+     */
+    Seat take(String holdId) {
+        Hold hold = remove(holdId);
+        return hold == null ? null : hold.seat;
+    }
+
+    /**
+     * Gives the seat held for the ticket back, nothing happens if the hold expired
+     */
+    public void release(Ticket ticket) {
+        Hold hold = remove(ticket.getHoldId());
+        ticket.setHoldId(null);
+        if (hold != null) {
+            SeatService.getInstance().release(hold.trainId, hold.seat);
+            WaitlistService.getInstance().placesFreed(hold.trainId, hold.type);
+        }
+    }
+
+    /**
+     * @return places of given type held on the TRAIN and not booked yet
+     */
+    public long countHeld(String trainId, TypePlace type) {
+        return InventoryService.getInstance().countHeld(trainId, type);
+    }
+
+    /**
+     * Releases the seats of expired holds, all seats of one TRAIN in one call,
+     * then the waitlists of the freed types get their turn
+     */
+    private void expire(List<String> holdIds) {
+        Map<String, List<Seat>> seats = new HashMap<>();
+        Map<String, Set<TypePlace>> types = new HashMap<>();
+        for (String holdId : holdIds) {
+            Hold hold = remove(holdId);
+            if (hold != null) {
+                seats.computeIfAbsent(hold.trainId, id -> new ArrayList<>()).add(hold.seat);
+                types.computeIfAbsent(hold.trainId, id -> EnumSet.noneOf(TypePlace.class)).add(hold.type);
+            }
+        }
+
+        seats.forEach((trainId, trainSeats) -> SeatService.getInstance().release(trainId, trainSeats));
+        types.forEach((trainId, trainTypes) ->
+                trainTypes.forEach(type -> WaitlistService.getInstance().placesFreed(trainId, type)));
+        LOG.info("holds expired", "holds", holdIds.size(), "trains", seats.size());
+    }
+
+    /**
+     * Whoever removes the hold first (booking, release or expiry) owns its seat
+     */
+    private Hold remove(String holdId) {
+        Hold hold = holdId == null ? null : holds.remove(holdId);
+        if (hold == null)
+            return null;
+
+        if (hold.timeout != null)
+            hold.timeout.cancel();
+        InventoryService.getInstance().release(hold.trainId, hold.type, 1);
+        return hold;
+    }
+
+    private static final class Hold {
+        private final String id;
+        private final String trainId;
+        private final TypePlace type;
+        private final Seat seat;
+        private volatile HashedTimingWheel.Timeout<String> timeout;
+
+        private Hold(String id, String trainId, TypePlace type, Seat seat) {
+            this.id = id;
+            this.trainId = trainId;
+            this.type = type;
+            this.seat = seat;
+        }
+    }
+}
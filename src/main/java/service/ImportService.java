@@ -0,0 +1,67 @@
+package service;
+
+import dao.AbstractDAOFactory;
+import dao.DAOFactory;
+import dao.DataBase;
+import service.importer.ImportResult;
+import service.importer.TimetableImporter;
+import util.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static util.Configuration.IMPORT_BATCH_SIZE;
+import static util.Configuration.IMPORT_THREADS;
+import static util.Configuration.PROFILE_DATABASE;
+
+/**
+ * Bulk import of timetables, see {@link TimetableImporter}. One import runs at a time
+ */
+public class ImportService {
+    private static ImportService INSTANCE;
+
+    private final int batchSize;
+    private final int threads;
+
+    private DAOFactory factory;
+
+    private ImportService() {
+        DataBase dataBase = DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE));
+        factory = AbstractDAOFactory.createDAOFactory(dataBase);
+        batchSize = Integer.parseInt(Configuration.getInstance().getConfig(IMPORT_BATCH_SIZE));
+        threads = Integer.parseInt(Configuration.getInstance().getConfig(IMPORT_THREADS));
+    }
+
+    public static ImportService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (ImportService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new ImportService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Stores the timetable files of the directory, the read models are not touched
+     */
+    public synchronized ImportResult importFrom(Path dir) throws IOException {
+        return new TimetableImporter(factory, batchSize, threads).importFrom(dir);
+    }
+
+    /**
+     * Reads fares, the search index and STATIONS again, to be called in the running application after an import
+     */
+    public void refresh() {
+        if (factory.createPriceDAO() != null)
+            FareService.getInstance().rebuild();
+        SearchService.getInstance().rebuild();
+        StationService.getInstance().rebuild();
+    }
+
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
+    }
+}
@@ -0,0 +1,291 @@
+package service;
+
+import dao.AbstractDAOFactory;
+import dao.DAOFactory;
+import dao.DataBase;
+import dao.TrainDAO;
+import dao.mysql.TypePlace;
+import log.Log;
+import model.entity.Train;
+import service.inventory.InventoryEvent.Kind;
+import service.inventory.InventoryLog;
+import service.inventory.InventoryProjection;
+import service.inventory.InventorySnapshot;
+import util.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static util.Configuration.INVENTORY_DIR;
+import static util.Configuration.INVENTORY_SEGMENT_BYTES;
+import static util.Configuration.INVENTORY_SNAPSHOT_EVENTS;
+import static util.Configuration.PROFILE_DATABASE;
+
+/**
+ * Place counters of the TRAINS as a projection of an append-only event log. Every reservation, cancellation,
+ * hold and release is one sequential append to a memory-mapped segment and one change of a counter in memory,
+ * the TRAIN rows are not touched on the booking path. The free places of a TRAIN are taken from its row the
+ * first time it is booked (OPENED event) and written back to the rows with every snapshot.
+ * A snapshot is taken every config.inventory.snapshot.events events in the background and on shutdown,
+ * startup reads the newest snapshot and replays the events after it.
+ * Bookings of one TRAIN are serialized by a lock of that TRAIN, the shared log is locked for the append only;
+ * TRAIN rows are read and the log is forced outside the locks.
+ */
+public class InventoryService {
+    private static final Log LOG = Log.getLog(InventoryService.class);
+    private static InventoryService INSTANCE;
+
+    private static final String THREAD_NAME = "inventory-snapshot";
+
+    /**
+     * Guards the log, the projection is changed in the order of the log
+     */
+    private final Object logLock = new Object();
+    private final Map<String, Object> trainLocks = new ConcurrentHashMap<>();
+    private final Path dir;
+    private final int snapshotEvents;
+    private final InventoryLog log;
+    private final InventoryProjection projection = new InventoryProjection();
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final ExecutorService snapshots = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile DAOFactory factory;
+    private int sinceSnapshot;
+
+    private InventoryService() {
+        this(Paths.get(Configuration.getInstance().getConfig(INVENTORY_DIR)),
+                Integer.parseInt(Configuration.getInstance().getConfig(INVENTORY_SEGMENT_BYTES)),
+                Integer.parseInt(Configuration.getInstance().getConfig(INVENTORY_SNAPSHOT_EVENTS)),
+                AbstractDAOFactory.createDAOFactory(
+                        DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE))));
+    }
+
+    InventoryService(Path dir, int segmentBytes, int snapshotEvents, DAOFactory factory) {
+        this.dir = dir;
+        this.snapshotEvents = snapshotEvents;
+        this.factory = factory;
+
+        long start = System.nanoTime();
+        try {
+            InventorySnapshot snapshot = InventorySnapshot.read(dir);
+            projection.restore(snapshot.getFree());
+            log = new InventoryLog(dir, segmentBytes);
+            long seq = log.replay(snapshot.getSeq(), projection::apply);
+            LOG.info("inventory replayed", "dir", dir, "snapshotSeq", snapshot.getSeq(), "lastSeq", seq,
+                    "trains", projection.size(), "millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new IllegalStateException("Inventory log cannot be read: " + dir, e);
+        }
+        projection.clearHeld();
+    }
+
+    public static InventoryService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (InventoryService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new InventoryService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Replaces the shared instance, tests keep the log in a directory of their own
+     */
+    static void setInstance(InventoryService instance) {
+        synchronized (InventoryService.class) {
+            INSTANCE = instance;
+        }
+    }
+
+    /**
+     * Takes {count} free places of given type
+     *
+     * @return FALSE if there are not enough free places left or there is no such TRAIN
+     */
+    public boolean reserve(String trainId, TypePlace type, long count) {
+        if (!open(trainId))
+            return false;
+
+        synchronized (lockOf(trainId)) {
+            if (projection.countFree(trainId, type) < count)
+                return false;
+            return record(Kind.RESERVED, trainId, type, count);
+        }
+    }
+
+    /**
+     * Frees {count} places of given type
+     */
+    public void cancel(String trainId, TypePlace type, long count) {
+        if (!open(trainId))
+            return;
+
+        synchronized (lockOf(trainId)) {
+            record(Kind.CANCELLED, trainId, type, count);
+        }
+    }
+
+    public void hold(String trainId, TypePlace type) {
+        record(Kind.HELD, trainId, type, 1);
+    }
+
+    public void release(String trainId, TypePlace type, long count) {
+        record(Kind.RELEASED, trainId, type, count);
+    }
+
+    /**
+     * @return free places of given type, read from the row while the TRAIN was never booked
+     */
+    public long countFree(Train train, TypePlace type) {
+        long free = projection.countFree(train.getId(), type);
+        return free >= 0 ? free : freeOf(train, type);
+    }
+
+    public long countHeld(String trainId, TypePlace type) {
+        return projection.countHeld(trainId, type);
+    }
+
+    /**
+     * Writes a snapshot, writes the free places back to the rows of the TRAINS changed since the last one
+     * and deletes the log segments the snapshot covers. Only the free places of a row are written,
+     * an edit of the other columns made meanwhile stays
+     */
+    public synchronized void snapshot() {
+        long seq;
+        Map<String, long[]> balances;
+        Set<String> trains;
+        DAOFactory rows;
+        synchronized (logLock) {
+            seq = log.getLastSeq();
+            balances = projection.balances();
+            trains = new HashSet<>(changed);
+            changed.removeAll(trains);
+            sinceSnapshot = 0;
+            rows = factory;
+        }
+
+        // the older segments were forced when the log rolled over, the current one holds the events up to {seq}
+        log.force();
+        try {
+            InventorySnapshot.write(dir, seq, balances);
+        } catch (IOException e) {
+            LOG.severe("inventory snapshot failed: " + e);
+            changed.addAll(trains);
+            return;
+        }
+
+        TrainDAO trainDAO = rows.createTrainDAO();
+        for (String trainId : trains) {
+            long[] free = balances.get(trainId);
+            if (free != null)
+                trainDAO.updateFree(trainId, free[TypePlace.C.ordinal()], free[TypePlace.L.ordinal()],
+                        free[TypePlace.B.ordinal()]);
+        }
+
+        synchronized (logLock) {
+            try {
+                log.truncate(seq);
+            } catch (IOException e) {
+                LOG.warning("inventory log not truncated", "seq", seq, "error", e);
+            }
+        }
+        LOG.info("inventory snapshot", "seq", seq, "trains", balances.size(), "written", trains.size());
+    }
+
+    /**
+     * The places of the TRAINS of the new factory are opened again from their rows
+     */
+    public void setFactory(DAOFactory factory) {
+        synchronized (logLock) {
+            this.factory = factory;
+            projection.forgetBalances();
+            changed.clear();
+        }
+    }
+
+    /**
+     * Logs the free places of the TRAIN row the first time the TRAIN is booked,
+     * the row is read before the lock of the TRAIN is taken
+     *
+     * @return FALSE if there is no such TRAIN
+     */
+    private boolean open(String trainId) {
+        if (projection.isOpened(trainId))
+            return true;
+
+        Train train = factory.createTrainDAO().findById(trainId);
+        if (train == null)
+            return false;
+
+        synchronized (lockOf(trainId)) {
+            if (projection.isOpened(trainId))
+                return true;
+
+            for (TypePlace type : TypePlace.values()) {
+                if (!record(Kind.OPENED, trainId, type, freeOf(train, type)))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private Object lockOf(String trainId) {
+        return trainLocks.computeIfAbsent(trainId, id -> new Object());
+    }
+
+    private boolean record(Kind kind, String trainId, TypePlace type, long count) {
+        boolean snapshot;
+        synchronized (logLock) {
+            try {
+                projection.apply(log.append(kind, trainId, type, count));
+            } catch (IOException e) {
+                LOG.severe("inventory log append failed: " + e);
+                return false;
+            }
+            snapshot = ++sinceSnapshot >= snapshotEvents;
+        }
+
+        if (kind != Kind.HELD && kind != Kind.RELEASED)
+            changed.add(trainId);
+        if (snapshot && snapshotScheduled.compareAndSet(false, true)) {
+            snapshots.execute(() -> {
+                snapshotScheduled.set(false);
+                snapshot();
+            });
+        }
+        return true;
+    }
+
+    private static long freeOf(Train train, TypePlace type) {
+        Long free;
+        switch (type) {
+            case C:
+                free = train.getCompartmentFree();
+                break;
+            case L:
+                free = train.getDeluxeFree();
+                break;
+            default:
+                free = train.getBerthFree();
+                break;
+        }
+        return free == null ? 0 : free;
+    }
+}
@@ -3,19 +3,20 @@ package service;
 import dao.AbstractDAOFactory;
 import dao.DAOFactory;
 import dao.DataBase;
+import log.Log;
 import model.entity.User;
 import org.apache.commons.codec.digest.DigestUtils;
+import service.cache.UserCache;
 import service.util.LogMessageServiceUtil;
 import util.Configuration;
 
 import java.util.UUID;
-import java.util.logging.Logger;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static util.Configuration.PROFILE_DATABASE;
 
 public class LoginService {
-    private static final Logger LOG = Logger.getLogger(LoginService.class.getName());
+    private static final Log LOG = Log.getLog(LoginService.class);
     private static LoginService INSTANCE;
 
     private static final String USER_DAO = "UserDAO";
@@ -43,8 +44,8 @@ public class LoginService {
     }
 
     public User isPresentLogin(String login) {
-        User user = factory.createUserDAO().findByEmail(login);
-        LOG.info(LogMessageServiceUtil.createMethodInfo(USER_DAO, IS_PRESENT_LOGIN));
+        User user = UserCache.getInstance().find(login, email -> factory.createUserDAO().findByEmail(email));
+        LOG.fine(() -> LogMessageServiceUtil.createMethodInfo(USER_DAO, IS_PRESENT_LOGIN));
         return user;
     }
 
@@ -52,11 +53,12 @@ public class LoginService {
         user = securePassword(user);
         user = generateId(user);
         User createdUser = factory.createUserDAO().create(user);
+        UserCache.getInstance().invalidate(user.getEmail());
         if (createdUser == null) {
             LOG.severe(LogMessageServiceUtil.createMethodError(USER_DAO, ADD_USER));
         }
 
-        LOG.info(LogMessageServiceUtil.createMethodInfo(USER_DAO, ADD_USER));
+        LOG.info(() -> LogMessageServiceUtil.createMethodInfo(USER_DAO, ADD_USER));
         return createdUser;
     }
 
@@ -79,5 +81,6 @@ public class LoginService {
 
     public void setFactory(DAOFactory factory) {
         this.factory = factory;
+        UserCache.getInstance().clear();
     }
 }
@@ -3,36 +3,65 @@ package service;
 import dao.AbstractDAOFactory;
 import dao.DAOFactory;
 import dao.DataBase;
-import dao.RequestDAO;
+import dao.RouteStopDAO;
+import dao.writebehind.WriteBehindFactory;
 import dao.mysql.TypePlace;
+import dto.BookingFilter;
+import dto.BookingRow;
 import dto.Ticket;
 import dto.TrainRoute;
+import exception.ConstraintViolation;
 import exception.InvalidDataBaseOperation;
+import log.Log;
 import model.entity.Request;
 import model.entity.Route;
+import model.entity.RouteStop;
+import model.entity.Station;
 import model.entity.Train;
 import model.entity.User;
+import service.seat.Journey;
+import service.seat.Seat;
 import util.Configuration;
+import util.Identifiers;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.logging.Logger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static util.Configuration.PROFILE_DATABASE;
 
 
 public class RequestService {
-    private static final Logger LOG = Logger.getLogger(RequestDAO.class.getName());
+    private static final Log LOG = Log.getLog(RequestService.class);
     private static RequestService INSTANCE;
 
+    private static final String THREAD_NAME = "request-give-back";
+
+    private final ExecutorService givingBack = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private DAOFactory factory;
 
     private RequestService() {
         DataBase dataBase = DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE));
         factory = AbstractDAOFactory.createDAOFactory(dataBase);
+        WriteBehindFactory.setRejectedListener(request -> givingBack.execute(() -> giveBack(request)));
     }
 
     public static RequestService getInstance() {
@@ -48,57 +77,228 @@ public class RequestService {
     }
 
     public Request addRequest(Request request) throws InvalidDataBaseOperation {
+        Request result = addRequest(request, null);
+        if (result == null)
+            throw new InvalidDataBaseOperation();
+        return result;
+    }
+
+    /**
+     * The seat is taken before the place and freed after it on cancel,
+     * so seat maps are laid out before any counter changes and a free place always has a seat (or an unseated slot).
+     * The seat is given back when the TRAIN has no free places left.
+     * A TRAIN with intermediate stops sells seats per journey, the seat maps alone decide there
+     *
+     * @param seat seat claimed for this REQUEST beforehand, NULL to take the first free one
+     * @return NULL if the DB did not store the REQUEST, its seat and place are given back then
+     */
+    private Request addRequest(Request request, Seat seat) throws InvalidDataBaseOperation {
         request = generateId(request);
-        TypePlace place = request.getType();
-        Train train = factory.createTrainDAO().findById(request.getTrainId());
+        String trainId = request.getTrainId();
+        TypePlace type = request.getType();
+        boolean stops = SeatService.getInstance().hasStops(trainId);
+        if (seat == null) {
+            seat = SeatService.getInstance().assign(trainId, type, SeatService.journeyOf(request));
+            if (seat == null && (stops || !SeatService.getInstance().assignUnseated(trainId, type)))
+                throw soldOut();
+        }
 
-        switch (place) {
-            case B: {
-                if (train.getBerthFree() == 0) {
-                    throw new InvalidDataBaseOperation("Someone booked all tickets to this train." +
-                            " Please, go to the main page and select other train");
-                }
-                TrainService.getInstance().reserveBerthPlace(train);
-                break;
-            }
-            case C: {
-                if (train.getCompartmentFree() == 0) {
-                    throw new InvalidDataBaseOperation("Someone booked all tickets to this train." +
-                            " Please, go to the main page and select other train");
-                }
-                TrainService.getInstance().reserveCompartmentPlace(train);
-                break;
-            }
-            case L: {
-                if (train.getDeluxeFree() == 0) {
-                    throw new InvalidDataBaseOperation("Someone booked all tickets to this train." +
-                            " Please, go to the main page and select other train");
-                }
-                TrainService.getInstance().reserveDeluxePlace(train);
-                break;
-            }
+        if (!stops && !TrainService.getInstance().reservePlace(trainId, type)) {
+            releaseSeat(trainId, type, seat);
+            throw soldOut();
+        }
+
+        if (seat != null) {
+            request.setCarriage(seat.getCarriage());
+            request.setSeat(seat.getNumber());
+        }
+
+        Request created;
+        try {
+            created = factory.createRequestDAO().create(request);
+        } catch (ConstraintViolation e) {
+            created = null;
+        }
+        if (created == null) {
+            if (!stops)
+                TrainService.getInstance().cancelPlace(trainId, type);
+            releaseSeat(trainId, type, seat);
+            LOG.warning("request not stored", "trainId", trainId, "bookingKey", request.getBookingKey());
+            return null;
         }
 
-        return factory.createRequestDAO().create(request);
+        AggregateService.getInstance().booked(created);
+        return created;
+    }
+
+    /**
+     * Gives back the place, seat and counts of a REQUEST booked already but rejected by the DB for good,
+     * the write-behind flusher moved it to the dead letters
+     */
+    void giveBack(Request request) {
+        String trainId = request.getTrainId();
+        TypePlace type = request.getType();
+        if (!SeatService.getInstance().hasStops(trainId))
+            TrainService.getInstance().cancelPlace(trainId, type);
+        releaseSeat(trainId, type, SeatService.seatOf(request));
+        AggregateService.getInstance().cancelled(request);
+        WaitlistService.getInstance().placesFreed(trainId, type);
+        LOG.warning("rejected request given back", "requestId", request.getId(), "trainId", trainId,
+                "bookingKey", request.getBookingKey());
+    }
+
+    private static InvalidDataBaseOperation soldOut() {
+        return new InvalidDataBaseOperation("Someone booked all tickets to this train." +
+                " Please, go to the main page and select other train");
+    }
+
+    private static void releaseSeat(String trainId, TypePlace type, Seat seat) {
+        if (seat == null)
+            SeatService.getInstance().releaseUnseated(trainId, type, 1);
+        else
+            SeatService.getInstance().release(trainId, seat);
     }
 
     Request generateId(final Request request) {
-        String id = UUID.randomUUID().toString();
+        String id = Identifiers.next();
         request.setId(id);
         return request;
     }
 
+    /**
+     * Tickets of one TRAIN and type get seats side by side when some carriage still has them,
+     * a single ticket gets the seat held for it at the make step
+     */
     public void reserveTickets(final List<Ticket> tickets) throws InvalidDataBaseOperation {
-        for (Ticket ticket : tickets) {
-            Request request = new Request.RequestBuilder()
-                    .setPrice(ticket.getPrice())
-                    .setType(TypePlace.valueOf(ticket.getTypePlace()))
-                    .setUserId(ticket.getUserId())
-                    .setTrainId(ticket.getTrainId())
-                    .build();
+        reserveTickets(null, tickets);
+    }
 
-            ticket.setRequestId(addRequest(request).getId());
+    /**
+     * @param formKey key issued with the order page
+     * @return booking key of the USER for the form, NULL if the form key is not a UUID;
+     * two USERS never share a booking key, even when they post the same form key
+     */
+    public static String bookingKey(String userId, String formKey) {
+        if (!Identifiers.isUuid(formKey))
+            return null;
+
+        return UUID.nameUUIDFromBytes((userId + "/" + formKey).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Books the tickets of one booking form once: the REQUESTS remember the idempotency key of the form,
+     * a resubmitted form gets the tickets of the REQUESTS booked with it (after a restart too)
+     * and the inventory is not touched again. The unique (booking_key, booking_seq) index backs this up in DB:
+     * a submission that loses the race for a place in the booking gives its seat back and gets the tickets
+     * of the winner.
+     *
+     * @param bookingKey key made by {@link #bookingKey(String, String)}, anything but a UUID books
+     *                   without idempotency
+     * @return booked tickets
+     */
+    public List<Ticket> reserveTickets(String bookingKey, final List<Ticket> tickets) throws InvalidDataBaseOperation {
+        String key = Identifiers.isUuid(bookingKey) ? bookingKey : null;
+        if (key != null) {
+            List<Ticket> booked = replay(key);
+            if (booked != null)
+                return booked;
         }
+
+        return reserve(key, tickets);
+    }
+
+    /**
+     * @return tickets of the REQUESTS booked with the key, NULL if there are none
+     */
+    private List<Ticket> replay(String bookingKey) {
+        List<Request> booked = new ArrayList<>(factory.createRequestDAO().findByBookingKey(bookingKey));
+        if (booked.isEmpty())
+            return null;
+
+        booked.sort(Comparator.comparing(Request::getBookingSeq));
+        List<Ticket> result = new ArrayList<>();
+        for (Request request : booked) {
+            result.add(toTicket(request));
+        }
+        LOG.info("booking replayed", "bookingKey", bookingKey, "requests", booked.size());
+        return result;
+    }
+
+    private List<Ticket> reserve(String bookingKey, List<Ticket> tickets) throws InvalidDataBaseOperation {
+        Map<SeatGroup, Deque<Seat>> together = claimTogether(tickets);
+        int sequence = 0;
+        try {
+            for (Ticket ticket : tickets) {
+                Request request = new Request.RequestBuilder()
+                        .setPrice(ticket.getPrice())
+                        .setType(TypePlace.valueOf(ticket.getTypePlace()))
+                        .setUserId(ticket.getUserId())
+                        .setTrainId(ticket.getTrainId())
+                        .setStops(ticket.getFromStop(), ticket.getToStop())
+                        .setBooking(bookingKey, bookingKey == null ? null : sequence)
+                        .build();
+                sequence++;
+
+                Deque<Seat> seats = together.get(SeatGroup.of(ticket));
+                Seat seat = seats == null ? null : seats.poll();
+                if (seat == null && ticket.getHoldId() != null) {
+                    seat = HoldService.getInstance().take(ticket.getHoldId());
+                    ticket.setHoldId(null);
+                }
+                Request created = addRequest(request, seat);
+                if (created == null) {
+                    List<Ticket> booked = conflict(request) ? replay(bookingKey) : null;
+                    if (booked == null)
+                        throw new InvalidDataBaseOperation();
+                    return booked;
+                }
+                ticket.setRequestId(created.getId());
+                ticket.setCarriage(created.getCarriage());
+                ticket.setSeat(created.getSeat());
+            }
+            return tickets;
+        } finally {
+            together.forEach((group, seats) -> SeatService.getInstance().release(group.trainId, seats));
+        }
+    }
+
+    /**
+     * @return TRUE if another submission of the booking stored the place of the REQUEST first
+     */
+    private boolean conflict(Request request) {
+        if (request.getBookingKey() == null)
+            return false;
+
+        for (Request stored : factory.createRequestDAO().findByBookingKey(request.getBookingKey())) {
+            if (request.getBookingSeq().equals(stored.getBookingSeq()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Held seats of a group are given back first, the whole group may sit together then
+     *
+     * @return seats claimed for every group of more than one ticket of the same TRAIN, type and journey
+     */
+    private Map<SeatGroup, Deque<Seat>> claimTogether(List<Ticket> tickets) {
+        Map<SeatGroup, Integer> counts = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            counts.merge(SeatGroup.of(ticket), 1, Integer::sum);
+        }
+        for (Ticket ticket : tickets) {
+            if (ticket.getHoldId() != null && counts.get(SeatGroup.of(ticket)) > 1)
+                HoldService.getInstance().release(ticket);
+        }
+
+        Map<SeatGroup, Deque<Seat>> result = new HashMap<>();
+        counts.forEach((group, count) -> {
+            if (count > 1) {
+                result.put(group, new ArrayDeque<>(SeatService.getInstance()
+                        .assignTogether(group.trainId, group.type, group.journey, count)));
+            }
+        });
+        return result;
     }
 
     public Ticket makeTicket(String parameter, User user, TrainRoute trainRoute) {
@@ -112,26 +312,30 @@ public class RequestService {
             ticket.setFromDate(trainRoute.getFromDate());
             ticket.setToDate(trainRoute.getToDate());
 
+            ticket.setFromStop(trainRoute.getFromStop());
+            ticket.setToStop(trainRoute.getToStop());
+
             ticket.setName(user.getName());
             ticket.setSurname(user.getSurname());
 
             Double price;
             Long max;
             Route route = RouteService.getInstance().findRouteById(trainRoute.getRouteId());
+            Double distance = trainRoute.getFromStop() == null ? route.getDistance() : trainRoute.getDistance();
             switch (parameter) {
                 case "C": {
                     max = trainRoute.getCompartmentFree();
-                    price = RouteService.getInstance().findCompartmentPrice(route);
+                    price = RouteService.getInstance().findCompartmentPrice(route, distance);
                     break;
                 }
                 case "L": {
                     max = trainRoute.getDeluxeFree();
-                    price = RouteService.getInstance().findDeluxePrice(route);
+                    price = RouteService.getInstance().findDeluxePrice(route, distance);
                     break;
                 }
                 default: {
                     max = trainRoute.getBerthFree();
-                    price = RouteService.getInstance().findBerthPrice(route);
+                    price = RouteService.getInstance().findBerthPrice(route, distance);
                     break;
                 }
             }
@@ -139,7 +343,7 @@ public class RequestService {
             ticket.setTypePlace(parameter);
             ticket.setPrice(price);
             ticket.setUserId(user.getId());
-            LOG.info("Add Ticket for USER ID = " + user.getId());
+            LOG.info("add ticket", "userId", user.getId());
             return ticket;
         }
         return null;
@@ -149,38 +353,112 @@ public class RequestService {
         List<Request> requests = factory.createRequestDAO().findAll();
         List<Ticket> result = new ArrayList<>();
         for (Request request : requests) {
-            Train train = factory.createTrainDAO().findById(request.getTrainId());
-            Route route = factory.createRouteDAO().findById(train.getRouteId());
-            User user = factory.createUserDAO().findById(request.getUserId());
+            result.add(toTicket(request));
+        }
 
-            Ticket ticket = new Ticket();
-            ticket.setTrainId(train.getId());
-            ticket.setRequestId(request.getId());
-            ticket.setUserId(request.getUserId());
+        result.sort(new Comparator<Ticket>() {
+            @Override
+            public int compare(Ticket o1, Ticket o2) {
+                return o1.getRequestId().compareTo(o2.getRequestId());
+            }
+        });
+        LOG.fine("find all tickets");
+        return result;
+    }
+
+    /**
+     * Hands bookings matching the filter to the consumer as the DB returns them, in no particular order.
+     * ROUTES, their stops and STATIONS are read once up front, they grow with the timetable,
+     * not with the bookings
+     *
+     * @return number of bookings handed over
+     */
+    public long exportBookings(BookingFilter filter, Consumer<BookingRow> consumer) {
+        long start = System.nanoTime();
+        Map<String, Route> routes = new HashMap<>();
+        for (Route route : factory.createRouteDAO().findAll()) {
+            routes.put(route.getId(), route);
+        }
+
+        Map<String, String> stations = new HashMap<>();
+        for (Station station : factory.createStationDAO().findAll()) {
+            stations.put(station.getId(), station.getName());
+        }
+
+        Map<String, Map<Integer, RouteStop>> stops = new HashMap<>();
+        RouteStopDAO stopDAO = factory.createRouteStopDAO();
+        if (stopDAO != null) {
+            for (RouteStop stop : stopDAO.findAll()) {
+                stops.computeIfAbsent(stop.getRouteId(), id -> new HashMap<>()).put(stop.getNumber(), stop);
+            }
+        }
 
+        long[] count = new long[1];
+        factory.createRequestDAO().forEachBooking(filter, row -> {
+            Request request = row.getRequest();
+            Route route = routes.get(row.getRouteId());
+            Map<Integer, RouteStop> routeStops = stops.getOrDefault(row.getRouteId(), new HashMap<>());
+            RouteStop from = request.getFromStop() == null ? null : routeStops.get(request.getFromStop());
+            RouteStop to = request.getToStop() == null ? null : routeStops.get(request.getToStop());
+
+            if (from != null && to != null) {
+                row.setFromStation(stations.get(from.getStationId()));
+                row.setToStation(stations.get(to.getStationId()));
+                row.setDeparture(from.getDeparture());
+                row.setArrival(to.getArrival());
+            } else if (route != null) {
+                row.setFromStation(stations.get(route.getFromId()));
+                row.setToStation(stations.get(route.getToId()));
+                row.setDeparture(route.getFromTime());
+                row.setArrival(route.getToTime());
+            }
+            consumer.accept(row);
+            count[0]++;
+        });
+
+        LOG.info("bookings exported", "rows", count[0], "millis", (System.nanoTime() - start) / 1000000);
+        return count[0];
+    }
+
+    private Ticket toTicket(Request request) {
+        Train train = factory.createTrainDAO().findById(request.getTrainId());
+        Route route = factory.createRouteDAO().findById(train.getRouteId());
+        User user = factory.createUserDAO().findById(request.getUserId());
+
+        Ticket ticket = new Ticket();
+        ticket.setTrainId(train.getId());
+        ticket.setRequestId(request.getId());
+        ticket.setUserId(request.getUserId());
+
+        if (request.getFromStop() == null || request.getToStop() == null) {
             ticket.setFromCity(factory.createStationDAO().findById(route.getFromId()).getName());
             ticket.setToCity(factory.createStationDAO().findById(route.getToId()).getName());
 
             ticket.setFromDate(TrainService.getInstance().formatDate(route.getFromTime()));
             ticket.setToDate(TrainService.getInstance().formatDate(route.getToTime()));
+        } else {
+            List<RouteStop> stops = RouteService.getInstance().findStops(route.getId());
+            RouteStop from = stops.get(request.getFromStop());
+            RouteStop to = stops.get(request.getToStop());
 
-            ticket.setName(user.getName());
-            ticket.setSurname(user.getSurname());
+            ticket.setFromCity(factory.createStationDAO().findById(from.getStationId()).getName());
+            ticket.setToCity(factory.createStationDAO().findById(to.getStationId()).getName());
+            ticket.setFromStop(from.getNumber());
+            ticket.setToStop(to.getNumber());
 
-            ticket.setTypePlace(request.getType().toString());
-            ticket.setPrice(request.getPrice());
-            ticket.setUserId(user.getId());
-            result.add(ticket);
+            ticket.setFromDate(TrainService.getInstance().formatDate(from.getDeparture()));
+            ticket.setToDate(TrainService.getInstance().formatDate(to.getArrival()));
         }
 
-        result.sort(new Comparator<Ticket>() {
-            @Override
-            public int compare(Ticket o1, Ticket o2) {
-                return o1.getRequestId().compareTo(o2.getRequestId());
-            }
-        });
-        LOG.info("Find All Tickets");
-        return result;
+        ticket.setName(user.getName());
+        ticket.setSurname(user.getSurname());
+
+        ticket.setTypePlace(request.getType().toString());
+        ticket.setCarriage(request.getCarriage());
+        ticket.setSeat(request.getSeat());
+        ticket.setPrice(request.getPrice());
+        ticket.setUserId(user.getId());
+        return ticket;
     }
 
     public List<Ticket> addTickets(Ticket ticket, Integer count) {
@@ -188,6 +466,8 @@ public class RequestService {
         for (int i = 0; i < count; i++) {
             Ticket ticket1 = new Ticket();
             ticket1.setRequestId(ticket.getRequestId());
+            if (i == 0)
+                ticket1.setHoldId(ticket.getHoldId());
             ticket1.setUserId(ticket.getUserId());
             ticket1.setPrice(ticket.getPrice());
             ticket1.setTypePlace(ticket.getTypePlace());
@@ -197,30 +477,103 @@ public class RequestService {
             ticket1.setToDate(ticket.getToDate());
             ticket1.setFromCity(ticket.getFromCity());
             ticket1.setToCity(ticket.getToCity());
+            ticket1.setFromStop(ticket.getFromStop());
+            ticket1.setToStop(ticket.getToStop());
             ticket1.setMax(ticket.getMax());
             ticket1.setTrainId(ticket.getTrainId());
             result.add(ticket1);
         }
 
-        LOG.info("Add Ticket to REQUEST");
+        LOG.fine("add ticket to request");
         return result;
     }
 
     public void cancelRequest(Ticket ticket) {
-        Train train = TrainService.getInstance().findTrainById(ticket.getTrainId());
-        switch (ticket.getTypePlace()) {
-            case "C":
-                TrainService.getInstance().cancelCompartmentPlace(train);
-                break;
-            case "L":
-                TrainService.getInstance().cancelDeluxePlace(train);
-                break;
-            default:
-                TrainService.getInstance().cancelBerthPlace(train);
-                break;
-        }
         Request request = factory.createRequestDAO().findById(ticket.getRequestId());
+        if (request == null)
+            return;
+
         factory.createRequestDAO().delete(request);
-        LOG.info("Cancel Ticket with (Request) ID = " + ticket.getRequestId());
+        AggregateService.getInstance().cancelled(request);
+        if (!SeatService.getInstance().hasStops(request.getTrainId()))
+            TrainService.getInstance().cancelPlace(request.getTrainId(), request.getType());
+        releaseSeat(request.getTrainId(), request.getType(), SeatService.seatOf(request));
+        WaitlistService.getInstance().placesFreed(request.getTrainId(), request.getType());
+        LOG.info("cancel ticket", "requestId", ticket.getRequestId());
+    }
+
+    /**
+     * Cancels every REQUEST train by train, the freed places of one type go back in a single update
+     */
+    public void cancelAllRequests() {
+        Set<String> trainIds = new HashSet<>();
+        for (Request request : factory.createRequestDAO().findAll()) {
+            trainIds.add(request.getTrainId());
+        }
+
+        for (String trainId : trainIds) {
+            Map<TypePlace, Long> freed = new EnumMap<>(TypePlace.class);
+            Map<TypePlace, Long> unseated = new EnumMap<>(TypePlace.class);
+            List<Seat> seats = new ArrayList<>();
+            for (TypePlace type : TypePlace.values()) {
+                for (Request request : factory.createRequestDAO().findByTrain(trainId, type)) {
+                    factory.createRequestDAO().delete(request);
+                    AggregateService.getInstance().cancelled(request);
+                    freed.merge(type, 1L, Long::sum);
+                    Seat seat = SeatService.seatOf(request);
+                    if (seat == null)
+                        unseated.merge(type, 1L, Long::sum);
+                    else
+                        seats.add(seat);
+                }
+            }
+
+            if (!SeatService.getInstance().hasStops(trainId))
+                freed.forEach((type, count) -> TrainService.getInstance().cancelPlace(trainId, type, count));
+            SeatService.getInstance().release(trainId, seats);
+            unseated.forEach((type, count) -> SeatService.getInstance().releaseUnseated(trainId, type, count));
+            freed.keySet().forEach(type -> WaitlistService.getInstance().placesFreed(trainId, type));
+            LOG.info("cancel train tickets", "trainId", trainId, "freed", freed);
+        }
+    }
+
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Tickets that may sit side by side: same TRAIN, type and journey
+     */
+    private static final class SeatGroup {
+        private final String trainId;
+        private final TypePlace type;
+        private final Journey journey;
+
+        private SeatGroup(String trainId, TypePlace type, Journey journey) {
+            this.trainId = trainId;
+            this.type = type;
+            this.journey = journey;
+        }
+
+        private static SeatGroup of(Ticket ticket) {
+            return new SeatGroup(ticket.getTrainId(), TypePlace.valueOf(ticket.getTypePlace()),
+                    Journey.of(ticket.getFromStop(), ticket.getToStop()));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof SeatGroup))
+                return false;
+
+            SeatGroup other = (SeatGroup) o;
+            return trainId.equals(other.trainId) && type == other.type && journey.equals(other.journey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(trainId, type, journey);
+        }
     }
 }
@@ -3,26 +3,24 @@ package service;
 import dao.AbstractDAOFactory;
 import dao.DAOFactory;
 import dao.DataBase;
-import model.entity.Price;
+import dao.RouteStopDAO;
+import dao.mysql.TypePlace;
+import log.Log;
 import model.entity.Route;
-import model.entity.Station;
+import model.entity.RouteStop;
 import model.entity.Train;
 import util.Configuration;
+import util.DateTimes;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.logging.Logger;
 
 import static util.Configuration.PROFILE_DATABASE;
 
 public class RouteService {
-    private static final Logger LOG = Logger.getLogger(RouteService.class.getName());
+    private static final Log LOG = Log.getLog(RouteService.class);
     private static RouteService INSTANCE;
 
     private DAOFactory factory;
@@ -52,96 +50,73 @@ public class RouteService {
         return factory.createRouteDAO().findById(train.getRouteId());
     }
 
-    public List<Station> findAvailableFromStations() {
-        List<Route> routes = factory.createRouteDAO().findAll();
-        Set<Station> stations = new HashSet<>();
-
-        for (Route route : routes) {
-            Station station = factory.createStationDAO().findById(route.getFromId());
-            stations.add(station);
-        }
-
-        List<Station> result = new ArrayList<>(stations);
-        result.sort(new Comparator<Station>() {
-            @Override
-            public int compare(Station o1, Station o2) {
-                return o1.getName().compareTo(o2.getName());
-            }
-        });
-
-        LOG.info("Find All Available FROM Stations");
-        return result;
+    /**
+     * @return stops of the ROUTE ordered by number, empty for a ROUTE without intermediate stops
+     */
+    List<RouteStop> findStops(String routeId) {
+        RouteStopDAO stopDAO = factory.createRouteStopDAO();
+        return stopDAO == null ? new ArrayList<>() : stopDAO.findByRoute(routeId);
     }
 
-    public List<Station> findAvailableToStations() {
-        List<Route> routes = factory.createRouteDAO().findAll();
-        Set<Station> stations = new HashSet<>();
-
-        for (Route route : routes) {
-            Station station = factory.createStationDAO().findById(route.getToId());
-            stations.add(station);
-        }
-
-        List<Station> result = new ArrayList<>(stations);
-        result.sort(new Comparator<Station>() {
-            @Override
-            public int compare(Station o1, Station o2) {
-                return o1.getName().compareTo(o2.getName());
-            }
-        });
-
-        LOG.info("Find All Available TO Stations");
-        return result;
+    /**
+     * @return departure of the TRAIN from the first stop of the journey, NULL for an unknown TRAIN
+     */
+    LocalDateTime findDeparture(String trainId, Integer fromStop) {
+        Train train = factory.createTrainDAO().findById(trainId);
+        Route route = train == null ? null : findRouteByTrain(train);
+        if (route == null)
+            return null;
+        if (fromStop == null)
+            return route.getFromTime();
+
+        List<RouteStop> stops = findStops(route.getId());
+        return fromStop < stops.size() ? stops.get(fromStop).getDeparture() : route.getFromTime();
     }
 
-    List<Route> findRouteByStations(Station from, Station to) {
-        List<Route> routes = factory.createRouteDAO().findByFromId(from.getId());
-        List<Route> result = new ArrayList<>();
+    public List<Route> findRoutesFromTime(List<Route> routes, Date date) {
+        LocalDateTime time = DateTimes.of(date);
 
+        List<Route> result = new ArrayList<>();
         for (Route route : routes) {
-            if (route.getToId().equals(to.getId())) {
+            if (route.getFromTime().isAfter(time)) {
                 result.add(route);
             }
         }
 
-        LOG.info(String.format("Find Route by Stations: FROM %s --- TO %s", from.getName(), to.getName()));
+        LOG.fine("find routes from time", "date", date);
         return result;
     }
 
-    public List<Route> findRoutesFromTime(List<Route> routes, Date date) {
-        long time = date.getTime();
-        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
+    Double findCompartmentPrice(Route route) {
+        return findCompartmentPrice(route, route.getDistance());
+    }
 
-        List<Route> result = new ArrayList<>();
-        try {
-            for (Route route : routes) {
-                if (format.parse(route.getFromTime()).getTime() > time) {
-                    result.add(route);
-                }
-            }
-        } catch (ParseException e) {
-            LOG.severe(e.getMessage());
-            e.printStackTrace();
-        }
 
-        LOG.info("Find Routes from TIME - " + date);
-        return result;
+    Double findBerthPrice(Route route) {
+        return findBerthPrice(route, route.getDistance());
     }
 
-    Double findCompartmentPrice(Route route) {
-        Price compartment = factory.createPriceDAO().findById(route.getPriceId());
-        return compartment.getCompartmentFactor() * route.getDistance();
+
+    Double findDeluxePrice(Route route) {
+        return findDeluxePrice(route, route.getDistance());
     }
 
+    /**
+     * Price of {distance} kilometres of the ROUTE, a journey between stops pays for its own part
+     */
+    Double findCompartmentPrice(Route route, Double distance) {
+        return FareService.getInstance().findFare(route, TypePlace.C, distance);
+    }
 
-    Double findBerthPrice(Route route) {
-        Price compartment = factory.createPriceDAO().findById(route.getPriceId());
-        return compartment.getBerthFactor() * route.getDistance();
+    Double findBerthPrice(Route route, Double distance) {
+        return FareService.getInstance().findFare(route, TypePlace.B, distance);
     }
 
+    Double findDeluxePrice(Route route, Double distance) {
+        return FareService.getInstance().findFare(route, TypePlace.L, distance);
+    }
 
-    Double findDeluxePrice(Route route) {
-        Price compartment = factory.createPriceDAO().findById(route.getPriceId());
-        return compartment.getDeluxeFactor() * route.getDistance();
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
     }
 }
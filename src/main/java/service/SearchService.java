@@ -0,0 +1,209 @@
+package service;
+
+import dao.AbstractDAOFactory;
+import dao.DAOFactory;
+import dao.DataBase;
+import dao.RouteStopDAO;
+import dao.StationDAO;
+import dao.TrainDAO;
+import log.Log;
+import model.entity.Route;
+import model.entity.RouteStop;
+import model.entity.Station;
+import model.entity.Train;
+import service.search.SearchEntry;
+import service.search.SearchIndex;
+import service.seat.Journey;
+import util.Configuration;
+import util.DataVersion;
+import util.DateTimes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static util.Configuration.PROFILE_DATABASE;
+
+/**
+ * Read model of the search: every journey of every ROUTE, denormalized into a {@link SearchIndex}.
+ * The index is built from the DB on first use, a change of a ROUTE, its stops or TRAINS replaces that ROUTE only.
+ * Bookings do not touch it: free places are read from the inventory and fares from the fare table,
+ * both are kept in memory and updated on write already
+ */
+public class SearchService {
+    private static final Log LOG = Log.getLog(SearchService.class);
+    private static SearchService INSTANCE;
+
+    private DAOFactory factory;
+    private volatile SearchIndex index;
+
+    private SearchService() {
+        DataBase dataBase = DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE));
+        factory = AbstractDAOFactory.createDAOFactory(dataBase);
+    }
+
+    public static SearchService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (SearchService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SearchService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Journeys between given STATIONS departing after {date}, earliest first
+     */
+    List<SearchEntry> findJourneys(String fromId, String toId, Date date) {
+        List<SearchEntry> result = current().find(fromId, toId, SearchEntry.epochOf(DateTimes.of(date)));
+
+        LOG.fine("find journeys", "fromId", fromId, "toId", toId, "date", date, "journeys", result.size());
+        return result;
+    }
+
+    Map<String, Integer> countDepartures() {
+        return current().countDepartures();
+    }
+
+    /**
+     * Reads the ROUTE, its stops and TRAINS again, to be called after any of them (or its PRICE) changes.
+     * A ROUTE no longer in the DB is dropped
+     */
+    public void refreshRoute(String routeId) {
+        SearchIndex current = current();
+        Route route = factory.createRouteDAO().findById(routeId);
+        if (route == null) {
+            current.put(routeId, Collections.emptyList());
+            DataVersion.bump();
+            LOG.info("search route dropped", "routeId", routeId);
+            return;
+        }
+
+        TrainDAO trainDAO = factory.createTrainDAO();
+        List<Train> trains = trainDAO == null ? new ArrayList<>() : trainDAO.findByRoute(routeId);
+        RouteStopDAO stopDAO = factory.createRouteStopDAO();
+        List<RouteStop> stops = stopDAO == null ? new ArrayList<>() : stopDAO.findByRoute(routeId);
+
+        current.put(routeId, journeysOf(route, trains, stops, new HashMap<>()));
+        DataVersion.bump();
+        LOG.info("search route refreshed", "routeId", routeId);
+    }
+
+    /**
+     * Refreshes the ROUTES through the STATION and the STATION names, to be called after it is renamed
+     */
+    public void refreshStation(String stationId) {
+        for (String routeId : current().findRoutesAt(stationId)) {
+            refreshRoute(routeId);
+        }
+        StationService.getInstance().rebuild();
+    }
+
+    /**
+     * Reads all ROUTES, stops, TRAINS and STATIONS again with one query per table
+     */
+    public synchronized SearchIndex rebuild() {
+        long start = System.nanoTime();
+        Map<String, List<Train>> trains = new HashMap<>();
+        TrainDAO trainDAO = factory.createTrainDAO();
+        if (trainDAO != null) {
+            for (Train train : trainDAO.findAll()) {
+                trains.computeIfAbsent(train.getRouteId(), id -> new ArrayList<>()).add(train);
+            }
+        }
+
+        Map<String, List<RouteStop>> stops = new HashMap<>();
+        RouteStopDAO stopDAO = factory.createRouteStopDAO();
+        if (stopDAO != null) {
+            for (RouteStop stop : stopDAO.findAll()) {
+                stops.computeIfAbsent(stop.getRouteId(), id -> new ArrayList<>()).add(stop);
+            }
+        }
+
+        Map<String, Station> stations = new HashMap<>();
+        for (Station station : factory.createStationDAO().findAll()) {
+            stations.put(station.getId(), station);
+        }
+
+        SearchIndex result = new SearchIndex();
+        for (Route route : factory.createRouteDAO().findAll()) {
+            List<RouteStop> routeStops = stops.getOrDefault(route.getId(), new ArrayList<>());
+            routeStops.sort((a, b) -> Integer.compare(a.getNumber(), b.getNumber()));
+            result.put(route.getId(), journeysOf(route, trains.getOrDefault(route.getId(), new ArrayList<>()),
+                    routeStops, stations));
+        }
+
+        index = result;
+        DataVersion.bump();
+        LOG.info("search index built", "journeys", result.size(), "micros", (System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    private SearchIndex current() {
+        SearchIndex result = index;
+        return result == null ? rebuild() : result;
+    }
+
+    /**
+     * The whole ROUTE and every part of it between two stops, a STATION missing in the DB drops its journeys
+     *
+     * @param stations STATIONS read so far, the missing ones are read and added
+     */
+    private List<SearchEntry> journeysOf(Route route, List<Train> trains, List<RouteStop> stops,
+                                         Map<String, Station> stations) {
+        List<SearchEntry> result = new ArrayList<>();
+        Station from = stationOf(route.getFromId(), stations);
+        Station to = stationOf(route.getToId(), stations);
+        if (from != null && to != null)
+            result.add(new SearchEntry(route, trains, from, to, Journey.WHOLE_ROUTE, route.getFromTime(),
+                    route.getToTime(), route.getDistance(), !stops.isEmpty()));
+
+        for (int i = 0; i < stops.size(); i++) {
+            RouteStop fromStop = stops.get(i);
+            if (fromStop.getDeparture() == null)
+                continue;
+
+            for (int j = i + 1; j < stops.size(); j++) {
+                RouteStop toStop = stops.get(j);
+                if (i == 0 && j == stops.size() - 1 || toStop.getArrival() == null)
+                    continue;
+
+                from = stationOf(fromStop.getStationId(), stations);
+                to = stationOf(toStop.getStationId(), stations);
+                if (from != null && to != null)
+                    result.add(new SearchEntry(route, trains, from, to,
+                            Journey.of(fromStop.getNumber(), toStop.getNumber()), fromStop.getDeparture(),
+                            toStop.getArrival(), toStop.getDistance() - fromStop.getDistance(), true));
+            }
+        }
+        return result;
+    }
+
+    private Station stationOf(String id, Map<String, Station> stations) {
+        Station result = stations.get(id);
+        if (result == null) {
+            StationDAO stationDAO = factory.createStationDAO();
+            result = stationDAO.findById(id);
+            if (result == null) {
+                LOG.warning("search station missing", "stationId", id);
+                return null;
+            }
+            stations.put(id, result);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the index, it is built again from the new factory
+     */
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
+        index = null;
+    }
+}
@@ -0,0 +1,427 @@
+package service;
+
+import dao.AbstractDAOFactory;
+import dao.DAOFactory;
+import dao.DataBase;
+import dao.RequestDAO;
+import dao.RouteStopDAO;
+import dao.mysql.TypePlace;
+import log.Log;
+import model.entity.Carriage;
+import model.entity.Request;
+import model.entity.Train;
+import service.seat.Journey;
+import service.seat.Seat;
+import service.seat.SeatInventory;
+import service.seat.SeatMap;
+import service.seat.SegmentSeatMap;
+import util.Configuration;
+import util.Identifiers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static util.Configuration.PROFILE_DATABASE;
+import static util.Configuration.SEAT_CARRIAGES_MAX;
+
+/**
+ * Assigns seats from the seat maps of TRAIN carriages.
+ * Seat maps are loaded once per TRAIN and claimed in memory, every change is written back as packed bytes.
+ * A TRAIN without carriages gets them laid out from its places on first use.
+ * <p>
+ * A TRAIN on a ROUTE without intermediate stops keeps a bitset per carriage, free places that have no seat
+ * (beyond the carriage limit) are kept as an unseated pool per type, so a booking fails here only
+ * when the TRAIN is really sold out. A TRAIN on a ROUTE with stops keeps a segment mask per seat,
+ * there the seat maps are the only record of free places: a seat is sold per journey between stops.
+ */
+public class SeatService {
+    private static final Log LOG = Log.getLog(SeatService.class);
+    private static SeatService INSTANCE;
+
+    private static final TypePlace[] LAYOUT_ORDER = {TypePlace.L, TypePlace.C, TypePlace.B};
+
+    private final int maxCarriages;
+    private final Map<String, TrainSeats> trains = new ConcurrentHashMap<>();
+
+    private DAOFactory factory;
+
+    private SeatService() {
+        DataBase dataBase = DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE));
+        factory = AbstractDAOFactory.createDAOFactory(dataBase);
+        maxCarriages = Integer.parseInt(Configuration.getInstance().getConfig(SEAT_CARRIAGES_MAX));
+    }
+
+    public static SeatService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (SeatService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SeatService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * @return TRUE if the ROUTE of the TRAIN has intermediate stops, its place counters are not used then
+     */
+    public boolean hasStops(String trainId) {
+        return seatsOf(trainId).segments > 1;
+    }
+
+    /**
+     * Takes the first seat of given type that is free on the whole journey
+     *
+     * @return NULL if no carriage of this type has such a seat
+     */
+    public Seat assign(String trainId, TypePlace type, Journey journey) {
+        TrainSeats train = seatsOf(trainId);
+        long mask = train.maskOf(journey);
+        for (CarriageSeats carriage : train.carriages) {
+            if (carriage.type != type)
+                continue;
+
+            int seat = carriage.seats.claimFirst(mask);
+            if (seat >= 0) {
+                store(carriage);
+                return new Seat(carriage.number, seat + 1, journey);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Takes {count} adjacent seats of given type in one carriage
+     *
+     * @return empty list if no carriage has so many free seats in a row
+     */
+    public List<Seat> assignTogether(String trainId, TypePlace type, Journey journey, int count) {
+        TrainSeats train = seatsOf(trainId);
+        long mask = train.maskOf(journey);
+        for (CarriageSeats carriage : train.carriages) {
+            if (carriage.type != type)
+                continue;
+
+            int first = carriage.seats.claimBlock(count, mask);
+            if (first >= 0) {
+                store(carriage);
+                List<Seat> result = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    result.add(new Seat(carriage.number, first + i + 1, journey));
+                }
+                return result;
+            }
+        }
+
+        if (LOG.isFineEnabled())
+            LOG.fine("no seats together", "trainId", trainId, "type", type, "journey", journey, "count", count);
+        return Collections.emptyList();
+    }
+
+    /**
+     * Takes a free place that has no seat, there are none on a ROUTE with stops
+     *
+     * @return FALSE if there is none
+     */
+    public boolean assignUnseated(String trainId, TypePlace type) {
+        AtomicLong unseated = seatsOf(trainId).unseated.get(type);
+        while (true) {
+            long current = unseated.get();
+            if (current == 0)
+                return false;
+            if (unseated.compareAndSet(current, current - 1))
+                return true;
+        }
+    }
+
+    /**
+     * Gives back {count} places that have no seat
+     */
+    public void releaseUnseated(String trainId, TypePlace type, long count) {
+        seatsOf(trainId).unseated.get(type).addAndGet(count);
+    }
+
+    public void release(String trainId, Seat seat) {
+        release(trainId, Collections.singletonList(seat));
+    }
+
+    /**
+     * Frees seats of one TRAIN for their journeys, every touched carriage is written once
+     */
+    public void release(String trainId, Collection<Seat> seats) {
+        TrainSeats train = seatsOf(trainId);
+        Map<Integer, CarriageSeats> touched = new HashMap<>();
+        for (Seat seat : seats) {
+            CarriageSeats carriage = train.findCarriage(seat.getCarriage());
+            if (carriage == null || seat.getNumber() < 1 || seat.getNumber() > carriage.seats.size()) {
+                LOG.warning("unknown seat", "trainId", trainId, "seat", seat);
+                continue;
+            }
+
+            if (carriage.seats.release(seat.getNumber() - 1, train.maskOf(seat.getJourney())))
+                touched.put(carriage.number, carriage);
+        }
+
+        for (CarriageSeats carriage : touched.values()) {
+            store(carriage);
+        }
+    }
+
+    /**
+     * @return seat of the REQUEST, NULL if it has none
+     */
+    public static Seat seatOf(Request request) {
+        if (request.getCarriage() == null || request.getSeat() == null)
+            return null;
+
+        return new Seat(request.getCarriage(), request.getSeat(), journeyOf(request));
+    }
+
+    public static Journey journeyOf(Request request) {
+        return Journey.of(request.getFromStop(), request.getToStop());
+    }
+
+    /**
+     * @return seats of given type free on the whole journey over all carriages of the TRAIN
+     */
+    public int countFree(String trainId, TypePlace type, Journey journey) {
+        TrainSeats train = seatsOf(trainId);
+        long mask = train.maskOf(journey);
+        int result = 0;
+        for (CarriageSeats carriage : train.carriages) {
+            if (carriage.type == type)
+                result += carriage.seats.freeCount(mask);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the seat maps of a TRAIN once, concurrent callers wait for the same load.
+     * Bookings and cancellations come here before they change the place counters,
+     * so the counters read by the load are not in the middle of a change
+     */
+    private TrainSeats seatsOf(String trainId) {
+        TrainSeats result = trains.computeIfAbsent(trainId, this::load);
+        return result == null ? new TrainSeats(1, Collections.emptyList(), new EnumMap<>(TypePlace.class)) : result;
+    }
+
+    private TrainSeats load(String trainId) {
+        Train train = factory.createTrainDAO().findById(trainId);
+        if (train == null)
+            return null;
+
+        int segments = segmentsOf(train);
+        List<Carriage> carriages = factory.createCarriageDAO().findByTrain(trainId);
+        RequestDAO requestDAO = factory.createRequestDAO();
+        boolean rebuild = !carriages.isEmpty() && requestDAO != null;
+        if (carriages.isEmpty())
+            carriages = layOut(train, segments);
+
+        List<CarriageSeats> result = new ArrayList<>(carriages.size());
+        for (Carriage carriage : carriages) {
+            result.add(new CarriageSeats(carriage,
+                    inventoryOf(carriage.getSeats(), segments, rebuild ? null : carriage.getSeatMap())));
+        }
+
+        TrainSeats seats = new TrainSeats(segments, Collections.unmodifiableList(result),
+                new EnumMap<>(TypePlace.class));
+        if (rebuild)
+            claimBooked(seats, requestDAO.findByTrain(trainId));
+
+        if (segments == 1) {
+            for (Map.Entry<TypePlace, Long> free : placesOf(train).entrySet()) {
+                long seated = 0;
+                for (CarriageSeats carriage : result) {
+                    if (carriage.type == free.getKey())
+                        seated += carriage.seats.freeCount(SeatMap.WHOLE_ROUTE);
+                }
+                seats.unseated.get(free.getKey()).set(Math.max(0, free.getValue() - seated));
+            }
+        }
+
+        LOG.fine("seat maps loaded", "trainId", trainId, "segments", segments, "carriages", result.size(),
+                "unseated", seats.unseated);
+        return seats;
+    }
+
+    /**
+     * Takes the seats of the booked REQUESTS again instead of trusting the stored maps: a map stored
+     * while seats were held keeps them taken after a restart, though the holds are gone.
+     * A map that differs from the bookings is written back
+     */
+    private void claimBooked(TrainSeats train, List<Request> requests) {
+        for (Request request : requests) {
+            Seat seat = seatOf(request);
+            if (seat == null)
+                continue;
+
+            CarriageSeats carriage = train.findCarriage(seat.getCarriage());
+            if (carriage == null || seat.getNumber() < 1 || seat.getNumber() > carriage.seats.size()
+                    || !carriage.seats.claim(seat.getNumber() - 1, train.maskOf(seat.getJourney())))
+                LOG.warning("booked seat not claimed", "trainId", request.getTrainId(), "requestId", request.getId(),
+                        "seat", seat);
+        }
+
+        int freed = 0;
+        for (CarriageSeats carriage : train.carriages) {
+            if (!Arrays.equals(carriage.entity.getSeatMap(), carriage.seats.toBytes())) {
+                store(carriage);
+                freed++;
+            }
+        }
+        if (freed > 0)
+            LOG.info("seats without a booking freed", "trainId", train.carriages.get(0).entity.getTrainId(),
+                    "carriages", freed);
+    }
+
+    /**
+     * @return segments of the ROUTE of the TRAIN, 1 for a ROUTE without intermediate stops
+     */
+    private int segmentsOf(Train train) {
+        RouteStopDAO stopDAO = factory.createRouteStopDAO();
+        int stops = stopDAO == null ? 0 : stopDAO.findByRoute(train.getRouteId()).size();
+        if (stops > SegmentSeatMap.MAX_SEGMENTS + 1) {
+            LOG.warning("too many stops, sold as a whole route", "routeId", train.getRouteId(), "stops", stops);
+            return 1;
+        }
+        return Math.max(1, stops - 1);
+    }
+
+    /**
+     * Creates empty carriages for the places of a TRAIN: free places plus the ones booked without a seat
+     */
+    private List<Carriage> layOut(Train train, int segments) {
+        String trainId = train.getId();
+        Map<TypePlace, Long> places = placesOf(train);
+        for (Request request : factory.createRequestDAO().findByTrain(trainId)) {
+            if (seatOf(request) == null)
+                places.merge(request.getType(), 1L, Long::sum);
+        }
+
+        List<Carriage> result = new ArrayList<>();
+        int number = 1;
+        for (TypePlace type : LAYOUT_ORDER) {
+            long left = places.get(type);
+            int capacity = capacityOf(type);
+            for (int i = 0; i < maxCarriages && left > 0; i++) {
+                int seats = (int) Math.min(left, capacity);
+                Carriage carriage = new Carriage(Identifiers.next(), trainId, number++, type, seats,
+                        inventoryOf(seats, segments, null).toBytes());
+                result.add(factory.createCarriageDAO().create(carriage));
+                left -= seats;
+            }
+
+            if (left > 0)
+                LOG.warning("places beyond carriage limit are sold without seats", "trainId", trainId,
+                        "type", type, "places", left);
+        }
+
+        LOG.info("carriages laid out", "trainId", trainId, "carriages", result.size());
+        return result;
+    }
+
+    /**
+     * Seats in one carriage: open berth, compartment (4 per compartment), deluxe (2 per compartment)
+     */
+    static int capacityOf(TypePlace type) {
+        switch (type) {
+            case C:
+                return 36;
+            case L:
+                return 18;
+            default:
+                return 54;
+        }
+    }
+
+    private static SeatInventory inventoryOf(int seats, int segments, byte[] packed) {
+        if (segments == 1)
+            return SeatMap.fromBytes(seats, packed);
+        return SegmentSeatMap.fromBytes(seats, segments, packed);
+    }
+
+    /**
+     * Writes the current seat map, one writer per carriage so an older map never overwrites a newer one
+     */
+    private void store(CarriageSeats carriage) {
+        synchronized (carriage) {
+            carriage.entity.setSeatMap(carriage.seats.toBytes());
+            factory.createCarriageDAO().updateSeatMap(carriage.entity);
+        }
+    }
+
+    private static Map<TypePlace, Long> placesOf(Train train) {
+        Map<TypePlace, Long> result = new EnumMap<>(TypePlace.class);
+        result.put(TypePlace.B, valueOf(train.getBerthFree()));
+        result.put(TypePlace.C, valueOf(train.getCompartmentFree()));
+        result.put(TypePlace.L, valueOf(train.getDeluxeFree()));
+        return result;
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Drops loaded seat maps, they are read again from the new factory
+     */
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
+        trains.clear();
+    }
+
+    private static final class TrainSeats {
+        private final int segments;
+        private final List<CarriageSeats> carriages;
+        private final Map<TypePlace, AtomicLong> unseated;
+
+        private TrainSeats(int segments, List<CarriageSeats> carriages, Map<TypePlace, AtomicLong> unseated) {
+            this.segments = segments;
+            this.carriages = carriages;
+            this.unseated = unseated;
+            for (TypePlace type : TypePlace.values()) {
+                unseated.putIfAbsent(type, new AtomicLong());
+            }
+        }
+
+        private long maskOf(Journey journey) {
+            if (journey.isWholeRoute())
+                return SegmentSeatMap.all(segments);
+            if (journey.getToStop() > segments)
+                throw new IllegalArgumentException("Journey " + journey + " of " + segments + " segments");
+            return SegmentSeatMap.journey(journey.getFromStop(), journey.getToStop());
+        }
+
+        private CarriageSeats findCarriage(int number) {
+            for (CarriageSeats carriage : carriages) {
+                if (carriage.number == number)
+                    return carriage;
+            }
+            return null;
+        }
+    }
+
+    private static final class CarriageSeats {
+        private final Carriage entity;
+        private final int number;
+        private final TypePlace type;
+        private final SeatInventory seats;
+
+        private CarriageSeats(Carriage entity, SeatInventory seats) {
+            this.entity = entity;
+            this.number = entity.getNumber();
+            this.type = entity.getType();
+            this.seats = seats;
+        }
+    }
+}
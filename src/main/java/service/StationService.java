@@ -3,23 +3,32 @@ package service;
 import dao.AbstractDAOFactory;
 import dao.DAOFactory;
 import dao.DataBase;
+import log.Log;
 import model.entity.Route;
+import model.entity.RouteStop;
 import model.entity.Station;
+import service.search.StationTrie;
 import util.Configuration;
+import util.DataVersion;
 
-import java.util.logging.Logger;
+import java.util.List;
 
 import static util.Configuration.PROFILE_DATABASE;
+import static util.Configuration.STATION_SUGGEST_SIZE;
 
 public class StationService {
-    private static final Logger LOG = Logger.getLogger(StationService.class.getName());
+    private static final Log LOG = Log.getLog(StationService.class);
     private static StationService INSTANCE;
 
+    private final int suggestSize;
+
     private DAOFactory factory;
+    private volatile StationTrie trie;
 
     private StationService() {
         DataBase dataBase = DataBase.fromValue(Configuration.getInstance().getConfig(PROFILE_DATABASE));
         factory = AbstractDAOFactory.createDAOFactory(dataBase);
+        suggestSize = Integer.parseInt(Configuration.getInstance().getConfig(STATION_SUGGEST_SIZE));
     }
 
     public static StationService getInstance() {
@@ -34,6 +43,48 @@ public class StationService {
         return INSTANCE;
     }
 
+    /**
+     * Autocomplete: STATIONS with a word of the name starting with {prefix}, most departures first
+     */
+    public List<Station> findStationsByPrefix(String prefix, int limit) {
+        List<Station> result = current().find(prefix, Math.min(limit, suggestSize));
+
+        if (LOG.isFineEnabled())
+            LOG.fine("find stations by prefix", "prefix", prefix, "stations", result.size());
+        return result;
+    }
+
+    /**
+     * @return NULL for an unknown ID, a STATION created after the last rebuild is read from the DB
+     */
+    public Station findStationById(String id) {
+        if (id == null)
+            return null;
+
+        Station result = current().findById(id);
+        return result != null ? result : factory.createStationDAO().findById(id);
+    }
+
+    /**
+     * Reads all STATIONS again and ranks them by the departures of the search index,
+     * to be called after STATIONS change
+     */
+    public synchronized StationTrie rebuild() {
+        long start = System.nanoTime();
+        StationTrie result = new StationTrie(factory.createStationDAO().findAll(),
+                SearchService.getInstance().countDepartures(), suggestSize);
+        trie = result;
+        DataVersion.bump();
+        LOG.info("station trie built", "stations", result.getStationCount(),
+                "micros", (System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    private StationTrie current() {
+        StationTrie result = trie;
+        return result == null ? rebuild() : result;
+    }
+
     Station findFromStation(Route route) {
         return factory.createStationDAO().findById(route.getFromId());
     }
@@ -41,4 +92,16 @@ public class StationService {
     Station findToStation(Route route) {
         return factory.createStationDAO().findById(route.getToId());
     }
+
+    Station findStationOf(RouteStop stop) {
+        return factory.createStationDAO().findById(stop.getStationId());
+    }
+
+    /**
+     * Drops the trie, it is built again from the new factory
+     */
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
+        trie = null;
+    }
 }
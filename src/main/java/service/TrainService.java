@@ -3,24 +3,25 @@ package service;
 import dao.AbstractDAOFactory;
 import dao.DAOFactory;
 import dao.DataBase;
+import dao.mysql.TypePlace;
 import dto.TrainRoute;
+import log.Log;
 import model.entity.Route;
-import model.entity.Station;
 import model.entity.Train;
+import service.search.SearchEntry;
+import service.seat.Journey;
 import util.Configuration;
+import util.DateTimes;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-import java.util.logging.Logger;
 
 import static util.Configuration.PROFILE_DATABASE;
 
 public class TrainService {
-    private static final Logger LOG = Logger.getLogger(TrainService.class.getName());
+    private static final Log LOG = Log.getLog(TrainService.class);
     private static TrainService INSTANCE;
 
     private DAOFactory factory;
@@ -53,109 +54,109 @@ public class TrainService {
             result.addAll(factory.createTrainDAO().findByRoute(route.getId()));
         }
 
-        LOG.info("Find Trains by Routes");
+        LOG.fine("find trains by routes", "routes", routes.size());
         return result;
     }
 
 
+    /**
+     * TRAINS over the whole ROUTE and over its part between intermediate stops, read from the search index.
+     * A TRAIN with stops reports its seats free on every segment of the journey, its place counters are not used
+     */
     public List<TrainRoute> findTrainsAndRoutes(String fromId, String toId, Date fromDate) {
-        Station from = factory.createStationDAO().findById(fromId);
-        Station to = factory.createStationDAO().findById(toId);
-
-        List<Route> routes = RouteService.getInstance().findRouteByStations(from, to);
-        routes = RouteService.getInstance().findRoutesFromTime(routes, fromDate);
-        List<Train> trains = TrainService.getInstance().findTrainsForRoutes(routes);
-
         List<TrainRoute> trainRoutes = new ArrayList<>();
-        for (Train train : trains) {
-            Route route = RouteService.getInstance().findRouteByTrain(train);
+        for (SearchEntry journey : SearchService.getInstance().findJourneys(fromId, toId, fromDate)) {
+            if (journey.getTrains().isEmpty())
+                continue;
 
-            TrainRoute trainRoute = new TrainRoute();
-            trainRoute.setRouteId(route.getId());
-            trainRoute.setTrainId(train.getId());
+            Route route = journey.getRoute();
+            Double berthPrice = RouteService.getInstance().findBerthPrice(route, journey.getDistance());
+            Double compartmentPrice = RouteService.getInstance().findCompartmentPrice(route, journey.getDistance());
+            Double deluxePrice = RouteService.getInstance().findDeluxePrice(route, journey.getDistance());
 
-            trainRoute.setFromCity(StationService.getInstance().findFromStation(route).getName());
-            trainRoute.setToCity(StationService.getInstance().findToStation(route).getName());
+            for (Train train : journey.getTrains()) {
+                TrainRoute trainRoute = new TrainRoute();
+                trainRoute.setRouteId(route.getId());
+                trainRoute.setTrainId(train.getId());
 
-            trainRoute.setFromDate(formatDate(route.getFromTime()));
-            trainRoute.setToDate(formatDate(route.getToTime()));
+                trainRoute.setFromCity(journey.getFrom().getName());
+                trainRoute.setToCity(journey.getTo().getName());
+                trainRoute.setFromStop(journey.getJourney().getFromStop());
+                trainRoute.setToStop(journey.getJourney().getToStop());
 
-            trainRoute.setDistance(route.getDistance());
+                trainRoute.setFromDate(journey.getFromDate());
+                trainRoute.setToDate(journey.getToDate());
 
-            trainRoute.setBerthFree(train.getBerthFree());
-            trainRoute.setCompartmentFree(train.getCompartmentFree());
-            trainRoute.setDeluxeFree(train.getDeluxeFree());
+                trainRoute.setDistance(journey.getDistance());
+                setFree(trainRoute, train, journey.getJourney(), journey.hasStops());
 
-            trainRoute.setBerthPrice(RouteService.getInstance().findBerthPrice(route));
-            trainRoute.setCompartmentPrice(RouteService.getInstance().findCompartmentPrice(route));
-            trainRoute.setDeluxePrice(RouteService.getInstance().findDeluxePrice(route));
+                trainRoute.setBerthPrice(berthPrice);
+                trainRoute.setCompartmentPrice(compartmentPrice);
+                trainRoute.setDeluxePrice(deluxePrice);
 
-            if ((trainRoute.getBerthFree() + trainRoute.getCompartmentFree() + trainRoute.getDeluxeFree()) != 0) {
-                trainRoutes.add(trainRoute);
+                if ((trainRoute.getBerthFree() + trainRoute.getCompartmentFree() + trainRoute.getDeluxeFree()) != 0) {
+                    trainRoutes.add(trainRoute);
+                }
             }
         }
 
-        LOG.info(String.format("Find Trains FROM ID=%s -- TO ID=%s, FROM DATE=%s", fromId, toId, fromDate));
+        LOG.fine("find trains", "fromId", fromId, "toId", toId, "fromDate", fromDate);
         return trainRoutes;
     }
 
-    String formatDate(String date) {
-        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
-        Date result = null;
-        try {
-            result = format.parse(date);
-        } catch (ParseException e) {
-            e.printStackTrace();
+    /**
+     * Held places are reported apart from the free ones. The seat maps do not count them as free,
+     * the place counters of the inventory do, so they are subtracted there
+     */
+    private static void setFree(TrainRoute trainRoute, Train train, Journey journey, boolean stops) {
+        HoldService holds = HoldService.getInstance();
+        trainRoute.setBerthHeld(holds.countHeld(train.getId(), TypePlace.B));
+        trainRoute.setCompartmentHeld(holds.countHeld(train.getId(), TypePlace.C));
+        trainRoute.setDeluxeHeld(holds.countHeld(train.getId(), TypePlace.L));
+
+        if (!journey.isWholeRoute() || stops) {
+            SeatService seats = SeatService.getInstance();
+            trainRoute.setBerthFree((long) seats.countFree(train.getId(), TypePlace.B, journey));
+            trainRoute.setCompartmentFree((long) seats.countFree(train.getId(), TypePlace.C, journey));
+            trainRoute.setDeluxeFree((long) seats.countFree(train.getId(), TypePlace.L, journey));
+            return;
         }
 
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(result);
-
-        int year = calendar.get(Calendar.YEAR);
-        int month = calendar.get(Calendar.MONTH) + 1;
-        int day = calendar.get(Calendar.DAY_OF_MONTH);
-
-        int hour = calendar.get(Calendar.HOUR_OF_DAY);
-        int minutes = calendar.get(Calendar.MINUTE);
-
-        String resultDate = String.format("%02d.%02d.%04d\n%02d:%02d",
-                day, month, year, hour, minutes);
-
-        LOG.info("Format date - " + resultDate);
-        return resultDate;
-
-    }
-
-    Train reserveCompartmentPlace(Train train) {
-        train.setCompartmentFree(train.getCompartmentFree() - 1);
-        return factory.createTrainDAO().update(train);
+        InventoryService inventory = InventoryService.getInstance();
+        trainRoute.setBerthFree(Math.max(0, inventory.countFree(train, TypePlace.B) - trainRoute.getBerthHeld()));
+        trainRoute.setCompartmentFree(Math.max(0,
+                inventory.countFree(train, TypePlace.C) - trainRoute.getCompartmentHeld()));
+        trainRoute.setDeluxeFree(Math.max(0, inventory.countFree(train, TypePlace.L) - trainRoute.getDeluxeHeld()));
     }
 
+    String formatDate(LocalDateTime date) {
+        String resultDate = DateTimes.display(date);
 
-    Train reserveBerthPlace(Train train) {
-        train.setBerthFree(train.getBerthFree() - 1);
-        return factory.createTrainDAO().update(train);
+        LOG.fine("format date", "date", resultDate);
+        return resultDate;
     }
 
-
-    Train reserveDeluxePlace(Train train) {
-        train.setDeluxeFree(train.getDeluxeFree() - 1);
-        return factory.createTrainDAO().update(train);
+    /**
+     * Takes one free place of given type
+     *
+     * @return FALSE if there are no free places left
+     */
+    boolean reservePlace(String trainId, TypePlace type) {
+        return InventoryService.getInstance().reserve(trainId, type, 1);
     }
 
-    Train cancelBerthPlace(Train train) {
-        train.setBerthFree(train.getBerthFree() + 1);
-        return factory.createTrainDAO().update(train);
+    void cancelPlace(String trainId, TypePlace type) {
+        cancelPlace(trainId, type, 1);
     }
 
-    Train cancelCompartmentPlace(Train train) {
-        train.setCompartmentFree(train.getCompartmentFree() + 1);
-        return factory.createTrainDAO().update(train);
+    /**
+     * Frees {count} places of given type in one update
+     */
+    void cancelPlace(String trainId, TypePlace type, long count) {
+        InventoryService.getInstance().cancel(trainId, type, count);
     }
 
-    Train cancelDeluxePlace(Train train) {
-        train.setDeluxeFree(train.getDeluxeFree() + 1);
-        return factory.createTrainDAO().update(train);
+    public void setFactory(DAOFactory factory) {
+        this.factory = factory;
     }
-
 }
@@ -0,0 +1,285 @@
+package service;
+
+import dao.mysql.TypePlace;
+import dto.Ticket;
+import exception.InvalidDataBaseOperation;
+import log.Log;
+import util.Configuration;
+import util.Identifiers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static util.Configuration.WAITLIST_SIZE;
+
+/**
+ * FIFO waitlists of sold-out TRAINS, one per TRAIN and type of place.
+ * A cancellation wakes a single allocator thread that books the freed places for the oldest waiting
+ * tickets, so passengers do not have to search again and again to catch a cancellation.
+ * A ticket that got a place leaves the list with its REQUEST id set, its USER finds it among the allocated
+ * tickets next time. A USER may withdraw a waiting ticket; a ticket whose TRAIN has departed is dropped.
+ * On a TRAIN with intermediate stops a place is freed for one journey only, there the list is scanned
+ * for the oldest ticket whose journey fits, otherwise the head of the list is the only candidate.
+ * Whoever clears the waitlist id of a ticket (allocator, withdrawal or drop) takes it off the list.
+ */
+public class WaitlistService {
+    private static final Log LOG = Log.getLog(WaitlistService.class);
+    private static WaitlistService INSTANCE;
+
+    private static final String THREAD_NAME = "waitlist-allocator";
+
+    private final int maxSize;
+    private final Map<Key, Deque<Ticket>> waitlists = new ConcurrentHashMap<>();
+    private final ExecutorService allocator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Tickets booked by the allocator that their USERS have not seen yet, the oldest go first past maxSize
+     */
+    private final Deque<Ticket> allocated = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger allocatedCount = new AtomicInteger();
+
+    private WaitlistService() {
+        maxSize = Integer.parseInt(Configuration.getInstance().getConfig(WAITLIST_SIZE));
+    }
+
+    public static WaitlistService getInstance() {
+        if (INSTANCE == null) {
+            synchronized (WaitlistService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new WaitlistService();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * Puts tickets at the end of the waitlists of their TRAINS,
+     * all waitlists together hold at most config.waitlist.size tickets; a full waitlist drops the tickets
+     * of departed TRAINS first
+     *
+     * @return tickets that are waiting now
+     */
+    public List<Ticket> join(List<Ticket> tickets) {
+        List<Ticket> result = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            Key key = Key.of(ticket);
+            if (departed(ticket)) {
+                LOG.info("waitlist of departed train", "trainId", key.trainId, "userId", ticket.getUserId());
+                continue;
+            }
+
+            if (waiting.get() >= maxSize)
+                dropDeparted();
+            Deque<Ticket> waitlist = waitlists.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+            if (waiting.incrementAndGet() > maxSize) {
+                waiting.decrementAndGet();
+                LOG.warning("waitlist full", "trainId", key.trainId, "type", key.type);
+                continue;
+            }
+
+            ticket.setWaitlistId(Identifiers.next());
+            waitlist.addLast(ticket);
+            result.add(ticket);
+            LOG.info("join waitlist", "trainId", key.trainId, "type", key.type, "userId", ticket.getUserId());
+            // a place may have been freed between the failed booking and now
+            allocator.execute(() -> allocate(key));
+        }
+        return result;
+    }
+
+    /**
+     * Called after places of a TRAIN are freed, the waiting tickets are booked asynchronously
+     */
+    void placesFreed(String trainId, TypePlace type) {
+        Key key = new Key(trainId, type);
+        if (waitlists.containsKey(key))
+            allocator.execute(() -> allocate(key));
+    }
+
+    /**
+     * @return number of tickets still waiting for a place on given TRAIN
+     */
+    public int countWaiting(String trainId, TypePlace type) {
+        Deque<Ticket> waitlist = waitlists.get(new Key(trainId, type));
+        return waitlist == null ? 0 : waitlist.size();
+    }
+
+    /**
+     * @return tickets of the USER still waiting, oldest first per TRAIN
+     */
+    public List<Ticket> findWaiting(String userId) {
+        List<Ticket> result = new ArrayList<>();
+        for (Deque<Ticket> waitlist : waitlists.values()) {
+            for (Ticket ticket : waitlist) {
+                if (userId.equals(ticket.getUserId()) && ticket.getWaitlistId() != null)
+                    result.add(ticket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Takes the ticket of the USER off its waitlist
+     *
+     * @return FALSE if the USER has no such ticket waiting, it may have been booked meanwhile
+     */
+    public boolean withdraw(String userId, String waitlistId) {
+        for (Deque<Ticket> waitlist : waitlists.values()) {
+            for (Ticket ticket : waitlist) {
+                if (!userId.equals(ticket.getUserId()) || !Objects.equals(waitlistId, ticket.getWaitlistId()))
+                    continue;
+
+                synchronized (ticket) {
+                    if (ticket.getWaitlistId() == null)
+                        return false;
+                    leave(waitlist, ticket);
+                }
+                LOG.info("waitlist withdrawn", "trainId", ticket.getTrainId(), "userId", userId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tickets of the USER the allocator booked since the last call, each is handed out once
+     */
+    public List<Ticket> takeAllocated(String userId) {
+        List<Ticket> result = new ArrayList<>();
+        Iterator<Ticket> iterator = allocated.iterator();
+        while (iterator.hasNext()) {
+            Ticket ticket = iterator.next();
+            if (userId.equals(ticket.getUserId()) && allocated.removeFirstOccurrence(ticket)) {
+                allocatedCount.decrementAndGet();
+                result.add(ticket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Books the oldest tickets of the waitlist while places are left, runs on the allocator thread only.
+     * Tickets of a departed TRAIN are dropped on the way
+     */
+    private void allocate(Key key) {
+        Deque<Ticket> waitlist = waitlists.get(key);
+        if (waitlist == null)
+            return;
+
+        boolean stops = SeatService.getInstance().hasStops(key.trainId);
+        for (Ticket ticket : waitlist) {
+            synchronized (ticket) {
+                if (ticket.getWaitlistId() == null)
+                    continue;
+                if (departed(ticket)) {
+                    leave(waitlist, ticket);
+                    LOG.info("waitlist dropped, train departed", "trainId", key.trainId, "userId", ticket.getUserId());
+                    continue;
+                }
+
+                try {
+                    RequestService.getInstance().reserveTickets(Collections.singletonList(ticket));
+                } catch (InvalidDataBaseOperation e) {
+                    if (stops)
+                        continue;
+                    return;
+                }
+                leave(waitlist, ticket);
+            }
+
+            announce(ticket);
+            LOG.info("waitlist allocated", "trainId", key.trainId, "type", key.type,
+                    "userId", ticket.getUserId(), "requestId", ticket.getRequestId());
+        }
+    }
+
+    /**
+     * Frees the places tickets of departed TRAINS take in the waitlists
+     */
+    private void dropDeparted() {
+        int dropped = 0;
+        for (Deque<Ticket> waitlist : waitlists.values()) {
+            for (Ticket ticket : waitlist) {
+                synchronized (ticket) {
+                    if (ticket.getWaitlistId() != null && departed(ticket)) {
+                        leave(waitlist, ticket);
+                        dropped++;
+                    }
+                }
+            }
+        }
+        LOG.info("waitlists swept", "dropped", dropped, "waiting", waiting.get());
+    }
+
+    /**
+     * Caller holds the lock of the ticket and saw it waiting
+     */
+    private void leave(Deque<Ticket> waitlist, Ticket ticket) {
+        ticket.setWaitlistId(null);
+        waitlist.removeIf(other -> other == ticket);
+        waiting.decrementAndGet();
+    }
+
+    private void announce(Ticket ticket) {
+        allocated.addLast(ticket);
+        if (allocatedCount.incrementAndGet() > maxSize && allocated.pollFirst() != null)
+            allocatedCount.decrementAndGet();
+    }
+
+    /**
+     * An unknown TRAIN has departed too, it is not going to free places
+     */
+    private static boolean departed(Ticket ticket) {
+        LocalDateTime departure = RouteService.getInstance().findDeparture(ticket.getTrainId(), ticket.getFromStop());
+        return departure == null || !departure.isAfter(LocalDateTime.now());
+    }
+
+    private static final class Key {
+        private final String trainId;
+        private final TypePlace type;
+
+        private Key(String trainId, TypePlace type) {
+            this.trainId = trainId;
+            this.type = type;
+        }
+
+        private static Key of(Ticket ticket) {
+            return new Key(ticket.getTrainId(), TypePlace.valueOf(ticket.getTypePlace()));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+
+            Key other = (Key) o;
+            return trainId.equals(other.trainId) && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(trainId, type);
+        }
+    }
+}
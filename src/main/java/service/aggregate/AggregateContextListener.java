@@ -0,0 +1,25 @@
+package service.aggregate;
+
+import service.AggregateService;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Reads or counts the aggregates before the first request and writes them on shutdown,
+ * so a clean restart does not count the REQUESTS again
+ */
+@WebListener
+public class AggregateContextListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent servletContextEvent) {
+        AggregateService.getInstance().open();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent servletContextEvent) {
+        AggregateService.getInstance().close();
+    }
+}
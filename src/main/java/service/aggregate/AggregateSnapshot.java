@@ -0,0 +1,86 @@
+package service.aggregate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The aggregates in one file, written to a temporary file, synced and moved in place like the inventory
+ * snapshots, so a crash leaves the previous file intact. A damaged file reads as missing.
+ * The file written on shutdown gets a clean marker next to it; a file without one was written before a crash
+ * and misses the changes after it, so it reads as missing too. The marker is deleted when the file is read
+ */
+public final class AggregateSnapshot {
+    private static final String FILE_NAME = "aggregates.bin";
+    private static final String CLEAN_NAME = "aggregates.clean";
+    private static final int MAGIC = 0x52414747;
+
+    private AggregateSnapshot() {
+    }
+
+    /**
+     * @param clean TRUE on shutdown, when no change can follow the file
+     */
+    public static void write(Path dir, Aggregates aggregates, boolean clean) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            aggregates.writeTo(out);
+        }
+
+        byte[] body = bytes.toByteArray();
+        ByteBuffer content = ByteBuffer.allocate(body.length + Long.BYTES).put(body).putLong(crc(body, body.length));
+        content.flip();
+
+        Files.createDirectories(dir);
+        Path file = dir.resolve(FILE_NAME);
+        Path temporary = dir.resolve(FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (clean)
+            FileChannel.open(dir.resolve(CLEAN_NAME), CREATE, WRITE).close();
+    }
+
+    /**
+     * @return NULL if there is no readable file or it was not written on shutdown
+     */
+    public static Aggregates read(Path dir) throws IOException {
+        Path file = dir.resolve(FILE_NAME);
+        if (!Files.deleteIfExists(dir.resolve(CLEAN_NAME)) || !Files.isRegularFile(file))
+            return null;
+
+        byte[] content = Files.readAllBytes(file);
+        int length = content.length - Long.BYTES;
+        if (length < Integer.BYTES || ByteBuffer.wrap(content, length, Long.BYTES).getLong() != crc(content, length))
+            return null;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content, 0, length))) {
+            if (in.readInt() != MAGIC)
+                return null;
+            return Aggregates.readFrom(in);
+        }
+    }
+
+    private static long crc(byte[] content, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,135 @@
+package service.aggregate;
+
+import dao.mysql.TypePlace;
+import model.entity.Route;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Occupancy of every TRAIN and revenue of every ROUTE by departure day, changed one booking at a time.
+ * Every read is a hash lookup; counters are updated without locks, so a copy taken while bookings go on
+ * may be off by the bookings in flight
+ */
+public final class Aggregates {
+    private final Map<String, TrainCounters> trains = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Map<String, RouteDay>> days = new ConcurrentHashMap<>();
+
+    /**
+     * @return counters of the TRAIN, NULL if it was never booked
+     */
+    public TrainCounters findTrain(String trainId) {
+        return trainId == null ? null : trains.get(trainId);
+    }
+
+    /**
+     * @return counters of the TRAIN, created for the ROUTE it runs on if it was never booked
+     */
+    public TrainCounters open(String trainId, Route route) {
+        return trains.computeIfAbsent(trainId, id -> {
+            TrainCounters result = new TrainCounters(id, routeDay(route.getId(), route.getFromId(), route.getToId(),
+                    route.getFromTime()));
+            result.getRouteDay().addTrain(id);
+            return result;
+        });
+    }
+
+    /**
+     * @param count          places booked, negative for cancelled ones
+     * @param revenueKopecks price paid, negative for cancelled places
+     */
+    public void add(TrainCounters train, TypePlace type, long count, long revenueKopecks) {
+        train.add(type, count);
+        train.getRouteDay().add(count, revenueKopecks);
+    }
+
+    /**
+     * @return ROUTES departing on the day that were booked at least once, earliest first
+     */
+    public List<RouteDay> findDay(LocalDate day) {
+        Map<String, RouteDay> routes = days.get(day);
+        if (routes == null)
+            return Collections.emptyList();
+
+        List<RouteDay> result = new ArrayList<>(routes.values());
+        result.sort((a, b) -> a.getDeparture().compareTo(b.getDeparture()));
+        return result;
+    }
+
+    public int size() {
+        return trains.size();
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        List<RouteDay> routes = new ArrayList<>();
+        days.values().forEach(day -> routes.addAll(day.values()));
+        out.writeInt(routes.size());
+        for (RouteDay route : routes) {
+            out.writeUTF(route.getRouteId());
+            out.writeUTF(route.getFromId());
+            out.writeUTF(route.getToId());
+            out.writeLong(route.getDeparture().toEpochSecond(ZoneOffset.UTC));
+            out.writeLong(route.getTickets());
+            out.writeLong(route.getRevenueKopecks());
+        }
+
+        List<TrainCounters> counters = new ArrayList<>(trains.values());
+        out.writeInt(counters.size());
+        for (TrainCounters train : counters) {
+            out.writeUTF(train.getTrainId());
+            out.writeUTF(train.getRouteDay().getRouteId());
+            out.writeLong(train.getRouteDay().getDeparture().toLocalDate().toEpochDay());
+            out.writeByte(TypePlace.values().length);
+            for (TypePlace type : TypePlace.values()) {
+                out.writeLong(train.getBooked(type));
+            }
+        }
+    }
+
+    public static Aggregates readFrom(DataInput in) throws IOException {
+        Aggregates result = new Aggregates();
+        int routeCount = in.readInt();
+        for (int i = 0; i < routeCount; i++) {
+            RouteDay route = result.routeDay(in.readUTF(), in.readUTF(), in.readUTF(),
+                    LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC));
+            route.add(in.readLong(), in.readLong());
+        }
+
+        int trainCount = in.readInt();
+        for (int i = 0; i < trainCount; i++) {
+            String trainId = in.readUTF();
+            String routeId = in.readUTF();
+            Map<String, RouteDay> day = result.days.get(LocalDate.ofEpochDay(in.readLong()));
+            RouteDay route = day == null ? null : day.get(routeId);
+            long[] booked = new long[in.readByte()];
+            for (int type = 0; type < booked.length; type++) {
+                booked[type] = in.readLong();
+            }
+            if (route == null)
+                throw new IOException("aggregates of train " + trainId + " point to no route");
+
+            TrainCounters train = new TrainCounters(trainId, route);
+            for (TypePlace type : TypePlace.values()) {
+                if (type.ordinal() < booked.length)
+                    train.add(type, booked[type.ordinal()]);
+            }
+            route.addTrain(trainId);
+            result.trains.put(trainId, train);
+        }
+        return result;
+    }
+
+    private RouteDay routeDay(String routeId, String fromId, String toId, LocalDateTime departure) {
+        return days.computeIfAbsent(departure.toLocalDate(), day -> new ConcurrentHashMap<>())
+                .computeIfAbsent(routeId, id -> new RouteDay(id, fromId, toId, departure));
+    }
+}
@@ -0,0 +1,73 @@
+package service.aggregate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tickets and revenue of one ROUTE, kept under the day it departs. Revenue is counted in kopecks,
+ * so adding and taking back a price leaves no rounding error
+ */
+public final class RouteDay {
+    private final String routeId;
+    private final String fromId;
+    private final String toId;
+    private final LocalDateTime departure;
+
+    private final LongAdder tickets = new LongAdder();
+    private final LongAdder kopecks = new LongAdder();
+    private final Set<String> trainIds = ConcurrentHashMap.newKeySet();
+
+    RouteDay(String routeId, String fromId, String toId, LocalDateTime departure) {
+        this.routeId = routeId;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.departure = departure;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public String getFromId() {
+        return fromId;
+    }
+
+    public String getToId() {
+        return toId;
+    }
+
+    public LocalDateTime getDeparture() {
+        return departure;
+    }
+
+    public long getTickets() {
+        return tickets.sum();
+    }
+
+    public long getRevenueKopecks() {
+        return kopecks.sum();
+    }
+
+    public double getRevenue() {
+        return kopecks.sum() / 100.0;
+    }
+
+    /**
+     * @return TRAINS of the ROUTE booked at least once
+     */
+    public Set<String> getTrainIds() {
+        return Collections.unmodifiableSet(trainIds);
+    }
+
+    void add(long count, long revenueKopecks) {
+        tickets.add(count);
+        kopecks.add(revenueKopecks);
+    }
+
+    void addTrain(String trainId) {
+        trainIds.add(trainId);
+    }
+}
@@ -0,0 +1,35 @@
+package service.aggregate;
+
+import dao.mysql.TypePlace;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Booked places of one TRAIN by type of place
+ */
+public final class TrainCounters {
+    private final String trainId;
+    private final RouteDay routeDay;
+    private final AtomicLongArray booked = new AtomicLongArray(TypePlace.values().length);
+
+    TrainCounters(String trainId, RouteDay routeDay) {
+        this.trainId = trainId;
+        this.routeDay = routeDay;
+    }
+
+    public String getTrainId() {
+        return trainId;
+    }
+
+    public RouteDay getRouteDay() {
+        return routeDay;
+    }
+
+    public long getBooked(TypePlace type) {
+        return booked.get(type.ordinal());
+    }
+
+    void add(TypePlace type, long count) {
+        booked.addAndGet(type.ordinal(), count);
+    }
+}
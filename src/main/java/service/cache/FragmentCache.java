@@ -0,0 +1,144 @@
+package service.cache;
+
+import util.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static util.Configuration.FRAGMENT_CACHE_SIZE;
+import static util.Configuration.FRAGMENT_CACHE_TTL;
+
+/**
+ * Bounded LRU cache of rendered page fragments by key.
+ * Callers put the locale and the data version into the key, so a stale fragment is never found
+ * and just ages out of the cache
+ */
+public class FragmentCache {
+    private static FragmentCache INSTANCE;
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private FragmentCache() {
+        this(Integer.parseInt(Configuration.getInstance().getConfig(FRAGMENT_CACHE_SIZE)),
+                Long.parseLong(Configuration.getInstance().getConfig(FRAGMENT_CACHE_TTL)),
+                TimeUnit.SECONDS);
+    }
+
+    FragmentCache(int maxSize, long ttl, TimeUnit unit) {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > FragmentCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static FragmentCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (FragmentCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new FragmentCache();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * @return rendered fragment, NULL if it is not cached or expired
+     */
+    public String find(String key) {
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null && entry.expiresAt - now > 0) {
+            hits.incrementAndGet();
+            return entry.fragment;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the fragment for the configured time
+     */
+    public void put(String key, String fragment) {
+        put(key, fragment, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param ttl time to keep the fragment for, nothing is stored if it is not positive
+     */
+    public void put(String key, String fragment, long ttl, TimeUnit unit) {
+        if (key == null || fragment == null || ttl <= 0)
+            return;
+
+        Entry entry = new Entry(fragment, System.nanoTime() + unit.toNanos(ttl));
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return share of renders answered from cache, 0 if no renders yet
+     */
+    public double getHitRatio() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    private static final class Entry {
+        private final String fragment;
+        private final long expiresAt;
+
+        private Entry(String fragment, long expiresAt) {
+            this.fragment = fragment;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package service.cache;
+
+import dto.Ticket;
+import exception.InvalidDataBaseOperation;
+import util.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static util.Configuration.BOOKING_CACHE_SIZE;
+import static util.Configuration.BOOKING_CACHE_TTL;
+
+/**
+ * Bounded cache of booking outcomes by idempotency key.
+ * The first submission of a key books, a retry of it (double click, browser resubmit, proxy retry)
+ * gets the outcome of the first one without touching the inventory, a retry that arrives while the first
+ * submission is still booking waits for it. A failed booking is remembered too and fails again the same way.
+ * Keys expire after config.cache.booking.ttl seconds, the oldest keys are dropped first when the cache is full.
+ */
+public class IdempotencyCache {
+    private static IdempotencyCache INSTANCE;
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private IdempotencyCache() {
+        this(Integer.parseInt(Configuration.getInstance().getConfig(BOOKING_CACHE_SIZE)),
+                Long.parseLong(Configuration.getInstance().getConfig(BOOKING_CACHE_TTL)),
+                TimeUnit.SECONDS);
+    }
+
+    IdempotencyCache(int maxSize, long ttl, TimeUnit unit) {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > IdempotencyCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static IdempotencyCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (IdempotencyCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new IdempotencyCache();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * @param key     idempotency key of the submission, NULL books every time
+     * @param booking called for the first submission of the key only
+     * @return tickets booked by the first submission of the key
+     * @throws InvalidDataBaseOperation the failure of the first submission of the key
+     */
+    public List<Ticket> book(String key, Booking booking) throws InvalidDataBaseOperation {
+        if (key == null)
+            return booking.book();
+
+        long now = System.nanoTime();
+        CompletableFuture<List<Ticket>> result = new CompletableFuture<>();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || entry.expiresAt - now <= 0) {
+                entries.remove(key);
+                entries.put(key, new Entry(result, now + ttlNanos));
+                entry = null;
+            }
+        }
+
+        if (entry != null) {
+            replays.incrementAndGet();
+            return await(entry.result);
+        }
+
+        try {
+            List<Ticket> tickets = booking.book();
+            result.complete(tickets);
+            return tickets;
+        } catch (InvalidDataBaseOperation e) {
+            result.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // nothing known about the outcome, the next submission of the key books again
+            synchronized (entries) {
+                Entry stored = entries.get(key);
+                if (stored != null && stored.result == result)
+                    entries.remove(key);
+            }
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return submissions answered with the outcome of an earlier one
+     */
+    public long getReplayCount() {
+        return replays.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static List<Ticket> await(CompletableFuture<List<Ticket>> result) throws InvalidDataBaseOperation {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidDataBaseOperation();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvalidDataBaseOperation)
+                throw (InvalidDataBaseOperation) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Booking guarded by the cache
+     */
+    @FunctionalInterface
+    public interface Booking {
+        List<Ticket> book() throws InvalidDataBaseOperation;
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<List<Ticket>> result;
+        private final long expiresAt;
+
+        private Entry(CompletableFuture<List<Ticket>> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package service.cache;
+
+import model.entity.User;
+import util.Configuration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static util.Configuration.USER_CACHE_NEGATIVE_TTL;
+import static util.Configuration.USER_CACHE_SIZE;
+import static util.Configuration.USER_CACHE_TTL;
+
+/**
+ * Bounded LRU cache of USERS by e-mail.
+ * Unknown e-mails are remembered too (negative entries) but for a much shorter time,
+ * so repeated registration checks and login bursts do not reach the DB.
+ * Cached USERS are copied on the way in and out, callers may change them freely.
+ */
+public class UserCache {
+    private static UserCache INSTANCE;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Bumped on every invalidation, a load that raced with one is not stored
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private UserCache() {
+        this(Integer.parseInt(Configuration.getInstance().getConfig(USER_CACHE_SIZE)),
+                Long.parseLong(Configuration.getInstance().getConfig(USER_CACHE_TTL)),
+                Long.parseLong(Configuration.getInstance().getConfig(USER_CACHE_NEGATIVE_TTL)),
+                TimeUnit.SECONDS);
+    }
+
+    UserCache(int maxSize, long ttl, long negativeTtl, TimeUnit unit) {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.negativeTtlNanos = unit.toNanos(negativeTtl);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > UserCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static UserCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (UserCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new UserCache();
+                }
+            }
+        }
+
+        return INSTANCE;
+    }
+
+    /**
+     * @param email  key to search
+     * @param loader called on miss, may return NULL for unknown e-mail
+     * @return copy of cached or loaded USER, NULL if there is no USER with such e-mail
+     */
+    public User find(String email, Function<String, User> loader) {
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(email);
+        }
+
+        if (entry != null && entry.expiresAt - now > 0) {
+            if (entry.user == null) {
+                negativeHits.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return copy(entry.user);
+        }
+
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        User user = loader.apply(email);
+        put(email, user, now, loadGeneration);
+        return copy(user);
+    }
+
+    /**
+     * Forget everything known about given e-mail (both positive and negative entry)
+     */
+    public void invalidate(String email) {
+        if (email == null)
+            return;
+
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(email);
+        }
+    }
+
+    /**
+     * Forget USER by e-mail and by ID, so a changed e-mail does not leave a stale entry
+     */
+    public void invalidate(User user) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(user.getEmail());
+            if (user.getId() == null)
+                return;
+
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.user != null && user.getId().equals(entry.user.getId())) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return share of lookups answered from cache (positive and negative entries), 0 if no lookups yet
+     */
+    public double getHitRatio() {
+        long hit = hits.get() + negativeHits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * @return share of lookups answered by negative entries, 0 if no lookups yet
+     */
+    public double getNegativeHitRatio() {
+        long total = hits.get() + negativeHits.get() + misses.get();
+        return total == 0 ? 0 : (double) negativeHits.get() / total;
+    }
+
+    private void put(String email, User user, long now, long loadGeneration) {
+        if (email == null)
+            return;
+
+        long ttl = user == null ? negativeTtlNanos : ttlNanos;
+        if (ttl <= 0)
+            return;
+
+        Entry entry = new Entry(copy(user), now + ttl);
+        synchronized (entries) {
+            if (generation.get() != loadGeneration)
+                return;
+            entries.put(email, entry);
+        }
+    }
+
+    private static User copy(User user) {
+        if (user == null)
+            return null;
+
+        return new User(user.getId(), user.getName(), user.getSurname(), user.getPhone(),
+                user.getEmail(), user.getPassword(), user.getAdmin());
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package service.export;
+
+import dto.BookingRow;
+import model.entity.Request;
+import util.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+
+/**
+ * How exported bookings are written, one line per booking so a row can be written as soon as it is read.
+ * Times are ISO-8601 local times of the ROUTE, a booking without a seat has empty (NULL) carriage and seat
+ */
+public enum ExportFormat {
+    /**
+     * RFC 4180 with a header line. A value that a spreadsheet would take for a formula is prefixed with a quote
+     */
+    CSV("text/csv;charset=UTF-8", "csv") {
+        @Override
+        public void writeHeader(Writer writer) throws IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0)
+                    writer.write(',');
+                writer.write(COLUMNS[i]);
+            }
+            writer.write(LINE_END);
+        }
+
+        @Override
+        public void write(Writer writer, BookingRow row) throws IOException {
+            Object[] values = columnsOf(row);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    writer.write(',');
+                if (values[i] != null)
+                    writeCsv(writer, values[i].toString());
+            }
+            writer.write(LINE_END);
+        }
+    },
+
+    /**
+     * One JSON object per line, keyed by the CSV column names
+     */
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson") {
+        @Override
+        public void writeHeader(Writer writer) {
+        }
+
+        @Override
+        public void write(Writer writer, BookingRow row) throws IOException {
+            Object[] values = columnsOf(row);
+            writer.write('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    writer.write(',');
+                Json.writeString(writer, COLUMNS[i]);
+                writer.write(':');
+                if (values[i] instanceof Number)
+                    writer.write(values[i].toString());
+                else
+                    Json.writeString(writer, values[i] == null ? null : values[i].toString());
+            }
+            writer.write('}');
+            writer.write('\n');
+        }
+    };
+
+    private static final String LINE_END = "\r\n";
+    private static final String[] COLUMNS = {"request_id", "train_id", "route_id", "user_id", "email", "name",
+            "surname", "from", "to", "departure", "arrival", "type", "carriage", "seat", "price"};
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract void writeHeader(Writer writer) throws IOException;
+
+    public abstract void write(Writer writer, BookingRow row) throws IOException;
+
+    /**
+     * @return NULL for an unknown name
+     */
+    public static ExportFormat fromValue(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name))
+                return format;
+        }
+        return null;
+    }
+
+    private static Object[] columnsOf(BookingRow row) {
+        Request request = row.getRequest();
+        return new Object[]{request.getId(), request.getTrainId(), row.getRouteId(), request.getUserId(),
+                row.getEmail(), row.getName(), row.getSurname(), row.getFromStation(), row.getToStation(),
+                iso(row.getDeparture()), iso(row.getArrival()), request.getType(), request.getCarriage(),
+                request.getSeat(), request.getPrice()};
+    }
+
+    private static String iso(LocalDateTime time) {
+        return time == null ? null : time.toString();
+    }
+
+    private static void writeCsv(Writer writer, String value) throws IOException {
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        boolean quoted = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        if (formula)
+            writer.write('\'');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
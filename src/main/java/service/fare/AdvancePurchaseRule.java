@@ -0,0 +1,32 @@
+package service.fare;
+
+import dao.mysql.TypePlace;
+import model.entity.Route;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changes fares bought at least {days} days before departure
+ */
+public class AdvancePurchaseRule implements FareRule {
+    private final int days;
+    private final double factor;
+
+    public AdvancePurchaseRule(int days, double factor) {
+        if (days < 0)
+            throw new IllegalArgumentException("Negative days: " + days);
+
+        this.days = days;
+        this.factor = factor;
+    }
+
+    @Override
+    public double factor(Route route, TypePlace type) {
+        return factor;
+    }
+
+    @Override
+    public LocalDateTime validUntil(Route route) {
+        return route.getFromTime().minusDays(days);
+    }
+}
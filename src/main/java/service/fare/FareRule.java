@@ -0,0 +1,23 @@
+package service.fare;
+
+import dao.mysql.TypePlace;
+import model.entity.Route;
+
+import java.time.LocalDateTime;
+
+/**
+ * Adjustment of the base fare of a ROUTE, evaluated once per ROUTE and type when the fare table is built
+ */
+public interface FareRule {
+    /**
+     * @return multiplier of the base fare, 1 to keep it
+     */
+    double factor(Route route, TypePlace type);
+
+    /**
+     * @return last moment of purchase the factor applies to, NULL for any moment
+     */
+    default LocalDateTime validUntil(Route route) {
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package service.fare;
+
+import dao.mysql.TypePlace;
+import model.entity.Price;
+import model.entity.Route;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fares of every ROUTE and type of place, built once from PRICES and fare rules.
+ * A ROUTE is a row, a type is a column of flat arrays of rates per kilometre, so a lookup is
+ * one map access for the row and a multiplication. Rules limited in time (advance purchase) are
+ * folded into a second, early rate that applies until the earliest of their deadlines.
+ * The table is immutable, a change of PRICES or ROUTES builds a new one.
+ */
+public final class FareTable {
+    private static final TypePlace[] TYPES = TypePlace.values();
+    private static final long NO_EARLY_RATE = Long.MIN_VALUE;
+
+    private final Map<String, Integer> rows;
+    private final Set<String> unpriced = new HashSet<>();
+    private final double[] rates;
+    private final double[] earlyRates;
+    private final long[] earlyUntil;
+    private final double[] distances;
+
+    private FareTable(int size) {
+        rows = new HashMap<>(size * 2);
+        rates = new double[size * TYPES.length];
+        earlyRates = new double[size * TYPES.length];
+        earlyUntil = new long[size];
+        distances = new double[size];
+    }
+
+    /**
+     * ROUTES whose PRICE is unknown are left out, {@link #isUnpriced(String)} tells them from ROUTES
+     * created after the build
+     */
+    public static FareTable build(List<Route> routes, Map<String, Price> prices, List<FareRule> rules) {
+        FareTable result = new FareTable(routes.size());
+        int row = 0;
+        for (Route route : routes) {
+            Price price = prices.get(route.getPriceId());
+            if (price == null) {
+                result.unpriced.add(route.getId());
+                continue;
+            }
+
+            long until = NO_EARLY_RATE;
+            for (FareRule rule : rules) {
+                LocalDateTime validUntil = rule.validUntil(route);
+                if (validUntil != null) {
+                    long seconds = toSeconds(validUntil);
+                    until = until == NO_EARLY_RATE ? seconds : Math.min(until, seconds);
+                }
+            }
+
+            for (TypePlace type : TYPES) {
+                double rate = factorOf(price, type);
+                double early = rate;
+                for (FareRule rule : rules) {
+                    double factor = rule.factor(route, type);
+                    early *= factor;
+                    if (rule.validUntil(route) == null)
+                        rate *= factor;
+                }
+                result.rates[row * TYPES.length + type.ordinal()] = rate;
+                result.earlyRates[row * TYPES.length + type.ordinal()] = early;
+            }
+
+            result.earlyUntil[row] = until;
+            result.distances[row] = route.getDistance();
+            result.rows.put(route.getId(), row);
+            row++;
+        }
+        return result;
+    }
+
+    /**
+     * @return row of the ROUTE, -1 if the table does not know it
+     */
+    public int rowOf(String routeId) {
+        Integer row = rows.get(routeId);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * @return TRUE if the ROUTE was built without a fare, its PRICE is unknown
+     */
+    public boolean isUnpriced(String routeId) {
+        return unpriced.contains(routeId);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * @return fare of the whole ROUTE bought at {now}
+     */
+    public double fare(int row, TypePlace type, LocalDateTime now) {
+        return fare(row, type, distances[row], now);
+    }
+
+    /**
+     * @return fare of {distance} kilometres of the ROUTE bought at {now}
+     */
+    public double fare(int row, TypePlace type, double distance, LocalDateTime now) {
+        int cell = row * TYPES.length + type.ordinal();
+        long until = earlyUntil[row];
+        boolean early = until != NO_EARLY_RATE && toSeconds(now) <= until;
+        return (early ? earlyRates[cell] : rates[cell]) * distance;
+    }
+
+    static double factorOf(Price price, TypePlace type) {
+        switch (type) {
+            case C:
+                return price.getCompartmentFactor();
+            case L:
+                return price.getDeluxeFactor();
+            default:
+                return price.getBerthFactor();
+        }
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
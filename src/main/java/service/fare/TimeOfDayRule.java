@@ -0,0 +1,31 @@
+package service.fare;
+
+import dao.mysql.TypePlace;
+import model.entity.Route;
+
+/**
+ * Changes fares of ROUTES departing in [fromHour, toHour), the range may wrap past midnight
+ */
+public class TimeOfDayRule implements FareRule {
+    private final int fromHour;
+    private final int toHour;
+    private final double factor;
+
+    public TimeOfDayRule(int fromHour, int toHour, double factor) {
+        if (fromHour < 0 || fromHour > 23 || toHour < 0 || toHour > 24)
+            throw new IllegalArgumentException("Hours out of range: " + fromHour + " - " + toHour);
+
+        this.fromHour = fromHour;
+        this.toHour = toHour;
+        this.factor = factor;
+    }
+
+    @Override
+    public double factor(Route route, TypePlace type) {
+        int hour = route.getFromTime().getHour();
+        boolean inside = fromHour <= toHour
+                ? hour >= fromHour && hour < toHour
+                : hour >= fromHour || hour < toHour;
+        return inside ? factor : 1;
+    }
+}
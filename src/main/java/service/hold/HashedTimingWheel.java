@@ -0,0 +1,157 @@
+package service.hold;
+
+import log.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, a timeout lands in the bucket of its deadline
+ * and counts the full turns (rounds) it still has to wait. Scheduling and cancelling are O(1) and
+ * never block, a single daemon thread moves new timeouts into buckets and expires one bucket per tick.
+ * Everything that expires in one tick is handed to the consumer as one list, so it can be released in bulk.
+ * Deadlines are rounded up to the tick, a timeout never fires early.
+ */
+public class HashedTimingWheel<T> {
+    private static final Log LOG = Log.getLog(HashedTimingWheel.class);
+
+    private final long tickNanos;
+    private final List<ArrayDeque<Timeout<T>>> wheel;
+    private final int mask;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpire;
+    private final long startNanos;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param buckets  rounded up to a power of two
+     * @param onExpire called on the wheel thread with the items expired in one tick
+     */
+    public HashedTimingWheel(String name, long tick, TimeUnit unit, int buckets, Consumer<List<T>> onExpire) {
+        if (tick <= 0 || buckets <= 0)
+            throw new IllegalArgumentException("Tick and buckets must be positive: " + tick + ", " + buckets);
+
+        int size = Integer.highestOneBit(buckets - 1) << 1;
+        this.tickNanos = unit.toNanos(tick);
+        this.wheel = new ArrayList<>(Math.max(size, 1));
+        for (int i = 0; i < Math.max(size, 1); i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.mask = wheel.size() - 1;
+        this.onExpire = onExpire;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * @return handle to cancel the timeout
+     */
+    public Timeout<T> schedule(T item, long delay, TimeUnit unit) {
+        Timeout<T> timeout = new Timeout<>(item, System.nanoTime() - startNanos + unit.toNanos(delay));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the wheel thread, timeouts not expired yet never fire
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep = deadline - (System.nanoTime() - startNanos);
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running)
+                        return;
+                }
+                continue;
+            }
+
+            tick++;
+            transferPending();
+            List<T> expired = expire(wheel.get((int) (tick & mask)));
+            if (!expired.isEmpty()) {
+                try {
+                    onExpire.accept(expired);
+                } catch (RuntimeException e) {
+                    LOG.severe("timing wheel consumer failed: " + e);
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled())
+                continue;
+
+            long ticks = (timeout.deadlineNanos + tickNanos - 1) / tickNanos;
+            long due = Math.max(ticks, tick);
+            timeout.rounds = (due - tick) / wheel.size();
+            wheel.get((int) (due & mask)).add(timeout);
+        }
+    }
+
+    private List<T> expire(ArrayDeque<Timeout<T>> bucket) {
+        List<T> result = new ArrayList<>();
+        Iterator<Timeout<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<T> timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.rounds <= 0) {
+                iterator.remove();
+                result.add(timeout.item);
+            } else {
+                timeout.rounds--;
+            }
+        }
+        return result;
+    }
+
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineNanos;
+        private volatile boolean cancelled;
+        private long rounds;
+
+        private Timeout(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * The timeout leaves its bucket when the wheel gets there
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package service.importer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What happened to the documents of one file, written to by the batch writers while the file is read
+ */
+public final class ImportCount {
+    private final String collection;
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean skipped;
+
+    ImportCount(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public long getRead() {
+        return read.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    /**
+     * Documents with a missing or malformed field, a duplicate ID or a reference to nothing
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Valid documents of the batches the DB did not store
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * TRUE if there was no file or the profile has no DAO for the collection
+     */
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    void read() {
+        read.incrementAndGet();
+    }
+
+    void imported(long count) {
+        imported.addAndGet(count);
+    }
+
+    void rejected() {
+        rejected.incrementAndGet();
+    }
+
+    void failed(long count) {
+        failed.addAndGet(count);
+    }
+
+    void skip() {
+        skipped = true;
+    }
+
+    @Override
+    public String toString() {
+        return collection + ": read " + getRead() + ", imported " + getImported() + ", rejected " + getRejected()
+                + ", failed " + getFailed() + (skipped ? ", skipped" : "");
+    }
+}
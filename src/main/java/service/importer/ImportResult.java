@@ -0,0 +1,42 @@
+package service.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts of every file of an import, in the order they were imported
+ */
+public final class ImportResult {
+    private final List<ImportCount> collections = new ArrayList<>();
+    private long millis;
+
+    public List<ImportCount> getCollections() {
+        return Collections.unmodifiableList(collections);
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public long getImported() {
+        return collections.stream().mapToLong(ImportCount::getImported).sum();
+    }
+
+    /**
+     * TRUE if every document read was stored
+     */
+    public boolean isComplete() {
+        return collections.stream().allMatch(count -> count.getRejected() == 0 && count.getFailed() == 0);
+    }
+
+    ImportCount add(String collection) {
+        ImportCount result = new ImportCount(collection);
+        collections.add(result);
+        return result;
+    }
+
+    void setMillis(long millis) {
+        this.millis = millis;
+    }
+}
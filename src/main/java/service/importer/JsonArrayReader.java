@@ -0,0 +1,269 @@
+package service.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a JSON array of documents one document at a time, only the current document is kept in memory.
+ * Accepts the mongo shell syntax of the mongoimport files (resources/json): a wrapper such as
+ * ObjectId("..."), NumberLong(5) or ISODate("...") stands for its argument, so an ObjectId is its hex string.
+ * Integers are read as Long, other numbers as Double
+ */
+public final class JsonArrayReader implements Closeable {
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private int peeked = NONE;
+    private int line = 1;
+    private boolean started;
+    private boolean finished;
+
+    public JsonArrayReader(Reader in) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+    }
+
+    /**
+     * @return the next document, NULL after the last one
+     * @throws IOException if the input is not an array of documents, the message has the line
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> next() throws IOException {
+        if (finished)
+            return null;
+
+        int c = readSkipping();
+        if (!started) {
+            if (c != '[')
+                throw error("'['", c);
+            started = true;
+            c = readSkipping();
+            if (c == ']') {
+                finished = true;
+                return null;
+            }
+            unread(c);
+        } else if (c == ']') {
+            finished = true;
+            return null;
+        } else if (c != ',') {
+            throw error("',' or ']'", c);
+        }
+
+        c = readSkipping();
+        if (c != '{')
+            throw error("'{'", c);
+        return (Map<String, Object>) readValue(c);
+    }
+
+    /**
+     * @return line of the input being read, 1 for the first one
+     */
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Object readValue(int c) throws IOException {
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+            case '\'':
+                return readString(c);
+            default:
+                if (c == '-' || c >= '0' && c <= '9')
+                    return readNumber(c);
+                if (Character.isLetter(c))
+                    return readWord(c);
+                throw error("a value", c);
+        }
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        int c = readSkipping();
+        if (c == '}')
+            return result;
+
+        while (true) {
+            String key;
+            if (c == '"' || c == '\'')
+                key = readString(c);
+            else if (Character.isLetter(c) || c == '_' || c == '$')
+                key = readName(c);
+            else
+                throw error("a key", c);
+
+            c = readSkipping();
+            if (c != ':')
+                throw error("':'", c);
+            result.put(key, readValue(readSkipping()));
+
+            c = readSkipping();
+            if (c == '}')
+                return result;
+            if (c != ',')
+                throw error("',' or '}'", c);
+            c = readSkipping();
+        }
+    }
+
+    private List<Object> readArray() throws IOException {
+        List<Object> result = new ArrayList<>();
+        int c = readSkipping();
+        if (c == ']')
+            return result;
+
+        while (true) {
+            result.add(readValue(c));
+            c = readSkipping();
+            if (c == ']')
+                return result;
+            if (c != ',')
+                throw error("',' or ']'", c);
+            c = readSkipping();
+        }
+    }
+
+    private String readString(int quote) throws IOException {
+        StringBuilder result = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1 || c == '\n')
+                throw error("closing quote", c);
+            if (c == quote)
+                return result.toString();
+            if (c != '\\') {
+                result.append((char) c);
+                continue;
+            }
+
+            c = read();
+            switch (c) {
+                case 'b':
+                    result.append('\b');
+                    break;
+                case 'f':
+                    result.append('\f');
+                    break;
+                case 'n':
+                    result.append('\n');
+                    break;
+                case 'r':
+                    result.append('\r');
+                    break;
+                case 't':
+                    result.append('\t');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0)
+                            throw error("four hex digits", c);
+                        code = code * 16 + digit;
+                    }
+                    result.append((char) code);
+                    break;
+                case -1:
+                    throw error("an escape", c);
+                default:
+                    result.append((char) c);
+            }
+        }
+    }
+
+    private Object readNumber(int first) throws IOException {
+        StringBuilder text = new StringBuilder().append((char) first);
+        boolean integer = true;
+        int c;
+        while ((c = read()) != -1 && (c >= '0' && c <= '9' || c == '.' || c == 'e' || c == 'E'
+                || c == '+' || c == '-')) {
+            integer &= c >= '0' && c <= '9';
+            text.append((char) c);
+        }
+        unread(c);
+
+        try {
+            return integer ? (Object) Long.valueOf(text.toString()) : (Object) Double.valueOf(text.toString());
+        } catch (NumberFormatException e) {
+            throw new IOException("line " + line + ": malformed number " + text);
+        }
+    }
+
+    /**
+     * TRUE, FALSE, NULL or a wrapper call, which stands for its argument
+     */
+    private Object readWord(int first) throws IOException {
+        String word = readName(first);
+        switch (word) {
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            case "null":
+                return null;
+            default:
+                int c = readSkipping();
+                if (c != '(')
+                    throw error("'(' after " + word, c);
+                Object result = readValue(readSkipping());
+                c = readSkipping();
+                if (c != ')')
+                    throw error("')'", c);
+                return result;
+        }
+    }
+
+    private String readName(int first) throws IOException {
+        StringBuilder result = new StringBuilder().append((char) first);
+        int c;
+        while ((c = read()) != -1 && (Character.isLetterOrDigit(c) || c == '_' || c == '$')) {
+            result.append((char) c);
+        }
+        unread(c);
+        return result.toString();
+    }
+
+    private int readSkipping() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (peeked != NONE) {
+            int result = peeked;
+            peeked = NONE;
+            return result;
+        }
+
+        int result = in.read();
+        if (result == '\n')
+            line++;
+        return result;
+    }
+
+    private void unread(int c) {
+        peeked = c;
+    }
+
+    private IOException error(String expected, int found) {
+        return new IOException("line " + line + ": expected " + expected + ", found "
+                + (found == -1 ? "end of input" : "'" + (char) found + "'"));
+    }
+}
@@ -0,0 +1,40 @@
+package service.importer;
+
+import service.ImportService;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Command line import into the DB of the configured profile, a system property such as
+ * -Dconfig.profile.database=mysql wins over config.properties:
+ *
+ *     java -cp "RailwaySystem/WEB-INF/classes:RailwaySystem/WEB-INF/lib/*" service.importer.TimetableImport dir
+ *
+ * Prints the counts of every file. Exits with status 1 if a document was rejected or failed,
+ * 2 if the import stopped. A running application reads the new timetable after its next start
+ */
+public class TimetableImport {
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("usage: TimetableImport <dir with prices.json, stations.json, routes.json, "
+                    + "route_stops.json, trains.json>");
+            System.exit(2);
+        }
+
+        ImportResult result;
+        try {
+            result = ImportService.getInstance().importFrom(Paths.get(args[0]));
+        } catch (IOException e) {
+            System.err.println("import stopped: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        for (ImportCount count : result.getCollections()) {
+            System.out.println(count);
+        }
+        System.out.println("imported " + result.getImported() + " rows in " + result.getMillis() + " ms");
+        System.exit(result.isComplete() ? 0 : 1);
+    }
+}
@@ -0,0 +1,324 @@
+package service.importer;
+
+import dao.DAOFactory;
+import dao.PriceDAO;
+import dao.RouteDAO;
+import dao.RouteStopDAO;
+import dao.StationDAO;
+import dao.TrainDAO;
+import log.Log;
+import model.entity.Price;
+import model.entity.Route;
+import model.entity.RouteStop;
+import model.entity.Station;
+import model.entity.Train;
+import util.DateTimes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Bulk import of a timetable in the mongoimport format (resources/json): prices, stations, routes, route_stops
+ * and trains, in this order, so every reference points to a row stored before. A file is read one document
+ * at a time, the valid documents go to the DB in batches through createAll, the batches of a file are written
+ * by {threads} writers in parallel while the file is read on.
+ * A document with a missing field, a duplicate ID or a reference to nothing is rejected and logged;
+ * a reference is checked against the DB and the rows imported before, a batch the DB did not store is failed,
+ * the rows referring to it are rejected then. A collection the profile has no DAO for is skipped,
+ * references to it are not checked
+ */
+public final class TimetableImporter {
+    private static final Log LOG = Log.getLog(TimetableImporter.class);
+    private static final String THREAD_NAME = "timetable-import";
+    private static final String EXTENSION = ".json";
+    private static final int LOGGED_REJECTS = 20;
+
+    private static final String PRICES = "prices";
+    private static final String STATIONS = "stations";
+    private static final String ROUTES = "routes";
+    private static final String ROUTE_STOPS = "route_stops";
+    private static final String TRAINS = "trains";
+
+    private static final String LABEL_ID = "_id";
+
+    private final DAOFactory factory;
+    private final int batchSize;
+    private final int threads;
+
+    /**
+     * @param batchSize rows of one INSERT or bulk write
+     * @param threads   batches written at the same time
+     */
+    public TimetableImporter(DAOFactory factory, int batchSize, int threads) {
+        this.factory = factory;
+        this.batchSize = batchSize;
+        this.threads = threads;
+    }
+
+    /**
+     * @param dir directory with prices.json, stations.json, ..., missing files are skipped
+     * @throws IOException if the directory is missing or a file is not an array of documents,
+     *                     the files before it stay imported
+     */
+    public ImportResult importFrom(Path dir) throws IOException {
+        if (!Files.isDirectory(dir))
+            throw new NoSuchFileException(dir.toString());
+
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        ExecutorService writers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            PriceDAO priceDAO = factory.createPriceDAO();
+            StationDAO stationDAO = factory.createStationDAO();
+            RouteDAO routeDAO = factory.createRouteDAO();
+            RouteStopDAO stopDAO = factory.createRouteStopDAO();
+            TrainDAO trainDAO = factory.createTrainDAO();
+
+            Set<String> prices = priceDAO == null ? null : idsOf(priceDAO.findAll(), Price::getId);
+            read(dir, new Writer<>(PRICES, priceDAO == null ? null : priceDAO::createAll, Price::getId, prices,
+                    writers, result), document -> {
+                Price price = new Price(number(document, "compartment_factor"), number(document, "deluxe_factor"),
+                        number(document, "berth_factor"));
+                price.setId(text(document, LABEL_ID));
+                return price;
+            });
+
+            Set<String> stations = stationDAO == null ? null : idsOf(stationDAO.findAll(), Station::getId);
+            read(dir, new Writer<>(STATIONS, stationDAO == null ? null : stationDAO::createAll, Station::getId,
+                    stations, writers, result), document -> new Station(text(document, LABEL_ID),
+                    text(document, "name")));
+
+            Set<String> routes = routeDAO == null ? null : idsOf(routeDAO.findAll(), Route::getId);
+            read(dir, new Writer<>(ROUTES, routeDAO == null ? null : routeDAO::createAll, Route::getId, routes,
+                    writers, result), document -> {
+                LocalDateTime fromTime = time(document, "from_time", true);
+                LocalDateTime toTime = time(document, "to_time", true);
+                if (!toTime.isAfter(fromTime))
+                    throw new IllegalArgumentException("to_time not after from_time");
+
+                return new Route(text(document, LABEL_ID), reference(document, "price_id", prices),
+                        reference(document, "from_id", stations), reference(document, "to_id", stations),
+                        fromTime, toTime, number(document, "distance"));
+            });
+
+            Set<String> stops = stopDAO == null ? null : idsOf(stopDAO.findAll(), RouteStop::getId);
+            read(dir, new Writer<>(ROUTE_STOPS, stopDAO == null ? null : stopDAO::createAll, RouteStop::getId,
+                    stops, writers, result), document -> new RouteStop(text(document, LABEL_ID),
+                    reference(document, "route_id", routes), (int) count(document, "number"),
+                    reference(document, "station_id", stations), time(document, "arrival", false),
+                    time(document, "departure", false), number(document, "distance")));
+
+            Set<String> trains = trainDAO == null ? null : idsOf(trainDAO.findAll(), Train::getId);
+            read(dir, new Writer<>(TRAINS, trainDAO == null ? null : trainDAO::createAll, Train::getId, trains,
+                    writers, result), document -> new Train(text(document, LABEL_ID),
+                    reference(document, "route_id", routes), count(document, "compartment_free"),
+                    count(document, "deluxe_free"), count(document, "berth_free")));
+        } finally {
+            writers.shutdownNow();
+        }
+
+        result.setMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOG.info("timetable imported", "dir", dir, "imported", result.getImported(), "complete",
+                result.isComplete(), "millis", result.getMillis());
+        return result;
+    }
+
+    private <T> void read(Path dir, Writer<T> writer, Function<Map<String, Object>, T> convert)
+            throws IOException {
+        Path file = dir.resolve(writer.count.getCollection() + EXTENSION);
+        if (writer.createAll == null || !Files.isRegularFile(file)) {
+            writer.count.skip();
+            LOG.warning("import collection skipped", "file", file, "dao", writer.createAll != null);
+            return;
+        }
+
+        Set<String> seen = new HashSet<>();
+        try (JsonArrayReader reader = new JsonArrayReader(Files.newBufferedReader(file, UTF_8))) {
+            Map<String, Object> document;
+            while ((document = reader.next()) != null) {
+                writer.count.read();
+                T entity;
+                try {
+                    entity = convert.apply(document);
+                    String id = writer.getId.apply(entity);
+                    if (!seen.add(id) || writer.known != null && writer.known.contains(id))
+                        throw new IllegalArgumentException("duplicate " + LABEL_ID + " " + id);
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    writer.count.rejected();
+                    if (writer.count.getRejected() <= LOGGED_REJECTS)
+                        LOG.warning("import document rejected", "file", file, "line", reader.getLine(),
+                                "reason", e.getMessage());
+                    continue;
+                }
+                writer.add(entity);
+            }
+            writer.flush();
+        } finally {
+            writer.await();
+        }
+        LOG.info("import collection done", "collection", writer.count);
+    }
+
+    /**
+     * @return NULL if the DAO cannot list the rows, references are not checked then
+     */
+    private static <T> Set<String> idsOf(List<T> rows, Function<T, String> getId) {
+        if (rows == null)
+            return null;
+
+        Set<String> result = ConcurrentHashMap.newKeySet(rows.size());
+        for (T row : rows) {
+            result.add(getId.apply(row));
+        }
+        return result;
+    }
+
+    private static String text(Map<String, Object> document, String label) {
+        Object value = document.get(label);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty())
+            throw new IllegalArgumentException("missing " + label);
+        return (String) value;
+    }
+
+    private static String reference(Map<String, Object> document, String label, Set<String> known) {
+        String result = text(document, label);
+        if (known != null && !known.contains(result))
+            throw new IllegalArgumentException("unknown " + label + " " + result);
+        return result;
+    }
+
+    private static double number(Map<String, Object> document, String label) {
+        Object value = document.get(label);
+        if (!(value instanceof Number) || ((Number) value).doubleValue() < 0)
+            throw new IllegalArgumentException("missing or negative " + label);
+        return ((Number) value).doubleValue();
+    }
+
+    private static long count(Map<String, Object> document, String label) {
+        Object value = document.get(label);
+        if (!(value instanceof Long) || (Long) value < 0)
+            throw new IllegalArgumentException("missing or negative whole " + label);
+        return (Long) value;
+    }
+
+    private static LocalDateTime time(Map<String, Object> document, String label, boolean required) {
+        Object value = document.get(label);
+        if (value == null && !required)
+            return null;
+        if (!(value instanceof String))
+            throw new IllegalArgumentException("missing " + label);
+        return DateTimes.parse((String) value);
+    }
+
+    /**
+     * Cuts the valid rows of one file into batches and hands them to the writers. At most two batches
+     * per writer wait in memory, the reader waits for a free slot beyond that
+     */
+    private final class Writer<T> {
+        private final ImportCount count;
+        private final Predicate<List<T>> createAll;
+        private final Function<T, String> getId;
+        private final Set<String> known;
+        private final ExecutorService writers;
+        private final Semaphore slots = new Semaphore(threads * 2);
+        private final List<Future<?>> pending = new ArrayList<>();
+        private List<T> batch = new ArrayList<>(batchSize);
+
+        /**
+         * @param createAll NULL if the profile has no DAO for the collection
+         * @param known     IDs in the DB, the stored rows are added; NULL if not known
+         */
+        Writer(String collection, Predicate<List<T>> createAll, Function<T, String> getId, Set<String> known,
+               ExecutorService writers, ImportResult result) {
+            this.count = result.add(collection);
+            this.createAll = createAll;
+            this.getId = getId;
+            this.known = known;
+            this.writers = writers;
+        }
+
+        void add(T row) throws InterruptedIOException {
+            batch.add(row);
+            if (batch.size() == batchSize)
+                flush();
+        }
+
+        void flush() throws InterruptedIOException {
+            if (batch.isEmpty())
+                return;
+
+            List<T> rows = batch;
+            batch = new ArrayList<>(batchSize);
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("import interrupted");
+            }
+
+            pending.add(writers.submit(() -> {
+                try {
+                    if (store(rows)) {
+                        count.imported(rows.size());
+                        if (known != null)
+                            rows.forEach(row -> known.add(getId.apply(row)));
+                    } else {
+                        count.failed(rows.size());
+                    }
+                } finally {
+                    slots.release();
+                }
+            }));
+        }
+
+        void await() throws InterruptedIOException {
+            try {
+                for (Future<?> future : pending) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("import interrupted");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                pending.clear();
+            }
+        }
+
+        private boolean store(List<T> rows) {
+            try {
+                return createAll.test(rows);
+            } catch (RuntimeException e) {
+                LOG.severe("import batch of " + count.getCollection() + " failed", e);
+                return false;
+            }
+        }
+    }
+}
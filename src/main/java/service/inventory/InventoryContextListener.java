@@ -0,0 +1,25 @@
+package service.inventory;
+
+import service.InventoryService;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Replays the inventory log before the first request and takes a snapshot on shutdown,
+ * so the next start has few events to replay and the TRAIN rows are up to date
+ */
+@WebListener
+public class InventoryContextListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent servletContextEvent) {
+        InventoryService.getInstance();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent servletContextEvent) {
+        InventoryService.getInstance().snapshot();
+    }
+}
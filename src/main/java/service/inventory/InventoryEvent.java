@@ -0,0 +1,53 @@
+package service.inventory;
+
+import dao.mysql.TypePlace;
+
+/**
+ * One change of the places of a TRAIN, the inventory log is a sequence of them.
+ * OPENED carries the absolute number of free places taken from the TRAIN row the first time
+ * the TRAIN is booked, every other kind carries a difference.
+ */
+public final class InventoryEvent {
+    public enum Kind {
+        OPENED, RESERVED, CANCELLED, HELD, RELEASED
+    }
+
+    private final long seq;
+    private final Kind kind;
+    private final String trainId;
+    private final TypePlace type;
+    private final long count;
+
+    InventoryEvent(long seq, Kind kind, String trainId, TypePlace type, long count) {
+        this.seq = seq;
+        this.kind = kind;
+        this.trainId = trainId;
+        this.type = type;
+        this.count = count;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getTrainId() {
+        return trainId;
+    }
+
+    public TypePlace getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return seq + " " + kind + " " + trainId + " " + type + " " + count;
+    }
+}
@@ -0,0 +1,220 @@
+package service.inventory;
+
+import dao.mysql.TypePlace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only log of inventory events in memory-mapped segment files. A segment has a fixed size and is named
+ * after the sequence number of its first event, records follow each other: length, payload, CRC32 of the payload.
+ * A new segment is zero-filled, so replay stops at the first zero length; a torn or foreign record at the end
+ * fails its checksum or sequence check and is overwritten by the next append.
+ * A written record is in the page cache at once and survives a crash of the JVM, {@link #force()} makes
+ * the log survive a crash of the OS too. Not thread-safe, the inventory appends under its own lock;
+ * {@link #force()} may run outside it.
+ */
+public class InventoryLog {
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = Integer.BYTES;
+    private static final int TRAILER = Integer.BYTES;
+    private static final TypePlace[] TYPES = TypePlace.values();
+    private static final InventoryEvent.Kind[] KINDS = InventoryEvent.Kind.values();
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+
+    private volatile MappedByteBuffer current;
+    private long lastSeq;
+
+    public InventoryLog(Path dir, int segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    // not a segment
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the events after given sequence number in order and positions the log after the last valid record.
+     * Segments that hold older events only are not read at all
+     *
+     * @return sequence number of the last event in the log, {afterSeq} if there is none after it
+     */
+    public long replay(long afterSeq, Consumer<InventoryEvent> consumer) throws IOException {
+        lastSeq = afterSeq;
+        current = null;
+        long expected = 0;
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            Long next = segments.higherKey(segment.getKey());
+            if (next != null && next <= afterSeq + 1)
+                continue;
+
+            MappedByteBuffer buffer = map(segment.getValue(), Math.max(segmentBytes, Files.size(segment.getValue())));
+            InventoryEvent event;
+            while ((event = read(buffer, expected)) != null) {
+                expected = event.getSeq() + 1;
+                if (event.getSeq() > afterSeq) {
+                    consumer.accept(event);
+                    lastSeq = event.getSeq();
+                }
+            }
+            if (next == null)
+                current = buffer;
+        }
+
+        // the snapshot is newer than the log, the next event must not follow an older one in the same segment
+        if (expected != 0 && expected <= afterSeq)
+            current = null;
+        return lastSeq;
+    }
+
+    /**
+     * @return appended event with the next sequence number
+     */
+    public InventoryEvent append(InventoryEvent.Kind kind, String trainId, TypePlace type, long count)
+            throws IOException {
+        InventoryEvent event = new InventoryEvent(lastSeq + 1, kind, trainId, type, count);
+        byte[] payload = encode(event);
+        int size = HEADER + payload.length + TRAILER;
+        if (current == null || current.remaining() < size)
+            roll(event.getSeq(), size);
+
+        current.putInt(payload.length).put(payload).putInt(crc(payload));
+        lastSeq = event.getSeq();
+        return event;
+    }
+
+    /**
+     * Deletes the segments whose events are all older than given sequence number (included),
+     * the segment being written is always kept
+     */
+    public void truncate(long seq) throws IOException {
+        Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Path> segment = iterator.next();
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next > seq + 1)
+                return;
+
+            Files.deleteIfExists(segment.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Forces the segment being written, the ones before it were forced when the log rolled over
+     */
+    public void force() {
+        MappedByteBuffer segment = current;
+        if (segment != null)
+            segment.force();
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    private void roll(long seq, int size) throws IOException {
+        force();
+        Path file = dir.resolve(String.format("%020d%s", seq, SUFFIX));
+        current = map(file, Math.max(segmentBytes, size + HEADER));
+        segments.put(seq, file);
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE, CREATE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * @param expected sequence number the record must have, 0 for any
+     * @return NULL at the end of the written records, the buffer stays before the record then
+     */
+    private static InventoryEvent read(ByteBuffer buffer, long expected) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER + TRAILER)
+            return null;
+
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining() - TRAILER) {
+            buffer.position(start);
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        InventoryEvent event = buffer.getInt() == crc(payload) ? decode(payload) : null;
+        if (event == null || expected != 0 && event.getSeq() != expected) {
+            buffer.position(start);
+            return null;
+        }
+        return event;
+    }
+
+    private static byte[] encode(InventoryEvent event) {
+        byte[] trainId = event.getTrainId().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(Long.BYTES + 2 + Long.BYTES + Short.BYTES + trainId.length)
+                .putLong(event.getSeq())
+                .put((byte) event.getKind().ordinal())
+                .put((byte) event.getType().ordinal())
+                .putLong(event.getCount())
+                .putShort((short) trainId.length)
+                .put(trainId)
+                .array();
+    }
+
+    private static InventoryEvent decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.remaining() < Long.BYTES + 2 + Long.BYTES + Short.BYTES)
+            return null;
+
+        long seq = buffer.getLong();
+        int kind = buffer.get();
+        int type = buffer.get();
+        long count = buffer.getLong();
+        int length = buffer.getShort();
+        if (kind < 0 || kind >= KINDS.length || type < 0 || type >= TYPES.length || length != buffer.remaining())
+            return null;
+
+        byte[] trainId = new byte[length];
+        buffer.get(trainId);
+        return new InventoryEvent(seq, KINDS[kind], new String(trainId, StandardCharsets.UTF_8), TYPES[type], count);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+}
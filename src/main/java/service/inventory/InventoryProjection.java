@@ -0,0 +1,116 @@
+package service.inventory;
+
+import dao.mysql.TypePlace;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Place counters of the TRAINS folded from the inventory events. Events are applied by one writer at a time,
+ * counters are read without locks. A TRAIN is opened once its free places are known, held places are counted
+ * for any TRAIN.
+ */
+public class InventoryProjection {
+    private static final int TYPES = TypePlace.values().length;
+
+    private final Map<String, Counters> trains = new ConcurrentHashMap<>();
+
+    public void apply(InventoryEvent event) {
+        Counters counters = trains.computeIfAbsent(event.getTrainId(), id -> new Counters());
+        int type = event.getType().ordinal();
+        switch (event.getKind()) {
+            case OPENED:
+                counters.free.set(type, event.getCount());
+                counters.opened = true;
+                break;
+            case RESERVED:
+                counters.free.addAndGet(type, -event.getCount());
+                break;
+            case CANCELLED:
+                counters.free.addAndGet(type, event.getCount());
+                break;
+            case HELD:
+                counters.held.addAndGet(type, event.getCount());
+                break;
+            case RELEASED:
+                counters.held.addAndGet(type, -event.getCount());
+                break;
+        }
+    }
+
+    public boolean isOpened(String trainId) {
+        Counters counters = trains.get(trainId);
+        return counters != null && counters.opened;
+    }
+
+    /**
+     * @return free places, -1 if the TRAIN is not opened
+     */
+    public long countFree(String trainId, TypePlace type) {
+        Counters counters = trains.get(trainId);
+        return counters == null || !counters.opened ? -1 : counters.free.get(type.ordinal());
+    }
+
+    public long countHeld(String trainId, TypePlace type) {
+        Counters counters = trains.get(trainId);
+        return counters == null ? 0 : Math.max(0, counters.held.get(type.ordinal()));
+    }
+
+    /**
+     * @return free places of every opened TRAIN, indexed by type of place ordinal
+     */
+    public Map<String, long[]> balances() {
+        Map<String, long[]> result = new HashMap<>();
+        trains.forEach((trainId, counters) -> {
+            if (!counters.opened)
+                return;
+
+            long[] free = new long[TYPES];
+            for (int type = 0; type < TYPES; type++) {
+                free[type] = counters.free.get(type);
+            }
+            result.put(trainId, free);
+        });
+        return result;
+    }
+
+    public void restore(Map<String, long[]> balances) {
+        balances.forEach((trainId, free) -> {
+            Counters counters = trains.computeIfAbsent(trainId, id -> new Counters());
+            for (int type = 0; type < Math.min(TYPES, free.length); type++) {
+                counters.free.set(type, free[type]);
+            }
+            counters.opened = true;
+        });
+    }
+
+    /**
+     * TRAINS are opened again from their rows, held places stay
+     */
+    public void forgetBalances() {
+        trains.values().forEach(counters -> counters.opened = false);
+    }
+
+    /**
+     * Holds live in memory only, they are gone after a restart
+     */
+    public void clearHeld() {
+        trains.values().forEach(counters -> {
+            for (int type = 0; type < TYPES; type++) {
+                counters.held.set(type, 0);
+            }
+        });
+    }
+
+    public int size() {
+        return trains.size();
+    }
+
+    private static final class Counters {
+        private final AtomicLongArray free = new AtomicLongArray(TYPES);
+        private final AtomicLongArray held = new AtomicLongArray(TYPES);
+        private volatile boolean opened;
+    }
+}
@@ -0,0 +1,157 @@
+package service.inventory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Free places of every opened TRAIN as of one sequence number of the inventory log, replay starts after it.
+ * A snapshot is written to a temporary file, synced and moved in place, so a crash in between leaves
+ * the previous snapshot intact; the two newest snapshots are kept, a damaged one is skipped on read.
+ */
+public final class InventorySnapshot {
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final int MAGIC = 0x52494e56;
+    private static final int KEEP = 2;
+
+    private static final InventorySnapshot EMPTY = new InventorySnapshot(0, Collections.emptyMap());
+
+    private final long seq;
+    private final Map<String, long[]> free;
+
+    private InventorySnapshot(long seq, Map<String, long[]> free) {
+        this.seq = seq;
+        this.free = free;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * @return free places by TRAIN id, indexed by type of place ordinal
+     */
+    public Map<String, long[]> getFree() {
+        return free;
+    }
+
+    public static void write(Path dir, long seq, Map<String, long[]> free) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeLong(seq);
+            out.writeInt(free.size());
+            for (Map.Entry<String, long[]> train : free.entrySet()) {
+                byte[] trainId = train.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(trainId.length);
+                out.write(trainId);
+                out.writeByte(train.getValue().length);
+                for (long count : train.getValue()) {
+                    out.writeLong(count);
+                }
+            }
+        }
+
+        byte[] body = bytes.toByteArray();
+        ByteBuffer content = ByteBuffer.allocate(body.length + Long.BYTES).put(body).putLong(crc(body, body.length));
+        content.flip();
+
+        Path file = dir.resolve(String.format("%s%020d%s", PREFIX, seq, SUFFIX));
+        Path temporary = dir.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        NavigableMap<Long, Path> snapshots = list(dir);
+        while (snapshots.size() > KEEP) {
+            Files.deleteIfExists(snapshots.pollFirstEntry().getValue());
+        }
+    }
+
+    /**
+     * @return newest readable snapshot, empty snapshot at sequence number 0 if there is none
+     */
+    public static InventorySnapshot read(Path dir) throws IOException {
+        if (!Files.isDirectory(dir))
+            return EMPTY;
+
+        for (Path file : list(dir).descendingMap().values()) {
+            InventorySnapshot snapshot = parse(Files.readAllBytes(file));
+            if (snapshot != null)
+                return snapshot;
+        }
+        return EMPTY;
+    }
+
+    private static InventorySnapshot parse(byte[] content) {
+        if (content.length < Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES)
+            return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        int length = content.length - Long.BYTES;
+        buffer.position(length);
+        if (buffer.getLong() != crc(content, length))
+            return null;
+
+        buffer.position(0).limit(length);
+        if (buffer.getInt() != MAGIC)
+            return null;
+
+        long seq = buffer.getLong();
+        int trains = buffer.getInt();
+        Map<String, long[]> free = new HashMap<>();
+        for (int i = 0; i < trains; i++) {
+            byte[] trainId = new byte[buffer.getShort()];
+            buffer.get(trainId);
+            long[] counts = new long[buffer.get()];
+            for (int type = 0; type < counts.length; type++) {
+                counts[type] = buffer.getLong();
+            }
+            free.put(new String(trainId, StandardCharsets.UTF_8), counts);
+        }
+        return new InventorySnapshot(seq, free);
+    }
+
+    private static NavigableMap<Long, Path> list(Path dir) throws IOException {
+        NavigableMap<Long, Path> result = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    result.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    // not a snapshot
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long crc(byte[] content, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, length);
+        return crc.getValue();
+    }
+}
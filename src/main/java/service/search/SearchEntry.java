@@ -0,0 +1,94 @@
+package service.search;
+
+import model.entity.Route;
+import model.entity.Station;
+import model.entity.Train;
+import service.seat.Journey;
+import util.DateTimes;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One journey a passenger can search for: a ROUTE between two of its stops (or as a whole) with STATIONS,
+ * times, distance and TRAINS resolved, so a search reads nothing else.
+ * Free places and fares are not kept here, they come from the inventory and the fare table
+ */
+public final class SearchEntry {
+    private final Route route;
+    private final List<Train> trains;
+    private final Station from;
+    private final Station to;
+    private final Journey journey;
+    private final long departureEpoch;
+    private final String fromDate;
+    private final String toDate;
+    private final Double distance;
+    private final boolean stops;
+
+    /**
+     * @param stops TRUE if the ROUTE has intermediate stops, its TRAINS count free places per seat then
+     */
+    public SearchEntry(Route route, List<Train> trains, Station from, Station to, Journey journey,
+                       LocalDateTime departure, LocalDateTime arrival, Double distance, boolean stops) {
+        this.route = route;
+        this.trains = Collections.unmodifiableList(trains);
+        this.from = from;
+        this.to = to;
+        this.journey = journey;
+        this.departureEpoch = epochOf(departure);
+        this.fromDate = DateTimes.display(departure);
+        this.toDate = DateTimes.display(arrival);
+        this.distance = distance;
+        this.stops = stops;
+    }
+
+    /**
+     * Seconds of the local time as if it were UTC, only compared with each other
+     */
+    public static long epochOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public List<Train> getTrains() {
+        return trains;
+    }
+
+    public Station getFrom() {
+        return from;
+    }
+
+    public Station getTo() {
+        return to;
+    }
+
+    public Journey getJourney() {
+        return journey;
+    }
+
+    public long getDepartureEpoch() {
+        return departureEpoch;
+    }
+
+    public String getFromDate() {
+        return fromDate;
+    }
+
+    public String getToDate() {
+        return toDate;
+    }
+
+    public Double getDistance() {
+        return distance;
+    }
+
+    public boolean hasStops() {
+        return stops;
+    }
+}
@@ -0,0 +1,126 @@
+package service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Journeys indexed by departure and arrival STATION and ordered by departure,
+ * a search is one lookup and a range scan. A ROUTE is replaced as a whole when it changes.
+ * Searches do not lock, one running during a change sees the old or the new entries of a ROUTE
+ */
+public class SearchIndex {
+    private final Map<String, ConcurrentNavigableMap<Long, List<SearchEntry>>> byStations = new ConcurrentHashMap<>();
+    private final Map<String, List<SearchEntry>> byRoute = new ConcurrentHashMap<>();
+
+    /**
+     * @return journeys from STATION {fromId} to STATION {toId} departing after {afterEpoch}, earliest first
+     */
+    public List<SearchEntry> find(String fromId, String toId, long afterEpoch) {
+        ConcurrentNavigableMap<Long, List<SearchEntry>> departures = byStations.get(key(fromId, toId));
+        if (departures == null)
+            return Collections.emptyList();
+
+        List<SearchEntry> result = new ArrayList<>();
+        for (List<SearchEntry> entries : departures.tailMap(afterEpoch, false).values()) {
+            result.addAll(entries);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the entries of the ROUTE, no entries drop it
+     */
+    public synchronized void put(String routeId, List<SearchEntry> entries) {
+        List<SearchEntry> old = byRoute.remove(routeId);
+        if (old != null) {
+            for (SearchEntry entry : old) {
+                remove(entry);
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            byRoute.put(routeId, Collections.unmodifiableList(new ArrayList<>(entries)));
+            for (SearchEntry entry : entries) {
+                add(entry);
+            }
+        }
+    }
+
+    /**
+     * @return IDS of the ROUTES with a journey from or to given STATION
+     */
+    public List<String> findRoutesAt(String stationId) {
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, List<SearchEntry>> route : byRoute.entrySet()) {
+            for (SearchEntry entry : route.getValue()) {
+                if (entry.getFrom().getId().equals(stationId) || entry.getTo().getId().equals(stationId)) {
+                    result.add(route.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return TRAINS departing from each STATION, a TRAIN stopping at a STATION departs from it too
+     */
+    public Map<String, Integer> countDepartures() {
+        Map<String, Integer> result = new HashMap<>();
+        for (List<SearchEntry> entries : byRoute.values()) {
+            Set<String> stations = new HashSet<>();
+            for (SearchEntry entry : entries) {
+                if (stations.add(entry.getFrom().getId()))
+                    result.merge(entry.getFrom().getId(), entry.getTrains().size(), Integer::sum);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        int result = 0;
+        for (List<SearchEntry> entries : byRoute.values()) {
+            result += entries.size();
+        }
+        return result;
+    }
+
+    private void add(SearchEntry entry) {
+        byStations.computeIfAbsent(key(entry), k -> new ConcurrentSkipListMap<>())
+                .compute(entry.getDepartureEpoch(), (epoch, entries) -> {
+                    List<SearchEntry> result = entries == null ? new ArrayList<>() : new ArrayList<>(entries);
+                    result.add(entry);
+                    return result;
+                });
+    }
+
+    private void remove(SearchEntry entry) {
+        ConcurrentNavigableMap<Long, List<SearchEntry>> departures = byStations.get(key(entry));
+        if (departures == null)
+            return;
+
+        departures.computeIfPresent(entry.getDepartureEpoch(), (epoch, entries) -> {
+            List<SearchEntry> result = new ArrayList<>(entries);
+            result.remove(entry);
+            return result.isEmpty() ? null : result;
+        });
+        if (departures.isEmpty())
+            byStations.remove(key(entry));
+    }
+
+    private static String key(SearchEntry entry) {
+        return key(entry.getFrom().getId(), entry.getTo().getId());
+    }
+
+    private static String key(String fromId, String toId) {
+        return fromId + '\n' + toId;
+    }
+}
@@ -0,0 +1,104 @@
+package service.search;
+
+import model.entity.Station;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix trie of STATION names for autocomplete. Every word of a name is a key, so "pas" finds
+ * "Kyiv-Pasazhyrskyi". Keys are folded to lower case without diacritics, Latin and Cyrillic alike:
+ * "zur" finds "Zurich" spelled with an umlaut, a Ukrainian i with a diaeresis matches a plain one.
+ * Each node keeps its best {size} STATIONS, more departures first, so a lookup walks the prefix and copies
+ * a list, it never visits the subtree. The trie is immutable, a change of STATIONS builds a new one
+ */
+public final class StationTrie {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORDS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Node root = new Node();
+    private final Map<String, Station> byId = new HashMap<>();
+    private final int size;
+
+    /**
+     * @param departures departures per STATION ID, a STATION not in it ranks after the ones that are
+     * @param size       STATIONS kept per prefix, the most a lookup returns
+     */
+    public StationTrie(List<Station> stations, Map<String, Integer> departures, int size) {
+        this.size = size;
+        List<Station> ranked = new ArrayList<>(stations);
+        ranked.sort((a, b) -> {
+            int result = Integer.compare(departures.getOrDefault(b.getId(), 0), departures.getOrDefault(a.getId(), 0));
+            return result != 0 ? result : a.getName().compareTo(b.getName());
+        });
+
+        for (Station station : ranked) {
+            byId.put(station.getId(), station);
+            for (String word : WORDS.split(fold(station.getName()))) {
+                if (!word.isEmpty())
+                    insert(word, station);
+            }
+        }
+    }
+
+    /**
+     * @return at most {limit} STATIONS with a word starting with {prefix}, more departures first;
+     * empty for a blank prefix
+     */
+    public List<Station> find(String prefix, int limit) {
+        String key = fold(prefix).trim();
+        if (key.isEmpty() || limit <= 0)
+            return Collections.emptyList();
+
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null)
+            return Collections.emptyList();
+
+        return new ArrayList<>(node.top.subList(0, Math.min(limit, node.top.size())));
+    }
+
+    /**
+     * @return NULL for an unknown ID
+     */
+    public Station findById(String id) {
+        return byId.get(id);
+    }
+
+    public int getStationCount() {
+        return byId.size();
+    }
+
+    /**
+     * Lower case without diacritics, the same for a name and for a typed prefix
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * STATIONS come in rank order, so a node takes the first {size} it sees
+     */
+    private void insert(String word, Station station) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+            if (node.top.size() < size && !node.top.contains(station))
+                node.top.add(station);
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Station> top = new ArrayList<>(2);
+    }
+}
@@ -0,0 +1,24 @@
+package service.seat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Part of a ROUTE between two of its stops, both NULL for the whole ROUTE
+ */
+@Data
+@AllArgsConstructor
+public class Journey {
+    public static final Journey WHOLE_ROUTE = new Journey(null, null);
+
+    private final Integer fromStop;
+    private final Integer toStop;
+
+    public static Journey of(Integer fromStop, Integer toStop) {
+        return fromStop == null || toStop == null ? WHOLE_ROUTE : new Journey(fromStop, toStop);
+    }
+
+    public boolean isWholeRoute() {
+        return fromStop == null || toStop == null;
+    }
+}
@@ -0,0 +1,15 @@
+package service.seat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Seat of a passenger for a journey, carriage and seat numbers start from 1
+ */
+@Data
+@AllArgsConstructor
+public class Seat {
+    private final int carriage;
+    private final int number;
+    private final Journey journey;
+}
@@ -0,0 +1,37 @@
+package service.seat;
+
+/**
+ * Seats of one carriage over the segments of its route.
+ * A journey is a mask of the segments it covers, bit {n} for the segment from stop {n} to stop {n + 1}.
+ * Seats are numbered from 0.
+ */
+public interface SeatInventory {
+    int size();
+
+    /**
+     * @return seats free on every segment of the journey
+     */
+    int freeCount(long journey);
+
+    /**
+     * @return the lowest seat free on the whole journey, now taken for it, or -1 if there is none
+     */
+    int claimFirst(long journey);
+
+    /**
+     * @return FALSE if the seat is taken on some segment of the journey
+     */
+    boolean claim(int seat, long journey);
+
+    /**
+     * @return the first of {count} adjacent seats free on the whole journey, now taken for it, or -1
+     */
+    int claimBlock(int count, long journey);
+
+    /**
+     * @return FALSE if the seat was not taken for this journey
+     */
+    boolean release(int seat, long journey);
+
+    byte[] toBytes();
+}
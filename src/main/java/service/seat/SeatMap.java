@@ -0,0 +1,263 @@
+package service.seat;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free bitset of the seats of one carriage, a set bit is a taken seat.
+ * Searches walk 64 seats per step, claims and releases are CAS loops on a single word,
+ * a block crossing a word boundary is claimed word by word and rolled back on conflict.
+ * Seats are numbered from 0 here, the service adds 1 for passengers.
+ * The route of such a carriage is one segment, the only journey is {@link #WHOLE_ROUTE}.
+ */
+public class SeatMap implements SeatInventory {
+    public static final long WHOLE_ROUTE = 1L;
+
+    private static final int WORD_BITS = 64;
+    private static final int WORD_SHIFT = 6;
+
+    private final int size;
+    private final AtomicLongArray words;
+
+    public SeatMap(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Negative size: " + size);
+
+        this.size = size;
+        this.words = new AtomicLongArray((size + WORD_BITS - 1) >>> WORD_SHIFT);
+    }
+
+    /**
+     * @param packed seats packed by {@link #toBytes()}, missing bytes are free seats
+     */
+    public static SeatMap fromBytes(int size, byte[] packed) {
+        SeatMap result = new SeatMap(size);
+        if (packed == null)
+            return result;
+
+        int bytes = Math.min(packed.length, (size + 7) >>> 3);
+        for (int i = 0; i < bytes; i++) {
+            int word = i >>> 3;
+            long bits = (packed[i] & 0xFFL) << ((i & 7) << 3);
+            result.words.set(word, (result.words.get(word) | bits) & result.validMask(word));
+        }
+        return result;
+    }
+
+    /**
+     * @return one bit per seat, little-endian, (size + 7) / 8 bytes
+     */
+    @Override
+    public byte[] toBytes() {
+        byte[] result = new byte[(size + 7) >>> 3];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte) (words.get(i >>> 3) >>> ((i & 7) << 3));
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int freeCount(long journey) {
+        checkWholeRoute(journey);
+        return freeCount();
+    }
+
+    @Override
+    public int claimFirst(long journey) {
+        checkWholeRoute(journey);
+        return claimFirst();
+    }
+
+    @Override
+    public boolean claim(int seat, long journey) {
+        checkWholeRoute(journey);
+        return claim(seat);
+    }
+
+    @Override
+    public int claimBlock(int count, long journey) {
+        checkWholeRoute(journey);
+        return claimBlock(count);
+    }
+
+    @Override
+    public boolean release(int seat, long journey) {
+        checkWholeRoute(journey);
+        return release(seat);
+    }
+
+    public int freeCount() {
+        int taken = 0;
+        for (int i = 0; i < words.length(); i++) {
+            taken += Long.bitCount(words.get(i));
+        }
+        return size - taken;
+    }
+
+    public boolean isFree(int seat) {
+        check(seat);
+        return (words.get(seat >>> WORD_SHIFT) & bit(seat)) == 0;
+    }
+
+    /**
+     * @return the lowest free seat, now taken, or -1 if the carriage is full
+     */
+    public int claimFirst() {
+        for (int word = 0; word < words.length(); word++) {
+            long mask = validMask(word);
+            while (true) {
+                long current = words.get(word);
+                long free = ~current & mask;
+                if (free == 0)
+                    break;
+
+                long lowest = Long.lowestOneBit(free);
+                if (words.compareAndSet(word, current, current | lowest))
+                    return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(lowest);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return FALSE if the seat is taken already
+     */
+    public boolean claim(int seat) {
+        check(seat);
+        return claimBits(seat >>> WORD_SHIFT, bit(seat));
+    }
+
+    /**
+     * Takes {count} adjacent seats, the lowest free run that is long enough
+     *
+     * @return the first seat of the run, or -1 if there is no such run
+     */
+    public int claimBlock(int count) {
+        if (count <= 0 || count > size)
+            return -1;
+
+        while (true) {
+            int start = findBlock(count);
+            if (start < 0 || claimRange(start, count))
+                return start;
+        }
+    }
+
+    /**
+     * @return FALSE if the seat was free already
+     */
+    public boolean release(int seat) {
+        check(seat);
+        int word = seat >>> WORD_SHIFT;
+        long bit = bit(seat);
+        while (true) {
+            long current = words.get(word);
+            if ((current & bit) == 0)
+                return false;
+            if (words.compareAndSet(word, current, current & ~bit))
+                return true;
+        }
+    }
+
+    /**
+     * @return the first seat of the lowest free run of {count} seats, -1 if there is none
+     */
+    int findBlock(int count) {
+        int run = 0;
+        int start = -1;
+        for (int word = 0; word < words.length(); word++) {
+            long free = ~words.get(word) & validMask(word);
+            int position = 0;
+            while (position < WORD_BITS) {
+                long rest = free >>> position;
+                if (rest == 0) {
+                    run = 0;
+                    break;
+                }
+
+                int taken = Long.numberOfTrailingZeros(rest);
+                if (taken > 0) {
+                    run = 0;
+                    position += taken;
+                    rest >>>= taken;
+                }
+
+                int freeRun = Long.numberOfTrailingZeros(~rest);
+                if (run == 0)
+                    start = (word << WORD_SHIFT) + position;
+                run += freeRun;
+                if (run >= count)
+                    return start;
+                position += freeRun;
+            }
+        }
+        return -1;
+    }
+
+    private boolean claimRange(int start, int count) {
+        int end = start + count;
+        for (int word = start >>> WORD_SHIFT; word << WORD_SHIFT < end; word++) {
+            if (!claimBits(word, rangeMask(word, start, end))) {
+                for (int claimed = start >>> WORD_SHIFT; claimed < word; claimed++) {
+                    releaseBits(claimed, rangeMask(claimed, start, end));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean claimBits(int word, long bits) {
+        while (true) {
+            long current = words.get(word);
+            if ((current & bits) != 0)
+                return false;
+            if (words.compareAndSet(word, current, current | bits))
+                return true;
+        }
+    }
+
+    private void releaseBits(int word, long bits) {
+        while (true) {
+            long current = words.get(word);
+            if (words.compareAndSet(word, current, current & ~bits))
+                return;
+        }
+    }
+
+    /**
+     * @return bits of seats [start, end) that fall into given word
+     */
+    private static long rangeMask(int word, int start, int end) {
+        int from = Math.max(start - (word << WORD_SHIFT), 0);
+        int to = Math.min(end - (word << WORD_SHIFT), WORD_BITS);
+        long upTo = to == WORD_BITS ? -1L : (1L << to) - 1;
+        return upTo & (-1L << from);
+    }
+
+    /**
+     * @return bits of the word that are real seats, the tail of the last word is never free
+     */
+    private long validMask(int word) {
+        int seats = size - (word << WORD_SHIFT);
+        return seats >= WORD_BITS ? -1L : (1L << seats) - 1;
+    }
+
+    private static long bit(int seat) {
+        return 1L << (seat & (WORD_BITS - 1));
+    }
+
+    private static void checkWholeRoute(long journey) {
+        if (journey != WHOLE_ROUTE)
+            throw new IllegalArgumentException("Journey " + Long.toBinaryString(journey) + " of a single segment");
+    }
+
+    private void check(int seat) {
+        if (seat < 0 || seat >= size)
+            throw new IndexOutOfBoundsException("Seat " + seat + " of " + size);
+    }
+}
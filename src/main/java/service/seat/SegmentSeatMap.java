@@ -0,0 +1,190 @@
+package service.seat;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seats of a carriage on a route with intermediate stops: one occupancy mask per seat, a bit per segment.
+ * A seat is free for a journey when its mask and the journey share no bit, so a seat left at one stop
+ * is sold again for the following segments. Claim and release are a single CAS on the mask of the seat.
+ */
+public class SegmentSeatMap implements SeatInventory {
+    public static final int MAX_SEGMENTS = 64;
+
+    private final int size;
+    private final int segments;
+    private final AtomicLongArray masks;
+
+    public SegmentSeatMap(int size, int segments) {
+        if (size < 0)
+            throw new IllegalArgumentException("Negative size: " + size);
+        if (segments < 1 || segments > MAX_SEGMENTS)
+            throw new IllegalArgumentException("Segments out of 1.." + MAX_SEGMENTS + ": " + segments);
+
+        this.size = size;
+        this.segments = segments;
+        this.masks = new AtomicLongArray(size);
+    }
+
+    /**
+     * @param packed masks packed by {@link #toBytes()}, missing bytes are free segments
+     */
+    public static SegmentSeatMap fromBytes(int size, int segments, byte[] packed) {
+        SegmentSeatMap result = new SegmentSeatMap(size, segments);
+        if (packed == null)
+            return result;
+
+        int width = bytesPerSeat(segments);
+        for (int seat = 0; seat < size && (seat + 1) * width <= packed.length; seat++) {
+            long mask = 0;
+            for (int i = 0; i < width; i++) {
+                mask |= (packed[seat * width + i] & 0xFFL) << (i << 3);
+            }
+            result.masks.set(seat, mask & all(segments));
+        }
+        return result;
+    }
+
+    /**
+     * @return mask of the segments between two stops, {fromStop} before {toStop}
+     */
+    public static long journey(int fromStop, int toStop) {
+        if (fromStop < 0 || toStop <= fromStop || toStop > MAX_SEGMENTS)
+            throw new IllegalArgumentException("Journey " + fromStop + " -> " + toStop);
+
+        return all(toStop) & (-1L << fromStop);
+    }
+
+    /**
+     * @return mask of every segment of a route with given number of segments
+     */
+    public static long all(int segments) {
+        return segments == MAX_SEGMENTS ? -1L : (1L << segments) - 1;
+    }
+
+    /**
+     * @return (segments + 7) / 8 bytes of the mask of every seat, little-endian
+     */
+    @Override
+    public byte[] toBytes() {
+        int width = bytesPerSeat(segments);
+        byte[] result = new byte[size * width];
+        for (int seat = 0; seat < size; seat++) {
+            long mask = masks.get(seat);
+            for (int i = 0; i < width; i++) {
+                result[seat * width + i] = (byte) (mask >>> (i << 3));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int segments() {
+        return segments;
+    }
+
+    public boolean isFree(int seat, long journey) {
+        check(seat, journey);
+        return (masks.get(seat) & journey) == 0;
+    }
+
+    @Override
+    public int freeCount(long journey) {
+        check(0, journey);
+        int result = 0;
+        for (int seat = 0; seat < size; seat++) {
+            if ((masks.get(seat) & journey) == 0)
+                result++;
+        }
+        return result;
+    }
+
+    @Override
+    public int claimFirst(long journey) {
+        check(0, journey);
+        for (int seat = 0; seat < size; seat++) {
+            if (claim(seat, journey))
+                return seat;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean claim(int seat, long journey) {
+        check(seat, journey);
+        while (true) {
+            long current = masks.get(seat);
+            if ((current & journey) != 0)
+                return false;
+            if (masks.compareAndSet(seat, current, current | journey))
+                return true;
+        }
+    }
+
+    /**
+     * The block found is claimed seat by seat, a conflict gives back the claimed ones and the search starts again
+     */
+    @Override
+    public int claimBlock(int count, long journey) {
+        check(0, journey);
+        if (count <= 0 || count > size)
+            return -1;
+
+        while (true) {
+            int start = findBlock(count, journey);
+            if (start < 0)
+                return -1;
+
+            int claimed = 0;
+            while (claimed < count && claim(start + claimed, journey)) {
+                claimed++;
+            }
+            if (claimed == count)
+                return start;
+
+            for (int seat = start; seat < start + claimed; seat++) {
+                release(seat, journey);
+            }
+        }
+    }
+
+    @Override
+    public boolean release(int seat, long journey) {
+        check(seat, journey);
+        while (true) {
+            long current = masks.get(seat);
+            if ((current & journey) != journey)
+                return false;
+            if (masks.compareAndSet(seat, current, current & ~journey))
+                return true;
+        }
+    }
+
+    /**
+     * @return the first of {count} adjacent seats free on the journey, -1 if there are none
+     */
+    int findBlock(int count, long journey) {
+        int run = 0;
+        for (int seat = 0; seat < size; seat++) {
+            run = (masks.get(seat) & journey) == 0 ? run + 1 : 0;
+            if (run == count)
+                return seat - count + 1;
+        }
+        return -1;
+    }
+
+    private static int bytesPerSeat(int segments) {
+        return (segments + 7) >>> 3;
+    }
+
+    private void check(int seat, long journey) {
+        if (size > 0 && (seat < 0 || seat >= size))
+            throw new IndexOutOfBoundsException("Seat " + seat + " of " + size);
+        if (journey == 0 || (journey & ~all(segments)) != 0)
+            throw new IllegalArgumentException("Journey " + Long.toBinaryString(journey) + " of " + segments
+                    + " segments");
+    }
+}
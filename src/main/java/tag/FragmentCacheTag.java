@@ -0,0 +1,88 @@
+package tag;
+
+import service.cache.FragmentCache;
+import util.DataVersion;
+
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.tagext.BodyTagSupport;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders its body once and replays it from {@link FragmentCache} afterwards.
+ * The key is {key}, the locale of the page if {vary} is "locale", and {@link DataVersion},
+ * so the body may show ROUTES and STATIONS but nothing of the USER or the request
+ */
+public class FragmentCacheTag extends BodyTagSupport {
+    private static final String VARY_LOCALE = "locale";
+
+    private String key;
+    private Long ttl;
+    private String vary;
+    private String fullKey;
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @param ttl seconds to keep the fragment for, the configured time if not set
+     */
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    public void setVary(String vary) {
+        this.vary = vary;
+    }
+
+    @Override
+    public int doStartTag() throws JspException {
+        StringBuilder builder = new StringBuilder(key);
+        if (VARY_LOCALE.equals(vary))
+            builder.append('|').append(TagUtil.localeOf(pageContext));
+        fullKey = builder.append('|').append(DataVersion.current()).toString();
+
+        String fragment = FragmentCache.getInstance().find(fullKey);
+        if (fragment == null)
+            return EVAL_BODY_BUFFERED;
+
+        try {
+            pageContext.getOut().write(fragment);
+        } catch (IOException e) {
+            throw new JspException(e.getMessage());
+        }
+        fullKey = null;
+        return SKIP_BODY;
+    }
+
+    @Override
+    public int doEndTag() throws JspException {
+        String renderedKey = fullKey;
+        fullKey = null;
+        if (renderedKey == null || bodyContent == null)
+            return EVAL_PAGE;
+
+        String fragment = bodyContent.getString();
+        if (ttl == null)
+            FragmentCache.getInstance().put(renderedKey, fragment);
+        else
+            FragmentCache.getInstance().put(renderedKey, fragment, ttl, TimeUnit.SECONDS);
+
+        try {
+            getPreviousOut().write(fragment);
+        } catch (IOException e) {
+            throw new JspException(e.getMessage());
+        }
+        return EVAL_PAGE;
+    }
+
+    @Override
+    public void release() {
+        super.release();
+        key = null;
+        ttl = null;
+        vary = null;
+        fullKey = null;
+    }
+}
@@ -7,16 +7,19 @@ import java.util.ResourceBundle;
 
 public class HelloTag extends TagSupport {
     private static final String BUNDLE_MESSAGE = "navbar";
-    private ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_MESSAGE);
     private String name;
 
     public void setName(String name) {
         this.name = name;
     }
 
+    /**
+     * The bundle is looked up in the locale of the page, {@link ResourceBundle} caches it
+     */
     @Override
     public int doStartTag() throws JspException {
         try {
+            ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_MESSAGE, TagUtil.localeOf(pageContext));
             pageContext.getOut().write(bundle.getString("navbar.hello") + " " + name);
         } catch (IOException e) {
             throw new JspException(e.getMessage());
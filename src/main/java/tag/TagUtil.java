@@ -0,0 +1,23 @@
+package tag;
+
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.jstl.core.Config;
+import java.util.Locale;
+
+class TagUtil {
+    private TagUtil() {
+    }
+
+    /**
+     * Locale the fmt tags of the page use: the one chosen by the user (EN / UKR commands)
+     * or the one of the request
+     */
+    static Locale localeOf(PageContext pageContext) {
+        Object locale = Config.find(pageContext, Config.FMT_LOCALE);
+        if (locale instanceof Locale)
+            return (Locale) locale;
+        if (locale instanceof String)
+            return Locale.forLanguageTag(((String) locale).replace('_', '-'));
+        return pageContext.getRequest().getLocale();
+    }
+}
@@ -14,11 +14,61 @@ public class Configuration {
     public static final String DATE = "config.date";
     public static final String ORDER = "config.order";
     public static final String TICKET = "config.ticket";
+    public static final String WAITLIST = "config.waitlist";
 
     public static final String ADMIN = "config.users";
     public static final String TICKETS_ADMIN = "config.ticketAdmin";
+    public static final String METRICS_ADMIN = "config.metrics";
+    public static final String DASHBOARD_ADMIN = "config.dashboard";
 
     public static final String PROFILE_DATABASE = "config.profile.database";
+    public static final String MEMORY_SEED = "config.memory.seed";
+    public static final String MIGRATION_ENABLED = "config.migration.enabled";
+
+    public static final String USER_CACHE_SIZE = "config.cache.user.size";
+    public static final String USER_CACHE_TTL = "config.cache.user.ttl";
+    public static final String USER_CACHE_NEGATIVE_TTL = "config.cache.user.negativeTtl";
+    public static final String BOOKING_CACHE_SIZE = "config.cache.booking.size";
+    public static final String BOOKING_CACHE_TTL = "config.cache.booking.ttl";
+    public static final String FRAGMENT_CACHE_SIZE = "config.cache.fragment.size";
+    public static final String FRAGMENT_CACHE_TTL = "config.cache.fragment.ttl";
+    public static final String INVENTORY_DIR = "config.inventory.dir";
+    public static final String INVENTORY_SEGMENT_BYTES = "config.inventory.segment.bytes";
+    public static final String INVENTORY_SNAPSHOT_EVENTS = "config.inventory.snapshot.events";
+    public static final String AGGREGATES_DIR = "config.aggregates.dir";
+    public static final String AGGREGATES_SNAPSHOT_SECONDS = "config.aggregates.snapshot.seconds";
+    public static final String IMPORT_DIR = "config.import.dir";
+    public static final String IMPORT_BATCH_SIZE = "config.import.batch.size";
+    public static final String IMPORT_THREADS = "config.import.threads";
+
+    public static final String WRITE_BEHIND_ENABLED = "config.writeBehind.enabled";
+    public static final String WRITE_BEHIND_DIR = "config.writeBehind.dir";
+    public static final String WRITE_BEHIND_SEGMENT_BYTES = "config.writeBehind.segment.bytes";
+    public static final String WRITE_BEHIND_QUEUE_SIZE = "config.writeBehind.queue.size";
+    public static final String WRITE_BEHIND_BATCH_SIZE = "config.writeBehind.batch.size";
+    public static final String WRITE_BEHIND_FLUSH_MILLIS = "config.writeBehind.flush.millis";
+
+    public static final String STATION_SUGGEST_SIZE = "config.station.suggest.size";
+
+    public static final String SEAT_CARRIAGES_MAX = "config.seat.carriages.max";
+
+    public static final String HOLD_TTL = "config.hold.ttl";
+    public static final String HOLD_TICK_MILLIS = "config.hold.tick.millis";
+    public static final String HOLD_WHEEL_SIZE = "config.hold.wheel.size";
+
+    public static final String WAITLIST_SIZE = "config.waitlist.size";
+
+    public static final String FARE_NIGHT_FROM = "config.fare.night.from";
+    public static final String FARE_NIGHT_TO = "config.fare.night.to";
+    public static final String FARE_NIGHT_FACTOR = "config.fare.night.factor";
+    public static final String FARE_ADVANCE_DAYS = "config.fare.advance.days";
+    public static final String FARE_ADVANCE_FACTOR = "config.fare.advance.factor";
+
+    public static final String QUERY_BUDGET = "config.monitoring.query.budget";
+    public static final String QUERY_REPEAT_LIMIT = "config.monitoring.query.repeat";
+    public static final String METRICS_SCRAPE_ADDRESSES = "config.monitoring.scrape.addresses";
+
+    public static final String LOG_ASYNC_CAPACITY = "config.log.async.capacity";
 
     private Configuration() {
         bundle = ResourceBundle.getBundle(BUNDLE_NAME);
@@ -36,7 +86,15 @@ public class Configuration {
         return INSTANCE;
     }
 
+    /**
+     * A JVM system property with the same name wins over config.properties,
+     * so embedded runs (load tests, benchmarks) can switch e.g. the DB profile
+     */
     public String getConfig(String parameter) {
+        String override = System.getProperty(parameter);
+        if (override != null) {
+            return override;
+        }
         return bundle.getString(parameter);
     }
 }
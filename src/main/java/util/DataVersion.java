@@ -0,0 +1,23 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the data shown on every page: ROUTES, STATIONS and fares. Bumped whenever one of the read models
+ * is built or refreshed, so anything rendered from the old data and keyed by the version is never served again.
+ * It is not bumped by bookings
+ */
+public final class DataVersion {
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private DataVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    public static long bump() {
+        return VERSION.incrementAndGet();
+    }
+}
@@ -0,0 +1,56 @@
+package util;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * Route timestamps: parsing of the stored form and formatting for pages.
+ * Formatters are immutable and thread-safe, so they are built once and shared.
+ */
+public final class DateTimes {
+    /**
+     * How the time is stored in JSON seeds and MongoDB documents: 2017-07-01 23:45:00
+     */
+    public static final DateTimeFormatter STORAGE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * How the time is shown to USERS: 01.07.2017, new line, 23:45
+     */
+    public static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd.MM.yyyy\nHH:mm");
+
+    private DateTimes() {
+    }
+
+    /**
+     * @return NULL for NULL
+     */
+    public static LocalDateTime parse(String stored) {
+        return stored == null ? null : LocalDateTime.parse(stored, STORAGE);
+    }
+
+    /**
+     * @return NULL for NULL
+     */
+    public static String format(LocalDateTime time) {
+        return time == null ? null : STORAGE.format(time);
+    }
+
+    public static String display(LocalDateTime time) {
+        return time == null ? "" : DISPLAY.format(time);
+    }
+
+    public static LocalDateTime of(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    public static LocalDateTime of(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    public static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
@@ -0,0 +1,94 @@
+package util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Primary keys: entities and pages keep the canonical 36 character UUID string,
+ * MySQL stores the same 16 bytes in a BINARY(16) column.
+ * New ids start with the creation time in milliseconds (UUID version 7 layout),
+ * so InnoDB appends them at the end of the clustered index instead of splitting random pages.
+ */
+public final class Identifiers {
+    public static final int LENGTH = 16;
+
+    private static final int UUID_STRING_LENGTH = 36;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+
+    private Identifiers() {
+    }
+
+    /**
+     * @return new time-ordered id: 48 bits of epoch milliseconds, version, 74 random bits
+     */
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = (System.currentTimeMillis() << 16) | VERSION_7 | (random.nextLong() & 0x0FFFL);
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | VARIANT_RFC_4122;
+        return new UUID(most, least).toString();
+    }
+
+    /**
+     * UUID strings map to their 16 bytes. Anything else is a legacy key ('1', '2', ...) and maps to
+     * its MD5, the same as UNHEX(MD5(id)) used by the migration and data.sql.
+     *
+     * @return NULL for NULL
+     */
+    public static byte[] toBytes(String id) {
+        if (id == null)
+            return null;
+
+        if (id.length() == UUID_STRING_LENGTH) {
+            try {
+                UUID uuid = UUID.fromString(id);
+                return ByteBuffer.allocate(LENGTH)
+                        .putLong(uuid.getMostSignificantBits())
+                        .putLong(uuid.getLeastSignificantBits())
+                        .array();
+            } catch (IllegalArgumentException e) {
+                // not a UUID after all, falls through to the legacy mapping
+            }
+        }
+        return md5(id);
+    }
+
+    /**
+     * @return TRUE for a canonical UUID string, as made by {@link #next()}
+     */
+    public static boolean isUuid(String id) {
+        if (id == null || id.length() != UUID_STRING_LENGTH)
+            return false;
+
+        try {
+            return UUID.fromString(id).toString().equals(id.toLowerCase());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return canonical UUID string, NULL for NULL
+     */
+    public static String fromBytes(byte[] bytes) {
+        if (bytes == null)
+            return null;
+        if (bytes.length != LENGTH)
+            throw new IllegalArgumentException("Id must have " + LENGTH + " bytes, got " + bytes.length);
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+
+    private static byte[] md5(String id) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(id.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Just enough JSON for the hand-written responses
+ */
+public final class Json {
+    private Json() {
+    }
+
+    /**
+     * Writes a quoted string; angle brackets are escaped too, so the output is safe inside a page
+     */
+    public static void writeString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20 || c == '<' || c == '>') {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
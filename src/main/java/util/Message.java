@@ -11,6 +11,7 @@ public class Message {
     public static final String IO_EXCEPTION = "message.io";
     public static final String EXCEPTION = "message.exception";
     public static final String PAGE_IS_NULL = "message.nullpage";
+    public static final String WAITLIST = "message.waitlist";
 
 
     private Message(){
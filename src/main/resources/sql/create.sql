@@ -19,7 +19,7 @@ USE `railway_system` ;
 DROP TABLE IF EXISTS `railway_system`.`user` ;
 
 CREATE TABLE IF NOT EXISTS `railway_system`.`user` (
-  `id` CHAR(36) NOT NULL,
+  `id` BINARY(16) NOT NULL,
   `email` VARCHAR(255) NOT NULL,
   `password` VARCHAR(35) NOT NULL,
   `name` VARCHAR(35) NOT NULL,
@@ -38,7 +38,7 @@ DEFAULT CHARACTER SET = utf8;
 DROP TABLE IF EXISTS `railway_system`.`price` ;
 
 CREATE TABLE IF NOT EXISTS `railway_system`.`price` (
-  `id` CHAR(36) NOT NULL,
+  `id` BINARY(16) NOT NULL,
   `compartment_factor` FLOAT NOT NULL,
   `deluxe_factor` FLOAT NOT NULL,
   `berth_factor` FLOAT NOT NULL,
@@ -53,7 +53,7 @@ DEFAULT CHARACTER SET = utf8;
 DROP TABLE IF EXISTS `railway_system`.`station` ;
 
 CREATE TABLE IF NOT EXISTS `railway_system`.`station` (
-  `id` CHAR(36) NOT NULL,
+  `id` BINARY(16) NOT NULL,
   `name` VARCHAR(45) NOT NULL,
   PRIMARY KEY (`id`))
 ENGINE = InnoDB;
@@ -65,12 +65,12 @@ ENGINE = InnoDB;
 DROP TABLE IF EXISTS `railway_system`.`route` ;
 
 CREATE TABLE IF NOT EXISTS `railway_system`.`route` (
-  `id` CHAR(36) NOT NULL,
+  `id` BINARY(16) NOT NULL,
   `from_time` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `to_time` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-  `price_id` CHAR(36) NOT NULL,
-  `from_id` CHAR(36) NOT NULL,
-  `to_id` CHAR(36) NOT NULL,
+  `price_id` BINARY(16) NOT NULL,
+  `from_id` BINARY(16) NOT NULL,
+  `to_id` BINARY(16) NOT NULL,
   `distance` DOUBLE NOT NULL,
   PRIMARY KEY (`id`),
   INDEX `fk_route_price1_idx` (`price_id` ASC),
@@ -101,8 +101,8 @@ DEFAULT CHARACTER SET = utf8;
 DROP TABLE IF EXISTS `railway_system`.`train` ;
 
 CREATE TABLE IF NOT EXISTS `railway_system`.`train` (
-  `id` CHAR(36) NOT NULL,
-  `route_id` CHAR(36) NOT NULL,
+  `id` BINARY(16) NOT NULL,
+  `route_id` BINARY(16) NOT NULL,
   `compartment_free` INT(11) NOT NULL,
   `deluxe_free` INT(11) NOT NULL,
   `berth_free` INT(11) NOT NULL,
@@ -123,9 +123,9 @@ DEFAULT CHARACTER SET = utf8;
 DROP TABLE IF EXISTS `railway_system`.`request` ;
 
 CREATE TABLE IF NOT EXISTS `railway_system`.`request` (
-  `id` CHAR(36) NOT NULL,
-  `user_id` CHAR(36) NOT NULL,
-  `train_id` CHAR(36) NOT NULL,
+  `id` BINARY(16) NOT NULL,
+  `user_id` BINARY(16) NOT NULL,
+  `train_id` BINARY(16) NOT NULL,
   `type` ENUM('C', 'L', 'B') NOT NULL,
   `price` INT(11) NOT NULL,
   PRIMARY KEY (`id`),
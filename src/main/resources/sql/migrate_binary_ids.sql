@@ -0,0 +1,111 @@
+-- -----------------------------------------------------
+-- Migrates a railway_system schema created with CHAR(36) keys to BINARY(16) keys.
+-- UUID strings keep their 16 bytes, any other (legacy) key becomes UNHEX(MD5(key)),
+-- the same mapping util.Identifiers applies, so old links keep working.
+-- Run once, with the application stopped:  mysql -u root -p < migrate_binary_ids.sql
+-- -----------------------------------------------------
+USE `railway_system` ;
+
+DROP FUNCTION IF EXISTS `legacy_id_to_bin` ;
+
+DELIMITER $$
+CREATE FUNCTION `legacy_id_to_bin`(id CHAR(36)) RETURNS BINARY(16) DETERMINISTIC
+BEGIN
+  IF id REGEXP '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$' THEN
+    RETURN UNHEX(REPLACE(id, '-', ''));
+  END IF;
+  RETURN UNHEX(MD5(id));
+END$$
+DELIMITER ;
+
+-- -----------------------------------------------------
+-- Foreign keys can not span CHAR and BINARY columns, drop them first
+-- -----------------------------------------------------
+ALTER TABLE `request`
+  DROP FOREIGN KEY `passenger`,
+  DROP FOREIGN KEY `invoice_train`;
+
+ALTER TABLE `train`
+  DROP FOREIGN KEY `train_route`;
+
+ALTER TABLE `route`
+  DROP FOREIGN KEY `fk_route_price1`,
+  DROP FOREIGN KEY `fk_route_station1`,
+  DROP FOREIGN KEY `fk_route_station2`;
+
+-- -----------------------------------------------------
+-- Convert every key column in place
+-- -----------------------------------------------------
+ALTER TABLE `user` MODIFY `id` VARBINARY(36) NOT NULL;
+UPDATE `user` SET `id` = legacy_id_to_bin(`id`);
+ALTER TABLE `user` MODIFY `id` BINARY(16) NOT NULL;
+
+ALTER TABLE `price` MODIFY `id` VARBINARY(36) NOT NULL;
+UPDATE `price` SET `id` = legacy_id_to_bin(`id`);
+ALTER TABLE `price` MODIFY `id` BINARY(16) NOT NULL;
+
+ALTER TABLE `station` MODIFY `id` VARBINARY(36) NOT NULL;
+UPDATE `station` SET `id` = legacy_id_to_bin(`id`);
+ALTER TABLE `station` MODIFY `id` BINARY(16) NOT NULL;
+
+ALTER TABLE `route`
+  MODIFY `id` VARBINARY(36) NOT NULL,
+  MODIFY `price_id` VARBINARY(36) NOT NULL,
+  MODIFY `from_id` VARBINARY(36) NOT NULL,
+  MODIFY `to_id` VARBINARY(36) NOT NULL;
+UPDATE `route` SET
+  `id` = legacy_id_to_bin(`id`),
+  `price_id` = legacy_id_to_bin(`price_id`),
+  `from_id` = legacy_id_to_bin(`from_id`),
+  `to_id` = legacy_id_to_bin(`to_id`);
+ALTER TABLE `route`
+  MODIFY `id` BINARY(16) NOT NULL,
+  MODIFY `price_id` BINARY(16) NOT NULL,
+  MODIFY `from_id` BINARY(16) NOT NULL,
+  MODIFY `to_id` BINARY(16) NOT NULL;
+
+ALTER TABLE `train`
+  MODIFY `id` VARBINARY(36) NOT NULL,
+  MODIFY `route_id` VARBINARY(36) NOT NULL;
+UPDATE `train` SET
+  `id` = legacy_id_to_bin(`id`),
+  `route_id` = legacy_id_to_bin(`route_id`);
+ALTER TABLE `train`
+  MODIFY `id` BINARY(16) NOT NULL,
+  MODIFY `route_id` BINARY(16) NOT NULL;
+
+ALTER TABLE `request`
+  MODIFY `id` VARBINARY(36) NOT NULL,
+  MODIFY `user_id` VARBINARY(36) NOT NULL,
+  MODIFY `train_id` VARBINARY(36) NOT NULL;
+UPDATE `request` SET
+  `id` = legacy_id_to_bin(`id`),
+  `user_id` = legacy_id_to_bin(`user_id`),
+  `train_id` = legacy_id_to_bin(`train_id`);
+ALTER TABLE `request`
+  MODIFY `id` BINARY(16) NOT NULL,
+  MODIFY `user_id` BINARY(16) NOT NULL,
+  MODIFY `train_id` BINARY(16) NOT NULL;
+
+-- -----------------------------------------------------
+-- Restore the foreign keys of create.sql
+-- -----------------------------------------------------
+ALTER TABLE `route`
+  ADD CONSTRAINT `fk_route_price1`
+    FOREIGN KEY (`price_id`) REFERENCES `price` (`id`) ON DELETE NO ACTION ON UPDATE NO ACTION,
+  ADD CONSTRAINT `fk_route_station1`
+    FOREIGN KEY (`from_id`) REFERENCES `station` (`id`) ON DELETE NO ACTION ON UPDATE NO ACTION,
+  ADD CONSTRAINT `fk_route_station2`
+    FOREIGN KEY (`to_id`) REFERENCES `station` (`id`) ON DELETE NO ACTION ON UPDATE NO ACTION;
+
+ALTER TABLE `train`
+  ADD CONSTRAINT `train_route`
+    FOREIGN KEY (`route_id`) REFERENCES `route` (`id`) ON DELETE CASCADE ON UPDATE CASCADE;
+
+ALTER TABLE `request`
+  ADD CONSTRAINT `passenger`
+    FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE,
+  ADD CONSTRAINT `invoice_train`
+    FOREIGN KEY (`train_id`) REFERENCES `train` (`id`) ON DELETE CASCADE ON UPDATE CASCADE;
+
+DROP FUNCTION `legacy_id_to_bin` ;
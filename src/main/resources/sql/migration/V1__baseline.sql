@@ -0,0 +1,100 @@
+-- -----------------------------------------------------
+-- Baseline: the tables of create.sql. A schema created by create.sql already has them,
+-- then this version is only recorded.
+-- -----------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS `user` (
+  `id` BINARY(16) NOT NULL,
+  `email` VARCHAR(255) NOT NULL,
+  `password` VARCHAR(35) NOT NULL,
+  `name` VARCHAR(35) NOT NULL,
+  `surname` VARCHAR(35) NOT NULL,
+  `phone` VARCHAR(12) NOT NULL,
+  `admin` TINYINT(1) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `email_UNIQUE` (`email` ASC))
+ENGINE = InnoDB
+DEFAULT CHARACTER SET = utf8;
+
+CREATE TABLE IF NOT EXISTS `price` (
+  `id` BINARY(16) NOT NULL,
+  `compartment_factor` FLOAT NOT NULL,
+  `deluxe_factor` FLOAT NOT NULL,
+  `berth_factor` FLOAT NOT NULL,
+  PRIMARY KEY (`id`))
+ENGINE = InnoDB
+DEFAULT CHARACTER SET = utf8;
+
+CREATE TABLE IF NOT EXISTS `station` (
+  `id` BINARY(16) NOT NULL,
+  `name` VARCHAR(45) NOT NULL,
+  PRIMARY KEY (`id`))
+ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `route` (
+  `id` BINARY(16) NOT NULL,
+  `from_time` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `to_time` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `price_id` BINARY(16) NOT NULL,
+  `from_id` BINARY(16) NOT NULL,
+  `to_id` BINARY(16) NOT NULL,
+  `distance` DOUBLE NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `fk_route_price1_idx` (`price_id` ASC),
+  INDEX `fk_route_station1_idx` (`from_id` ASC),
+  INDEX `fk_route_station2_idx` (`to_id` ASC),
+  CONSTRAINT `fk_route_price1`
+    FOREIGN KEY (`price_id`)
+    REFERENCES `price` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION,
+  CONSTRAINT `fk_route_station1`
+    FOREIGN KEY (`from_id`)
+    REFERENCES `station` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION,
+  CONSTRAINT `fk_route_station2`
+    FOREIGN KEY (`to_id`)
+    REFERENCES `station` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
+ENGINE = InnoDB
+DEFAULT CHARACTER SET = utf8;
+
+CREATE TABLE IF NOT EXISTS `train` (
+  `id` BINARY(16) NOT NULL,
+  `route_id` BINARY(16) NOT NULL,
+  `compartment_free` INT(11) NOT NULL,
+  `deluxe_free` INT(11) NOT NULL,
+  `berth_free` INT(11) NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `train_route_idx` (`route_id` ASC),
+  CONSTRAINT `train_route`
+    FOREIGN KEY (`route_id`)
+    REFERENCES `route` (`id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE)
+ENGINE = InnoDB
+DEFAULT CHARACTER SET = utf8;
+
+CREATE TABLE IF NOT EXISTS `request` (
+  `id` BINARY(16) NOT NULL,
+  `user_id` BINARY(16) NOT NULL,
+  `train_id` BINARY(16) NOT NULL,
+  `type` ENUM('C', 'L', 'B') NOT NULL,
+  `price` INT(11) NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `passenger_idx` (`user_id` ASC),
+  INDEX `invoice_train_idx` (`train_id` ASC),
+  CONSTRAINT `passenger`
+    FOREIGN KEY (`user_id`)
+    REFERENCES `user` (`id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE,
+  CONSTRAINT `invoice_train`
+    FOREIGN KEY (`train_id`)
+    REFERENCES `train` (`id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE)
+ENGINE = InnoDB
+DEFAULT CHARACTER SET = utf8;
@@ -0,0 +1,22 @@
+-- -----------------------------------------------------
+-- Composite indexes for the search, admin and booking queries.
+-- Where a new index starts with the column of a foreign key index, the old index is replaced:
+-- the foreign key is dropped with it and added back on top of the new index.
+-- -----------------------------------------------------
+
+-- RouteDAO.findByStations: from_id=? AND to_id=? AND from_time>?
+ALTER TABLE `route` DROP FOREIGN KEY `fk_route_station1`;
+ALTER TABLE `route` DROP INDEX `fk_route_station1_idx`;
+CREATE INDEX `route_search_idx` ON `route` (`from_id`, `to_id`, `from_time`);
+ALTER TABLE `route` ADD CONSTRAINT `fk_route_station1`
+  FOREIGN KEY (`from_id`) REFERENCES `station` (`id`) ON DELETE NO ACTION ON UPDATE NO ACTION;
+
+-- RequestDAO.findByTrain, cancellation of all tickets of a train
+ALTER TABLE `request` DROP FOREIGN KEY `invoice_train`;
+ALTER TABLE `request` DROP INDEX `invoice_train_idx`;
+CREATE INDEX `request_train_type_idx` ON `request` (`train_id`, `type`);
+ALTER TABLE `request` ADD CONSTRAINT `invoice_train`
+  FOREIGN KEY (`train_id`) REFERENCES `train` (`id`) ON DELETE CASCADE ON UPDATE CASCADE;
+
+-- UserDAO.findByAdmin
+CREATE INDEX `user_admin_idx` ON `user` (`admin`);
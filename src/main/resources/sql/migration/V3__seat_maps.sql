@@ -0,0 +1,23 @@
+-- -----------------------------------------------------
+-- Seat maps: the carriages of every train with one bit per seat,
+-- and the seat assigned to every request (NULL for older requests).
+-- -----------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS `carriage` (
+  `id` BINARY(16) NOT NULL,
+  `train_id` BINARY(16) NOT NULL,
+  `number` INT(11) NOT NULL,
+  `type` ENUM('C', 'L', 'B') NOT NULL,
+  `seats` INT(11) NOT NULL,
+  `seat_map` VARBINARY(64) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `carriage_train_number_idx` (`train_id` ASC, `number` ASC),
+  CONSTRAINT `carriage_train`
+    FOREIGN KEY (`train_id`)
+    REFERENCES `train` (`id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE)
+ENGINE = InnoDB;
+
+ALTER TABLE `request` ADD COLUMN `carriage` INT(11) NULL;
+ALTER TABLE `request` ADD COLUMN `seat` INT(11) NULL;
@@ -0,0 +1,33 @@
+-- -----------------------------------------------------
+-- Intermediate stops: a route may list its stops in order, segment n runs from stop n to stop n + 1.
+-- A request remembers the stops it covers (NULL for the whole route),
+-- a carriage seat map then holds a segment mask per seat and needs more room.
+-- -----------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS `route_stop` (
+  `id` BINARY(16) NOT NULL,
+  `route_id` BINARY(16) NOT NULL,
+  `number` INT(11) NOT NULL,
+  `station_id` BINARY(16) NOT NULL,
+  `arrival` TIMESTAMP NULL,
+  `departure` TIMESTAMP NULL,
+  `distance` DOUBLE NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE INDEX `route_stop_route_number_idx` (`route_id` ASC, `number` ASC),
+  INDEX `route_stop_station_idx` (`station_id` ASC),
+  CONSTRAINT `route_stop_route`
+    FOREIGN KEY (`route_id`)
+    REFERENCES `route` (`id`)
+    ON DELETE CASCADE
+    ON UPDATE CASCADE,
+  CONSTRAINT `route_stop_station`
+    FOREIGN KEY (`station_id`)
+    REFERENCES `station` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
+ENGINE = InnoDB;
+
+ALTER TABLE `request` ADD COLUMN `from_stop` INT(11) NULL;
+ALTER TABLE `request` ADD COLUMN `to_stop` INT(11) NULL;
+
+ALTER TABLE `carriage` MODIFY `seat_map` VARBINARY(512) NOT NULL;
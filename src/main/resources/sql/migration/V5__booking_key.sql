@@ -0,0 +1,9 @@
+-- -----------------------------------------------------
+-- Idempotent booking: every request remembers the key of the booking form that created it
+-- and its place among the booked tickets, a resubmitted form cannot insert the same ticket twice.
+-- -----------------------------------------------------
+
+ALTER TABLE `request` ADD COLUMN `booking_key` BINARY(16) NULL;
+ALTER TABLE `request` ADD COLUMN `booking_seq` INT(11) NULL;
+
+CREATE UNIQUE INDEX `request_booking_key_idx` ON `request` (`booking_key` ASC, `booking_seq` ASC);
@@ -0,0 +1,121 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
+
+<html>
+<head>
+    <title>Railway System</title>
+    <meta http-equiv="Content-Type" content="text/html;charset=utf-8">
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/bootstrap.css"/>"/>
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/bootstrap-theme.css"/>"/>
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/style.css"/>"/>
+    <script src="<c:url value="/resources/js/jquery-3.2.1.js"/>"></script>
+    <script src="<c:url value="/resources/js/bootstrap.min.js"/>"></script>
+    <fmt:setBundle basename="navbar" var="navbar"/>
+    <fmt:setBundle basename="dashboardPage" var="dashboardPage"/>
+</head>
+<body>
+<nav class="navbar navbar-default">
+    <div class="container-fluid">
+        <div class="navbar-header">
+            <a class="navbar-brand">Railway System</a>
+        </div>
+        <cache:fragment key="dashboard.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li><a href="/RailwaySystem?command=users"><fmt:message key="navbar.users" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=tickets"><fmt:message key="navbar.tickets" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=metrics"><fmt:message key="navbar.metrics" bundle="${navbar}"/></a></li>
+                <li class="active"><a href="/RailwaySystem?command=dashboard"><fmt:message key="navbar.dashboard" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
+
+        <ul class="nav navbar-nav navbar-right">
+            <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
+            <li><a href="/RailwaySystem?command=EN">EN</a></li>
+            <li><a href="/RailwaySystem?command=UKR">UKR</a></li>
+            <li class="right"><a href="/RailwaySystem?command=logout"><fmt:message key="navbar.logout"
+                                                                                   bundle="${navbar}"/></a></li>
+        </ul>
+    </div>
+</nav>
+
+<div class="col-md-1"></div>
+<div class="col-md-10">
+    <form action="/RailwaySystem" method="get" class="form-inline text-center" style="margin-bottom: 15px">
+        <input type="hidden" name="command" value="dashboard">
+        <label for="day"><fmt:message key="dashboardPage.day" bundle="${dashboardPage}"/></label>
+        <input type="date" id="day" name="day" value="${day}" class="form-control">
+        <button type="submit" class="btn btn-default btn-md"><fmt:message key="dashboardPage.show"
+                                                                          bundle="${dashboardPage}"/></button>
+    </form>
+
+    <form method="post" action="/RailwaySystem/admin" class="text-center" style="margin-bottom: 15px">
+        <button type="submit" name="command" value="import" class="btn btn-default btn-md"><fmt:message
+                key="dashboardPage.import" bundle="${dashboardPage}"/></button>
+    </form>
+    <c:if test="${not empty importError}">
+        <div class="alert alert-danger"><fmt:message key="dashboardPage.importStopped" bundle="${dashboardPage}"/>
+                <c:out value="${importError}"/></div>
+    </c:if>
+    <c:if test="${not empty imported}">
+        <table class="table table-condensed">
+            <tr>
+                <th><fmt:message key="dashboardPage.importFile" bundle="${dashboardPage}"/></th>
+                <th><fmt:message key="dashboardPage.importRead" bundle="${dashboardPage}"/></th>
+                <th><fmt:message key="dashboardPage.importImported" bundle="${dashboardPage}"/></th>
+                <th><fmt:message key="dashboardPage.importRejected" bundle="${dashboardPage}"/></th>
+                <th><fmt:message key="dashboardPage.importFailed" bundle="${dashboardPage}"/></th>
+            </tr>
+            <c:forEach items="${imported.collections}" var="count">
+                <tr class="${count.rejected + count.failed > 0 ? 'warning' : ''}">
+                    <td>${count.collection}<c:if test="${count.skipped}"> (<fmt:message
+                            key="dashboardPage.importSkipped" bundle="${dashboardPage}"/>)</c:if></td>
+                    <td>${count.read}</td>
+                    <td>${count.imported}</td>
+                    <td>${count.rejected}</td>
+                    <td>${count.failed}</td>
+                </tr>
+            </c:forEach>
+        </table>
+    </c:if>
+
+    <c:if test="${empty routes}">
+        <p class="text-center"><fmt:message key="dashboardPage.empty" bundle="${dashboardPage}"/></p>
+    </c:if>
+    <c:forEach items="${routes}" var="route">
+        <h4>${route.fromCity} &rarr; ${route.toCity}, ${route.departure}:
+            <fmt:message key="dashboardPage.tickets" bundle="${dashboardPage}"/> ${route.tickets},
+            <fmt:message key="dashboardPage.revenue" bundle="${dashboardPage}"/> ${route.revenue}</h4>
+        <table class="table">
+            <cache:fragment key="dashboard.header" vary="locale">
+                <tr>
+                    <th><fmt:message key="dashboardPage.train" bundle="${dashboardPage}"/></th>
+                    <th><fmt:message key="dashboardPage.compartment" bundle="${dashboardPage}"/></th>
+                    <th><fmt:message key="dashboardPage.deluxe" bundle="${dashboardPage}"/></th>
+                    <th><fmt:message key="dashboardPage.berth" bundle="${dashboardPage}"/></th>
+                    <th><fmt:message key="dashboardPage.occupancy" bundle="${dashboardPage}"/></th>
+                </tr>
+            </cache:fragment>
+            <c:forEach items="${route.trains}" var="train">
+                <tr>
+                    <td>${train.trainId}</td>
+                    <td>${train.compartmentBooked} / ${train.compartmentBooked + train.compartmentFree}</td>
+                    <td>${train.deluxeBooked} / ${train.deluxeBooked + train.deluxeFree}</td>
+                    <td>${train.berthBooked} / ${train.berthBooked + train.berthFree}</td>
+                    <td>${train.occupancy}%</td>
+                </tr>
+            </c:forEach>
+        </table>
+    </c:forEach>
+</div>
+<div class="col-md-1"></div>
+</body>
+</html>
@@ -0,0 +1,123 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
+
+<html>
+<head>
+    <title>Railway System</title>
+    <meta http-equiv="Content-Type" content="text/html;charset=utf-8">
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/bootstrap.css"/>"/>
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/bootstrap-theme.css"/>"/>
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/style.css"/>"/>
+    <script src="<c:url value="/resources/js/jquery-3.2.1.js"/>"></script>
+    <script src="<c:url value="/resources/js/bootstrap.min.js"/>"></script>
+    <fmt:setBundle basename="navbar" var="navbar"/>
+    <fmt:setBundle basename="metricsPage" var="metricsPage"/>
+</head>
+<body>
+<nav class="navbar navbar-default">
+    <div class="container-fluid">
+        <div class="navbar-header">
+            <a class="navbar-brand">Railway System</a>
+        </div>
+        <cache:fragment key="metrics.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li><a href="/RailwaySystem?command=users"><fmt:message key="navbar.users" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=tickets"><fmt:message key="navbar.tickets" bundle="${navbar}"/></a></li>
+                <li class="active"><a href="/RailwaySystem?command=metrics"><fmt:message key="navbar.metrics"
+                                                                                         bundle="${navbar}"/></a>
+                </li>
+                <li><a href="/RailwaySystem?command=dashboard"><fmt:message key="navbar.dashboard" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
+
+        <ul class="nav navbar-nav navbar-right">
+            <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
+            <li><a href="/RailwaySystem?command=EN">EN</a></li>
+            <li><a href="/RailwaySystem?command=UKR">UKR</a></li>
+            <li class="right"><a href="/RailwaySystem?command=logout"><fmt:message key="navbar.logout"
+                                                                                   bundle="${navbar}"/></a></li>
+        </ul>
+    </div>
+</nav>
+<div class="col-md-1"></div>
+<div class="col-md-10">
+    <p>
+        <fmt:message key="metricsPage.uptime" bundle="${metricsPage}"/>: ${uptime},
+        <fmt:message key="metricsPage.throughput" bundle="${metricsPage}"/>: ${throughput}
+    </p>
+    <table class="table">
+        <cache:fragment key="metrics.commands.header" vary="locale">
+            <tr>
+                <th><fmt:message key="metricsPage.command" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.requests" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.errors" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.inFlight" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.queriesPerRequest" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.rows" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.dbWarnings" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.phase" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.p50" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.p95" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.p99" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.max" bundle="${metricsPage}"/></th>
+            </tr>
+        </cache:fragment>
+        <c:forEach items="${commands}" var="command">
+            <c:set var="execute" value="${command.execute}"/>
+            <c:set var="forward" value="${command.forward}"/>
+            <tr>
+                <td rowspan="2">${command.name}</td>
+                <td rowspan="2">${command.requests}</td>
+                <td rowspan="2">${command.errors}</td>
+                <td rowspan="2">${command.inFlight}</td>
+                <td rowspan="2"><fmt:formatNumber value="${command.queriesPerRequest}" maxFractionDigits="1"/></td>
+                <td rowspan="2">${command.rows}</td>
+                <td rowspan="2">${command.overBudget} / ${command.repeated}</td>
+                <td><fmt:message key="metricsPage.execute" bundle="${metricsPage}"/></td>
+                <td>${execute.p50}</td>
+                <td>${execute.p95}</td>
+                <td>${execute.p99}</td>
+                <td>${execute.max}</td>
+            </tr>
+            <tr>
+                <td><fmt:message key="metricsPage.forward" bundle="${metricsPage}"/></td>
+                <td>${forward.p50}</td>
+                <td>${forward.p95}</td>
+                <td>${forward.p99}</td>
+                <td>${forward.max}</td>
+            </tr>
+        </c:forEach>
+    </table>
+
+    <h4><fmt:message key="metricsPage.userCache" bundle="${metricsPage}"/></h4>
+    <table class="table">
+        <cache:fragment key="metrics.userCache.header" vary="locale">
+            <tr>
+                <th><fmt:message key="metricsPage.hitRatio" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.hits" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.negativeHits" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.misses" bundle="${metricsPage}"/></th>
+                <th><fmt:message key="metricsPage.size" bundle="${metricsPage}"/></th>
+            </tr>
+        </cache:fragment>
+        <tr>
+            <td><fmt:formatNumber value="${userCache.hitRatio}" type="percent" maxFractionDigits="1"/></td>
+            <td>${userCache.hitCount}</td>
+            <td>${userCache.negativeHitCount}</td>
+            <td>${userCache.missCount}</td>
+            <td>${userCache.size()}</td>
+        </tr>
+    </table>
+</div>
+<div class="col-md-1"></div>
+</body>
+</html>
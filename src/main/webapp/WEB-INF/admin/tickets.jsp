@@ -2,6 +2,7 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
 <%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
 
 <html>
 <head>
@@ -27,12 +28,16 @@
         <div class="navbar-header">
             <a class="navbar-brand">Railway System</a>
         </div>
-        <ul class="nav navbar-nav">
-            <li><a href="/RailwaySystem?command=users"><fmt:message key="navbar.users" bundle="${navbar}"/></a></li>
-            <li class="active"><a href="/RailwaySystem?command=tickets"><fmt:message key="navbar.tickets"
-                                                                                     bundle="${navbar}"/></a>
-            </li>
-        </ul>
+        <cache:fragment key="tickets.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li><a href="/RailwaySystem?command=users"><fmt:message key="navbar.users" bundle="${navbar}"/></a></li>
+                <li class="active"><a href="/RailwaySystem?command=tickets"><fmt:message key="navbar.tickets"
+                                                                                         bundle="${navbar}"/></a>
+                </li>
+                <li><a href="/RailwaySystem?command=metrics"><fmt:message key="navbar.metrics" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=dashboard"><fmt:message key="navbar.dashboard" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
 
         <ul class="nav navbar-nav navbar-right">
             <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
@@ -45,25 +50,50 @@
 </nav>
 <div class="col-md-1"></div>
 <div class="col-md-10">
+    <form action="/RailwaySystem" method="get" class="form-inline text-center" style="margin-bottom: 15px">
+        <input type="hidden" name="command" value="export">
+        <label for="exportFrom"><fmt:message key="tickets.exportFrom" bundle="${ticketsPage}"/></label>
+        <input type="date" id="exportFrom" name="from" class="form-control">
+        <label for="exportTo"><fmt:message key="tickets.exportTo" bundle="${ticketsPage}"/></label>
+        <input type="date" id="exportTo" name="to" class="form-control">
+        <label for="exportTrain"><fmt:message key="tickets.trainNumber" bundle="${ticketsPage}"/></label>
+        <input type="text" id="exportTrain" name="train" class="form-control">
+        <label for="exportType"><fmt:message key="tickets.type" bundle="${ticketsPage}"/></label>
+        <select id="exportType" name="type" class="form-control">
+            <option value=""><fmt:message key="tickets.exportAny" bundle="${ticketsPage}"/></option>
+            <option value="C">C</option>
+            <option value="L">L</option>
+            <option value="B">B</option>
+        </select>
+        <select name="format" class="form-control">
+            <option value="csv">CSV</option>
+            <option value="ndjson">NDJSON</option>
+        </select>
+        <button type="submit" class="btn btn-default btn-md"><fmt:message key="tickets.exportButton"
+                                                                          bundle="${ticketsPage}"/></button>
+    </form>
     <form action="/RailwaySystem/cancel" method="post" class="text-center">
         <button type="submit" name="command" value="cancel" class="btn btn-primary btn-md"><fmt:message
                 key="tickets.cancelButton" bundle="${ticketsPage}"/></button>
         <button type="submit" name="command" value="cancelAll" class="btn btn-primary btn-md"><fmt:message
                 key="tickets.cancelAllButton" bundle="${ticketsPage}"/></button>
         <table class="table" style="margin-top: 15px">
-            <tr>
-                <th><fmt:message key="tickets.application" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.trainNumber" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.name" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.surname" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.departure" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.arrival" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.from" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.to" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.type" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.price" bundle="${ticketsPage}"/></th>
-                <th><fmt:message key="tickets.cancel" bundle="${ticketsPage}"/></th>
-            </tr>
+            <cache:fragment key="tickets.header" vary="locale">
+                <tr>
+                    <th><fmt:message key="tickets.application" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.trainNumber" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.name" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.surname" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.departure" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.arrival" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.from" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.to" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.type" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.seat" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.price" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.cancel" bundle="${ticketsPage}"/></th>
+                </tr>
+            </cache:fragment>
             <tr>
                 <c:forEach items="${tickets}" var="ticket">
             <tr>
@@ -76,6 +106,7 @@
                 <td>${ticket.fromCity}</td>
                 <td>${ticket.toCity}</td>
                 <td>${ticket.typePlace}</td>
+                <td><c:if test="${ticket.seat != null}">${ticket.carriage}/${ticket.seat}</c:if></td>
                 <td>${ticket.price}</td>
                 <td><input type="checkbox" name="${ticket.requestId}" value="cancel"></td>
             </tr>
@@ -2,6 +2,7 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
 <%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
 <html>
 <head>
     <title>Railway System</title>
@@ -26,12 +27,16 @@
         <div class="navbar-header">
             <a class="navbar-brand">Railway System</a>
         </div>
-        <ul class="nav navbar-nav">
-            <li class="active"><a href="/RailwaySystem?command=users"><fmt:message key="navbar.users" bundle="${navbar}"/></a></li>
-            <li><a href="/RailwaySystem?command=tickets"><fmt:message key="navbar.tickets"
-                                                                                     bundle="${navbar}"/></a>
-            </li>
-        </ul>
+        <cache:fragment key="users.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li class="active"><a href="/RailwaySystem?command=users"><fmt:message key="navbar.users" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=tickets"><fmt:message key="navbar.tickets"
+                                                                                         bundle="${navbar}"/></a>
+                </li>
+                <li><a href="/RailwaySystem?command=metrics"><fmt:message key="navbar.metrics" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=dashboard"><fmt:message key="navbar.dashboard" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
 
         <ul class="nav navbar-nav navbar-right">
             <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
@@ -47,14 +52,16 @@
 
     <form method="post" action="/RailwaySystem/admin">
         <table class="table">
-            <tr>
-                <th><fmt:message key="usersPage.email" bundle="${usersPage}"/></th>
-                <th><fmt:message key="usersPage.name" bundle="${usersPage}"/></th>
-                <th><fmt:message key="usersPage.surname" bundle="${usersPage}"/></th>
-                <th><fmt:message key="usersPage.tel" bundle="${usersPage}"/></th>
-                <th><fmt:message key="usersPage.admin" bundle="${usersPage}"/></th>
-                <th><fmt:message key="usersPage.action" bundle="${usersPage}"/></th>
-            </tr>
+            <cache:fragment key="users.header" vary="locale">
+                <tr>
+                    <th><fmt:message key="usersPage.email" bundle="${usersPage}"/></th>
+                    <th><fmt:message key="usersPage.name" bundle="${usersPage}"/></th>
+                    <th><fmt:message key="usersPage.surname" bundle="${usersPage}"/></th>
+                    <th><fmt:message key="usersPage.tel" bundle="${usersPage}"/></th>
+                    <th><fmt:message key="usersPage.admin" bundle="${usersPage}"/></th>
+                    <th><fmt:message key="usersPage.action" bundle="${usersPage}"/></th>
+                </tr>
+            </cache:fragment>
             <c:forEach items="${users}" var="user">
                 <tr>
                     <td>${user.email}</td>
@@ -2,6 +2,7 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
 <%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
 <html>
 <head>
     <title>Railway System</title>
@@ -16,9 +17,11 @@
           href="<c:url value="/resources/css/style.css"/>"/>
     <script src="<c:url value="/resources/js/jquery-3.2.1.js"/>"></script>
     <script src="<c:url value="/resources/js/bootstrap.min.js"/>"></script>
+    <script src="<c:url value="/resources/js/stations.js"/>"></script>
     <fmt:setBundle basename="date" var="date"/>
     <fmt:setBundle basename="navbar" var="navbar"/>
     <fmt:setBundle basename="message" var="message"/>
+    <fmt:setBundle basename="waitlistPage" var="waitlistPage"/>
 </head>
 <body>
 <nav class="navbar navbar-default">
@@ -26,9 +29,12 @@
         <div class="navbar-header">
             <a class="navbar-brand">Railway System</a>
         </div>
-        <ul class="nav navbar-nav">
-            <li class="active"><a href="/RailwaySystem?command=main"><fmt:message key="navbar.main" bundle="${navbar}"/></a></li>        
-        </ul>
+        <cache:fragment key="date.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li class="active"><a href="/RailwaySystem?command=main"><fmt:message key="navbar.main" bundle="${navbar}"/></a></li>        
+                <li><a href="/RailwaySystem?command=waitlist"><fmt:message key="navbar.waitlist" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
         <ul class="nav navbar-nav navbar-right">
             <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
             <li><a href="/RailwaySystem?command=EN">EN</a></li>
@@ -39,21 +45,33 @@
 </nav>
 <div class="col-md-2"></div>
 <div class="col-md-8">
+    <c:if test="${not empty allocated}">
+        <div class="alert alert-success">
+            <a href="/RailwaySystem?command=waitlist"><fmt:message key="waitlist.booked" bundle="${waitlistPage}"/></a>:
+            <c:forEach items="${allocated}" var="ticket">
+                #${ticket.requestId} (${ticket.trainId})
+            </c:forEach>
+        </div>
+    </c:if>
     <form action="/RailwaySystem/route" method="post" class="form-horizontal">
         <div class="form-group">
             <div class="col-md-6">
-                <select name="from" class="form-control pull-right" id="from">
-                    <c:forEach items="${cityFrom}" var="fromItem">
-                        <option value="${fromItem.id}" ${from == fromItem.id ? 'selected' : ''}>${fromItem.name}</option>
-                    </c:forEach>
-                </select>
+                <input type="text" id="fromName" class="form-control pull-right station" list="fromStations"
+                       data-target="from" data-url="<c:url value="/stations"/>"
+                       data-invalid="<fmt:message key="date.unknownStation" bundle="${date}"/>"
+                       placeholder="<fmt:message key="date.stationFrom" bundle="${date}"/>"
+                       value="<c:out value="${fromName}"/>" autocomplete="off" required/>
+                <datalist id="fromStations"></datalist>
+                <input type="hidden" name="from" id="from" value="<c:out value="${from}"/>"/>
             </div>
             <div class="col-md-6">
-                <select name="to" class="form-control" id="to">
-                    <c:forEach items="${cityTo}" var="toItem">
-                        <option value="${toItem.id}" ${to == toItem.id ? 'selected' : ''}>${toItem.name}</option>
-                    </c:forEach>
-                </select>
+                <input type="text" id="toName" class="form-control station" list="toStations"
+                       data-target="to" data-url="<c:url value="/stations"/>"
+                       data-invalid="<fmt:message key="date.unknownStation" bundle="${date}"/>"
+                       placeholder="<fmt:message key="date.stationTo" bundle="${date}"/>"
+                       value="<c:out value="${toName}"/>" autocomplete="off" required/>
+                <datalist id="toStations"></datalist>
+                <input type="hidden" name="to" id="to" value="<c:out value="${to}"/>"/>
             </div>
         </div>
 
@@ -107,13 +125,15 @@
             <c:if test="${not empty trains}">
 
                 <table class="table">
-                    <tr>
-                        <th><fmt:message key="date.number" bundle="${date}"/></th>
-                        <th><fmt:message key="date.from" bundle="${date}"/></th>
-                        <th><fmt:message key="date.departure" bundle="${date}"/></th>
-                        <th><fmt:message key="date.arrival" bundle="${date}"/></th>
-                        <th><fmt:message key="date.seatsAvailable" bundle="${date}"/></th>
-                    </tr>
+                    <cache:fragment key="date.header" vary="locale">
+                        <tr>
+                            <th><fmt:message key="date.number" bundle="${date}"/></th>
+                            <th><fmt:message key="date.from" bundle="${date}"/></th>
+                            <th><fmt:message key="date.departure" bundle="${date}"/></th>
+                            <th><fmt:message key="date.arrival" bundle="${date}"/></th>
+                            <th><fmt:message key="date.seatsAvailable" bundle="${date}"/></th>
+                        </tr>
+                    </cache:fragment>
                     <c:forEach items="${trains}" var="train">
                         <tr>
                             <td>${train.trainId}</td>
@@ -124,17 +144,17 @@
                                 <select name="train${train.trainId}" class="form-control" style="width: 180px;">
                                     <option value="none"></option>
                                     <c:if test="${train.compartmentFree gt 0}">
-                                        <option value="C">C (${train.compartmentFree}) = ${train.compartmentPrice}
+                                        <option value="C">C (${train.compartmentFree}<c:if test="${train.compartmentHeld gt 0}">, <fmt:message key="date.held" bundle="${date}"/> ${train.compartmentHeld}</c:if>) = ${train.compartmentPrice}
                                             <fmt:message key="date.currency" bundle="${date}"/>
                                         </option>
                                     </c:if>
 
                                     <c:if test="${train.berthFree gt 0}">
-                                        <option value="B">B (${train.berthFree}) = ${train.berthPrice} <fmt:message key="date.currency" bundle="${date}"/></option>
+                                        <option value="B">B (${train.berthFree}<c:if test="${train.berthHeld gt 0}">, <fmt:message key="date.held" bundle="${date}"/> ${train.berthHeld}</c:if>) = ${train.berthPrice} <fmt:message key="date.currency" bundle="${date}"/></option>
                                     </c:if>
 
                                     <c:if test="${train.deluxeFree gt 0}">
-                                        <option value="L">L (${train.deluxeFree}) = ${train.deluxePrice} <fmt:message key="date.currency" bundle="${date}"/></option>
+                                        <option value="L">L (${train.deluxeFree}<c:if test="${train.deluxeHeld gt 0}">, <fmt:message key="date.held" bundle="${date}"/> ${train.deluxeHeld}</c:if>) = ${train.deluxePrice} <fmt:message key="date.currency" bundle="${date}"/></option>
                                     </c:if>
                                 </select>
                             </td>
@@ -2,6 +2,7 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
 <%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
 <html>
 <head>
     <title>Railway System</title>
@@ -26,9 +27,12 @@
         <div class="navbar-header">
             <a class="navbar-brand">Railway System</a>
         </div>
-        <ul class="nav navbar-nav">
-            <li><a href="/RailwaySystem?command=main"><fmt:message key="navbar.main" bundle="${navbar}"/></a></li>
-        </ul>
+        <cache:fragment key="order.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li><a href="/RailwaySystem?command=main"><fmt:message key="navbar.main" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=waitlist"><fmt:message key="navbar.waitlist" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
         <ul class="nav navbar-nav navbar-right">
             <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
             <li><a href="/RailwaySystem?command=EN">EN</a></li>
@@ -46,18 +50,20 @@
     <c:if test="${not empty tickets}">
         <form action="/RailwaySystem/make" method="post" class="text-center">
             <table class="table">
-                <tr>
-                    <th><fmt:message key="order.trainNumber" bundle="${order}"/></th>
-                    <th><fmt:message key="order.name" bundle="${order}"/></th>
-                    <th><fmt:message key="order.surname" bundle="${order}"/></th>
-                    <th><fmt:message key="order.departure" bundle="${order}"/></th>
-                    <th><fmt:message key="order.arrival" bundle="${order}"/></th>
-                    <th><fmt:message key="order.from" bundle="${order}"/></th>
-                    <th><fmt:message key="order.to" bundle="${order}"/></th>
-                    <th><fmt:message key="order.type" bundle="${order}"/></th>
-                    <th><fmt:message key="order.price" bundle="${order}"/></th>
-                    <th><fmt:message key="order.count" bundle="${order}"/></th>
-                </tr>
+                <cache:fragment key="order.header" vary="locale">
+                    <tr>
+                        <th><fmt:message key="order.trainNumber" bundle="${order}"/></th>
+                        <th><fmt:message key="order.name" bundle="${order}"/></th>
+                        <th><fmt:message key="order.surname" bundle="${order}"/></th>
+                        <th><fmt:message key="order.departure" bundle="${order}"/></th>
+                        <th><fmt:message key="order.arrival" bundle="${order}"/></th>
+                        <th><fmt:message key="order.from" bundle="${order}"/></th>
+                        <th><fmt:message key="order.to" bundle="${order}"/></th>
+                        <th><fmt:message key="order.type" bundle="${order}"/></th>
+                        <th><fmt:message key="order.price" bundle="${order}"/></th>
+                        <th><fmt:message key="order.count" bundle="${order}"/></th>
+                    </tr>
+                </cache:fragment>
                 <tr>
                     <c:forEach items="${tickets}" var="ticket">
                 <tr>
@@ -77,6 +83,7 @@
                 </tr>
             </table>
             <input type="hidden" name="tickets" value="${tickets}">
+            <input type="hidden" name="bookingKey" value="${bookingKey}">
             <button type="submit" name="command" value="book" class="btn btn-primary btn-lg "><fmt:message
                     key="order.bookTickets" bundle="${order}"/></button>
         </form>
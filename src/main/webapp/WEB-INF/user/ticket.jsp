@@ -2,6 +2,7 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
 <%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
 <html>
 <head>
     <title>Railway System</title>
@@ -28,9 +29,12 @@
         <div class="navbar-header">
             <a class="navbar-brand">Railway System</a>
         </div>
-        <ul class="nav navbar-nav">
-            <li><a href="/RailwaySystem?command=main"><fmt:message key="navbar.main" bundle="${navbar}"/></a></li>
-        </ul>
+        <cache:fragment key="ticket.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li><a href="/RailwaySystem?command=main"><fmt:message key="navbar.main" bundle="${navbar}"/></a></li>
+                <li><a href="/RailwaySystem?command=waitlist"><fmt:message key="navbar.waitlist" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
         <ul class="nav navbar-nav navbar-right">
             <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
             <li><a href="/RailwaySystem?command=EN">EN</a></li>
@@ -44,18 +48,21 @@
 <div class="col-md-8">
     <h1 style="text-align: center"><fmt:message key="tickets.remember" bundle="${ticketsPage}"/></h1>
     <table class="table">
-        <tr>
-            <th><fmt:message key="tickets.application" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.trainNumber" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.name" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.surname" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.departure" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.arrival" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.from" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.to" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.type" bundle="${ticketsPage}"/></th>
-            <th><fmt:message key="tickets.price" bundle="${ticketsPage}"/></th>
-        </tr>
+        <cache:fragment key="ticket.header" vary="locale">
+            <tr>
+                <th><fmt:message key="tickets.application" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.trainNumber" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.name" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.surname" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.departure" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.arrival" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.from" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.to" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.type" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.seat" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.price" bundle="${ticketsPage}"/></th>
+            </tr>
+        </cache:fragment>
         <tr>
             <c:forEach items="${tickets}" var="ticket">
         <tr>
@@ -68,6 +75,7 @@
             <td>${ticket.fromCity}</td>
             <td>${ticket.toCity}</td>
             <td>${ticket.typePlace}</td>
+            <td><c:if test="${ticket.seat != null}">${ticket.carriage}/${ticket.seat}</c:if></td>
             <td>${ticket.price}</td>
         </tr>
         </c:forEach>
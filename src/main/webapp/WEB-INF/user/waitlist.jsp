@@ -0,0 +1,108 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="hello" uri="/WEB-INF/lib/hello.tld" %>
+<%@ taglib prefix="cache" uri="/WEB-INF/lib/cache.tld" %>
+<html>
+<head>
+    <title>Railway System</title>
+
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/bootstrap.css"/>"/>
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/bootstrap-theme.css"/>"/>
+    <link rel="stylesheet"
+          type="text/css"
+          href="<c:url value="/resources/css/style.css"/>"/>
+    <script src="<c:url value="/resources/js/jquery-3.2.1.js"/>"></script>
+    <script src="<c:url value="/resources/js/bootstrap.min.js"/>"></script>
+
+    <fmt:setBundle basename="ticketsPage" var="ticketsPage"/>
+    <fmt:setBundle basename="navbar" var="navbar"/>
+    <fmt:setBundle basename="waitlistPage" var="waitlistPage"/>
+</head>
+<body style="background: #fff">
+<nav class="navbar navbar-default">
+    <div class="container-fluid">
+        <div class="navbar-header">
+            <a class="navbar-brand">Railway System</a>
+        </div>
+        <cache:fragment key="waitlist.navbar" vary="locale">
+            <ul class="nav navbar-nav">
+                <li><a href="/RailwaySystem?command=main"><fmt:message key="navbar.main" bundle="${navbar}"/></a></li>
+                <li class="active"><a href="/RailwaySystem?command=waitlist"><fmt:message key="navbar.waitlist" bundle="${navbar}"/></a></li>
+            </ul>
+        </cache:fragment>
+        <ul class="nav navbar-nav navbar-right">
+            <li><a class="navbar-brand"><hello:user name="${username}"/></a></li>
+            <li><a href="/RailwaySystem?command=EN">EN</a></li>
+            <li><a href="/RailwaySystem?command=UKR">UKR</a></li>
+            <li><a href="/RailwaySystem?command=logout"><fmt:message key="navbar.logout" bundle="${navbar}"/></a></li>
+        </ul>
+    </div>
+</nav>
+
+<div class="col-md-2"></div>
+<div class="col-md-8">
+    <c:if test="${not empty allocated}">
+        <h3><fmt:message key="waitlist.booked" bundle="${waitlistPage}"/></h3>
+        <table class="table">
+            <tr>
+                <th><fmt:message key="tickets.application" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.trainNumber" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.type" bundle="${ticketsPage}"/></th>
+                <th><fmt:message key="tickets.price" bundle="${ticketsPage}"/></th>
+            </tr>
+            <c:forEach items="${allocated}" var="ticket">
+                <tr>
+                    <td>#${ticket.requestId}</td>
+                    <td>${ticket.trainId}</td>
+                    <td>${ticket.typePlace}</td>
+                    <td>${ticket.price}</td>
+                </tr>
+            </c:forEach>
+        </table>
+    </c:if>
+
+    <h1 style="text-align: center"><fmt:message key="waitlist.title" bundle="${waitlistPage}"/></h1>
+    <c:if test="${empty waiting}">
+        <p style="text-align: center"><fmt:message key="waitlist.empty" bundle="${waitlistPage}"/></p>
+    </c:if>
+    <c:if test="${not empty waiting}">
+        <table class="table">
+            <cache:fragment key="waitlist.header" vary="locale">
+                <tr>
+                    <th><fmt:message key="tickets.trainNumber" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.departure" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.from" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.to" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.type" bundle="${ticketsPage}"/></th>
+                    <th><fmt:message key="tickets.price" bundle="${ticketsPage}"/></th>
+                    <th></th>
+                </tr>
+            </cache:fragment>
+            <c:forEach items="${waiting}" var="ticket">
+                <tr>
+                    <td>${ticket.trainId}</td>
+                    <td>${ticket.fromDate}</td>
+                    <td>${ticket.fromCity}</td>
+                    <td>${ticket.toCity}</td>
+                    <td>${ticket.typePlace}</td>
+                    <td>${ticket.price}</td>
+                    <td>
+                        <form action="/RailwaySystem/waitlist" method="post">
+                            <input type="hidden" name="waitlistId" value="${ticket.waitlistId}"/>
+                            <button type="submit" name="command" value="withdraw" class="btn btn-default btn-sm"><fmt:message
+                                    key="waitlist.withdraw" bundle="${waitlistPage}"/></button>
+                        </form>
+                    </td>
+                </tr>
+            </c:forEach>
+        </table>
+    </c:if>
+</div>
+<div class="col-md-2"></div>
+</body>
+</html>
@@ -0,0 +1,34 @@
+/*
+ * Station autocomplete of the search form. Suggestions are asked from the stations endpoint while the user types,
+ * choosing one puts its ID into the hidden field named by data-target. A name not chosen from the list is invalid.
+ */
+$(function () {
+    $('input.station').each(function () {
+        var input = $(this);
+        var list = $('#' + input.attr('list'));
+        var target = $('#' + input.data('target'));
+        var pending = null;
+
+        input.on('input', function () {
+            var name = input.val();
+            var chosen = list.find('option').filter(function () {
+                return this.value === name;
+            }).first();
+
+            target.val(chosen.length ? chosen.data('id') : '');
+            this.setCustomValidity(chosen.length ? '' : input.data('invalid'));
+            if (chosen.length || !$.trim(name))
+                return;
+
+            clearTimeout(pending);
+            pending = setTimeout(function () {
+                $.getJSON(input.data('url'), {q: name}, function (stations) {
+                    list.empty();
+                    $.each(stations, function (i, station) {
+                        list.append($('<option>').attr('value', station.name).attr('data-id', station.id));
+                    });
+                });
+            }, 100);
+        });
+    });
+});
@@ -25,6 +25,7 @@ public class MainPageCommandTest {
     private static final String LOGIN_JSP = "login.jsp";
     private static final String DATE_JSP = "date.jsp";
     private static final String PROFILE_DATABASE = "mysql";
+    private static final String WAITLIST_SIZE = "10";
 
 
     private HttpServletRequest request;
@@ -48,6 +49,7 @@ public class MainPageCommandTest {
         when(request.getSession(false)).thenReturn(session);
         when(session.getAttribute(USER_ATTRIBUTE)).thenReturn(user);
         when(configuration.getConfig(Configuration.PROFILE_DATABASE)).thenReturn(PROFILE_DATABASE);
+        when(configuration.getConfig(Configuration.WAITLIST_SIZE)).thenReturn(WAITLIST_SIZE);
         when(Configuration.getInstance()).thenReturn(configuration);
 
     }
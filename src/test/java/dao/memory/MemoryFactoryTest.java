@@ -0,0 +1,73 @@
+package dao.memory;
+
+import dao.DAOFactory;
+import model.entity.Route;
+import model.entity.Train;
+import model.entity.User;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryFactoryTest {
+    private static final String KYIV_ID = "5bfaa4a9d52d4832fb9b234e";
+    private static final String TRAIN_ID = "5bfaacdad52d4832fb9b2378";
+
+    private DAOFactory factory;
+
+    @Before
+    public void setUp() {
+        MemoryDataBase dataBase = new MemoryDataBase();
+        MemorySeeder.seed(dataBase, "json");
+        factory = new MemoryFactory(dataBase);
+    }
+
+    @Test
+    public void shouldSeedFromJsonFiles() {
+        assertEquals(4, factory.createStationDAO().findAll().size());
+        assertEquals(1, factory.createRequestDAO().findAll().size());
+        assertTrue(factory.createUserDAO().findByEmail("root").isAdmin());
+
+        List<Route> routes = factory.createRouteDAO().findByFromId(KYIV_ID);
+        assertTrue(!routes.isEmpty());
+        for (Route route : routes) {
+            assertEquals(KYIV_ID, route.getFromId());
+        }
+    }
+
+    @Test
+    public void shouldKeepEmailIndexInSyncOnUpdate() {
+        User user = factory.createUserDAO().findByEmail("andy97@ukr.net");
+        user.setEmail("andrii@ukr.net");
+        factory.createUserDAO().update(user);
+
+        assertNull(factory.createUserDAO().findByEmail("andy97@ukr.net"));
+        assertEquals(user.getId(), factory.createUserDAO().findByEmail("andrii@ukr.net").getId());
+    }
+
+    @Test
+    public void shouldReturnCopiesAndKeepSeatCounters() {
+        Train train = factory.createTrainDAO().findById(TRAIN_ID);
+        long free = train.getCompartmentFree();
+
+        train.setCompartmentFree(free - 1);
+        assertEquals(free, (long) factory.createTrainDAO().findById(TRAIN_ID).getCompartmentFree());
+
+        factory.createTrainDAO().update(train);
+        assertEquals(free - 1, (long) factory.createTrainDAO().findById(TRAIN_ID).getCompartmentFree());
+    }
+
+    @Test
+    public void shouldGenerateIdOnCreate() {
+        User user = new User(null, "Name", "Surname", "0", "new@ukr.net", "password", false);
+        factory.createUserDAO().create(user);
+
+        assertNotNull(user.getId());
+        assertEquals("new@ukr.net", factory.createUserDAO().findById(user.getId()).getEmail());
+    }
+}
@@ -0,0 +1,83 @@
+package dao.monitoring;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MonitoredConnectionTest {
+    private Connection connection;
+    private ResultSet resultSet;
+
+    @Before
+    public void setUp() throws Exception {
+        Connection target = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+
+        when(target.createStatement()).thenReturn(statement);
+        when(target.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        connection = MonitoredConnection.wrap(target);
+    }
+
+    @After
+    public void tearDown() {
+        QueryContext.end();
+    }
+
+    @Test
+    public void shouldCountQueriesAndRowsOfCurrentRequest() throws Exception {
+        when(resultSet.next()).thenReturn(true, true, false);
+        QueryStats stats = QueryContext.begin("main");
+
+        ResultSet set = connection.createStatement().executeQuery("SELECT * FROM route");
+        while (set.next()) {
+        }
+
+        assertEquals(1, stats.getQueries());
+        assertEquals(2, stats.getRows());
+    }
+
+    @Test
+    public void shouldDetectRepeatedStatementShape() throws Exception {
+        QueryStats stats = QueryContext.begin("main");
+        for (int i = 0; i < 4; i++) {
+            PreparedStatement statement = connection.prepareStatement("SELECT * FROM ROUTE WHERE id=? ");
+            statement.setString(1, String.valueOf(i));
+            statement.executeQuery();
+        }
+        connection.createStatement().executeQuery("SELECT * FROM train WHERE id=1");
+        connection.createStatement().executeQuery("SELECT * FROM train WHERE id=2");
+
+        new QueryMonitor(10, 3).check(stats);
+
+        assertEquals(6, stats.getQueries());
+        assertEquals(Integer.valueOf(2), stats.getShapes().get("SELECT * FROM train WHERE id=?"));
+        assertTrue(stats.isRepeated());
+        assertFalse(stats.isOverBudget());
+    }
+
+    @Test
+    public void shouldNotCountOutsideOfRequest() throws Exception {
+        when(resultSet.next()).thenReturn(true, false);
+        connection.createStatement().executeQuery("SELECT * FROM route").next();
+
+        QueryStats stats = QueryContext.begin("main");
+        assertEquals(0, stats.getQueries());
+    }
+}
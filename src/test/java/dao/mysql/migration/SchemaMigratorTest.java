@@ -0,0 +1,85 @@
+package dao.mysql.migration;
+
+import dao.mysql.util.QueryDAOUtil;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import util.Identifiers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the real migrations on H2 in MySQL mode and checks with EXPLAIN
+ * that the DAO queries are served by the indexes added for them.
+ */
+public class SchemaMigratorTest {
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:migration;MODE=MySQL");
+        connection = h2.getConnection();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    public void shouldApplyEveryMigrationOnce() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator();
+
+        assertEquals(SchemaMigrator.MIGRATIONS.length, migrator.migrate(connection));
+        assertEquals(0, migrator.migrate(connection));
+
+        try (Statement statement = connection.createStatement();
+             ResultSet set = statement.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            set.next();
+            assertEquals(SchemaMigrator.versionOf(SchemaMigrator.MIGRATIONS[SchemaMigrator.MIGRATIONS.length - 1]),
+                    set.getInt(1));
+        }
+    }
+
+    @Test
+    public void shouldServeQueriesFromIndexes() throws Exception {
+        new SchemaMigrator().migrate(connection);
+
+        byte[] id = Identifiers.toBytes(Identifiers.next());
+        assertIndexUsed("ROUTE_SEARCH_IDX",
+                QueryDAOUtil.createFindAfterQuery("route", "from_time", "from_id", "to_id"),
+                id, id, new Timestamp(0));
+        assertIndexUsed("REQUEST_TRAIN_TYPE_IDX",
+                QueryDAOUtil.createFindByParameterQuery("request", "train_id", "type"), id, "C");
+        assertIndexUsed("CARRIAGE_TRAIN_NUMBER_IDX",
+                QueryDAOUtil.createUpdateQuery("carriage", new String[]{"train_id", "number"}, "seat_map"),
+                new byte[0], id, 1);
+        assertIndexUsed("USER_ADMIN_IDX",
+                QueryDAOUtil.createFindByParameterQuery("user", "admin"), false);
+    }
+
+    private void assertIndexUsed(String index, String query, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet set = statement.executeQuery()) {
+                set.next();
+                String plan = set.getString(1);
+                assertTrue(query + " does not use " + index + ":\n" + plan, plan.toUpperCase().contains(index));
+                assertFalse(query + " scans the table:\n" + plan, plan.contains("tableScan"));
+            }
+        }
+    }
+}
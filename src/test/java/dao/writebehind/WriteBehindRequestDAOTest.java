@@ -0,0 +1,171 @@
+package dao.writebehind;
+
+import dao.RequestDAO;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import exception.ConstraintViolation;
+import model.entity.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import util.Identifiers;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class WriteBehindRequestDAOTest {
+    private static final long SEGMENT_BYTES = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String trainId = Identifiers.next();
+    private RequestDAO stored;
+    private Path dir;
+    private WriteBehindRequestDAO requestDAO;
+
+    @Before
+    public void setUp() {
+        stored = new MemoryFactory(new MemoryDataBase()).createRequestDAO();
+        dir = folder.getRoot().toPath();
+    }
+
+    @After
+    public void tearDown() {
+        if (requestDAO != null)
+            requestDAO.stop();
+    }
+
+    @Test
+    public void shouldReadQueuedRequestsAndFlushThemInBatches() throws Exception {
+        requestDAO = new WriteBehindRequestDAO(stored, new RequestJournal(dir, SEGMENT_BYTES), 100, 5, 60_000);
+        for (int i = 0; i < 25; i++) {
+            requestDAO.create(request());
+        }
+        assertEquals(25, requestDAO.findByTrain(trainId).size());
+
+        requestDAO.flush();
+        assertEquals(25, stored.findByTrain(trainId).size());
+        assertEquals(0, requestDAO.getQueued());
+    }
+
+    @Test
+    public void shouldDeleteRequestStillQueued() throws Exception {
+        requestDAO = new WriteBehindRequestDAO(stored, new RequestJournal(dir, SEGMENT_BYTES), 100, 10, 50);
+        Request request = requestDAO.create(request());
+        requestDAO.delete(request);
+        assertNull(requestDAO.findById(request.getId()));
+
+        requestDAO.flush();
+        assertNull(stored.findById(request.getId()));
+        assertEquals(0, requestDAO.findAll().size());
+    }
+
+    @Test
+    public void shouldRecoverJournalSkippingStoredRequests() throws Exception {
+        RequestJournal journal = new RequestJournal(dir, SEGMENT_BYTES);
+        journal.recover();
+        Request first = request();
+        Request second = request();
+        journal.sync(journal.write(RequestJournal.Operation.CREATE, first));
+        journal.sync(journal.write(RequestJournal.Operation.CREATE, second));
+        journal.close();
+        stored.create(first);
+
+        requestDAO = new WriteBehindRequestDAO(stored, new RequestJournal(dir, SEGMENT_BYTES), 100, 10, 50);
+        assertEquals(2, stored.findByTrain(trainId).size());
+        assertNotNull(stored.findById(second.getId()));
+        assertEquals(TypePlace.C, stored.findById(second.getId()).getType());
+        assertEquals(0, new RequestJournal(dir, SEGMENT_BYTES).recover().size());
+    }
+
+    @Test
+    public void shouldRetryChangesWhileTheDataBaseFails() throws Exception {
+        AtomicBoolean down = new AtomicBoolean();
+        RequestDAO failing = mock(RequestDAO.class, delegatesTo(stored));
+        doAnswer(invocation -> !down.get() && stored.createAll(requestsOf(invocation)))
+                .when(failing).createAll(anyListOf(Request.class));
+        doAnswer(invocation -> down.get() ? null : stored.create((Request) invocation.getArguments()[0]))
+                .when(failing).create(any(Request.class));
+        doAnswer(invocation -> !down.get() && stored.delete((Request) invocation.getArguments()[0]))
+                .when(failing).delete(any(Request.class));
+
+        RequestJournal journal = new RequestJournal(dir, SEGMENT_BYTES);
+        requestDAO = new WriteBehindRequestDAO(failing, journal, 100, 10, 50);
+        Request cancelled = requestDAO.create(request());
+        requestDAO.flush();
+
+        down.set(true);
+        requestDAO.delete(cancelled);
+        Request booked = requestDAO.create(request());
+        Thread.sleep(500);
+        assertNotNull(stored.findById(cancelled.getId()));
+        assertNull(stored.findById(booked.getId()));
+
+        down.set(false);
+        requestDAO.flush();
+        assertNull(stored.findById(cancelled.getId()));
+        assertNotNull(stored.findById(booked.getId()));
+        assertEquals(0, journal.readDeadLetters().size());
+    }
+
+    @Test
+    public void shouldMoveRequestRejectedForGoodToDeadLetters() throws Exception {
+        Request rejected = request();
+        RequestDAO rejecting = mock(RequestDAO.class, delegatesTo(stored));
+        doAnswer(invocation -> {
+            List<Request> requests = requestsOf(invocation);
+            if (requests.contains(rejected))
+                throw new ConstraintViolation(null);
+            return stored.createAll(requests);
+        }).when(rejecting).createAll(anyListOf(Request.class));
+        doAnswer(invocation -> {
+            Request request = (Request) invocation.getArguments()[0];
+            if (request == rejected)
+                throw new ConstraintViolation(null);
+            return stored.create(request);
+        }).when(rejecting).create(any(Request.class));
+
+        RequestJournal journal = new RequestJournal(dir, SEGMENT_BYTES);
+        requestDAO = new WriteBehindRequestDAO(rejecting, journal, 100, 10, 50);
+        List<Request> givenBack = new CopyOnWriteArrayList<>();
+        requestDAO.setRejectedListener(givenBack::add);
+        Request first = requestDAO.create(request());
+        requestDAO.create(rejected);
+        Request last = requestDAO.create(request());
+
+        requestDAO.flush();
+        assertNotNull(stored.findById(first.getId()));
+        assertNotNull(stored.findById(last.getId()));
+        assertNull(requestDAO.findById(rejected.getId()));
+        assertEquals(Collections.singletonList(rejected), givenBack);
+        assertEquals(rejected.getId(), journal.readDeadLetters().get(0).getRequest().getId());
+        assertEquals(0, new RequestJournal(dir, SEGMENT_BYTES).recover().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Request> requestsOf(InvocationOnMock invocation) {
+        return (List<Request>) invocation.getArguments()[0];
+    }
+
+    private Request request() {
+        return new Request(Identifiers.next(), Identifiers.next(), trainId, TypePlace.C, 10.0, 1, 2, 0, 1,
+                null, null);
+    }
+}
@@ -0,0 +1,96 @@
+package log;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncRingBufferHandlerTest {
+
+    @Test
+    public void shouldWriteRecordsOnWriterThread() throws Exception {
+        CountDownLatch written = new CountDownLatch(3);
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        AsyncRingBufferHandler handler = new AsyncRingBufferHandler(16, Collections.singletonList(
+                new RecordingHandler(record -> {
+                    threads.add(Thread.currentThread().getName());
+                    written.countDown();
+                })));
+
+        for (int i = 0; i < 3; i++) {
+            handler.publish(new LogRecord(Level.INFO, "message " + i));
+        }
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertFalse(threads.contains(Thread.currentThread().getName()));
+        assertEquals(0, handler.getDroppedCount());
+        handler.close();
+    }
+
+    @Test
+    public void shouldDropAndCountWhenQueueIsFull() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncRingBufferHandler handler = new AsyncRingBufferHandler(2, Collections.singletonList(
+                new RecordingHandler(record -> {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })));
+
+        handler.publish(new LogRecord(Level.INFO, "taken by writer"));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            handler.publish(new LogRecord(Level.INFO, "queued or dropped " + i));
+        }
+
+        assertEquals(3, handler.getDroppedCount());
+        assertEquals(2, handler.getQueuedCount());
+        release.countDown();
+        handler.close();
+    }
+
+    @Test
+    public void shouldRenderStructuredFields() {
+        assertEquals("add ticket userId=7 name=\"John Doe\" orphan",
+                StructuredRecord.render("add ticket", new Object[]{"userId", 7, "name", "John Doe", "orphan"}));
+    }
+
+    private interface RecordConsumer {
+        void accept(LogRecord record);
+    }
+
+    private static class RecordingHandler extends Handler {
+        private final RecordConsumer consumer;
+
+        private RecordingHandler(RecordConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            consumer.accept(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
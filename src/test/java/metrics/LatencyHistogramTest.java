@@ -0,0 +1,38 @@
+package metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldKeepPercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.recordNanos(micros * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMax());
+        assertWithinError(500, snapshot.getP50());
+        assertWithinError(950, snapshot.getP95());
+        assertWithinError(990, snapshot.getP99());
+    }
+
+    @Test
+    public void shouldPlaceEveryValueBelowUpperBoundOfItsBucket() {
+        for (long value = 0; value < 1 << 20; value += 7) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(index));
+            assertTrue(index == 0 || value > LatencyHistogram.upperBoundOf(index - 1));
+        }
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue(actual + " < " + expected, actual >= expected);
+        assertTrue(actual + " > " + expected + " + 12.5%", actual <= expected + expected / 8);
+    }
+}
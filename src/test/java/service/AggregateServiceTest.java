@@ -0,0 +1,145 @@
+package service;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import model.entity.Request;
+import model.entity.Route;
+import model.entity.Train;
+import model.entity.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import service.aggregate.Aggregates;
+import service.aggregate.RouteDay;
+import service.aggregate.TrainCounters;
+import util.Identifiers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AggregateServiceTest {
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    private final Route route = new Route(Identifiers.next(), Identifiers.next(), Identifiers.next(),
+            Identifiers.next(), DEPARTURE, DEPARTURE.plusHours(10), 800.0);
+    private final Train train = new Train(Identifiers.next(), route.getId(), 10L, 10L, 10L);
+    private final Train other = new Train(Identifiers.next(), route.getId(), 10L, 10L, 10L);
+    private final User user = new User(Identifiers.next(), "Taras", "Shevchenko", "380000000000",
+            "taras@gmail.com", "password", false);
+    private DAOFactory factory;
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        factory = new MemoryFactory(new MemoryDataBase());
+        factory.createRouteDAO().create(route);
+        factory.createTrainDAO().create(train);
+        factory.createTrainDAO().create(other);
+        factory.createUserDAO().create(user);
+        factory.createRequestDAO().create(request(train, TypePlace.B, 800.10));
+        factory.createRequestDAO().create(request(train, TypePlace.C, 300.0));
+        dir = Files.createTempDirectory("aggregates");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldCountBookingsFromDataBaseAndThenOnEvents() {
+        AggregateService service = new AggregateService(dir, 0, factory);
+        assertEquals(1, service.findTrain(train.getId()).getBooked(TypePlace.B));
+        assertNull(service.findTrain(other.getId()));
+
+        Request booked = factory.createRequestDAO().create(request(other, TypePlace.L, 1000.0));
+        service.booked(booked);
+        Request cancelled = request(train, TypePlace.B, 800.10);
+        service.booked(cancelled);
+        service.cancelled(cancelled);
+
+        TrainCounters counters = service.findTrain(other.getId());
+        assertEquals(1, counters.getBooked(TypePlace.L));
+        assertEquals(0, counters.getBooked(TypePlace.B));
+
+        List<RouteDay> days = service.findRouteDays(DEPARTURE.toLocalDate());
+        assertEquals(1, days.size());
+        assertEquals(3, days.get(0).getTickets());
+        assertEquals(210010, days.get(0).getRevenueKopecks());
+        assertEquals(0, service.findRouteDays(DEPARTURE.toLocalDate().plusDays(1)).size());
+    }
+
+    @Test
+    public void shouldReadCountersFromSnapshot() {
+        AggregateService service = new AggregateService(dir, 0, factory);
+        service.open();
+        service.booked(request(other, TypePlace.L, 1000.0));
+        service.close();
+
+        AggregateService reopened = new AggregateService(dir, 0, new MemoryFactory(new MemoryDataBase()));
+        assertEquals(1, reopened.findTrain(other.getId()).getBooked(TypePlace.L));
+        assertEquals(1, reopened.findTrain(train.getId()).getBooked(TypePlace.C));
+        RouteDay day = reopened.findRouteDays(DEPARTURE.toLocalDate()).get(0);
+        assertEquals(route.getId(), day.getRouteId());
+        assertEquals(DEPARTURE, day.getDeparture());
+        assertEquals(3, day.getTickets());
+        assertEquals(2, day.getTrainIds().size());
+    }
+
+    @Test
+    public void shouldCountFromDataBaseAfterCrash() {
+        AggregateService service = new AggregateService(dir, 0, factory);
+        service.open();
+        service.booked(request(other, TypePlace.L, 1000.0));
+        service.close();
+        assertEquals(1, new AggregateService(dir, 0, factory).findTrain(other.getId()).getBooked(TypePlace.L));
+
+        service.snapshot();
+        AggregateService restarted = new AggregateService(dir, 0, factory);
+        assertNull(restarted.findTrain(other.getId()));
+        assertEquals(2, restarted.findRouteDays(DEPARTURE.toLocalDate()).get(0).getTickets());
+    }
+
+    @Test
+    public void shouldKeepRoutesApartWhoseDayAndIdRunTogether() throws IOException {
+        LocalDateTime first = LocalDate.ofEpochDay(20089).atTime(8, 0);
+        LocalDateTime second = LocalDate.ofEpochDay(200891).atTime(8, 0);
+        Aggregates aggregates = new Aggregates();
+        aggregates.add(aggregates.open("train-1", new Route("15", null, "from", "to", first, first.plusHours(1),
+                1.0)), TypePlace.B, 1, 100);
+        aggregates.add(aggregates.open("train-2", new Route("5", null, "from", "to", second, second.plusHours(1),
+                1.0)), TypePlace.B, 2, 200);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            aggregates.writeTo(out);
+        }
+        Aggregates read = Aggregates.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals("15", read.findTrain("train-1").getRouteDay().getRouteId());
+        assertEquals("5", read.findTrain("train-2").getRouteDay().getRouteId());
+        assertEquals(2, read.findDay(second.toLocalDate()).get(0).getTickets());
+    }
+
+    private Request request(Train train, TypePlace type, double price) {
+        return new Request(Identifiers.next(), user.getId(), train.getId(), type, price, null, null, null, null,
+                null, null);
+    }
+}
@@ -0,0 +1,121 @@
+package service;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import dto.BookingFilter;
+import dto.BookingRow;
+import model.entity.Request;
+import model.entity.Route;
+import model.entity.RouteStop;
+import model.entity.Station;
+import model.entity.Train;
+import model.entity.User;
+import org.junit.Before;
+import org.junit.Test;
+import service.export.ExportFormat;
+import util.Identifiers;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BookingExportTest {
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    private final Station first = new Station(Identifiers.next(), "Kyiv");
+    private final Station middle = new Station(Identifiers.next(), "Lviv");
+    private final Station last = new Station(Identifiers.next(), "Uzhhorod");
+    private final Route route = new Route(Identifiers.next(), Identifiers.next(), first.getId(), last.getId(),
+            DEPARTURE, DEPARTURE.plusHours(10), 800.0);
+    private final Route later = new Route(Identifiers.next(), Identifiers.next(), first.getId(), last.getId(),
+            DEPARTURE.plusDays(1), DEPARTURE.plusDays(1).plusHours(10), 800.0);
+    private final Train train = new Train(Identifiers.next(), route.getId(), 10L, 10L, 10L);
+    private final Train laterTrain = new Train(Identifiers.next(), later.getId(), 10L, 10L, 10L);
+    private final User user = new User(Identifiers.next(), "=cmd", "Shevchenko, Jr", "380000000000",
+            "taras@gmail.com", "password", false);
+
+    private final Request whole = new Request(Identifiers.next(), user.getId(), train.getId(), TypePlace.B, 800.0,
+            1, 5, null, null, null, null);
+    private final Request leg = new Request(Identifiers.next(), user.getId(), train.getId(), TypePlace.C, 300.0,
+            null, null, 1, 2, null, null);
+    private final Request next = new Request(Identifiers.next(), user.getId(), laterTrain.getId(), TypePlace.B,
+            800.0, null, null, null, null, null, null);
+
+    @Before
+    public void setUp() {
+        DAOFactory factory = new MemoryFactory(new MemoryDataBase());
+        factory.createStationDAO().create(first);
+        factory.createStationDAO().create(middle);
+        factory.createStationDAO().create(last);
+        factory.createRouteDAO().create(route);
+        factory.createRouteDAO().create(later);
+        factory.createRouteStopDAO().create(new RouteStop(Identifiers.next(), route.getId(), 0, first.getId(),
+                null, DEPARTURE, 0.0));
+        factory.createRouteStopDAO().create(new RouteStop(Identifiers.next(), route.getId(), 1, middle.getId(),
+                DEPARTURE.plusHours(5), DEPARTURE.plusHours(6), 500.0));
+        factory.createRouteStopDAO().create(new RouteStop(Identifiers.next(), route.getId(), 2, last.getId(),
+                DEPARTURE.plusHours(10), null, 800.0));
+        factory.createTrainDAO().create(train);
+        factory.createTrainDAO().create(laterTrain);
+        factory.createUserDAO().create(user);
+        factory.createRequestDAO().create(whole);
+        factory.createRequestDAO().create(leg);
+        factory.createRequestDAO().create(next);
+        RequestService.getInstance().setFactory(factory);
+    }
+
+    @Test
+    public void shouldExportFilteredBookingsWithTheirJourney() {
+        assertEquals(3, export(new BookingFilter()).size());
+        assertEquals(1, export(new BookingFilter(DEPARTURE.plusHours(1), null, null, null)).size());
+        assertEquals(1, export(new BookingFilter(null, null, train.getId(), TypePlace.B)).size());
+
+        List<BookingRow> rows = export(new BookingFilter(DEPARTURE, DEPARTURE.plusHours(1), null, TypePlace.C));
+        assertEquals(1, rows.size());
+        BookingRow row = rows.get(0);
+        assertEquals(leg.getId(), row.getRequest().getId());
+        assertEquals(route.getId(), row.getRouteId());
+        assertEquals(user.getEmail(), row.getEmail());
+        assertEquals(middle.getName(), row.getFromStation());
+        assertEquals(last.getName(), row.getToStation());
+        assertEquals(DEPARTURE.plusHours(6), row.getDeparture());
+        assertEquals(DEPARTURE.plusHours(10), row.getArrival());
+    }
+
+    @Test
+    public void shouldWriteOneLinePerBooking() throws IOException {
+        BookingRow row = export(new BookingFilter(null, null, null, TypePlace.B)).stream()
+                .filter(r -> r.getRequest().getId().equals(whole.getId())).findFirst().get();
+
+        StringWriter csv = new StringWriter();
+        ExportFormat.CSV.writeHeader(csv);
+        ExportFormat.CSV.write(csv, row);
+        String[] lines = csv.toString().split("\r\n");
+        assertEquals(2, lines.length);
+        assertEquals(whole.getId() + "," + train.getId() + "," + route.getId() + "," + user.getId()
+                + ",taras@gmail.com,\"'=cmd\",\"Shevchenko, Jr\",Kyiv,Uzhhorod,2030-01-01T08:00,2030-01-01T18:00,B,1,5,800.0",
+                lines[1]);
+
+        StringWriter json = new StringWriter();
+        ExportFormat.NDJSON.write(json, row);
+        assertEquals("{\"request_id\":\"" + whole.getId() + "\",\"train_id\":\"" + train.getId()
+                + "\",\"route_id\":\"" + route.getId() + "\",\"user_id\":\"" + user.getId()
+                + "\",\"email\":\"taras@gmail.com\",\"name\":\"=cmd\",\"surname\":\"Shevchenko, Jr\",\"from\":\"Kyiv\""
+                + ",\"to\":\"Uzhhorod\",\"departure\":\"2030-01-01T08:00\",\"arrival\":\"2030-01-01T18:00\""
+                + ",\"type\":\"B\",\"carriage\":1,\"seat\":5,\"price\":800.0}\n", json.toString());
+        assertNull(ExportFormat.fromValue("xml"));
+    }
+
+    private static List<BookingRow> export(BookingFilter filter) {
+        List<BookingRow> result = new ArrayList<>();
+        assertEquals(RequestService.getInstance().exportBookings(filter, result::add), result.size());
+        return result;
+    }
+}
@@ -0,0 +1,281 @@
+package service;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.MySQLConnectionPool;
+import dao.mysql.MySQLFactory;
+import dao.mysql.TypePlace;
+import dto.Ticket;
+import exception.InvalidDataBaseOperation;
+import metrics.LatencyHistogram;
+import model.entity.Request;
+import model.entity.Train;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import service.seat.Journey;
+import util.Identifiers;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many threads book and cancel places of one small train at the same time.
+ * Whatever the interleaving, every place is either free or booked exactly once:
+ * initial_free == free + booked for every type of place.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(MySQLConnectionPool.class)
+@PowerMockIgnore({"org.h2.*", "javax.management.*"})
+public class BookingStressTest {
+    private static final String H2_URL = "jdbc:h2:mem:booking;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String[] H2_SCHEMA = {
+            "DROP TABLE IF EXISTS request",
+            "DROP TABLE IF EXISTS carriage",
+            "DROP TABLE IF EXISTS route_stop",
+            "DROP TABLE IF EXISTS train",
+            "CREATE TABLE train (id BINARY(16) NOT NULL PRIMARY KEY, route_id BINARY(16) NOT NULL, "
+                    + "compartment_free INT(11) NOT NULL, deluxe_free INT(11) NOT NULL, berth_free INT(11) NOT NULL)",
+            "CREATE TABLE request (id BINARY(16) NOT NULL PRIMARY KEY, user_id BINARY(16) NOT NULL, "
+                    + "train_id BINARY(16) NOT NULL, type ENUM('C', 'L', 'B') NOT NULL, price INT(11) NOT NULL, "
+                    + "carriage INT(11) NULL, seat INT(11) NULL, from_stop INT(11) NULL, to_stop INT(11) NULL, "
+                    + "booking_key BINARY(16) NULL, booking_seq INT(11) NULL)",
+            "CREATE TABLE carriage (id BINARY(16) NOT NULL PRIMARY KEY, train_id BINARY(16) NOT NULL, "
+                    + "number INT(11) NOT NULL, type ENUM('C', 'L', 'B') NOT NULL, seats INT(11) NOT NULL, "
+                    + "seat_map VARBINARY(512) NOT NULL)",
+            "CREATE TABLE route_stop (id BINARY(16) NOT NULL PRIMARY KEY, route_id BINARY(16) NOT NULL, "
+                    + "number INT(11) NOT NULL, station_id BINARY(16) NOT NULL, arrival TIMESTAMP NULL, "
+                    + "departure TIMESTAMP NULL, distance DOUBLE NOT NULL)"
+    };
+
+    private static final String TRAIN_ID = Identifiers.next();
+    private static final String ROUTE_ID = Identifiers.next();
+    private static final long CAPACITY = 20;
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 300;
+    private static final int SEGMENT_BYTES = 1 << 16;
+
+    /**
+     * Keeps DAO and service loggers quiet, j.u.l holds loggers weakly
+     */
+    private static final Logger DAO_LOG = Logger.getLogger("dao");
+    private static final Logger SERVICE_LOG = Logger.getLogger("service");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpClass() {
+        DAO_LOG.setLevel(Level.WARNING);
+        SERVICE_LOG.setLevel(Level.WARNING);
+    }
+
+    @Test
+    public void shouldNotOversellWithMemoryBackend() throws Exception {
+        stress("memory", new MemoryFactory(new MemoryDataBase()));
+    }
+
+    @Test
+    public void shouldNotOversellWithSqlBackend() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL(H2_URL);
+        try (Connection connection = h2.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : H2_SCHEMA) {
+                statement.execute(sql);
+            }
+        }
+
+        MySQLConnectionPool pool = mock(MySQLConnectionPool.class);
+        when(pool.getConnection()).thenAnswer(invocation -> h2.getConnection());
+        PowerMockito.mockStatic(MySQLConnectionPool.class);
+        when(MySQLConnectionPool.getInstance()).thenReturn(pool);
+
+        stress("h2 (MySQL mode)", new MySQLFactory());
+    }
+
+    private void stress(String backend, DAOFactory factory) throws Exception {
+        factory.createTrainDAO().create(new Train(TRAIN_ID, ROUTE_ID, CAPACITY, CAPACITY, CAPACITY));
+        RequestService.getInstance().setFactory(factory);
+        TrainService.getInstance().setFactory(factory);
+        SeatService.getInstance().setFactory(factory);
+        InventoryService.setInstance(new InventoryService(folder.getRoot().toPath(), SEGMENT_BYTES, Integer.MAX_VALUE,
+                factory));
+        AggregateService.getInstance().setFactory(factory);
+
+        LatencyHistogram latency = new LatencyHistogram();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Ticket>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return book(new Random(seed), latency);
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        List<Ticket> booked = new ArrayList<>();
+        for (Future<List<Ticket>> future : futures) {
+            booked.addAll(future.get(2, TimeUnit.MINUTES));
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        InventoryService.getInstance().snapshot();
+        Train train = factory.createTrainDAO().findById(TRAIN_ID);
+        Map<TypePlace, Long> inDb = count(factory.createRequestDAO().findAll());
+        Map<TypePlace, Long> byThreads = countTickets(booked);
+        assertInvariant(TypePlace.B, train.getBerthFree(), inDb, byThreads);
+        assertInvariant(TypePlace.C, train.getCompartmentFree(), inDb, byThreads);
+        assertInvariant(TypePlace.L, train.getDeluxeFree(), inDb, byThreads);
+        assertSeats(factory, train, factory.createRequestDAO().findAll());
+
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        System.out.println(String.format("%s: %d operations in %d ms, %.0f ops/s, latency p50=%dus p99=%dus max=%dus",
+                backend, snapshot.getCount(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                snapshot.getCount() / (elapsed / 1e9), snapshot.getP50(), snapshot.getP99(), snapshot.getMax()));
+    }
+
+    /**
+     * Books single places, pairs of places and cancels own bookings in random order
+     *
+     * @return tickets booked by this thread and not cancelled
+     */
+    private static List<Ticket> book(Random random, LatencyHistogram latency) {
+        List<Ticket> mine = new ArrayList<>();
+        TypePlace[] types = TypePlace.values();
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            int operation = random.nextInt(10);
+            long begin = System.nanoTime();
+            if (operation < 5) {
+                Ticket ticket = ticket(types[random.nextInt(types.length)]);
+                try {
+                    Request request = RequestService.getInstance().addRequest(new Request.RequestBuilder()
+                            .setPrice(ticket.getPrice())
+                            .setType(TypePlace.valueOf(ticket.getTypePlace()))
+                            .setUserId(ticket.getUserId())
+                            .setTrainId(ticket.getTrainId())
+                            .build());
+                    ticket.setRequestId(request.getId());
+                    mine.add(ticket);
+                } catch (InvalidDataBaseOperation e) {
+                    // sold out, expected under contention
+                }
+            } else if (operation < 7) {
+                List<Ticket> tickets = new ArrayList<>();
+                tickets.add(ticket(types[random.nextInt(types.length)]));
+                tickets.add(ticket(types[random.nextInt(types.length)]));
+                try {
+                    RequestService.getInstance().reserveTickets(tickets);
+                } catch (InvalidDataBaseOperation e) {
+                    // the first ticket may be booked already
+                }
+                for (Ticket ticket : tickets) {
+                    if (ticket.getRequestId() != null)
+                        mine.add(ticket);
+                }
+            } else if (!mine.isEmpty()) {
+                RequestService.getInstance().cancelRequest(mine.remove(random.nextInt(mine.size())));
+            }
+            latency.recordNanos(System.nanoTime() - begin);
+        }
+
+        return mine;
+    }
+
+    private static Ticket ticket(TypePlace type) {
+        Ticket ticket = new Ticket();
+        ticket.setTrainId(TRAIN_ID);
+        ticket.setUserId("stress-user");
+        ticket.setTypePlace(type.toString());
+        ticket.setPrice(100.0);
+        return ticket;
+    }
+
+    private static void assertInvariant(TypePlace type, long free, Map<TypePlace, Long> inDb,
+                                        Map<TypePlace, Long> byThreads) {
+        assertTrue(type + " free places below zero: " + free, free >= 0);
+        assertEquals(type + ": initial_free == free + booked", CAPACITY, free + inDb.get(type));
+        assertEquals(type + ": requests in DB match tickets held by threads", byThreads.get(type), inDb.get(type));
+    }
+
+    /**
+     * Every REQUEST sits on its own seat and the seat maps have as many free seats as the counters,
+     * seat maps are read back from the DB to check what was stored too
+     */
+    private static void assertSeats(DAOFactory factory, Train train, List<Request> requests) {
+        Set<String> taken = new HashSet<>();
+        for (Request request : requests) {
+            assertNotNull("request without a seat: " + request, request.getSeat());
+            assertTrue("seat sold twice: " + request,
+                    taken.add(request.getType() + " " + request.getCarriage() + "/" + request.getSeat()));
+        }
+
+        SeatService.getInstance().setFactory(factory);
+        assertEquals(train.getBerthFree().intValue(),
+                SeatService.getInstance().countFree(TRAIN_ID, TypePlace.B, Journey.WHOLE_ROUTE));
+        assertEquals(train.getCompartmentFree().intValue(),
+                SeatService.getInstance().countFree(TRAIN_ID, TypePlace.C, Journey.WHOLE_ROUTE));
+        assertEquals(train.getDeluxeFree().intValue(),
+                SeatService.getInstance().countFree(TRAIN_ID, TypePlace.L, Journey.WHOLE_ROUTE));
+    }
+
+    private static Map<TypePlace, Long> count(List<Request> requests) {
+        Map<TypePlace, Long> result = zeros();
+        for (Request request : requests) {
+            if (TRAIN_ID.equals(request.getTrainId()))
+                result.merge(request.getType(), 1L, Long::sum);
+        }
+        return result;
+    }
+
+    private static Map<TypePlace, Long> countTickets(List<Ticket> tickets) {
+        Map<TypePlace, Long> result = zeros();
+        for (Ticket ticket : tickets) {
+            result.merge(TypePlace.valueOf(ticket.getTypePlace()), 1L, Long::sum);
+        }
+        return result;
+    }
+
+    private static Map<TypePlace, Long> zeros() {
+        Map<TypePlace, Long> result = new EnumMap<>(TypePlace.class);
+        for (TypePlace type : TypePlace.values()) {
+            result.put(type, 0L);
+        }
+        return Collections.synchronizedMap(result);
+    }
+}
@@ -0,0 +1,82 @@
+package service;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import model.entity.Train;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import util.Identifiers;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InventoryServiceTest {
+    private static final int SEGMENT_BYTES = 256;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String trainId = Identifiers.next();
+    private DAOFactory factory;
+    private Path dir;
+
+    @Before
+    public void setUp() {
+        factory = new MemoryFactory(new MemoryDataBase());
+        factory.createTrainDAO().create(new Train(trainId, Identifiers.next(), 0L, 0L, 2L));
+        dir = folder.getRoot().toPath();
+    }
+
+    @Test
+    public void shouldRebuildCountersFromLogAfterRestart() {
+        InventoryService inventory = new InventoryService(dir, SEGMENT_BYTES, Integer.MAX_VALUE, factory);
+        assertTrue(inventory.reserve(trainId, TypePlace.B, 1));
+        assertTrue(inventory.reserve(trainId, TypePlace.B, 1));
+        assertFalse(inventory.reserve(trainId, TypePlace.B, 1));
+        assertFalse(inventory.reserve(Identifiers.next(), TypePlace.B, 1));
+        inventory.cancel(trainId, TypePlace.B, 1);
+        inventory.hold(trainId, TypePlace.B);
+        assertEquals(1, inventory.countHeld(trainId, TypePlace.B));
+
+        Train row = factory.createTrainDAO().findById(trainId);
+        assertEquals(Long.valueOf(2), row.getBerthFree());
+
+        InventoryService restarted = new InventoryService(dir, SEGMENT_BYTES, Integer.MAX_VALUE, factory);
+        assertEquals(1, restarted.countFree(row, TypePlace.B));
+        assertEquals(0, restarted.countHeld(trainId, TypePlace.B));
+    }
+
+    @Test
+    public void shouldRestartFromSnapshotAndDropCoveredSegments() {
+        InventoryService inventory = new InventoryService(dir, SEGMENT_BYTES, Integer.MAX_VALUE, factory);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(inventory.reserve(trainId, TypePlace.B, 1));
+            inventory.cancel(trainId, TypePlace.B, 1);
+        }
+        assertTrue(inventory.reserve(trainId, TypePlace.B, 1));
+        assertTrue(segments() > 1);
+
+        inventory.snapshot();
+        assertEquals(1, segments());
+        assertEquals(Long.valueOf(1), factory.createTrainDAO().findById(trainId).getBerthFree());
+
+        assertTrue(inventory.reserve(trainId, TypePlace.B, 1));
+        InventoryService restarted = new InventoryService(dir, SEGMENT_BYTES, Integer.MAX_VALUE, factory);
+        assertFalse(restarted.reserve(trainId, TypePlace.B, 1));
+        restarted.cancel(trainId, TypePlace.B, 2);
+        assertEquals(2, restarted.countFree(factory.createTrainDAO().findById(trainId), TypePlace.B));
+    }
+
+    private int segments() {
+        File[] files = folder.getRoot().listFiles((file, name) -> name.endsWith(".log"));
+        return files == null ? 0 : files.length;
+    }
+}
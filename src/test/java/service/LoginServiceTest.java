@@ -13,6 +13,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -53,6 +55,16 @@ public class LoginServiceTest {
         assertNull(actualUser);
     }
 
+    @Test
+    public void shouldAskDaoOnceForRepeatedLogin() {
+        when(userDAO.findByEmail(LOGIN)).thenReturn(new User());
+
+        loginService.isPresentLogin(LOGIN);
+        loginService.isPresentLogin(LOGIN);
+
+        verify(userDAO, times(1)).findByEmail(LOGIN);
+    }
+
     @Test
     public void shouldCreateUser() {
         User userWithoutId = new User();
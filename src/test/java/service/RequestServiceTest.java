@@ -0,0 +1,87 @@
+package service;
+
+import dao.DAOFactory;
+import dao.RequestDAO;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import exception.InvalidDataBaseOperation;
+import model.entity.Request;
+import model.entity.Train;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import util.Identifiers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestServiceTest {
+    private static final int SEGMENT_BYTES = 1 << 16;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String trainId = Identifiers.next();
+    private DAOFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new MemoryFactory(new MemoryDataBase());
+        factory.createTrainDAO().create(new Train(trainId, Identifiers.next(), 0L, 0L, 1L));
+        RequestService.getInstance().setFactory(factory);
+        TrainService.getInstance().setFactory(factory);
+        SeatService.getInstance().setFactory(factory);
+        InventoryService.setInstance(new InventoryService(folder.getRoot().toPath(), SEGMENT_BYTES, Integer.MAX_VALUE,
+                factory));
+        AggregateService.getInstance().setFactory(factory);
+    }
+
+    @Test
+    public void shouldGiveBackThePlaceOfARequestNotStored() throws Exception {
+        RequestDAO failing = mock(RequestDAO.class);
+        when(failing.create(any(Request.class))).thenReturn(null);
+        RequestService.getInstance().setFactory(new MemoryFactory(new MemoryDataBase()) {
+            @Override
+            public RequestDAO createRequestDAO() {
+                return failing;
+            }
+        });
+
+        try {
+            RequestService.getInstance().addRequest(request());
+            fail("the DB did not store the request");
+        } catch (InvalidDataBaseOperation e) {
+            assertNotNull(e.getMessage());
+        }
+
+        RequestService.getInstance().setFactory(factory);
+        Request booked = RequestService.getInstance().addRequest(request());
+        assertNotNull(factory.createRequestDAO().findById(booked.getId()));
+    }
+
+    @Test
+    public void shouldScopeBookingKeyByUser() {
+        String formKey = Identifiers.next();
+
+        assertEquals(RequestService.bookingKey("first", formKey), RequestService.bookingKey("first", formKey));
+        assertNotEquals(RequestService.bookingKey("first", formKey), RequestService.bookingKey("second", formKey));
+        assertNull(RequestService.bookingKey("first", "legacy"));
+    }
+
+    private Request request() {
+        return new Request.RequestBuilder()
+                .setPrice(100.0)
+                .setType(TypePlace.B)
+                .setUserId("user")
+                .setTrainId(trainId)
+                .build();
+    }
+}
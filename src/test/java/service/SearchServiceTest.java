@@ -0,0 +1,106 @@
+package service;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import model.entity.Route;
+import model.entity.RouteStop;
+import model.entity.Station;
+import model.entity.Train;
+import org.junit.Before;
+import org.junit.Test;
+import service.search.SearchEntry;
+import util.Identifiers;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SearchServiceTest {
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    private final Station first = new Station(Identifiers.next(), "Kyiv");
+    private final Station middle = new Station(Identifiers.next(), "Lviv");
+    private final Station last = new Station(Identifiers.next(), "Uzhhorod");
+    private final Route withStops = route(DEPARTURE);
+    private final Route direct = route(DEPARTURE.plusHours(2));
+    private DAOFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new MemoryFactory(new MemoryDataBase());
+        factory.createStationDAO().create(first);
+        factory.createStationDAO().create(middle);
+        factory.createStationDAO().create(last);
+        factory.createRouteDAO().create(withStops);
+        factory.createRouteDAO().create(direct);
+        factory.createRouteStopDAO().create(new RouteStop(Identifiers.next(), withStops.getId(), 0, first.getId(),
+                null, DEPARTURE, 0.0));
+        factory.createRouteStopDAO().create(new RouteStop(Identifiers.next(), withStops.getId(), 1, middle.getId(),
+                DEPARTURE.plusHours(5), DEPARTURE.plusHours(6), 500.0));
+        factory.createRouteStopDAO().create(new RouteStop(Identifiers.next(), withStops.getId(), 2, last.getId(),
+                DEPARTURE.plusHours(10), null, 800.0));
+        factory.createTrainDAO().create(new Train(Identifiers.next(), withStops.getId(), 1L, 1L, 1L));
+        SearchService.getInstance().setFactory(factory);
+    }
+
+    @Test
+    public void shouldFindWholeRoutesAndLegsOrderedByDeparture() {
+        List<SearchEntry> whole = SearchService.getInstance().findJourneys(first.getId(), last.getId(),
+                date(DEPARTURE.minusHours(1)));
+        assertEquals(2, whole.size());
+        assertEquals(withStops.getId(), whole.get(0).getRoute().getId());
+        assertTrue(whole.get(0).getJourney().isWholeRoute());
+        assertTrue(whole.get(0).hasStops());
+        assertEquals(direct.getId(), whole.get(1).getRoute().getId());
+        assertEquals(0, whole.get(1).getTrains().size());
+
+        assertEquals(1, SearchService.getInstance().findJourneys(first.getId(), last.getId(),
+                date(DEPARTURE)).size());
+
+        List<SearchEntry> legs = SearchService.getInstance().findJourneys(middle.getId(), last.getId(),
+                date(DEPARTURE));
+        assertEquals(1, legs.size());
+        assertEquals(Integer.valueOf(1), legs.get(0).getJourney().getFromStop());
+        assertEquals(Integer.valueOf(2), legs.get(0).getJourney().getToStop());
+        assertEquals(300.0, legs.get(0).getDistance(), 0);
+        assertEquals(middle.getName(), legs.get(0).getFrom().getName());
+        assertEquals(1, legs.get(0).getTrains().size());
+
+        assertEquals(Integer.valueOf(1), SearchService.getInstance().countDepartures().get(first.getId()));
+        assertEquals(Integer.valueOf(1), SearchService.getInstance().countDepartures().get(middle.getId()));
+        assertNull(SearchService.getInstance().countDepartures().get(last.getId()));
+    }
+
+    @Test
+    public void shouldReplaceOnlyRefreshedRoute() {
+        SearchService.getInstance().countDepartures();
+        factory.createTrainDAO().create(new Train(Identifiers.next(), direct.getId(), 1L, 1L, 1L));
+        factory.createRouteDAO().delete(withStops);
+
+        SearchService.getInstance().refreshRoute(direct.getId());
+        List<SearchEntry> whole = SearchService.getInstance().findJourneys(first.getId(), last.getId(),
+                date(DEPARTURE.minusHours(1)));
+        assertEquals(2, whole.size());
+        assertEquals(1, whole.get(1).getTrains().size());
+
+        SearchService.getInstance().refreshRoute(withStops.getId());
+        assertEquals(1, SearchService.getInstance().findJourneys(first.getId(), last.getId(),
+                date(DEPARTURE.minusHours(1))).size());
+        assertNull(SearchService.getInstance().countDepartures().get(middle.getId()));
+    }
+
+    private Route route(LocalDateTime departure) {
+        return new Route(Identifiers.next(), Identifiers.next(), first.getId(), last.getId(), departure,
+                departure.plusHours(10), 800.0);
+    }
+
+    private static Date date(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,50 @@
+package service;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import model.entity.Request;
+import model.entity.Train;
+import org.junit.Before;
+import org.junit.Test;
+import service.seat.Journey;
+import service.seat.Seat;
+import util.Identifiers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SeatServiceTest {
+    private final String trainId = Identifiers.next();
+    private DAOFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new MemoryFactory(new MemoryDataBase());
+        factory.createTrainDAO().create(new Train(trainId, Identifiers.next(), 0L, 0L, 3L));
+        SeatService.getInstance().setFactory(factory);
+    }
+
+    @Test
+    public void shouldFreeSeatsNoBookingHoldsOnLoad() {
+        SeatService seats = SeatService.getInstance();
+        Seat held = seats.assign(trainId, TypePlace.B, Journey.WHOLE_ROUTE);
+        Seat booked = seats.assign(trainId, TypePlace.B, Journey.WHOLE_ROUTE);
+        Request request = new Request.RequestBuilder()
+                .setUserId("user")
+                .setTrainId(trainId)
+                .setType(TypePlace.B)
+                .setPrice(100.0)
+                .build();
+        request.setId(Identifiers.next());
+        request.setCarriage(booked.getCarriage());
+        request.setSeat(booked.getNumber());
+        factory.createRequestDAO().create(request);
+
+        seats.setFactory(factory);
+        assertEquals(held.getNumber(), seats.assign(trainId, TypePlace.B, Journey.WHOLE_ROUTE).getNumber());
+        assertEquals(3, seats.assign(trainId, TypePlace.B, Journey.WHOLE_ROUTE).getNumber());
+        assertNull(seats.assign(trainId, TypePlace.B, Journey.WHOLE_ROUTE));
+    }
+}
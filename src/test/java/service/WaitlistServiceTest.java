@@ -0,0 +1,126 @@
+package service;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import dao.mysql.TypePlace;
+import dto.Ticket;
+import exception.InvalidDataBaseOperation;
+import model.entity.Route;
+import model.entity.Train;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import util.Identifiers;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WaitlistServiceTest {
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final int SEGMENT_BYTES = 1 << 16;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String trainId = Identifiers.next();
+    private final String userId = Identifiers.next();
+    private final Route route = new Route(Identifiers.next(), null, Identifiers.next(), Identifiers.next(),
+            LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), 100.0);
+    private DAOFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new MemoryFactory(new MemoryDataBase());
+        factory.createRouteDAO().create(route);
+        factory.createTrainDAO().create(new Train(trainId, route.getId(), 0L, 0L, 1L));
+        RequestService.getInstance().setFactory(factory);
+        RouteService.getInstance().setFactory(factory);
+        TrainService.getInstance().setFactory(factory);
+        SeatService.getInstance().setFactory(factory);
+        InventoryService.setInstance(new InventoryService(folder.getRoot().toPath(), SEGMENT_BYTES, Integer.MAX_VALUE,
+                factory));
+        AggregateService.getInstance().setFactory(factory);
+    }
+
+    @Test
+    public void shouldBookWaitingTicketWhenPlaceIsCancelled() throws Exception {
+        Ticket first = ticket("first");
+        RequestService.getInstance().reserveTickets(Collections.singletonList(first));
+
+        Ticket second = ticket(userId);
+        try {
+            RequestService.getInstance().reserveTickets(Collections.singletonList(second));
+            fail("the only place is booked already");
+        } catch (InvalidDataBaseOperation e) {
+            assertEquals(1, WaitlistService.getInstance().join(Collections.singletonList(second)).size());
+        }
+
+        awaitWaiting(1);
+        assertNull(second.getRequestId());
+
+        RequestService.getInstance().cancelRequest(first);
+        awaitWaiting(0);
+
+        assertNotNull(second.getRequestId());
+        assertNotNull(factory.createRequestDAO().findById(second.getRequestId()));
+        assertEquals(Collections.singletonList(second), WaitlistService.getInstance().takeAllocated(userId));
+        assertTrue(WaitlistService.getInstance().takeAllocated(userId).isEmpty());
+        InventoryService.getInstance().snapshot();
+        assertEquals(Long.valueOf(0), factory.createTrainDAO().findById(trainId).getBerthFree());
+    }
+
+    @Test
+    public void shouldWithdrawAndDropWaitingTickets() throws Exception {
+        Ticket first = ticket("first");
+        RequestService.getInstance().reserveTickets(Collections.singletonList(first));
+
+        Ticket withdrawn = ticket(userId);
+        Ticket departed = ticket(userId);
+        assertEquals(2, WaitlistService.getInstance().join(Arrays.asList(withdrawn, departed)).size());
+        awaitWaiting(2);
+        assertEquals(2, WaitlistService.getInstance().findWaiting(userId).size());
+
+        assertTrue(WaitlistService.getInstance().withdraw(userId, withdrawn.getWaitlistId()));
+        assertFalse(WaitlistService.getInstance().withdraw(userId, departed.getWaitlistId() + "x"));
+        assertEquals(Collections.singletonList(departed), WaitlistService.getInstance().findWaiting(userId));
+
+        route.setFromTime(LocalDateTime.now().minusMinutes(1));
+        factory.createRouteDAO().update(route);
+        assertTrue(WaitlistService.getInstance().join(Collections.singletonList(ticket(userId))).isEmpty());
+        RequestService.getInstance().cancelRequest(first);
+        awaitWaiting(0);
+
+        assertNull(departed.getRequestId());
+        assertNull(departed.getWaitlistId());
+        assertTrue(WaitlistService.getInstance().takeAllocated(userId).isEmpty());
+    }
+
+    private void awaitWaiting(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (WaitlistService.getInstance().countWaiting(trainId, TypePlace.B) != expected) {
+            if (System.currentTimeMillis() > deadline)
+                fail("waitlist did not reach " + expected);
+            Thread.sleep(10);
+        }
+    }
+
+    private Ticket ticket(String userId) {
+        Ticket ticket = new Ticket();
+        ticket.setTrainId(trainId);
+        ticket.setUserId(userId);
+        ticket.setTypePlace(TypePlace.B.toString());
+        ticket.setPrice(100.0);
+        return ticket;
+    }
+}
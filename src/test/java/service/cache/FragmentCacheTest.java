@@ -0,0 +1,51 @@
+package service.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FragmentCacheTest {
+    private static final String FRAGMENT = "<tr><th>Train</th></tr>";
+
+    @Test
+    public void shouldReplayStoredFragment() {
+        FragmentCache cache = new FragmentCache(10, 1, TimeUnit.HOURS);
+
+        assertNull(cache.find("header|en|1"));
+        cache.put("header|en|1", FRAGMENT);
+
+        assertEquals(FRAGMENT, cache.find("header|en|1"));
+        assertNull(cache.find("header|uk_UA|1"));
+        assertNull(cache.find("header|en|2"));
+        assertEquals(0.25, cache.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        FragmentCache cache = new FragmentCache(2, 1, TimeUnit.HOURS);
+        cache.put("a", "a");
+        cache.put("b", "b");
+        cache.find("a");
+        cache.put("c", "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("a", cache.find("a"));
+        assertNull(cache.find("b"));
+    }
+
+    @Test
+    public void shouldExpireFragment() throws InterruptedException {
+        FragmentCache cache = new FragmentCache(10, 1, TimeUnit.HOURS);
+        cache.put("short", FRAGMENT, 1, TimeUnit.MILLISECONDS);
+        cache.put("none", FRAGMENT, 0, TimeUnit.SECONDS);
+        Thread.sleep(5);
+
+        assertNull(cache.find("short"));
+        assertNull(cache.find("none"));
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,122 @@
+package service.cache;
+
+import dto.Ticket;
+import exception.InvalidDataBaseOperation;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class IdempotencyCacheTest {
+    private static final String KEY = "0190d0b2-4c5e-7a3b-8f1e-2d3c4b5a6978";
+
+    private AtomicInteger bookings;
+    private List<Ticket> tickets;
+
+    @Before
+    public void setUp() {
+        bookings = new AtomicInteger();
+        tickets = Collections.singletonList(new Ticket());
+    }
+
+    @Test
+    public void shouldBookOnlyOnceForSameKey() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, 1, TimeUnit.HOURS);
+
+        assertSame(tickets, cache.book(KEY, this::book));
+        assertSame(tickets, cache.book(KEY, this::book));
+        assertEquals(1, bookings.get());
+        assertEquals(1, cache.getReplayCount());
+
+        cache.book(null, this::book);
+        cache.book(null, this::book);
+        assertEquals(3, bookings.get());
+    }
+
+    @Test
+    public void shouldReplayFailure() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, 1, TimeUnit.HOURS);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.book(KEY, () -> {
+                    bookings.incrementAndGet();
+                    throw new InvalidDataBaseOperation("sold out");
+                });
+                fail("booking failed");
+            } catch (InvalidDataBaseOperation e) {
+                assertEquals("sold out", e.getMessage());
+            }
+        }
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    public void shouldBookAgainAfterUnexpectedFailure() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, 1, TimeUnit.HOURS);
+        try {
+            cache.book(KEY, () -> {
+                throw new IllegalStateException();
+            });
+            fail("booking failed");
+        } catch (IllegalStateException e) {
+            assertEquals(0, cache.size());
+        }
+
+        assertSame(tickets, cache.book(KEY, this::book));
+    }
+
+    @Test
+    public void shouldEvictExpiredAndOldestKeys() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(2, 0, TimeUnit.SECONDS);
+        cache.book(KEY, this::book);
+        cache.book(KEY, this::book);
+        assertEquals(2, bookings.get());
+
+        cache.book("a", this::book);
+        cache.book("b", this::book);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldLetConcurrentRetryWaitForFirstSubmission() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(10, 1, TimeUnit.HOURS);
+        CountDownLatch booking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<List<Ticket>> first = executor.submit(() -> cache.book(KEY, () -> {
+            booking.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new InvalidDataBaseOperation();
+            }
+            return book();
+        }));
+
+        booking.await();
+        Future<List<Ticket>> retry = executor.submit(() -> cache.book(KEY, this::book));
+        release.countDown();
+
+        assertSame(tickets, first.get(1, TimeUnit.MINUTES));
+        assertSame(tickets, retry.get(1, TimeUnit.MINUTES));
+        assertEquals(1, bookings.get());
+        executor.shutdown();
+    }
+
+    private List<Ticket> book() {
+        bookings.incrementAndGet();
+        return tickets;
+    }
+}
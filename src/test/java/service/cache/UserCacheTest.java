@@ -0,0 +1,95 @@
+package service.cache;
+
+import model.entity.User;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class UserCacheTest {
+    private static final String EMAIL = "test.test@gmail.com";
+    private static final String UNKNOWN_EMAIL = "unknown@gmail.com";
+
+    private AtomicInteger loads;
+    private Function<String, User> loader;
+
+    @Before
+    public void setUp() {
+        loads = new AtomicInteger();
+        loader = email -> {
+            loads.incrementAndGet();
+            if (!EMAIL.equals(email))
+                return null;
+
+            User user = new User();
+            user.setId("1");
+            user.setEmail(email);
+            return user;
+        };
+    }
+
+    @Test
+    public void shouldLoadOnlyOnceWhenEntryIsFresh() {
+        UserCache cache = new UserCache(10, 1, 1, TimeUnit.HOURS);
+
+        User first = cache.find(EMAIL, loader);
+        User second = cache.find(EMAIL, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(0.5, cache.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    public void shouldRememberUnknownEmail() {
+        UserCache cache = new UserCache(10, 1, 1, TimeUnit.HOURS);
+
+        assertNull(cache.find(UNKNOWN_EMAIL, loader));
+        assertNull(cache.find(UNKNOWN_EMAIL, loader));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getNegativeHitCount());
+    }
+
+    @Test
+    public void shouldLoadAgainWhenNegativeEntryExpired() {
+        UserCache cache = new UserCache(10, 1, 0, TimeUnit.HOURS);
+
+        cache.find(UNKNOWN_EMAIL, loader);
+        cache.find(UNKNOWN_EMAIL, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldLoadAgainAfterInvalidation() {
+        UserCache cache = new UserCache(10, 1, 1, TimeUnit.HOURS);
+        User user = cache.find(EMAIL, loader);
+
+        user.setEmail("changed@gmail.com");
+        cache.invalidate(user);
+        cache.find(EMAIL, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        UserCache cache = new UserCache(1, 1, 1, TimeUnit.HOURS);
+
+        cache.find(EMAIL, loader);
+        cache.find(UNKNOWN_EMAIL, loader);
+        cache.find(EMAIL, loader);
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,74 @@
+package service.fare;
+
+import dao.mysql.TypePlace;
+import model.entity.Price;
+import model.entity.Route;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FareTableTest {
+    private static final double DELTA = 1e-9;
+    private static final LocalDateTime NIGHT = LocalDateTime.of(2017, 7, 1, 2, 30);
+    private static final LocalDateTime DAY = LocalDateTime.of(2017, 7, 1, 12, 0);
+
+    private final Price price = price("price", 2.0, 3.0, 1.0);
+    private final Map<String, Price> prices = Collections.singletonMap("price", price);
+
+    @Test
+    public void shouldMultiplyFactorByDistance() {
+        FareTable table = FareTable.build(Arrays.asList(route("day", DAY, 100.0), route("lost", DAY, 50.0, "none")),
+                prices, Collections.emptyList());
+
+        assertEquals(1, table.size());
+        assertEquals(-1, table.rowOf("lost"));
+        assertTrue(table.isUnpriced("lost"));
+        assertFalse(table.isUnpriced("day"));
+        assertFalse(table.isUnpriced("created later"));
+        int row = table.rowOf("day");
+        assertEquals(200.0, table.fare(row, TypePlace.C, DAY), DELTA);
+        assertEquals(300.0, table.fare(row, TypePlace.L, DAY), DELTA);
+        assertEquals(100.0, table.fare(row, TypePlace.B, DAY), DELTA);
+        assertEquals(30.0, table.fare(row, TypePlace.L, 10.0, DAY), DELTA);
+    }
+
+    @Test
+    public void shouldApplyTimeOfDayRuleAcrossMidnight() {
+        FareTable table = FareTable.build(Arrays.asList(route("day", DAY, 100.0), route("night", NIGHT, 100.0)),
+                prices, Collections.singletonList(new TimeOfDayRule(22, 5, 0.5)));
+
+        assertEquals(200.0, table.fare(table.rowOf("day"), TypePlace.C, DAY.minusDays(1)), DELTA);
+        assertEquals(100.0, table.fare(table.rowOf("night"), TypePlace.C, DAY.minusDays(1)), DELTA);
+    }
+
+    @Test
+    public void shouldApplyAdvancePurchaseUntilDeadline() {
+        FareTable table = FareTable.build(Collections.singletonList(route("night", NIGHT, 100.0)), prices,
+                Arrays.asList(new AdvancePurchaseRule(30, 0.8), new TimeOfDayRule(0, 5, 0.5)));
+        int row = table.rowOf("night");
+
+        assertEquals(80.0, table.fare(row, TypePlace.C, NIGHT.minusDays(30)), DELTA);
+        assertEquals(100.0, table.fare(row, TypePlace.C, NIGHT.minusDays(29)), DELTA);
+    }
+
+    private static Route route(String id, LocalDateTime fromTime, Double distance) {
+        return route(id, fromTime, distance, "price");
+    }
+
+    private static Route route(String id, LocalDateTime fromTime, Double distance, String priceId) {
+        return new Route(id, priceId, "from", "to", fromTime, fromTime.plusHours(5), distance);
+    }
+
+    private static Price price(String id, Double compartment, Double deluxe, Double berth) {
+        Price result = new Price(compartment, deluxe, berth);
+        result.setId(id);
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package service.hold;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HashedTimingWheelTest {
+    private final BlockingQueue<List<String>> expired = new LinkedBlockingQueue<>();
+    private final HashedTimingWheel<String> wheel =
+            new HashedTimingWheel<>("test-wheel", 10, TimeUnit.MILLISECONDS, 8, expired::add);
+
+    @After
+    public void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    public void shouldExpireAllButCancelledTimeouts() throws Exception {
+        long start = System.nanoTime();
+        wheel.schedule("a", 50, TimeUnit.MILLISECONDS);
+        wheel.schedule("b", 50, TimeUnit.MILLISECONDS);
+        wheel.schedule("c", 50, TimeUnit.MILLISECONDS).cancel();
+
+        List<String> all = new ArrayList<>(expired.poll(5, TimeUnit.SECONDS));
+        assertTrue("expired early", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        // both usually share a tick, a tick boundary between the two calls splits them
+        if (all.size() < 2)
+            all.addAll(expired.poll(5, TimeUnit.SECONDS));
+        Collections.sort(all);
+        assertEquals(Arrays.asList("a", "b"), all);
+        assertNull(expired.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldWaitFullRoundsForLongTimeouts() throws Exception {
+        long start = System.nanoTime();
+        wheel.schedule("late", 250, TimeUnit.MILLISECONDS);
+        wheel.schedule("early", 20, TimeUnit.MILLISECONDS);
+
+        assertEquals(Collections.singletonList("early"), expired.poll(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("late"), expired.poll(5, TimeUnit.SECONDS));
+        assertTrue("expired before its rounds", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+}
@@ -0,0 +1,61 @@
+package service.importer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonArrayReaderTest {
+    @Test
+    public void shouldReadShellSyntaxOneDocumentAtATime() throws IOException {
+        JsonArrayReader reader = new JsonArrayReader(new StringReader("[\n"
+                + "  {\"_id\": ObjectId(\"5bfaa4a9d52d4832fb9b234e\"), \"name\": \"Ky\\\"iv \\u0406\",\n"
+                + "   \"number\": NumberInt(2), \"distance\": -1.5e2, \"admin\": true, \"arrival\": null},\n"
+                + "  {\"tags\": [1, {\"a\": false}], empty: {}}\n"
+                + "]"));
+
+        Map<String, Object> first = reader.next();
+        assertEquals("5bfaa4a9d52d4832fb9b234e", first.get("_id"));
+        assertEquals("Ky\"iv \u0406", first.get("name"));
+        assertEquals(2L, first.get("number"));
+        assertEquals(-150.0, first.get("distance"));
+        assertEquals(Boolean.TRUE, first.get("admin"));
+        assertTrue(first.containsKey("arrival"));
+        assertNull(first.get("arrival"));
+
+        Map<String, Object> second = reader.next();
+        assertEquals(Arrays.asList(1L, Collections.singletonMap("a", false)), second.get("tags"));
+        assertTrue(((Map<?, ?>) second.get("empty")).isEmpty());
+        assertNull(reader.next());
+        assertNull(reader.next());
+
+        assertNull(new JsonArrayReader(new StringReader(" [ ] ")).next());
+    }
+
+    @Test
+    public void shouldReportLineOfMalformedInput() throws IOException {
+        JsonArrayReader reader = new JsonArrayReader(new StringReader("[\n{\"name\": \"Kyiv\"}\n{\"name\": \"Lviv\"}]"));
+        assertEquals("Kyiv", reader.next().get("name"));
+        try {
+            reader.next();
+            fail();
+        } catch (IOException e) {
+            assertEquals("line 3: expected ',' or ']', found '{'", e.getMessage());
+        }
+
+        try {
+            new JsonArrayReader(new StringReader("{}")).next();
+            fail();
+        } catch (IOException e) {
+            assertEquals("line 1: expected '[', found '{'", e.getMessage());
+        }
+    }
+}
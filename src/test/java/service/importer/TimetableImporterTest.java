@@ -0,0 +1,99 @@
+package service.importer;
+
+import dao.DAOFactory;
+import dao.memory.MemoryDataBase;
+import dao.memory.MemoryFactory;
+import model.entity.Station;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimetableImporterTest {
+    private DAOFactory factory;
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        factory = new MemoryFactory(new MemoryDataBase());
+        dir = Files.createTempDirectory("timetable");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldImportShippedFilesInBatches() throws IOException, URISyntaxException {
+        Path json = Paths.get(getClass().getClassLoader().getResource("json").toURI());
+        ImportResult result = new TimetableImporter(factory, 2, 3).importFrom(json);
+
+        assertTrue(result.isComplete());
+        assertEquals(factory.createPriceDAO().findAll().size(), result.getCollections().get(0).getImported());
+        assertEquals(4, factory.createStationDAO().findAll().size());
+        assertEquals(factory.createRouteDAO().findAll().size(), result.getCollections().get(2).getImported());
+        assertEquals(factory.createRouteStopDAO().findAll().size(), result.getCollections().get(3).getImported());
+        assertEquals(factory.createTrainDAO().findAll().size(), result.getCollections().get(4).getImported());
+        assertTrue(result.getCollections().get(4).getImported() > 0);
+
+        ImportResult again = new TimetableImporter(factory, 2, 3).importFrom(json);
+        assertEquals(0, again.getImported());
+        assertEquals(result.getImported(), again.getCollections().stream().mapToLong(ImportCount::getRejected).sum());
+    }
+
+    @Test
+    public void shouldRejectDocumentsWithBrokenReferences() throws IOException {
+        factory.createStationDAO().create(new Station("existing", "Lviv"));
+        write("stations.json", "[{\"_id\": \"kyiv\", \"name\": \"Kyiv\"}, {\"_id\": \"kyiv\", \"name\": \"Again\"},"
+                + " {\"_id\": \"nameless\"}]");
+        write("prices.json", "[{\"_id\": \"price\", \"compartment_factor\": 1, \"deluxe_factor\": 1.5,"
+                + " \"berth_factor\": 0.5}]");
+        write("routes.json", "["
+                + route("route", "existing", "kyiv", "2030-01-01 08:00:00", "2030-01-01 18:00:00") + ","
+                + route("unknown", "nameless", "kyiv", "2030-01-01 08:00:00", "2030-01-01 18:00:00") + ","
+                + route("backwards", "existing", "kyiv", "2030-01-01 18:00:00", "2030-01-01 08:00:00") + ","
+                + route("malformed", "existing", "kyiv", "01.01.2030", "2030-01-01 18:00:00") + "]");
+        write("trains.json", "[{\"_id\": \"train\", \"route_id\": \"route\", \"compartment_free\": 10,"
+                + " \"deluxe_free\": 10, \"berth_free\": 10},"
+                + " {\"_id\": \"orphan\", \"route_id\": \"unknown\", \"compartment_free\": 10,"
+                + " \"deluxe_free\": 10, \"berth_free\": 10}]");
+
+        ImportResult result = new TimetableImporter(factory, 500, 2).importFrom(dir);
+
+        assertFalse(result.isComplete());
+        List<ImportCount> counts = result.getCollections();
+        assertEquals("prices: read 1, imported 1, rejected 0, failed 0", counts.get(0).toString());
+        assertEquals("stations: read 3, imported 1, rejected 2, failed 0", counts.get(1).toString());
+        assertEquals("routes: read 4, imported 1, rejected 3, failed 0", counts.get(2).toString());
+        assertTrue(counts.get(3).isSkipped());
+        assertEquals("trains: read 2, imported 1, rejected 1, failed 0", counts.get(4).toString());
+        assertEquals("existing", factory.createRouteDAO().findById("route").getFromId());
+        assertEquals(10L, (long) factory.createTrainDAO().findById("train").getBerthFree());
+    }
+
+    private void write(String file, String json) throws IOException {
+        Files.write(dir.resolve(file), json.getBytes(UTF_8));
+    }
+
+    private static String route(String id, String fromId, String toId, String fromTime, String toTime) {
+        return "{\"_id\": \"" + id + "\", \"price_id\": \"price\", \"from_id\": \"" + fromId + "\", \"to_id\": \""
+                + toId + "\", \"from_time\": \"" + fromTime + "\", \"to_time\": \"" + toTime
+                + "\", \"distance\": 300.0}";
+    }
+}
@@ -0,0 +1,79 @@
+package service.inventory;
+
+import dao.mysql.TypePlace;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class InventoryLogTest {
+    private static final String TRAIN_ID = "t";
+
+    /**
+     * Length, 21 bytes of payload for a one letter TRAIN id and the checksum
+     */
+    private static final int RECORD_BYTES = 4 + 21 + 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReplayAcrossSegmentsFromGivenSequence() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        InventoryLog log = new InventoryLog(dir, RECORD_BYTES * 3);
+        log.replay(0, event -> {
+        });
+        for (int i = 0; i < 10; i++) {
+            log.append(InventoryEvent.Kind.RESERVED, TRAIN_ID, TypePlace.C, i);
+        }
+        assertEquals(4, log.getSegmentCount());
+
+        List<InventoryEvent> events = new ArrayList<>();
+        InventoryLog reopened = new InventoryLog(dir, RECORD_BYTES * 3);
+        assertEquals(10, reopened.replay(4, events::add));
+        assertEquals(6, events.size());
+        assertEquals(5, events.get(0).getSeq());
+        assertEquals(TypePlace.C, events.get(0).getType());
+        assertEquals(4, events.get(0).getCount());
+
+        reopened.truncate(7);
+        assertEquals(2, reopened.getSegmentCount());
+        assertEquals(11, reopened.append(InventoryEvent.Kind.CANCELLED, TRAIN_ID, TypePlace.C, 1).getSeq());
+    }
+
+    @Test
+    public void shouldStopAtTornRecordAndOverwriteIt() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        InventoryLog log = new InventoryLog(dir, 4096);
+        log.replay(0, event -> {
+        });
+        for (int i = 0; i < 3; i++) {
+            log.append(InventoryEvent.Kind.HELD, TRAIN_ID, TypePlace.B, 1);
+        }
+        log.force();
+
+        File[] segments = folder.getRoot().listFiles((file, name) -> name.endsWith(".log"));
+        try (RandomAccessFile file = new RandomAccessFile(segments[0], "rw")) {
+            file.seek(2 * RECORD_BYTES + 10);
+            file.write(0x7f);
+        }
+
+        List<InventoryEvent> events = new ArrayList<>();
+        InventoryLog reopened = new InventoryLog(dir, 4096);
+        assertEquals(2, reopened.replay(0, events::add));
+        assertEquals(2, events.size());
+
+        assertEquals(3, reopened.append(InventoryEvent.Kind.RELEASED, TRAIN_ID, TypePlace.B, 1).getSeq());
+        events.clear();
+        new InventoryLog(dir, 4096).replay(0, events::add);
+        assertEquals(3, events.size());
+        assertEquals(InventoryEvent.Kind.RELEASED, events.get(2).getKind());
+    }
+}
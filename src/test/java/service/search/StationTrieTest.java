@@ -0,0 +1,51 @@
+package service.search;
+
+import model.entity.Station;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StationTrieTest {
+    private final Station kyiv = new Station("1", "\u041a\u0438\u0457\u0432-\u041f\u0430\u0441\u0430\u0436\u0438\u0440\u0441\u044c\u043a\u0438\u0439");
+    private final Station kovel = new Station("2", "\u041a\u043e\u0432\u0435\u043b\u044c");
+    private final Station zurich = new Station("3", "Z\u00fcrich HB");
+    private final Station zug = new Station("4", "Zug");
+    private final List<Station> stations = Arrays.asList(kyiv, kovel, zurich, zug);
+
+    @Test
+    public void shouldFoldCaseAndDiacriticsOfEveryWord() {
+        StationTrie trie = new StationTrie(stations, new HashMap<>(), 10);
+
+        assertEquals(Arrays.asList(zurich), trie.find("ZUR", 10));
+        assertEquals(Arrays.asList(zurich), trie.find("hb", 10));
+        assertEquals(Arrays.asList(kyiv), trie.find("\u043a\u0438\u0456", 10));
+        assertEquals(Arrays.asList(kyiv), trie.find("\u043f\u0430\u0441", 10));
+        assertTrue(trie.find("x", 10).isEmpty());
+        assertTrue(trie.find(" ", 10).isEmpty());
+        assertNull(trie.findById("5"));
+    }
+
+    @Test
+    public void shouldRankByDeparturesAndKeepTopOfEachPrefix() {
+        Map<String, Integer> departures = new HashMap<>();
+        departures.put(kovel.getId(), 3);
+        departures.put(kyiv.getId(), 7);
+
+        StationTrie trie = new StationTrie(stations, departures, 1);
+        assertEquals(Arrays.asList(kyiv), trie.find("\u043a", 10));
+        assertEquals(Arrays.asList(kovel), trie.find("\u043a\u043e", 10));
+        assertEquals(Arrays.asList(zug), trie.find("z", 10));
+
+        StationTrie wide = new StationTrie(stations, departures, 10);
+        assertEquals(Arrays.asList(kyiv, kovel), wide.find("\u043a", 10));
+        assertEquals(Arrays.asList(kyiv), wide.find("\u043a", 1));
+        assertEquals(Arrays.asList(zug, zurich), wide.find("z", 10));
+    }
+}
@@ -0,0 +1,125 @@
+package service.seat;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SeatMapTest {
+
+    @Test
+    public void shouldClaimLowestFreeSeatUntilFull() {
+        SeatMap map = new SeatMap(70);
+        for (int seat = 0; seat < 70; seat++) {
+            assertEquals(seat, map.claimFirst());
+        }
+        assertEquals(-1, map.claimFirst());
+        assertEquals(0, map.freeCount());
+
+        assertTrue(map.release(66));
+        assertFalse(map.release(66));
+        assertEquals(66, map.claimFirst());
+    }
+
+    @Test
+    public void shouldFindBlockAcrossWordBoundary() {
+        SeatMap map = new SeatMap(130);
+        for (int seat = 0; seat < 58; seat++) {
+            assertTrue(map.claim(seat));
+        }
+        assertTrue(map.claim(59));
+
+        assertEquals(60, map.claimBlock(10));
+        assertTrue(map.isFree(58));
+        assertFalse(map.isFree(64));
+        assertTrue(map.isFree(70));
+        assertEquals(61, map.freeCount());
+
+        assertEquals(-1, map.claimBlock(61));
+        assertEquals(70, map.claimBlock(60));
+        assertEquals(58, map.claimFirst());
+        assertEquals(0, map.freeCount());
+    }
+
+    @Test
+    public void shouldNotClaimBlockPastLastSeat() {
+        SeatMap map = new SeatMap(10);
+        assertTrue(map.claim(4));
+        assertEquals(-1, map.claimBlock(6));
+        assertEquals(5, map.claimBlock(5));
+        assertEquals(0, map.claimBlock(4));
+        assertEquals(0, map.freeCount());
+    }
+
+    @Test
+    public void shouldRoundTripPackedBytes() {
+        SeatMap map = new SeatMap(54);
+        map.claim(0);
+        map.claim(9);
+        map.claim(53);
+
+        byte[] packed = map.toBytes();
+        assertEquals(7, packed.length);
+
+        SeatMap copy = SeatMap.fromBytes(54, packed);
+        assertArrayEquals(packed, copy.toBytes());
+        assertFalse(copy.isFree(9));
+        assertTrue(copy.isFree(10));
+        assertEquals(51, copy.freeCount());
+    }
+
+    @Test
+    public void shouldGiveEverySeatToOneThreadOnly() throws Exception {
+        int seats = 500;
+        int threads = 8;
+        SeatMap map = new SeatMap(seats);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int block = 1 + i % 3;
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Integer> mine = new ArrayList<>();
+                while (true) {
+                    int first = map.claimBlock(block);
+                    if (first >= 0) {
+                        for (int seat = first; seat < first + block; seat++) {
+                            mine.add(seat);
+                        }
+                        continue;
+                    }
+
+                    int seat = map.claimFirst();
+                    if (seat < 0)
+                        return mine;
+                    mine.add(seat);
+                }
+            }));
+        }
+
+        start.countDown();
+        Set<Integer> taken = new HashSet<>();
+        for (Future<List<Integer>> future : futures) {
+            for (Integer seat : future.get(1, TimeUnit.MINUTES)) {
+                assertTrue("seat " + seat + " claimed twice", taken.add(seat));
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(seats, taken.size());
+        assertEquals(0, map.freeCount());
+    }
+}
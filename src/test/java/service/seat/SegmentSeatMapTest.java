@@ -0,0 +1,124 @@
+package service.seat;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentSeatMapTest {
+
+    @Test
+    public void shouldResellSeatAfterPassengerLeaves() {
+        SegmentSeatMap map = new SegmentSeatMap(1, 3);
+        long firstLeg = SegmentSeatMap.journey(0, 1);
+        long rest = SegmentSeatMap.journey(1, 3);
+
+        assertEquals(0, map.claimFirst(firstLeg));
+        assertFalse(map.isFree(0, SegmentSeatMap.all(3)));
+        assertTrue(map.isFree(0, rest));
+
+        assertEquals(0, map.claimFirst(rest));
+        assertEquals(-1, map.claimFirst(SegmentSeatMap.journey(2, 3)));
+        assertEquals(0, map.freeCount(SegmentSeatMap.journey(0, 2)));
+
+        assertTrue(map.release(0, firstLeg));
+        assertFalse(map.release(0, firstLeg));
+        assertEquals(1, map.freeCount(firstLeg));
+        assertFalse(map.release(0, SegmentSeatMap.all(3)));
+    }
+
+    @Test
+    public void shouldBuildJourneyMasks() {
+        assertEquals(0b111L, SegmentSeatMap.all(3));
+        assertEquals(-1L, SegmentSeatMap.all(SegmentSeatMap.MAX_SEGMENTS));
+        assertEquals(0b0110L, SegmentSeatMap.journey(1, 3));
+        assertEquals(1L << 63, SegmentSeatMap.journey(63, 64));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectJourneyPastLastStop() {
+        new SegmentSeatMap(4, 2).claimFirst(SegmentSeatMap.journey(1, 3));
+    }
+
+    @Test
+    public void shouldClaimBlockFreeOnWholeJourney() {
+        SegmentSeatMap map = new SegmentSeatMap(6, 4);
+        assertTrue(map.claim(2, SegmentSeatMap.journey(2, 3)));
+
+        assertEquals(0, map.claimBlock(3, SegmentSeatMap.journey(0, 2)));
+        assertEquals(3, map.claimBlock(3, SegmentSeatMap.journey(1, 4)));
+        assertEquals(-1, map.claimBlock(2, SegmentSeatMap.journey(1, 2)));
+        assertEquals(0, map.freeCount(SegmentSeatMap.journey(1, 2)));
+        assertEquals(3, map.freeCount(SegmentSeatMap.journey(3, 4)));
+    }
+
+    @Test
+    public void shouldRoundTripPackedBytes() {
+        SegmentSeatMap map = new SegmentSeatMap(5, 10);
+        map.claim(0, SegmentSeatMap.journey(0, 10));
+        map.claim(3, SegmentSeatMap.journey(8, 9));
+
+        byte[] packed = map.toBytes();
+        assertEquals(10, packed.length);
+
+        SegmentSeatMap copy = SegmentSeatMap.fromBytes(5, 10, packed);
+        assertArrayEquals(packed, copy.toBytes());
+        assertFalse(copy.isFree(3, SegmentSeatMap.journey(7, 10)));
+        assertTrue(copy.isFree(3, SegmentSeatMap.journey(0, 8)));
+        assertEquals(3, copy.freeCount(SegmentSeatMap.all(10)));
+    }
+
+    @Test
+    public void shouldGiveEverySegmentOfSeatToOneThreadOnly() throws Exception {
+        int seats = 50;
+        int segments = 4;
+        int threads = 8;
+        SegmentSeatMap map = new SegmentSeatMap(seats, segments);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int from = i % segments;
+            int to = Math.min(segments, from + 1 + i % 2);
+            futures.add(executor.submit(() -> {
+                start.await();
+                long journey = SegmentSeatMap.journey(from, to);
+                List<String> mine = new ArrayList<>();
+                while (true) {
+                    int seat = map.claimFirst(journey);
+                    if (seat < 0)
+                        return mine;
+                    for (int segment = from; segment < to; segment++) {
+                        mine.add(seat + "/" + segment);
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        Set<String> taken = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            for (String segment : future.get(1, TimeUnit.MINUTES)) {
+                assertTrue("segment " + segment + " claimed twice", taken.add(segment));
+            }
+        }
+        executor.shutdown();
+
+        for (int i = 0; i < threads; i++) {
+            int from = i % segments;
+            assertEquals(0, map.freeCount(SegmentSeatMap.journey(from, Math.min(segments, from + 1 + i % 2))));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package util;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DateTimesTest {
+
+    @Test
+    public void shouldKeepAfternoonHoursOnRoundTrip() {
+        LocalDateTime time = DateTimes.parse("2017-07-01 12:45:00");
+
+        assertEquals(LocalDateTime.of(2017, 7, 1, 12, 45), time);
+        assertEquals("2017-07-01 12:45:00", DateTimes.format(time));
+        assertEquals("01.07.2017\n12:45", DateTimes.display(time));
+    }
+
+    @Test
+    public void shouldPassNullThrough() {
+        assertNull(DateTimes.parse(null));
+        assertNull(DateTimes.format(null));
+        assertEquals("", DateTimes.display(null));
+    }
+}
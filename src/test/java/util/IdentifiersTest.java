@@ -0,0 +1,34 @@
+package util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IdentifiersTest {
+
+    @Test
+    public void shouldRoundTripThroughSixteenBytes() {
+        String id = Identifiers.next();
+        byte[] bytes = Identifiers.toBytes(id);
+
+        assertEquals(Identifiers.LENGTH, bytes.length);
+        assertEquals(id, Identifiers.fromBytes(bytes));
+    }
+
+    @Test
+    public void shouldOrderNewIdsByCreationTime() throws Exception {
+        String first = Identifiers.next();
+        Thread.sleep(2);
+        String second = Identifiers.next();
+
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    public void shouldMapLegacyIdsLikeMigration() {
+        assertArrayEquals(DigestUtils.md5("1"), Identifiers.toBytes("1"));
+    }
+}